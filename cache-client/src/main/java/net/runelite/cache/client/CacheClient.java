@@ -25,6 +25,7 @@
 package net.runelite.cache.client;
 
 import com.google.common.base.Stopwatch;
+import com.google.common.hash.Hashing;
 import io.netty.bootstrap.Bootstrap;
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.Unpooled;
@@ -38,11 +39,18 @@ import io.netty.channel.nio.NioEventLoopGroup;
 import io.netty.channel.socket.SocketChannel;
 import io.netty.channel.socket.nio.NioSocketChannel;
 import java.io.IOException;
-import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Queue;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import net.runelite.cache.fs.Archive;
 import net.runelite.cache.fs.Index;
 import net.runelite.cache.fs.Storage;
@@ -69,18 +77,33 @@ public class CacheClient implements AutoCloseable
 
 	private static final int MAX_REQUESTS = 19; // too many and the server closes the conncetion
 
+	private static final long PROGRESS_INTERVAL = TimeUnit.SECONDS.toNanos(1);
+
 	private final Store store; // store cache will be written to
 	private final String host;
+	private final int port;
 	private final int clientRevision;
 	private DownloadWatcher watcher;
+	private DownloadManifest manifest;
 
-	private ClientState state;
+	private volatile ClientState state;
 
 	private final EventLoopGroup group = new NioEventLoopGroup(1);
 	private Channel channel;
 
 	private CompletableFuture<HandshakeResponseType> handshakeFuture;
-	private final Queue<PendingFileRequest> requests = new ArrayDeque<>();
+
+	// in flight requests, keyed by index << 16 | archive
+	private final Map<Integer, PendingFileRequest> requests = new ConcurrentHashMap<>();
+	private Semaphore window = new Semaphore(MAX_REQUESTS);
+	private int workerThreads = 1;
+
+	private final AtomicInteger archivesRequested = new AtomicInteger();
+	private final AtomicInteger archivesCompleted = new AtomicInteger();
+	private final AtomicLong bytesCompleted = new AtomicLong();
+	private final AtomicLong lastProgress = new AtomicLong();
+	private final Set<Integer> incompleteIndexes = ConcurrentHashMap.newKeySet();
+	private long downloadStart;
 
 	public CacheClient(Store store, int clientRevision)
 	{
@@ -88,9 +111,15 @@ public class CacheClient implements AutoCloseable
 	}
 
 	public CacheClient(Store store, String host, int clientRevision)
+	{
+		this(store, host, PORT, clientRevision);
+	}
+
+	public CacheClient(Store store, String host, int port, int clientRevision)
 	{
 		this.store = store;
 		this.host = host;
+		this.port = port;
 		this.clientRevision = clientRevision;
 	}
 
@@ -100,6 +129,45 @@ public class CacheClient implements AutoCloseable
 		this.watcher = watcher;
 	}
 
+	public void setWatcher(DownloadWatcher watcher)
+	{
+		this.watcher = watcher;
+	}
+
+	/**
+	 * Set the manifest used to skip archives and indexes which have already
+	 * been downloaded. Completed archives are recorded in the manifest as
+	 * they are saved; completed indexes are only recorded once
+	 * {@link DownloadManifest#commit()} is called after saving the store.
+	 *
+	 * @param manifest
+	 */
+	public void setManifest(DownloadManifest manifest)
+	{
+		this.manifest = manifest;
+	}
+
+	/**
+	 * Set the maximum number of requests in flight on the connection at once.
+	 * This must be set before any files are requested.
+	 *
+	 * @param maxRequests
+	 */
+	public void setMaxRequests(int maxRequests)
+	{
+		this.window = new Semaphore(maxRequests);
+	}
+
+	/**
+	 * Set the number of threads used to verify and save downloaded archives
+	 *
+	 * @param workerThreads
+	 */
+	public void setWorkerThreads(int workerThreads)
+	{
+		this.workerThreads = workerThreads;
+	}
+
 	public void connect()
 	{
 		Bootstrap b = new Bootstrap();
@@ -131,7 +199,7 @@ public class CacheClient implements AutoCloseable
 			});
 
 		// Start the client.
-		ChannelFuture f = b.connect(host, PORT).syncUninterruptibly();
+		ChannelFuture f = b.connect(host, port).syncUninterruptibly();
 		channel = f.channel();
 	}
 
@@ -204,199 +272,290 @@ public class CacheClient implements AutoCloseable
 	{
 		Stopwatch stopwatch = Stopwatch.createStarted();
 
+		archivesRequested.set(0);
+		archivesCompleted.set(0);
+		bytesCompleted.set(0L);
+		downloadStart = System.nanoTime();
+		lastProgress.set(downloadStart);
+		incompleteIndexes.clear();
+
 		List<IndexInfo> indexes = requestIndexes();
+
+		// request all of the index tables up front, except for those which
+		// have been completely downloaded since they last changed
+		List<CompletableFuture<FileResult>> indexFutures = new ArrayList<>(indexes.size());
 		for (IndexInfo indexInfo : indexes)
 		{
-			int i = indexInfo.getId();
-			int crc = indexInfo.getCrc();
-			int revision = indexInfo.getRevision();
+			indexFutures.add(isIndexCurrent(indexInfo) ? null : requestFile(255, indexInfo.getId(), false));
+		}
+		channel.flush();
 
-			Index index = store.findIndex(i);
+		ExecutorService workers = Executors.newFixedThreadPool(workerThreads);
+		List<CompletableFuture<Void>> archiveFutures = new ArrayList<>();
 
-			if (index == null)
-			{
-				logger.info("Index {} does not exist, creating", i);
-			}
-			else if (index.getRevision() != revision)
+		try
+		{
+			for (int idx = 0; idx < indexes.size(); ++idx)
 			{
-				if (revision < index.getRevision())
+				IndexInfo indexInfo = indexes.get(idx);
+				int i = indexInfo.getId();
+				int crc = indexInfo.getCrc();
+				int revision = indexInfo.getRevision();
+
+				Index index = store.findIndex(i);
+
+				if (index == null)
+				{
+					logger.info("Index {} does not exist, creating", i);
+				}
+				else if (index.getRevision() != revision)
 				{
-					logger.warn("Index {} revision is going BACKWARDS! (our revision {}, their revision {})", index.getId(), index.getRevision(), revision);
+					if (revision < index.getRevision())
+					{
+						logger.warn("Index {} revision is going BACKWARDS! (our revision {}, their revision {})", index.getId(), index.getRevision(), revision);
+					}
+					else
+					{
+						logger.info("Index {} has the wrong revision (our revision {}, their revision {})", index.getId(), index.getRevision(), revision);
+					}
+				}
+				else if (index.getCrc() != crc)
+				{
+					logger.warn("Index {} CRC has changed! (our crc {}, their crc {})",
+						index.getCrc(), index.getCrc(), crc);
 				}
 				else
 				{
-					logger.info("Index {} has the wrong revision (our revision {}, their revision {})", index.getId(), index.getRevision(), revision);
+					// despite the index being up to date, not everything
+					// can be downloaded, eg. for tracks.
+					logger.info("Index {} is up to date", index.getId());
 				}
-			}
-			else if (index.getCrc() != crc)
-			{
-				logger.warn("Index {} CRC has changed! (our crc {}, their crc {})",
-					index.getCrc(), index.getCrc(), crc);
-			}
-			else
-			{
-				// despite the index being up to date, not everything
-				// can be downloaded, eg. for tracks.
-				logger.info("Index {} is up to date", index.getId());
-			}
-
-			logger.info("Downloading index {}", i);
-
-			FileResult indexFileResult = requestFile(255, i, true).join();
-			indexFileResult.decompress(null);
-
-			logger.info("Downloaded index {}", i);
-
-			if (indexFileResult.getCrc() != crc)
-			{
-				logger.warn("Corrupted download for index {}", i);
-				continue;
-			}
-
-			IndexData indexData = new IndexData();
-			indexData.load(indexFileResult.getContents());
-
-			if (index == null)
-			{
-				index = store.addIndex(i);
-			}
 
-			// update index settings
-			index.setProtocol(indexData.getProtocol());
-			index.setNamed(indexData.isNamed());
-			index.setCrc(crc);
-			index.setRevision(revision);
+				if (indexFutures.get(idx) == null)
+				{
+					logger.info("Index {} is unchanged since it was last downloaded, skipping", i);
+					continue;
+				}
 
-			logger.info("Index {} has {} archives", i, indexData.getArchives().length);
+				FileResult indexFileResult = indexFutures.get(idx).join();
+				indexFileResult.decompress(null);
 
-			for (ArchiveData ad : indexData.getArchives())
-			{
-				Archive existing = index.getArchive(ad.getId());
+				logger.info("Downloaded index {}", i);
 
-				if (existing != null && existing.getRevision() == ad.getRevision()
-					&& existing.getCrc() == ad.getCrc()
-					&& existing.getNameHash() == ad.getNameHash())
+				if (indexFileResult.getCrc() != crc)
 				{
-					logger.debug("Archive {}/{} in index {} is up to date",
-						ad.getId(), indexData.getArchives().length, index.getId());
+					logger.warn("Corrupted download for index {}", i);
+					incompleteIndexes.add(i);
 					continue;
 				}
 
-				if (existing == null)
-				{
-					logger.info("Archive {}/{} in index {} is out of date, downloading",
-						ad.getId(), indexData.getArchives().length, index.getId());
-				}
-				else if (ad.getRevision() < existing.getRevision())
-				{
-					logger.warn("Archive {}/{} in index {} revision is going BACKWARDS! (our revision {}, their revision {})",
-						ad.getId(), indexData.getArchives().length, index.getId(),
-						existing.getRevision(), ad.getRevision());
-				}
-				else
+				IndexData indexData = new IndexData();
+				indexData.load(indexFileResult.getContents());
+
+				if (index == null)
 				{
-					logger.info("Archive {}/{} in index {} is out of date, downloading. " +
-						"revision: ours: {} theirs: {}, crc: ours: {} theirs {}, name: ours {} theirs {}",
-						ad.getId(), indexData.getArchives().length, index.getId(),
-						existing.getRevision(), ad.getRevision(),
-						existing.getCrc(), ad.getCrc(),
-						existing.getNameHash(), ad.getNameHash());
+					index = store.addIndex(i);
 				}
 
-				final Archive archive = existing == null
-					? index.addArchive(ad.getId())
-					: existing;
-
-				archive.setRevision(ad.getRevision());
-				archive.setCrc(ad.getCrc());
-				archive.setNameHash(ad.getNameHash());
+				// update index settings
+				index.setProtocol(indexData.getProtocol());
+				index.setNamed(indexData.isNamed());
+				index.setCrc(crc);
+				index.setRevision(revision);
 
-				// Add files
-				archive.setFileData(ad.getFiles());
+				logger.info("Index {} has {} archives", i, indexData.getArchives().length);
 
-				CompletableFuture<FileResult> future = requestFile(index.getId(), ad.getId(), false);
-				future.handle((fr, ex) ->
+				for (ArchiveData ad : indexData.getArchives())
 				{
-					byte[] data = fr.getCompressedData();
+					Archive existing = index.getArchive(ad.getId());
 
-					Crc32 crc32 = new Crc32();
-					crc32.update(data, 0, data.length);
-					int hash = crc32.getHash();
+					if (existing != null && existing.getRevision() == ad.getRevision()
+						&& existing.getCrc() == ad.getCrc()
+						&& existing.getNameHash() == ad.getNameHash())
+					{
+						logger.debug("Archive {}/{} in index {} is up to date",
+							ad.getId(), indexData.getArchives().length, index.getId());
+						continue;
+					}
 
-					if (hash != archive.getCrc())
+					if (manifest != null && manifest.isArchiveCurrent(index.getId(), ad.getId(), ad.getCrc(), ad.getRevision()))
 					{
-						logger.warn("crc mismatch on downloaded archive {}/{}: {} != {}",
-							archive.getIndex().getId(), archive.getArchiveId(),
-							hash, archive.getCrc());
-						throw new RuntimeException("crc mismatch");
+						// saved by an earlier download whose store was not saved,
+						// so only the archive metadata needs updating
+						logger.debug("Archive {}/{} in index {} was already downloaded",
+							ad.getId(), indexData.getArchives().length, index.getId());
+
+						Archive archive = existing == null ? index.addArchive(ad.getId()) : existing;
+						archive.setRevision(ad.getRevision());
+						archive.setCrc(ad.getCrc());
+						archive.setNameHash(ad.getNameHash());
+						archive.setFileData(ad.getFiles());
+						archive.setHash(manifest.getArchiveHash(index.getId(), ad.getId()));
+						continue;
 					}
 
-					if (watcher != null)
+					if (existing == null)
 					{
-						watcher.downloadComplete(archive, data);
+						logger.info("Archive {}/{} in index {} is out of date, downloading",
+							ad.getId(), indexData.getArchives().length, index.getId());
+					}
+					else if (ad.getRevision() < existing.getRevision())
+					{
+						logger.warn("Archive {}/{} in index {} revision is going BACKWARDS! (our revision {}, their revision {})",
+							ad.getId(), indexData.getArchives().length, index.getId(),
+							existing.getRevision(), ad.getRevision());
 					}
 					else
 					{
-						try
-						{
-							Storage storage = store.getStorage();
-							storage.saveArchive(archive, data);
-						}
-						catch (IOException ex1)
-						{
-							logger.warn("unable to save archive data", ex1);
-						}
+						logger.info("Archive {}/{} in index {} is out of date, downloading. " +
+							"revision: ours: {} theirs: {}, crc: ours: {} theirs {}, name: ours {} theirs {}",
+							ad.getId(), indexData.getArchives().length, index.getId(),
+							existing.getRevision(), ad.getRevision(),
+							existing.getCrc(), ad.getCrc(),
+							existing.getNameHash(), ad.getNameHash());
 					}
-					return null;
-				});
+
+					final Archive archive = existing == null
+						? index.addArchive(ad.getId())
+						: existing;
+
+					archive.setRevision(ad.getRevision());
+					archive.setCrc(ad.getCrc());
+					archive.setNameHash(ad.getNameHash());
+
+					// Add files
+					archive.setFileData(ad.getFiles());
+
+					archivesRequested.incrementAndGet();
+
+					// verify and save off of the event loop
+					CompletableFuture<Void> future = requestFile(index.getId(), ad.getId(), false)
+						.thenAcceptAsync(fr -> archiveDownloaded(archive, fr), workers);
+					archiveFutures.add(future);
+				}
 			}
-		}
 
-		// flush any pending requests
-		channel.flush();
+			// flush any pending requests
+			channel.flush();
 
-		while (!requests.isEmpty())
-		{
 			// wait for pending requests
-			synchronized (this)
+			CompletableFuture.allOf(archiveFutures.toArray(new CompletableFuture[0])).join();
+		}
+		finally
+		{
+			workers.shutdown();
+		}
+
+		if (manifest != null)
+		{
+			for (IndexInfo indexInfo : indexes)
 			{
-				try
-				{
-					wait();
-				}
-				catch (InterruptedException ex)
+				if (store.findIndex(indexInfo.getId()) != null && !incompleteIndexes.contains(indexInfo.getId()))
 				{
-					logger.warn(null, ex);
+					manifest.indexComplete(indexInfo.getId(), indexInfo.getCrc(), indexInfo.getRevision());
 				}
 			}
 		}
 
+		reportProgress();
+
 		stopwatch.stop();
 		logger.info("Download completed in {}", stopwatch);
 	}
 
-	private synchronized CompletableFuture<FileResult> requestFile(int index, int fileId, boolean flush)
+	private void archiveDownloaded(Archive archive, FileResult fr)
 	{
-		if (state != ClientState.CONNECTED)
+		byte[] data = fr.getCompressedData();
+
+		Crc32 crc32 = new Crc32();
+		crc32.update(data, 0, data.length);
+		int hash = crc32.getHash();
+
+		if (hash != archive.getCrc())
 		{
-			throw new IllegalStateException("Can't request files until connected!");
+			logger.warn("crc mismatch on downloaded archive {}/{}: {} != {}",
+				archive.getIndex().getId(), archive.getArchiveId(),
+				hash, archive.getCrc());
+			incompleteIndexes.add(archive.getIndex().getId());
+			return;
 		}
 
-		if (!flush)
+		if (watcher != null)
 		{
-			while (requests.size() >= MAX_REQUESTS)
+			watcher.downloadComplete(archive, data);
+		}
+		else
+		{
+			try
+			{
+				Storage storage = store.getStorage();
+				storage.saveArchive(archive, data);
+			}
+			catch (IOException ex1)
 			{
-				channel.flush();
+				logger.warn("unable to save archive data", ex1);
+				incompleteIndexes.add(archive.getIndex().getId());
+				return;
+			}
+		}
 
-				try
-				{
-					wait();
-				}
-				catch (InterruptedException ex)
-				{
-					logger.warn("interrupted while waiting for requests", ex);
-				}
+		if (manifest != null)
+		{
+			byte[] sha256 = Hashing.sha256().hashBytes(data).asBytes();
+			try
+			{
+				manifest.archiveComplete(archive.getIndex().getId(), archive.getArchiveId(),
+					archive.getCrc(), archive.getRevision(), sha256);
 			}
+			catch (IOException ex)
+			{
+				logger.warn("unable to record archive in manifest", ex);
+			}
+		}
+
+		archivesCompleted.incrementAndGet();
+		bytesCompleted.addAndGet(data.length);
+
+		long now = System.nanoTime();
+		long last = lastProgress.get();
+		if (now - last >= PROGRESS_INTERVAL && lastProgress.compareAndSet(last, now))
+		{
+			reportProgress();
+		}
+	}
+
+	private void reportProgress()
+	{
+		DownloadProgress progress = new DownloadProgress(archivesCompleted.get(), archivesRequested.get(),
+			bytesCompleted.get(), System.nanoTime() - downloadStart);
+
+		logger.debug("Download progress: {}", progress);
+
+		if (watcher != null)
+		{
+			watcher.downloadProgress(progress);
+		}
+	}
+
+	private boolean isIndexCurrent(IndexInfo indexInfo)
+	{
+		return manifest != null
+			&& store.findIndex(indexInfo.getId()) != null
+			&& manifest.isIndexCurrent(indexInfo.getId(), indexInfo.getCrc(), indexInfo.getRevision());
+	}
+
+	private CompletableFuture<FileResult> requestFile(int index, int fileId, boolean flush)
+	{
+		if (state != ClientState.CONNECTED)
+		{
+			throw new IllegalStateException("Can't request files until connected!");
+		}
+
+		if (!window.tryAcquire())
+		{
+			// send what has been queued so far so the window can drain
+			channel.flush();
+			window.acquireUninterruptibly();
 		}
 
 		ArchiveRequestPacket archiveRequest = new ArchiveRequestPacket();
@@ -410,7 +569,7 @@ public class CacheClient implements AutoCloseable
 
 		logger.trace("Sending request for {}/{}", index, fileId);
 
-		requests.add(pf);
+		requests.put(index << 16 | fileId, pf);
 
 		if (!flush)
 		{
@@ -424,21 +583,9 @@ public class CacheClient implements AutoCloseable
 		return future;
 	}
 
-	private PendingFileRequest findRequest(int index, int file)
+	protected void onFileFinish(int index, int file, byte[] compressedData)
 	{
-		for (PendingFileRequest pr : requests)
-		{
-			if (pr.getIndex() == index && pr.getArchive() == file)
-			{
-				return pr;
-			}
-		}
-		return null;
-	}
-
-	protected synchronized void onFileFinish(int index, int file, byte[] compressedData)
-	{
-		PendingFileRequest pr = findRequest(index, file);
+		PendingFileRequest pr = requests.remove(index << 16 | file);
 
 		if (pr == null)
 		{
@@ -446,9 +593,7 @@ public class CacheClient implements AutoCloseable
 			return;
 		}
 
-		requests.remove(pr);
-
-		notify();
+		window.release();
 
 		FileResult result = new FileResult(index, file, compressedData);
 
@@ -0,0 +1,352 @@
+/*
+ * Copyright (c) 2019, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.cache.client;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import net.runelite.cache.fs.Archive;
+import net.runelite.cache.fs.Index;
+import net.runelite.cache.fs.Store;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A record of the index tables and archives which have been downloaded and
+ * verified, so an update can be resumed or only download what has changed.
+ * <p>
+ * Archives are appended to a journal on disk as soon as they are saved.
+ * Indexes are only recorded once {@link #commit()} is called, which must be
+ * done after the store itself has been saved, so that an index is never
+ * skipped while its table on disk is out of date.
+ */
+public class DownloadManifest implements Closeable
+{
+	private static final Logger logger = LoggerFactory.getLogger(DownloadManifest.class);
+
+	public static final String MANIFEST_FILE = "manifest.dat";
+
+	private static final int VERSION = 1;
+	private static final int TYPE_INDEX = 0;
+	private static final int TYPE_ARCHIVE = 1;
+	private static final int HASH_LENGTH = 32; // sha256
+	private static final byte[] NO_HASH = new byte[HASH_LENGTH];
+
+	private final File file;
+	private final Map<Integer, Entry> indexes = new HashMap<>();
+	private final Map<Long, Entry> archives = new HashMap<>();
+	private final List<Entry> pendingIndexes = new ArrayList<>();
+	private DataOutputStream out;
+	private int records;
+
+	private DownloadManifest(File file)
+	{
+		this.file = file;
+	}
+
+	/**
+	 * Load the manifest kept in the given cache directory, creating it if
+	 * it does not exist.
+	 *
+	 * @param directory cache directory
+	 * @return
+	 * @throws IOException
+	 */
+	public static DownloadManifest load(File directory) throws IOException
+	{
+		DownloadManifest manifest = new DownloadManifest(new File(directory, MANIFEST_FILE));
+		manifest.read();
+		return manifest;
+	}
+
+	/**
+	 * Create an in memory manifest describing what is already in the store.
+	 * This is for stores whose indexes are loaded with the crc and revision
+	 * the update server reported for them, so unchanged indexes can be
+	 * skipped without requesting their tables.
+	 *
+	 * @param store
+	 * @return
+	 */
+	public static DownloadManifest of(Store store)
+	{
+		DownloadManifest manifest = new DownloadManifest(null);
+		for (Index index : store.getIndexes())
+		{
+			manifest.indexes.put(index.getId(), new Entry(TYPE_INDEX, index.getId(), -1, index.getCrc(), index.getRevision(), NO_HASH));
+
+			for (Archive archive : index.getArchives())
+			{
+				byte[] hash = archive.getHash() != null ? archive.getHash() : NO_HASH;
+				Entry entry = new Entry(TYPE_ARCHIVE, index.getId(), archive.getArchiveId(), archive.getCrc(), archive.getRevision(), hash);
+				manifest.archives.put(key(index.getId(), archive.getArchiveId()), entry);
+			}
+		}
+		return manifest;
+	}
+
+	public synchronized boolean isIndexCurrent(int index, int crc, int revision)
+	{
+		Entry entry = indexes.get(index);
+		return entry != null && entry.crc == crc && entry.revision == revision;
+	}
+
+	public synchronized boolean isArchiveCurrent(int index, int archive, int crc, int revision)
+	{
+		Entry entry = archives.get(key(index, archive));
+		return entry != null && entry.crc == crc && entry.revision == revision;
+	}
+
+	/**
+	 * Get the sha256 hash of the archive data last recorded for an archive
+	 *
+	 * @param index
+	 * @param archive
+	 * @return the hash, or null if the archive is not in the manifest
+	 */
+	public synchronized byte[] getArchiveHash(int index, int archive)
+	{
+		Entry entry = archives.get(key(index, archive));
+		return entry != null && !Arrays.equals(entry.hash, NO_HASH) ? entry.hash.clone() : null;
+	}
+
+	/**
+	 * Record that an archive has been downloaded, verified and saved
+	 */
+	public synchronized void archiveComplete(int index, int archive, int crc, int revision, byte[] hash) throws IOException
+	{
+		Entry entry = new Entry(TYPE_ARCHIVE, index, archive, crc, revision, hash);
+		archives.put(key(index, archive), entry);
+		write(entry);
+
+		if (out != null)
+		{
+			out.flush();
+		}
+	}
+
+	/**
+	 * Record that every archive in an index has been downloaded. The index is
+	 * not considered current until {@link #commit()} is called.
+	 */
+	public synchronized void indexComplete(int index, int crc, int revision)
+	{
+		pendingIndexes.add(new Entry(TYPE_INDEX, index, -1, crc, revision, NO_HASH));
+	}
+
+	/**
+	 * Record the indexes completed since the last commit. This should be
+	 * called once the store has been saved.
+	 *
+	 * @throws IOException
+	 */
+	public synchronized void commit() throws IOException
+	{
+		for (Entry entry : pendingIndexes)
+		{
+			indexes.put(entry.index, entry);
+			write(entry);
+		}
+		pendingIndexes.clear();
+
+		if (out != null)
+		{
+			out.flush();
+		}
+
+		// the journal only ever grows, so rewrite it once most of it is stale
+		if (file != null && records > 2 * (indexes.size() + archives.size()))
+		{
+			compact();
+		}
+	}
+
+	@Override
+	public synchronized void close() throws IOException
+	{
+		if (out != null)
+		{
+			out.close();
+			out = null;
+		}
+	}
+
+	private void read() throws IOException
+	{
+		if (!file.exists())
+		{
+			return;
+		}
+
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file))))
+		{
+			int version = in.readUnsignedByte();
+			if (version != VERSION)
+			{
+				logger.warn("Discarding manifest with unknown version {}", version);
+			}
+
+			while (version == VERSION)
+			{
+				Entry entry;
+				try
+				{
+					entry = Entry.read(in);
+				}
+				catch (EOFException ex)
+				{
+					// the last record may be partially written if the
+					// previous download was interrupted
+					break;
+				}
+
+				if (entry.type == TYPE_INDEX)
+				{
+					indexes.put(entry.index, entry);
+				}
+				else
+				{
+					archives.put(key(entry.index, entry.archive), entry);
+				}
+				++records;
+			}
+		}
+		catch (EOFException ex)
+		{
+			// empty file
+		}
+
+		logger.debug("Loaded manifest with {} indexes and {} archives from {} records",
+			indexes.size(), archives.size(), records);
+
+		// rewrite the journal, dropping any trailing partial record and
+		// discarding it entirely if it was of an unknown version
+		compact();
+	}
+
+	private void write(Entry entry) throws IOException
+	{
+		if (file == null)
+		{
+			return;
+		}
+
+		if (out == null)
+		{
+			boolean exists = file.exists() && file.length() > 0;
+			out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file, true)));
+			if (!exists)
+			{
+				out.writeByte(VERSION);
+			}
+		}
+
+		entry.write(out);
+		++records;
+	}
+
+	private void compact() throws IOException
+	{
+		close();
+
+		File tmp = new File(file.getParentFile(), file.getName() + ".tmp");
+		try (DataOutputStream tmpOut = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp))))
+		{
+			tmpOut.writeByte(VERSION);
+			for (Entry entry : indexes.values())
+			{
+				entry.write(tmpOut);
+			}
+			for (Entry entry : archives.values())
+			{
+				entry.write(tmpOut);
+			}
+		}
+
+		Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		records = indexes.size() + archives.size();
+	}
+
+	private static long key(int index, int archive)
+	{
+		return (long) index << 32 | (archive & 0xFFFFFFFFL);
+	}
+
+	private static class Entry
+	{
+		private final int type;
+		private final int index;
+		private final int archive;
+		private final int crc;
+		private final int revision;
+		private final byte[] hash;
+
+		Entry(int type, int index, int archive, int crc, int revision, byte[] hash)
+		{
+			this.type = type;
+			this.index = index;
+			this.archive = archive;
+			this.crc = crc;
+			this.revision = revision;
+			this.hash = hash;
+		}
+
+		static Entry read(DataInputStream in) throws IOException
+		{
+			int type = in.readUnsignedByte();
+			int index = in.readUnsignedByte();
+			int archive = in.readInt();
+			int crc = in.readInt();
+			int revision = in.readInt();
+			byte[] hash = new byte[HASH_LENGTH];
+			in.readFully(hash);
+			return new Entry(type, index, archive, crc, revision, hash);
+		}
+
+		void write(DataOutputStream out) throws IOException
+		{
+			out.writeByte(type);
+			out.writeByte(index);
+			out.writeInt(archive);
+			out.writeInt(crc);
+			out.writeInt(revision);
+			out.write(hash, 0, HASH_LENGTH);
+		}
+	}
+}
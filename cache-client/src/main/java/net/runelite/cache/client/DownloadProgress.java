@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2019, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.cache.client;
+
+import java.util.concurrent.TimeUnit;
+
+public class DownloadProgress
+{
+	private final int archivesCompleted;
+	private final int archivesRequested;
+	private final long bytes;
+	private final long elapsedNanos;
+
+	public DownloadProgress(int archivesCompleted, int archivesRequested, long bytes, long elapsedNanos)
+	{
+		this.archivesCompleted = archivesCompleted;
+		this.archivesRequested = archivesRequested;
+		this.bytes = bytes;
+		this.elapsedNanos = elapsedNanos;
+	}
+
+	@Override
+	public String toString()
+	{
+		return "DownloadProgress{" + "archives=" + archivesCompleted + "/" + archivesRequested
+			+ ", bytes=" + bytes
+			+ ", archivesPerSecond=" + String.format("%.1f", getArchivesPerSecond())
+			+ ", bytesPerSecond=" + String.format("%.1f", getBytesPerSecond()) + '}';
+	}
+
+	public int getArchivesCompleted()
+	{
+		return archivesCompleted;
+	}
+
+	public int getArchivesRequested()
+	{
+		return archivesRequested;
+	}
+
+	public long getBytes()
+	{
+		return bytes;
+	}
+
+	public long getElapsedNanos()
+	{
+		return elapsedNanos;
+	}
+
+	public double getArchivesPerSecond()
+	{
+		return archivesCompleted / seconds();
+	}
+
+	public double getBytesPerSecond()
+	{
+		return bytes / seconds();
+	}
+
+	private double seconds()
+	{
+		return Math.max(elapsedNanos, 1L) / (double) TimeUnit.SECONDS.toNanos(1);
+	}
+}
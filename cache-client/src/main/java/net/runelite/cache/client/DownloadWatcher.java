@@ -30,4 +30,13 @@ import net.runelite.cache.fs.Archive;
 public interface DownloadWatcher
 {
 	void downloadComplete(Archive archive, byte[] data);
+
+	/**
+	 * Called periodically during a download, and once when it finishes
+	 *
+	 * @param progress
+	 */
+	default void downloadProgress(DownloadProgress progress)
+	{
+	}
 }
@@ -27,12 +27,17 @@ package net.runelite.cache.client;
 import java.io.File;
 import java.util.concurrent.CompletableFuture;
 import net.runelite.cache.CacheProperties;
+import net.runelite.cache.StoreLocation;
+import net.runelite.cache.fs.Archive;
+import net.runelite.cache.fs.Index;
 import net.runelite.cache.fs.Store;
 import net.runelite.protocol.api.login.HandshakeResponseType;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Ignore;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.impl.SimpleLogger;
@@ -41,12 +46,196 @@ public class CacheClientTest
 {
 	private static final Logger logger = LoggerFactory.getLogger(CacheClientTest.class);
 
+	@Rule
+	public TemporaryFolder folder = StoreLocation.getTemporaryFolder();
+
 	@Before
 	public void before()
 	{
 		System.setProperty(SimpleLogger.DEFAULT_LOG_LEVEL_KEY, "TRACE");
 	}
 
+	@Test
+	public void testDownload() throws Exception
+	{
+		try (FakeUpdateServer server = new FakeUpdateServer())
+		{
+			server.addIndex(50, 100);
+			server.addIndex(10, 5000);
+			server.addIndex(1, 1);
+			int port = server.start();
+
+			File file = folder.newFolder();
+			try (Store store = new Store(file))
+			{
+				CacheClient c = new CacheClient(store, "localhost", port, CacheProperties.getRsVersion());
+				c.setMaxRequests(8);
+				c.setWorkerThreads(2);
+				c.connect();
+				Assert.assertEquals(HandshakeResponseType.RESPONSE_OK, c.handshake().get());
+
+				c.download();
+				c.close();
+
+				store.save();
+			}
+
+			try (Store store = new Store(file))
+			{
+				store.load();
+
+				Assert.assertEquals(3, store.getIndexes().size());
+				for (Index index : store.getIndexes())
+				{
+					for (Archive archive : index.getArchives())
+					{
+						byte[] data = archive.decompress(store.getStorage().loadArchive(archive));
+						Assert.assertArrayEquals(server.getArchive(index.getId(), archive.getArchiveId()), data);
+					}
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testResumeWithManifest() throws Exception
+	{
+		try (FakeUpdateServer server = new FakeUpdateServer())
+		{
+			server.addIndex(20, 100);
+			server.addIndex(5, 1000);
+			int port = server.start();
+
+			File file = folder.newFolder();
+
+			// download everything, but exit before saving the store
+			try (Store store = new Store(file);
+				DownloadManifest manifest = DownloadManifest.load(file))
+			{
+				download(store, manifest, port);
+			}
+			Assert.assertEquals(1 + 2 + 25, server.resetRequestCount());
+
+			// only the index tables are needed to resume
+			try (Store store = new Store(file);
+				DownloadManifest manifest = DownloadManifest.load(file))
+			{
+				store.load();
+				download(store, manifest, port);
+				store.save();
+				manifest.commit();
+			}
+			Assert.assertEquals(1 + 2, server.resetRequestCount());
+
+			// and once committed, nothing but the index list
+			try (Store store = new Store(file);
+				DownloadManifest manifest = DownloadManifest.load(file))
+			{
+				store.load();
+				download(store, manifest, port);
+
+				Assert.assertEquals(2, store.getIndexes().size());
+				for (Index index : store.getIndexes())
+				{
+					for (Archive archive : index.getArchives())
+					{
+						byte[] data = archive.decompress(store.getStorage().loadArchive(archive));
+						Assert.assertArrayEquals(server.getArchive(index.getId(), archive.getArchiveId()), data);
+						Assert.assertNotNull(manifest.getArchiveHash(index.getId(), archive.getArchiveId()));
+					}
+				}
+			}
+			Assert.assertEquals(1, server.resetRequestCount());
+		}
+	}
+
+	@Test
+	public void testDownloadWithStoreManifest() throws Exception
+	{
+		try (FakeUpdateServer server = new FakeUpdateServer())
+		{
+			server.addIndex(20, 100);
+			server.addIndex(5, 1000);
+			int port = server.start();
+
+			File file = folder.newFolder();
+
+			// a manifest of the store itself has no journal to write to
+			try (Store store = new Store(file);
+				DownloadManifest manifest = DownloadManifest.of(store))
+			{
+				download(store, manifest, port);
+				store.save();
+				manifest.commit();
+
+				Assert.assertEquals(2, store.getIndexes().size());
+				for (Index index : store.getIndexes())
+				{
+					for (Archive archive : index.getArchives())
+					{
+						byte[] data = archive.decompress(store.getStorage().loadArchive(archive));
+						Assert.assertArrayEquals(server.getArchive(index.getId(), archive.getArchiveId()), data);
+					}
+				}
+			}
+			Assert.assertEquals(1 + 2 + 25, server.resetRequestCount());
+			Assert.assertFalse(new File(file, DownloadManifest.MANIFEST_FILE).exists());
+		}
+	}
+
+	private static void download(Store store, DownloadManifest manifest, int port) throws Exception
+	{
+		CacheClient c = new CacheClient(store, "localhost", port, CacheProperties.getRsVersion());
+		c.setManifest(manifest);
+		c.connect();
+		Assert.assertEquals(HandshakeResponseType.RESPONSE_OK, c.handshake().get());
+		c.download();
+		c.close();
+	}
+
+	@Test
+	@Ignore
+	public void benchmarkDownload() throws Exception
+	{
+		System.setProperty(SimpleLogger.DEFAULT_LOG_LEVEL_KEY, "INFO");
+
+		try (FakeUpdateServer server = new FakeUpdateServer())
+		{
+			for (int i = 0; i < 16; ++i)
+			{
+				server.addIndex(2000, 2048);
+			}
+			int port = server.start();
+
+			for (int window : new int[]{1, 4, 19, 64})
+			{
+				try (Store store = new Store(folder.newFolder()))
+				{
+					CacheClient c = new CacheClient(store, "localhost", port, CacheProperties.getRsVersion());
+					c.setMaxRequests(window);
+					c.setWorkerThreads(Runtime.getRuntime().availableProcessors());
+					c.setWatcher(new DownloadWatcher()
+					{
+						@Override
+						public void downloadComplete(Archive archive, byte[] data)
+						{
+						}
+
+						@Override
+						public void downloadProgress(DownloadProgress progress)
+						{
+							logger.info("Window {}: {}", window, progress);
+						}
+					});
+					c.connect();
+					c.handshake().get();
+					c.download();
+					c.close();
+				}
+			}
+		}
+	}
+
 	@Test
 	@Ignore
 	public void test() throws Exception
@@ -0,0 +1,222 @@
+/*
+ * Copyright (c) 2019, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.cache.client;
+
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.handler.codec.ByteToMessageDecoder;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import net.runelite.cache.fs.Container;
+import net.runelite.cache.fs.jagex.CompressionType;
+import net.runelite.cache.index.ArchiveData;
+import net.runelite.cache.index.FileData;
+import net.runelite.cache.index.IndexData;
+import net.runelite.protocol.api.handshake.HandshakeResponsePacket;
+import net.runelite.protocol.api.login.HandshakeResponseType;
+import net.runelite.protocol.api.update.ArchiveResponsePacket;
+import net.runelite.protocol.handshake.HandshakeResponseEncoder;
+import net.runelite.protocol.update.decoders.UpdateOpcodes;
+import net.runelite.protocol.update.encoders.ArchiveResponseEncoder;
+
+/**
+ * A minimal update server serving randomly generated indexes from memory
+ */
+class FakeUpdateServer implements AutoCloseable
+{
+	private static final int HANDSHAKE_LENGTH = 5; // opcode, revision
+	private static final int REQUEST_LENGTH = 4; // opcode, index, archive
+
+	private final Map<Integer, byte[]> files = new HashMap<>();
+	private final Map<Integer, byte[]> archives = new HashMap<>();
+	private final EventLoopGroup group = new NioEventLoopGroup(1);
+	private final Random random = new Random(42L);
+	private final AtomicInteger requestCount = new AtomicInteger();
+	private Channel channel;
+	private int indexCount;
+
+	/**
+	 * Add an index with the given number of archives of random data
+	 */
+	void addIndex(int archiveCount, int archiveSize) throws IOException
+	{
+		int indexId = indexCount++;
+		ArchiveData[] archiveDatas = new ArchiveData[archiveCount];
+
+		for (int i = 0; i < archiveCount; ++i)
+		{
+			byte[] data = new byte[archiveSize];
+			random.nextBytes(data);
+
+			Container container = new Container(CompressionType.NONE, -1);
+			container.compress(data, null);
+			byte[] compressed = container.data;
+
+			Container res = Container.decompress(compressed, null);
+
+			ArchiveData ad = archiveDatas[i] = new ArchiveData();
+			ad.setId(i);
+			ad.setCrc(res.crc);
+			ad.setRevision(1);
+			ad.setFiles(new FileData[]{new FileData()});
+
+			files.put(indexId << 16 | i, compressed);
+			archives.put(indexId << 16 | i, data);
+		}
+
+		IndexData indexData = new IndexData();
+		indexData.setProtocol(6);
+		indexData.setRevision(1);
+		indexData.setNamed(false);
+		indexData.setArchives(archiveDatas);
+
+		Container container = new Container(CompressionType.GZ, -1);
+		container.compress(indexData.writeIndexData(), null);
+		files.put(255 << 16 | indexId, container.data);
+	}
+
+	byte[] getArchive(int index, int archive)
+	{
+		return archives.get(index << 16 | archive);
+	}
+
+	/**
+	 * Get the number of files requested since the last call
+	 */
+	int resetRequestCount()
+	{
+		return requestCount.getAndSet(0);
+	}
+
+	int start() throws IOException
+	{
+		// table of index crcs and revisions
+		ByteBuffer buffer = ByteBuffer.allocate(indexCount * 8);
+		for (int i = 0; i < indexCount; ++i)
+		{
+			Container res = Container.decompress(files.get(255 << 16 | i), null);
+			buffer.putInt(res.crc);
+			buffer.putInt(1);
+		}
+
+		Container container = new Container(CompressionType.NONE, -1);
+		container.compress(buffer.array(), null);
+		files.put(255 << 16 | 255, container.data);
+
+		ServerBootstrap b = new ServerBootstrap();
+		b.group(group)
+			.channel(NioServerSocketChannel.class)
+			.childHandler(new ChannelInitializer<SocketChannel>()
+			{
+				@Override
+				public void initChannel(SocketChannel ch)
+				{
+					ch.pipeline().addLast(
+						new HandshakeResponseEncoder(),
+						new ArchiveResponseEncoder(),
+						new RequestHandler()
+					);
+				}
+			});
+
+		channel = b.bind(0).syncUninterruptibly().channel();
+		return ((InetSocketAddress) channel.localAddress()).getPort();
+	}
+
+	@Override
+	public void close()
+	{
+		channel.close().syncUninterruptibly();
+		group.shutdownGracefully();
+	}
+
+	private class RequestHandler extends ByteToMessageDecoder
+	{
+		private boolean handshaken;
+
+		@Override
+		protected void decode(ChannelHandlerContext ctx, ByteBuf in, List<Object> out)
+		{
+			if (!handshaken)
+			{
+				if (in.readableBytes() < HANDSHAKE_LENGTH)
+				{
+					return;
+				}
+
+				in.skipBytes(HANDSHAKE_LENGTH);
+				handshaken = true;
+
+				HandshakeResponsePacket response = new HandshakeResponsePacket();
+				response.setResponse(HandshakeResponseType.RESPONSE_OK);
+				ctx.writeAndFlush(response);
+				return;
+			}
+
+			if (in.readableBytes() < REQUEST_LENGTH)
+			{
+				return;
+			}
+
+			int opcode = in.readUnsignedByte();
+			int index = in.readUnsignedByte();
+			int archive = in.readUnsignedShort();
+
+			if (opcode != UpdateOpcodes.ARCHIVE_REQUEST_LOW && opcode != UpdateOpcodes.ARCHIVE_REQUEST_HIGH)
+			{
+				// encryption and login state packets
+				return;
+			}
+
+			requestCount.incrementAndGet();
+
+			ArchiveResponsePacket response = new ArchiveResponsePacket();
+			response.setIndex(index);
+			response.setArchive(archive);
+			response.setData(files.get(index << 16 | archive));
+			ctx.write(response);
+		}
+
+		@Override
+		public void channelReadComplete(ChannelHandlerContext ctx) throws Exception
+		{
+			ctx.flush();
+			super.channelReadComplete(ctx);
+		}
+	}
+}
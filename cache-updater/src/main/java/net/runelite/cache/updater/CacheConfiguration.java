@@ -53,6 +53,9 @@ public class CacheConfiguration
 	@Value("${minio.secretkey}")
 	private String minioSecretKey;
 
+	@Value("${minio.bucket}")
+	private String minioBucket;
+
 	@Bean
 	@ConfigurationProperties(prefix = "datasource.runelite-cache")
 	public DataSource dataSource()
@@ -74,4 +77,10 @@ public class CacheConfiguration
 	{
 		return new MinioClient(minioUrl, minioAccessKey, minioSecretKey);
 	}
+
+	@Bean
+	public ObjectStorage objectStorage(MinioClient minioClient)
+	{
+		return new MinioObjectStorage(minioClient, minioBucket);
+	}
 }
@@ -24,8 +24,13 @@
  */
 package net.runelite.cache.updater;
 
+import com.google.common.io.BaseEncoding;
 import java.time.Instant;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import net.runelite.cache.updater.beans.ArchiveEntry;
 import net.runelite.cache.updater.beans.CacheEntry;
 import net.runelite.cache.updater.beans.IndexEntry;
@@ -35,10 +40,14 @@ import org.sql2o.ResultSetIterable;
 
 class CacheDAO
 {
+	private static final int BATCH_SIZE = 1000;
+
 	// cache prepared statements for high volume queries
 	private Query associateArchive;
-	private Query findArchive, insertArchive;
+	private Query insertArchive;
 	private Query associateFile;
+	private int associateArchiveCount;
+	private int associateFileCount;
 
 	public CacheEntry findMostRecent(Connection con)
 	{
@@ -96,70 +105,115 @@ class CacheDAO
 		return entry;
 	}
 
-	public void associateArchiveToIndex(Connection con, ArchiveEntry archive, IndexEntry index)
+	/**
+	 * Find every archive which has ever been in the given index, across all caches
+	 */
+	public List<ArchiveEntry> findArchivesForIndexId(Connection con, int indexId)
 	{
-		if (associateArchive == null)
+		return con.createQuery("select distinct archive.id, archive.archiveId, archive.nameHash,"
+			+ " archive.crc, archive.revision, archive.hash from archive "
+			+ " join index_archive on index_archive.archive = archive.id"
+			+ " join `index` on index.id = index_archive.index"
+			+ " where index.indexId = :indexId")
+			.addParameter("indexId", indexId)
+			.executeAndFetch(ArchiveEntry.class);
+	}
+
+	/**
+	 * Get the hex encoded sha256 hash of every archive
+	 */
+	public Set<String> findArchiveHashes(Connection con)
+	{
+		List<byte[]> hashes = con.createQuery("select distinct hash from archive")
+			.executeScalarList(byte[].class);
+
+		Set<String> set = new HashSet<>(hashes.size());
+		for (byte[] hash : hashes)
 		{
-			associateArchive = con.createQuery("insert into index_archive (`index`, archive) values (:index, :archive)");
+			set.add(BaseEncoding.base16().encode(hash));
 		}
-		associateArchive
-			.addParameter("index", index.getId())
-			.addParameter("archive", archive.getId())
-			.executeUpdate();
+		return set;
 	}
 
-	public ArchiveEntry findArchive(Connection con, IndexEntry index,
-		int archiveId, int nameHash, int crc, int revision)
+	/**
+	 * Insert archives in batches, setting their ids. The archives must all have
+	 * distinct archive ids, and nothing else may insert archives concurrently.
+	 */
+	public void createArchives(Connection con, List<ArchiveEntry> archives)
 	{
-		if (findArchive == null)
+		if (archives.isEmpty())
 		{
-			findArchive = con.createQuery("select distinct archive.id, archive.archiveId, archive.nameHash,"
-				+ " archive.crc, archive.revision, archive.hash from archive "
-				+ " join index_archive on index_archive.archive = archive.id"
-				+ " join `index` on index.id = index_archive.index"
-				+ " where archive.archiveId = :archiveId"
-				+ " and archive.nameHash = :nameHash"
-				+ " and archive.crc = :crc"
-				+ " and archive.revision = :revision"
-				+ " and index.indexId = :indexId");
+			return;
 		}
 
-		ArchiveEntry entry = findArchive
-			.addParameter("archiveId", archiveId)
-			.addParameter("nameHash", nameHash)
-			.addParameter("crc", crc)
-			.addParameter("revision", revision)
-			.addParameter("indexId", index.getIndexId())
-			.executeAndFetchFirst(ArchiveEntry.class);
-		return entry;
-	}
+		Integer maxId = con.createQuery("select max(id) from archive")
+			.executeScalar(Integer.class);
 
-	public ArchiveEntry createArchive(Connection con, IndexEntry index,
-		int archiveId, int nameHash, int crc, int revision, byte[] hash)
-	{
 		if (insertArchive == null)
 		{
 			insertArchive = con.createQuery("insert into archive (archiveId, nameHash, crc, revision, hash) values "
 				+ "(:archiveId, :nameHash, :crc, :revision, :hash)");
 		}
 
-		int id = insertArchive
-			.addParameter("archiveId", archiveId)
-			.addParameter("nameHash", nameHash)
-			.addParameter("crc", crc)
-			.addParameter("revision", revision)
-			.addParameter("hash", hash)
-			.executeUpdate()
-			.getKey(int.class);
+		int count = 0;
+		for (ArchiveEntry archive : archives)
+		{
+			insertArchive
+				.addParameter("archiveId", archive.getArchiveId())
+				.addParameter("nameHash", archive.getNameHash())
+				.addParameter("crc", archive.getCrc())
+				.addParameter("revision", archive.getRevision())
+				.addParameter("hash", archive.getHash())
+				.addToBatch();
+
+			if (++count % BATCH_SIZE == 0)
+			{
+				insertArchive.executeBatch();
+			}
+		}
 
-		ArchiveEntry entry = new ArchiveEntry();
-		entry.setId(id);
-		entry.setArchiveId(archiveId);
-		entry.setNameHash(nameHash);
-		entry.setCrc(crc);
-		entry.setRevision(revision);
-		entry.setHash(hash);
-		return entry;
+		if (count % BATCH_SIZE != 0)
+		{
+			insertArchive.executeBatch();
+		}
+
+		// generated keys from batches are not supported by every driver,
+		// so look the new rows up instead
+		Map<Integer, ArchiveEntry> byArchiveId = new HashMap<>(archives.size());
+		for (ArchiveEntry archive : archives)
+		{
+			byArchiveId.put(archive.getArchiveId(), archive);
+		}
+
+		List<ArchiveEntry> created = con.createQuery("select id, archiveId from archive where id > :id")
+			.addParameter("id", maxId != null ? maxId : 0)
+			.executeAndFetch(ArchiveEntry.class);
+		for (ArchiveEntry entry : created)
+		{
+			ArchiveEntry archive = byArchiveId.get(entry.getArchiveId());
+			if (archive != null)
+			{
+				archive.setId(entry.getId());
+			}
+		}
+	}
+
+	public void associateArchiveToIndex(Connection con, ArchiveEntry archive, IndexEntry index)
+	{
+		if (associateArchive == null)
+		{
+			associateArchive = con.createQuery("insert into index_archive (`index`, archive) values (:index, :archive)");
+		}
+		associateArchive
+			.addParameter("index", index.getId())
+			.addParameter("archive", archive.getId())
+			.addToBatch();
+
+		if (++associateArchiveCount >= BATCH_SIZE)
+		{
+			associateArchive.executeBatch();
+			associateArchiveCount = 0;
+		}
 	}
 
 	public void associateFileToArchive(Connection con, ArchiveEntry archive, int fileId, int nameHash)
@@ -172,6 +226,30 @@ class CacheDAO
 			.addParameter("archive", archive.getId())
 			.addParameter("fileId", fileId)
 			.addParameter("nameHash", nameHash)
-			.executeUpdate();
+			.addToBatch();
+
+		if (++associateFileCount >= BATCH_SIZE)
+		{
+			associateFile.executeBatch();
+			associateFileCount = 0;
+		}
+	}
+
+	/**
+	 * Execute any batched archive and file associations
+	 */
+	public void flush()
+	{
+		if (associateArchiveCount > 0)
+		{
+			associateArchive.executeBatch();
+			associateArchiveCount = 0;
+		}
+
+		if (associateFileCount > 0)
+		{
+			associateFile.executeBatch();
+			associateFileCount = 0;
+		}
 	}
 }
@@ -24,7 +24,10 @@
  */
 package net.runelite.cache.updater;
 
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.ListMultimap;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
 import net.runelite.cache.fs.Archive;
 import net.runelite.cache.fs.Index;
@@ -108,25 +111,66 @@ public class CacheStorage implements Storage
 		{
 			IndexEntry entry = cacheDao.createIndex(con, cacheEntry, index.getId(), index.getCrc(), index.getRevision());
 
+			// archives already in the database which can be reused
+			ListMultimap<Integer, ArchiveEntry> existing = ArrayListMultimap.create();
+			for (ArchiveEntry archiveEntry : cacheDao.findArchivesForIndexId(con, index.getId()))
+			{
+				existing.put(archiveEntry.getArchiveId(), archiveEntry);
+			}
+
+			List<ArchiveEntry> archiveEntries = new ArrayList<>(index.getArchives().size());
+			List<ArchiveEntry> created = new ArrayList<>();
+			List<Archive> createdArchives = new ArrayList<>();
+
 			for (Archive archive : index.getArchives())
 			{
-				ArchiveEntry archiveEntry = cacheDao.findArchive(con, entry, archive.getArchiveId(),
-					archive.getNameHash(), archive.getCrc(), archive.getRevision());
+				ArchiveEntry archiveEntry = findArchive(existing.get(archive.getArchiveId()), archive);
 				if (archiveEntry == null)
 				{
-					byte[] hash = archive.getHash();
-					archiveEntry = cacheDao.createArchive(con, entry, archive.getArchiveId(),
-						archive.getNameHash(), archive.getCrc(), archive.getRevision(), hash);
+					archiveEntry = new ArchiveEntry();
+					archiveEntry.setArchiveId(archive.getArchiveId());
+					archiveEntry.setNameHash(archive.getNameHash());
+					archiveEntry.setCrc(archive.getCrc());
+					archiveEntry.setRevision(archive.getRevision());
+					archiveEntry.setHash(archive.getHash());
+					created.add(archiveEntry);
+					createdArchives.add(archive);
+				}
 
-					for (FileData file : archive.getFileData())
-					{
-						cacheDao.associateFileToArchive(con, archiveEntry, file.getId(), file.getNameHash());
-					}
+				archiveEntries.add(archiveEntry);
+			}
+
+			cacheDao.createArchives(con, created);
+
+			for (int i = 0; i < created.size(); ++i)
+			{
+				for (FileData file : createdArchives.get(i).getFileData())
+				{
+					cacheDao.associateFileToArchive(con, created.get(i), file.getId(), file.getNameHash());
 				}
+			}
 
+			for (ArchiveEntry archiveEntry : archiveEntries)
+			{
 				cacheDao.associateArchiveToIndex(con, archiveEntry, entry);
 			}
 		}
+
+		cacheDao.flush();
+	}
+
+	private static ArchiveEntry findArchive(List<ArchiveEntry> entries, Archive archive)
+	{
+		for (ArchiveEntry entry : entries)
+		{
+			if (entry.getNameHash() == archive.getNameHash()
+				&& entry.getCrc() == archive.getCrc()
+				&& entry.getRevision() == archive.getRevision())
+			{
+				return entry;
+			}
+		}
+		return null;
 	}
 
 	@Override
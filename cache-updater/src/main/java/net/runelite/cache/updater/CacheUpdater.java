@@ -24,18 +24,12 @@
  */
 package net.runelite.cache.updater;
 
-import io.minio.MinioClient;
-import io.minio.errors.InvalidEndpointException;
-import io.minio.errors.InvalidPortException;
 import java.io.IOException;
 import java.time.Instant;
 import java.util.List;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.TimeUnit;
 import net.runelite.cache.client.CacheClient;
+import net.runelite.cache.client.DownloadManifest;
 import net.runelite.cache.client.IndexInfo;
-import net.runelite.cache.fs.Archive;
 import net.runelite.cache.fs.Store;
 import net.runelite.cache.updater.beans.CacheEntry;
 import net.runelite.cache.updater.beans.IndexEntry;
@@ -58,22 +52,22 @@ public class CacheUpdater implements CommandLineRunner
 	private static final Logger logger = LoggerFactory.getLogger(CacheUpdater.class);
 
 	private final Sql2o sql2o;
-	private final MinioClient minioClient;
+	private final ObjectStorage objectStorage;
 
-	@Value("${minio.bucket}")
-	private String minioBucket;
+	@Value("${cache.upload.threads:8}")
+	private int uploadThreads;
 
 	@Autowired
 	public CacheUpdater(
 		@Qualifier("Runelite Cache SQL2O") Sql2o sql2o,
-		MinioClient minioClient
+		ObjectStorage objectStorage
 	)
 	{
 		this.sql2o = sql2o;
-		this.minioClient = minioClient;
+		this.objectStorage = objectStorage;
 	}
 
-	public void update() throws IOException, InvalidEndpointException, InvalidPortException, InterruptedException
+	public void update() throws IOException, InterruptedException
 	{
 		int rsVersion = RuneLiteAPI.getRsVersion();
 
@@ -92,10 +86,11 @@ public class CacheUpdater implements CommandLineRunner
 			Store store = new Store(storage);
 			store.load();
 
-			ExecutorService executor = Executors.newSingleThreadExecutor();
+			CacheClient client = new CacheClient(store, rsVersion);
 
-			CacheClient client = new CacheClient(store, rsVersion,
-				(Archive archive, byte[] data) -> executor.submit(new CacheUploader(minioClient, minioBucket, archive, data)));
+			// indexes are stored with the crc and revision given by the server,
+			// so those which have not changed can be skipped entirely
+			client.setManifest(DownloadManifest.of(store));
 
 			client.connect();
 			HandshakeResponseType result = client.handshake().join();
@@ -115,6 +110,10 @@ public class CacheUpdater implements CommandLineRunner
 				return;
 			}
 
+			// archives whose hash is already in the database have been uploaded
+			CacheUploader uploader = new CacheUploader(objectStorage, uploadThreads, cacheDao.findArchiveHashes(con));
+			client.setWatcher(uploader::upload);
+
 			client.download();
 
 			CacheEntry newCache = created ? cache : cacheDao.createCache(con, rsVersion, Instant.now());
@@ -122,17 +121,34 @@ public class CacheUpdater implements CommandLineRunner
 			storage.setCacheEntry(newCache);
 			store.save();
 
-			// ensure objects are added to the store before they become
-			// visible in the database
-			executor.shutdown();
-			while (!executor.awaitTermination(1, TimeUnit.SECONDS))
-			{
-				logger.debug("Waiting for termination of executor...");
-			}
+			commit(con, uploader);
+		}
+	}
 
-			// commit database
-			con.commit();
+	/**
+	 * Wait for the uploads to complete, and commit the database only if all of
+	 * them succeeded. The saved archives reference their data by hash, and hashes
+	 * in the database are not uploaded again, so a failed upload must not be committed.
+	 *
+	 * @param con
+	 * @param uploader
+	 * @throws IOException if any upload failed
+	 * @throws InterruptedException
+	 */
+	static void commit(Connection con, CacheUploader uploader) throws IOException, InterruptedException
+	{
+		// ensure objects are added to the store before they become
+		// visible in the database
+		uploader.close();
+
+		if (uploader.getFailed() > 0)
+		{
+			con.rollback();
+			throw new IOException(uploader.getFailed() + " archives failed to upload");
 		}
+
+		// commit database
+		con.commit();
 	}
 
 	private boolean checkOutOfDate(List<IndexInfo> indexes, List<IndexEntry> dbIndexes)
@@ -26,71 +26,171 @@ package net.runelite.cache.updater;
 
 import com.google.common.hash.Hashing;
 import com.google.common.io.BaseEncoding;
-import io.minio.MinioClient;
-import io.minio.errors.ErrorResponseException;
-import io.minio.errors.InsufficientDataException;
-import io.minio.errors.InternalException;
-import io.minio.errors.InvalidArgumentException;
-import io.minio.errors.InvalidBucketNameException;
-import io.minio.errors.NoResponseException;
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
-import java.io.InputStream;
-import java.security.InvalidKeyException;
-import java.security.NoSuchAlgorithmException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import net.runelite.cache.fs.Archive;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.xmlpull.v1.XmlPullParserException;
 
-public class CacheUploader implements Runnable
+/**
+ * Uploads archive data to object storage, keyed by its sha256 hash, on a
+ * bounded number of threads.
+ */
+public class CacheUploader implements AutoCloseable
 {
 	private static final Logger logger = LoggerFactory.getLogger(CacheUploader.class);
 
-	private final MinioClient minioClient;
-	private final String minioBucket;
-	private final Archive archive;
-	private final byte[] data;
+	private static final int QUEUED_PER_THREAD = 4;
+
+	private final ObjectStorage storage;
+	private final ExecutorService executor;
+	private final Semaphore queued;
+	// hashes of data which is already stored, or being uploaded
+	private final Set<String> hashes = ConcurrentHashMap.newKeySet();
+
+	private final AtomicInteger uploaded = new AtomicInteger();
+	private final AtomicInteger skipped = new AtomicInteger();
+	private final AtomicInteger failed = new AtomicInteger();
+	private final AtomicLong bytes = new AtomicLong();
+	private final AtomicLong latencyNanos = new AtomicLong();
+	private final AtomicLong maxLatencyNanos = new AtomicLong();
 
-	public CacheUploader(MinioClient minioClient, String minioBucket, Archive archive, byte[] data)
+	/**
+	 * @param storage storage to upload to
+	 * @param threads number of concurrent uploads
+	 * @param existingHashes hashes of data known to already be in storage
+	 */
+	public CacheUploader(ObjectStorage storage, int threads, Set<String> existingHashes)
 	{
-		this.minioClient = minioClient;
-		this.minioBucket = minioBucket;
-		this.archive = archive;
-		this.data = data;
+		this.storage = storage;
+		this.executor = Executors.newFixedThreadPool(threads);
+		this.queued = new Semaphore(threads * QUEUED_PER_THREAD);
+		this.hashes.addAll(existingHashes);
 	}
 
-	@Override
-	public void run()
+	/**
+	 * Set the hash of the archive and queue its data for upload, if it is not
+	 * already in storage. This blocks if too many uploads are queued.
+	 *
+	 * @param archive
+	 * @param data
+	 */
+	public void upload(Archive archive, byte[] data)
 	{
 		byte[] hash = Hashing.sha256().hashBytes(data).asBytes();
 		String hashStr = BaseEncoding.base16().encode(hash);
 
 		archive.setHash(hash);
 
+		if (!hashes.add(hashStr))
+		{
+			skipped.incrementAndGet();
+			return;
+		}
+
+		queued.acquireUninterruptibly();
+		executor.execute(() ->
+		{
+			try
+			{
+				put(hashStr, data);
+			}
+			finally
+			{
+				queued.release();
+			}
+		});
+	}
+
+	private void put(String hashStr, byte[] data)
+	{
 		String path = new StringBuilder()
 			.append(hashStr.substring(0, 2))
 			.append('/')
 			.append(hashStr.substring(2))
 			.toString();
 
+		long start = System.nanoTime();
+
 		try
 		{
-			try (InputStream in = minioClient.getObject(minioBucket, path))
+			if (storage.exists(path))
 			{
-				return; // already exists
-			}
-			catch (ErrorResponseException ex)
-			{
-				// doesn't exist
+				skipped.incrementAndGet();
+				return;
 			}
 
-			minioClient.putObject(minioBucket, path, new ByteArrayInputStream(data), data.length, "binary/octet-stream");
+			storage.put(path, data);
 		}
-		catch (ErrorResponseException | InsufficientDataException | InternalException | InvalidArgumentException | InvalidBucketNameException | NoResponseException | IOException | InvalidKeyException | NoSuchAlgorithmException | XmlPullParserException ex)
+		catch (IOException ex)
 		{
 			logger.warn("unable to upload data to store", ex);
+			failed.incrementAndGet();
+			hashes.remove(hashStr);
+			return;
 		}
+
+		long latency = System.nanoTime() - start;
+		uploaded.incrementAndGet();
+		bytes.addAndGet(data.length);
+		latencyNanos.addAndGet(latency);
+		maxLatencyNanos.accumulateAndGet(latency, Math::max);
 	}
 
+	/**
+	 * Wait for all queued uploads to complete
+	 */
+	@Override
+	public void close() throws InterruptedException
+	{
+		executor.shutdown();
+		while (!executor.awaitTermination(1, TimeUnit.SECONDS))
+		{
+			logger.debug("Waiting for uploads to complete...");
+		}
+
+		int count = uploaded.get();
+		logger.info("Uploaded {} archives ({} bytes), skipped {} already stored, {} failed. Average latency {}ms, max {}ms",
+			count, bytes.get(), skipped.get(), failed.get(),
+			count > 0 ? TimeUnit.NANOSECONDS.toMillis(latencyNanos.get() / count) : 0,
+			TimeUnit.NANOSECONDS.toMillis(maxLatencyNanos.get()));
+	}
+
+	public int getUploaded()
+	{
+		return uploaded.get();
+	}
+
+	public int getSkipped()
+	{
+		return skipped.get();
+	}
+
+	public int getFailed()
+	{
+		return failed.get();
+	}
+
+	public long getBytes()
+	{
+		return bytes.get();
+	}
+
+	public long getAverageLatencyNanos()
+	{
+		int count = uploaded.get();
+		return count > 0 ? latencyNanos.get() / count : 0L;
+	}
+
+	public long getMaxLatencyNanos()
+	{
+		return maxLatencyNanos.get();
+	}
 }
@@ -0,0 +1,173 @@
+/*
+ * Copyright (c) 2019, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.cache.updater;
+
+import com.google.common.io.Resources;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import net.runelite.cache.fs.Archive;
+import net.runelite.cache.fs.Index;
+import net.runelite.cache.fs.Store;
+import net.runelite.cache.index.FileData;
+import net.runelite.cache.updater.beans.CacheEntry;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import org.sql2o.Connection;
+import org.sql2o.Sql2o;
+import org.sql2o.converters.Converter;
+import org.sql2o.quirks.NoQuirks;
+
+public class CacheStorageTest
+{
+	private static final int ARCHIVES = 2500; // more than one batch
+
+	private Sql2o sql2o;
+	private Connection con;
+
+	@Before
+	public void before() throws IOException
+	{
+		Map<Class, Converter> converters = new HashMap<>();
+		converters.put(Instant.class, new InstantConverter());
+		sql2o = new Sql2o("jdbc:h2:mem:cache;MODE=MySQL;DB_CLOSE_DELAY=-1", "", "", new NoQuirks(converters));
+
+		String schema = Resources.toString(CacheStorageTest.class.getResource("schema.sql"), StandardCharsets.UTF_8);
+		con = sql2o.beginTransaction();
+		for (String statement : schema.split(";"))
+		{
+			if (!statement.trim().isEmpty())
+			{
+				con.createQuery(statement).executeUpdate();
+			}
+		}
+	}
+
+	@After
+	public void after()
+	{
+		con.rollback();
+		try (Connection c = sql2o.open())
+		{
+			c.createQuery("drop all objects").executeUpdate();
+		}
+	}
+
+	@Test
+	public void testSaveAndLoad() throws IOException
+	{
+		CacheDAO cacheDao = new CacheDAO();
+		CacheEntry cache = cacheDao.createCache(con, 1, Instant.now());
+
+		CacheStorage storage = new CacheStorage(cache, cacheDao, con);
+		Store store = new Store(storage);
+		Index index = store.addIndex(0);
+		index.setCrc(42);
+		index.setRevision(1);
+		for (int i = 0; i < ARCHIVES; ++i)
+		{
+			addArchive(index, i, i);
+		}
+		store.save();
+
+		assertEquals(ARCHIVES, count("archive"));
+		assertEquals(ARCHIVES * 2, count("file"));
+		assertEquals(ARCHIVES, count("index_archive"));
+
+		Store loaded = new Store(new CacheStorage(cache, new CacheDAO(), con));
+		loaded.load();
+
+		Index loadedIndex = loaded.findIndex(0);
+		assertEquals(42, loadedIndex.getCrc());
+		assertEquals(ARCHIVES, loadedIndex.getArchives().size());
+		for (Archive archive : index.getArchives())
+		{
+			Archive loadedArchive = loadedIndex.getArchive(archive.getArchiveId());
+			assertNotNull(loadedArchive);
+			assertEquals(archive.getCrc(), loadedArchive.getCrc());
+			assertEquals(archive.getNameHash(), loadedArchive.getNameHash());
+			assertArrayEquals(archive.getHash(), loadedArchive.getHash());
+		}
+	}
+
+	@Test
+	public void testArchivesReused() throws IOException
+	{
+		CacheDAO cacheDao = new CacheDAO();
+		CacheEntry cache = cacheDao.createCache(con, 1, Instant.now());
+
+		CacheStorage storage = new CacheStorage(cache, cacheDao, con);
+		Store store = new Store(storage);
+		Index index = store.addIndex(0);
+		for (int i = 0; i < ARCHIVES; ++i)
+		{
+			addArchive(index, i, i);
+		}
+		store.save();
+
+		// a new cache where a single archive has changed
+		index.getArchive(7).setCrc(-1);
+		storage.setCacheEntry(cacheDao.createCache(con, 2, Instant.now()));
+		store.save();
+
+		assertEquals(ARCHIVES + 1, count("archive"));
+		assertEquals(ARCHIVES * 2 + 2, count("file"));
+		assertEquals(ARCHIVES * 2, count("index_archive"));
+	}
+
+	private static void addArchive(Index index, int id, int crc)
+	{
+		Archive archive = index.addArchive(id);
+		archive.setCrc(crc);
+		archive.setNameHash(id * 31);
+		archive.setRevision(1);
+
+		byte[] hash = new byte[32];
+		hash[0] = (byte) id;
+		hash[1] = (byte) (id >> 8);
+		archive.setHash(hash);
+
+		FileData[] files = new FileData[2];
+		for (int i = 0; i < files.length; ++i)
+		{
+			files[i] = new FileData();
+			files[i].setId(i);
+			files[i].setNameHash(i);
+		}
+		archive.setFileData(files);
+	}
+
+	private int count(String table)
+	{
+		return con.createQuery("select count(*) from `" + table + "`")
+			.executeScalar(Integer.class);
+	}
+}
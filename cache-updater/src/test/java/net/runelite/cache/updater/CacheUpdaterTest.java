@@ -0,0 +1,150 @@
+/*
+ * Copyright (c) 2019, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.cache.updater;
+
+import com.google.common.io.Resources;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import net.runelite.cache.fs.Index;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+import org.sql2o.Connection;
+import org.sql2o.Sql2o;
+import org.sql2o.converters.Converter;
+import org.sql2o.quirks.NoQuirks;
+
+public class CacheUpdaterTest
+{
+	private Sql2o sql2o;
+
+	@Before
+	public void before() throws IOException
+	{
+		Map<Class, Converter> converters = new HashMap<>();
+		converters.put(Instant.class, new InstantConverter());
+		sql2o = new Sql2o("jdbc:h2:mem:cacheupdater;MODE=MySQL;DB_CLOSE_DELAY=-1", "", "", new NoQuirks(converters));
+
+		String schema = Resources.toString(CacheUpdaterTest.class.getResource("schema.sql"), StandardCharsets.UTF_8);
+		try (Connection con = sql2o.open())
+		{
+			for (String statement : schema.split(";"))
+			{
+				if (!statement.trim().isEmpty())
+				{
+					con.createQuery(statement).executeUpdate();
+				}
+			}
+		}
+	}
+
+	@After
+	public void after()
+	{
+		try (Connection con = sql2o.open())
+		{
+			con.createQuery("drop all objects").executeUpdate();
+		}
+	}
+
+	@Test
+	public void testCommit() throws Exception
+	{
+		try (Connection con = sql2o.beginTransaction())
+		{
+			new CacheDAO().createCache(con, 1, Instant.now());
+
+			CacheUploader uploader = new CacheUploader(new MemoryObjectStorage(false), 1, Collections.emptySet());
+			uploader.upload(new Index(0).addArchive(0), new byte[]{1, 2, 3});
+			CacheUpdater.commit(con, uploader);
+			assertEquals(1, uploader.getUploaded());
+		}
+
+		try (Connection con = sql2o.open())
+		{
+			assertNotNull(new CacheDAO().findMostRecent(con));
+		}
+	}
+
+	@Test
+	public void testCommitFailedUpload() throws Exception
+	{
+		try (Connection con = sql2o.beginTransaction())
+		{
+			new CacheDAO().createCache(con, 1, Instant.now());
+
+			CacheUploader uploader = new CacheUploader(new MemoryObjectStorage(true), 1, Collections.emptySet());
+			uploader.upload(new Index(0).addArchive(0), new byte[]{1, 2, 3});
+			try
+			{
+				CacheUpdater.commit(con, uploader);
+				fail("expected the update to fail");
+			}
+			catch (IOException ex)
+			{
+				// expected
+			}
+		}
+
+		// the archives are rolled back, so the next update uploads their data again
+		try (Connection con = sql2o.open())
+		{
+			assertNull(new CacheDAO().findMostRecent(con));
+		}
+	}
+
+	private static class MemoryObjectStorage implements ObjectStorage
+	{
+		private final boolean failing;
+
+		MemoryObjectStorage(boolean failing)
+		{
+			this.failing = failing;
+		}
+
+		@Override
+		public boolean exists(String path)
+		{
+			return false;
+		}
+
+		@Override
+		public void put(String path, byte[] data) throws IOException
+		{
+			if (failing)
+			{
+				throw new IOException("storage unavailable");
+			}
+		}
+	}
+}
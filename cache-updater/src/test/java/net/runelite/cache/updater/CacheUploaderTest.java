@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2019, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.cache.updater;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.common.hash.Hashing;
+import com.google.common.io.BaseEncoding;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import net.runelite.cache.fs.Archive;
+import net.runelite.cache.fs.Index;
+import org.junit.Rule;
+import org.junit.Test;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import org.junit.rules.TemporaryFolder;
+
+public class CacheUploaderTest
+{
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void testUpload() throws Exception
+	{
+		File dir = folder.newFolder();
+		FileObjectStorage storage = new FileObjectStorage(dir);
+
+		byte[] stored = "stored".getBytes(StandardCharsets.UTF_8);
+		String storedHash = BaseEncoding.base16().encode(Hashing.sha256().hashBytes(stored).asBytes());
+
+		Index index = new Index(0);
+		CacheUploader uploader = new CacheUploader(storage, 4, ImmutableSet.of(storedHash));
+
+		for (int i = 0; i < 100; ++i)
+		{
+			byte[] data = ("archive " + i).getBytes(StandardCharsets.UTF_8);
+			uploader.upload(index.addArchive(i), data);
+		}
+
+		// duplicate content and content already in the database are not uploaded
+		uploader.upload(index.addArchive(100), "archive 0".getBytes(StandardCharsets.UTF_8));
+		uploader.upload(index.addArchive(101), stored);
+		uploader.close();
+
+		assertEquals(100, uploader.getUploaded());
+		assertEquals(2, uploader.getSkipped());
+		assertEquals(0, uploader.getFailed());
+		assertFalse(new File(dir, storedHash.substring(0, 2) + "/" + storedHash.substring(2)).exists());
+
+		Archive archive = index.getArchive(42);
+		String hash = BaseEncoding.base16().encode(archive.getHash());
+		assertArrayEquals("archive 42".getBytes(StandardCharsets.UTF_8), storage.get(hash.substring(0, 2) + "/" + hash.substring(2)));
+		assertArrayEquals(index.getArchive(0).getHash(), index.getArchive(100).getHash());
+	}
+}
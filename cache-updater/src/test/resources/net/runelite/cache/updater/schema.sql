@@ -0,0 +1,46 @@
+CREATE TABLE `cache` (
+  `id` int(11) NOT NULL AUTO_INCREMENT,
+  `revision` int(11) NOT NULL,
+  `date` timestamp NOT NULL,
+  PRIMARY KEY (`id`)
+);
+
+CREATE TABLE `archive` (
+  `id` int(11) NOT NULL AUTO_INCREMENT,
+  `archiveId` int(11) NOT NULL,
+  `nameHash` int(11) NOT NULL,
+  `crc` int(11) NOT NULL,
+  `revision` int(11) NOT NULL,
+  `hash` binary(32) NOT NULL,
+  PRIMARY KEY (`id`)
+);
+
+CREATE TABLE `file` (
+  `id` int(11) NOT NULL AUTO_INCREMENT,
+  `archive` int(11) NOT NULL,
+  `fileId` int(11) NOT NULL,
+  `nameHash` int(11) NOT NULL,
+  PRIMARY KEY (`id`),
+  UNIQUE KEY `archive_file` (`archive`,`fileId`),
+  CONSTRAINT `file_ibfk_1` FOREIGN KEY (`archive`) REFERENCES `archive` (`id`)
+);
+
+CREATE TABLE `index` (
+  `id` int(11) NOT NULL AUTO_INCREMENT,
+  `cache` int(11) NOT NULL,
+  `indexId` int(11) NOT NULL,
+  `crc` int(11) NOT NULL,
+  `revision` int(11) NOT NULL,
+  PRIMARY KEY (`id`),
+  CONSTRAINT `index_ibfk_1` FOREIGN KEY (`cache`) REFERENCES `cache` (`id`)
+);
+
+CREATE TABLE `index_archive` (
+  `id` int(11) NOT NULL AUTO_INCREMENT,
+  `index` int(11) NOT NULL,
+  `archive` int(11) NOT NULL,
+  PRIMARY KEY (`id`),
+  UNIQUE KEY `idx_index_archive` (`index`,`archive`),
+  CONSTRAINT `index_archive_ibfk_1` FOREIGN KEY (`index`) REFERENCES `index` (`id`),
+  CONSTRAINT `index_archive_ibfk_2` FOREIGN KEY (`archive`) REFERENCES `archive` (`id`)
+);
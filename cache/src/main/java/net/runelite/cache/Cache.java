@@ -24,9 +24,12 @@
  */
 package net.runelite.cache;
 
+import java.awt.image.BufferedImage;
 import java.io.File;
 import java.io.IOException;
+import javax.imageio.ImageIO;
 import net.runelite.cache.fs.Store;
+import net.runelite.cache.region.Region;
 import org.apache.commons.cli.CommandLine;
 import org.apache.commons.cli.CommandLineParser;
 import org.apache.commons.cli.DefaultParser;
@@ -45,6 +48,10 @@ public class Cache
 		options.addOption(null, "npcs", true, "directory to dump npcs to");
 		options.addOption(null, "objects", true, "directory to dump objects to");
 		options.addOption(null, "sprites", true, "directory to dump sprites to");
+		options.addOption(null, "map", true, "directory to dump map images to");
+		options.addOption(null, "tiles", true, "directory to dump map tiles to");
+
+		options.addOption(null, "threads", true, "number of threads to use for map rendering");
 
 		CommandLineParser parser = new DefaultParser();
 		CommandLine cmd;
@@ -115,6 +122,38 @@ public class Cache
 			System.out.println("Dumping sprites to " + spritedir);
 			dumpSprites(store, new File(spritedir));
 		}
+		else if (cmd.hasOption("map"))
+		{
+			String mapdir = cmd.getOptionValue("map");
+
+			if (mapdir == null)
+			{
+				System.err.println("Map directory must be specified");
+				return;
+			}
+
+			int threads = 1;
+			if (cmd.hasOption("threads"))
+			{
+				threads = Integer.parseInt(cmd.getOptionValue("threads"));
+			}
+
+			System.out.println("Dumping map to " + mapdir);
+			dumpMap(store, new File(mapdir), threads);
+		}
+		else if (cmd.hasOption("tiles"))
+		{
+			String tiledir = cmd.getOptionValue("tiles");
+
+			if (tiledir == null)
+			{
+				System.err.println("Tile directory must be specified");
+				return;
+			}
+
+			System.out.println("Dumping map tiles to " + tiledir);
+			dumpTiles(store, new File(tiledir));
+		}
 		else
 		{
 			System.err.println("Nothing to do");
@@ -152,6 +191,31 @@ public class Cache
 		dumper.java(objectdir);
 	}
 
+	private static void dumpMap(Store store, File mapdir, int threads) throws IOException
+	{
+		MapImageDumper dumper = new MapImageDumper(store);
+		dumper.setThreads(threads);
+		dumper.load();
+
+		mapdir.mkdirs();
+		for (int z = 0; z < Region.Z; ++z)
+		{
+			BufferedImage image = dumper.drawMap(z);
+			ImageIO.write(image, "png", new File(mapdir, "img-" + z + ".png"));
+		}
+	}
+
+	private static void dumpTiles(Store store, File tiledir) throws IOException
+	{
+		MapImageDumper dumper = new MapImageDumper(store);
+		dumper.loadDefinitions();
+
+		for (int z = 0; z < Region.Z; ++z)
+		{
+			dumper.drawTiles(z, new File(tiledir, Integer.toString(z)), 0);
+		}
+	}
+
 	private static void dumpSprites(Store store, File spritedir) throws IOException
 	{
 		SpriteManager dumper = new SpriteManager(store);
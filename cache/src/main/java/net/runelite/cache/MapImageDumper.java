@@ -28,9 +28,13 @@ import java.awt.Color;
 import java.awt.Graphics2D;
 import java.awt.Image;
 import java.awt.image.BufferedImage;
+import java.io.File;
 import java.io.IOException;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import javax.imageio.ImageIO;
 import lombok.Getter;
 import lombok.Setter;
 import net.runelite.cache.definitions.AreaDefinition;
@@ -65,6 +69,10 @@ public class MapImageDumper
 	private static final int MAPICON_MAX_HEIGHT = 6;
 	private static final int BLEND = 5; // number of surrounding tiles for ground blending
 
+	private static final int TILE_SIZE = Region.X * MAP_SCALE; // one region per tile at the highest zoom
+	private static final int REGIONS = 256; // regions along each axis of the world
+	public static final int MAX_ZOOM = 8; // zoom level at which each tile is one region, 2^8 = REGIONS
+
 	private static int[] colorPalette = new ColorPalette(0.9d, 0, 512).getColorPalette();
 
 	private static int[][] TILE_SHAPE_2D = new int[][]{{0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0}, {1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1}, {1, 0, 0, 0, 1, 1, 0, 0, 1, 1, 1, 0, 1, 1, 1, 1}, {1, 1, 0, 0, 1, 1, 0, 0, 1, 0, 0, 0, 1, 0, 0, 0}, {0, 0, 1, 1, 0, 0, 1, 1, 0, 0, 0, 1, 0, 0, 0, 1}, {0, 1, 1, 1, 0, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1}, {1, 1, 1, 0, 1, 1, 1, 0, 1, 1, 1, 1, 1, 1, 1, 1}, {1, 1, 0, 0, 1, 1, 0, 0, 1, 1, 0, 0, 1, 1, 0, 0}, {0, 0, 0, 0, 0, 0, 0, 0, 1, 0, 0, 0, 1, 1, 0, 0}, {1, 1, 1, 1, 1, 1, 1, 1, 0, 1, 1, 1, 0, 0, 1, 1}, {1, 1, 1, 1, 1, 1, 0, 0, 1, 0, 0, 0, 1, 0, 0, 0}, {0, 0, 0, 0, 0, 0, 1, 1, 0, 1, 1, 1, 0, 1, 1, 1}, {0, 0, 0, 0, 0, 0, 0, 0, 0, 1, 1, 0, 1, 1, 1, 1}};
@@ -93,6 +101,13 @@ public class MapImageDumper
 	@Setter
 	private boolean outlineRegions;
 
+	/**
+	 * Number of threads used to load and rasterize regions. 1 uses the serial path.
+	 */
+	@Getter
+	@Setter
+	private int threads = 1;
+
 	public MapImageDumper(Store store)
 	{
 		this.store = store;
@@ -102,6 +117,19 @@ public class MapImageDumper
 	}
 
 	public void load() throws IOException
+	{
+		loadDefinitions();
+		loadRegions(store);
+	}
+
+	/**
+	 * Load everything needed for drawing except for the regions. This is
+	 * sufficient for {@link #drawTiles(int, File, int)}, which streams the
+	 * regions in itself.
+	 *
+	 * @throws IOException
+	 */
+	public void loadDefinitions() throws IOException
 	{
 		loadUnderlays(store);
 		loadOverlays(store);
@@ -111,7 +139,6 @@ public class MapImageDumper
 		textureManager.load();
 		rsTextureProvider = new RSTextureProvider(textureManager, sprites);
 
-		loadRegions(store);
 		areas.load();
 		sprites.load();
 		loadSprites();
@@ -137,13 +164,208 @@ public class MapImageDumper
 
 		BufferedImage image = new BufferedImage(pixelsX, pixelsY, BufferedImage.TYPE_INT_RGB);
 
-		drawMap(image, z);
+		if (threads > 1)
+		{
+			drawMapParallel(image, z);
+		}
+		else
+		{
+			drawMap(image, z);
+		}
 		drawObjects(image, z);
 		drawMapIcons(image, z);
 
 		return image;
 	}
 
+	/**
+	 * Draw the map for a plane as {@value #TILE_SIZE}px PNG tiles in a slippy map
+	 * layout, {@code outDir/zoom/x/y.png}, from {@link #MAX_ZOOM} where each
+	 * tile is one region, down to {@code minZoom}. Regions are loaded a column
+	 * at a time, keeping only the columns either side of the one being drawn
+	 * for ground blending, so the full map is never held in memory.
+	 *
+	 * @param z plane to draw
+	 * @param outDir directory to write tiles to
+	 * @param minZoom lowest zoom level to write
+	 * @throws IOException
+	 */
+	public void drawTiles(int z, File outDir, int minZoom) throws IOException
+	{
+		RegionLoader regions = new RegionLoader(store);
+
+		// the region is drawn in the center, with the surrounding regions
+		// drawn around it for objects and icons which overlap into it
+		BufferedImage canvas = new BufferedImage(TILE_SIZE * 3, TILE_SIZE * 3, BufferedImage.TYPE_INT_RGB);
+		int tiles = 0;
+
+		loadColumn(regions, 0);
+		for (int regionX = 0; regionX < REGIONS; ++regionX)
+		{
+			loadColumn(regions, regionX + 1);
+
+			for (int regionY = 0; regionY < REGIONS; ++regionY)
+			{
+				Region region = regions.findRegionForWorldCoordinates(regionX * Region.X, regionY * Region.Y);
+				if (region == null)
+				{
+					continue;
+				}
+
+				BufferedImage tile = drawTile(canvas, regions, region, z);
+				ImageIO.write(tile, "png", tileFile(outDir, MAX_ZOOM, regionX, REGIONS - 1 - regionY));
+				++tiles;
+			}
+
+			unloadColumn(regions, regionX - 1);
+		}
+
+		logger.info("Wrote {} tiles for plane {} at zoom {}", tiles, z, MAX_ZOOM);
+
+		for (int zoom = MAX_ZOOM - 1; zoom >= minZoom; --zoom)
+		{
+			drawZoomLevel(outDir, zoom);
+		}
+	}
+
+	private BufferedImage drawTile(BufferedImage canvas, RegionLoader regions, Region region, int z)
+	{
+		Graphics2D graphics = canvas.createGraphics();
+		graphics.setColor(Color.BLACK);
+		graphics.fillRect(0, 0, canvas.getWidth(), canvas.getHeight());
+		graphics.dispose();
+
+		int[] pixels = drawRegionTiles(regions, region, z);
+		canvas.setRGB(TILE_SIZE, TILE_SIZE, TILE_SIZE, TILE_SIZE, pixels, 0, TILE_SIZE);
+
+		// draw base of each neighbouring region, in tiles, relative to the canvas
+		for (int dx = -1; dx <= 1; ++dx)
+		{
+			for (int dy = -1; dy <= 1; ++dy)
+			{
+				Region r = regions.findRegionForWorldCoordinates(region.getBaseX() + dx * Region.X, region.getBaseY() + dy * Region.Y);
+				if (r != null)
+				{
+					drawObjects(canvas, (1 + dx) * Region.X, (1 - dy) * Region.Y, r, z);
+				}
+			}
+		}
+
+		for (int dx = -1; dx <= 1; ++dx)
+		{
+			for (int dy = -1; dy <= 1; ++dy)
+			{
+				Region r = regions.findRegionForWorldCoordinates(region.getBaseX() + dx * Region.X, region.getBaseY() + dy * Region.Y);
+				if (r != null)
+				{
+					drawMapIcons(canvas, (1 + dx) * Region.X, (1 - dy) * Region.Y, r, z);
+				}
+			}
+		}
+
+		return canvas.getSubimage(TILE_SIZE, TILE_SIZE, TILE_SIZE, TILE_SIZE);
+	}
+
+	/**
+	 * Build the tiles of a zoom level by downsampling the 2x2 tiles beneath
+	 * each of them in the next zoom level, which must already be written.
+	 */
+	private void drawZoomLevel(File outDir, int zoom) throws IOException
+	{
+		int count = 1 << zoom;
+		int tiles = 0;
+
+		for (int x = 0; x < count; ++x)
+		{
+			for (int y = 0; y < count; ++y)
+			{
+				BufferedImage tile = null;
+
+				for (int cx = 0; cx < 2; ++cx)
+				{
+					for (int cy = 0; cy < 2; ++cy)
+					{
+						File childFile = tileFile(outDir, zoom + 1, x * 2 + cx, y * 2 + cy);
+						if (!childFile.exists())
+						{
+							continue;
+						}
+
+						if (tile == null)
+						{
+							tile = new BufferedImage(TILE_SIZE, TILE_SIZE, BufferedImage.TYPE_INT_RGB);
+						}
+
+						BufferedImage child = ImageIO.read(childFile);
+						downsample(child, tile, cx * TILE_SIZE / 2, cy * TILE_SIZE / 2);
+					}
+				}
+
+				if (tile != null)
+				{
+					ImageIO.write(tile, "png", tileFile(outDir, zoom, x, y));
+					++tiles;
+				}
+			}
+		}
+
+		logger.info("Wrote {} tiles at zoom {}", tiles, zoom);
+	}
+
+	private static void downsample(BufferedImage from, BufferedImage to, int toX, int toY)
+	{
+		int[] pixels = from.getRGB(0, 0, TILE_SIZE, TILE_SIZE, null, 0, TILE_SIZE);
+
+		for (int x = 0; x < TILE_SIZE / 2; ++x)
+		{
+			for (int y = 0; y < TILE_SIZE / 2; ++y)
+			{
+				int idx = y * 2 * TILE_SIZE + x * 2;
+				int p1 = pixels[idx], p2 = pixels[idx + 1];
+				int p3 = pixels[idx + TILE_SIZE], p4 = pixels[idx + TILE_SIZE + 1];
+
+				int r = (((p1 >> 16) & 0xFF) + ((p2 >> 16) & 0xFF) + ((p3 >> 16) & 0xFF) + ((p4 >> 16) & 0xFF)) >> 2;
+				int g = (((p1 >> 8) & 0xFF) + ((p2 >> 8) & 0xFF) + ((p3 >> 8) & 0xFF) + ((p4 >> 8) & 0xFF)) >> 2;
+				int b = ((p1 & 0xFF) + (p2 & 0xFF) + (p3 & 0xFF) + (p4 & 0xFF)) >> 2;
+
+				to.setRGB(toX + x, toY + y, (r << 16) | (g << 8) | b);
+			}
+		}
+	}
+
+	private static File tileFile(File outDir, int zoom, int x, int y)
+	{
+		File dir = new File(outDir, zoom + File.separator + x);
+		dir.mkdirs();
+		return new File(dir, y + ".png");
+	}
+
+	private static void loadColumn(RegionLoader regions, int regionX) throws IOException
+	{
+		if (regionX < 0 || regionX >= REGIONS)
+		{
+			return;
+		}
+
+		for (int regionY = 0; regionY < REGIONS; ++regionY)
+		{
+			regions.loadRegion(regionX << 8 | regionY);
+		}
+	}
+
+	private static void unloadColumn(RegionLoader regions, int regionX)
+	{
+		if (regionX < 0 || regionX >= REGIONS)
+		{
+			return;
+		}
+
+		for (int regionY = 0; regionY < REGIONS; ++regionY)
+		{
+			regions.unloadRegion(regionX << 8 | regionY);
+		}
+	}
+
 	public BufferedImage drawRegion(Region region, int z)
 	{
 		int pixelsX = Region.X * MAP_SCALE;
@@ -161,13 +383,13 @@ public class MapImageDumper
 	private void drawMap(BufferedImage image, int drawBaseX, int drawBaseY, int z, Region region)
 	{
 		int[][] map = new int[Region.X * MAP_SCALE][Region.Y * MAP_SCALE];
-		drawMap(map, region, z);
+		drawMap(map, regionLoader, region, z);
 
 		int[][] above = null;
 		if (z < 3)
 		{
 			above = new int[Region.X * MAP_SCALE][Region.Y * MAP_SCALE];
-			drawMap(above, region, z + 1);
+			drawMap(above, regionLoader, region, z + 1);
 		}
 
 		for (int x = 0; x < Region.X; ++x)
@@ -208,6 +430,94 @@ public class MapImageDumper
 		}
 	}
 
+	/**
+	 * Rasterize the underlays and overlays of each region in parallel. Each region
+	 * only draws within its own bounds, so the result is identical to the serial path.
+	 */
+	private void drawMapParallel(BufferedImage image, int z)
+	{
+		ForkJoinPool pool = new ForkJoinPool(threads);
+		try
+		{
+			pool.submit(() -> regionLoader.getRegions().parallelStream().forEach(region ->
+			{
+				int drawBaseX = region.getBaseX() - regionLoader.getLowestX().getBaseX();
+				int drawBaseY = regionLoader.getHighestY().getBaseY() - region.getBaseY();
+
+				int[] pixels = drawRegionTiles(regionLoader, region, z);
+				image.setRGB(drawBaseX * MAP_SCALE, drawBaseY * MAP_SCALE,
+					Region.X * MAP_SCALE, Region.Y * MAP_SCALE,
+					pixels, 0, Region.X * MAP_SCALE);
+			})).get();
+		}
+		catch (InterruptedException ex)
+		{
+			Thread.currentThread().interrupt();
+			throw new RuntimeException(ex);
+		}
+		catch (ExecutionException ex)
+		{
+			throw new RuntimeException(ex.getCause());
+		}
+		finally
+		{
+			pool.shutdown();
+		}
+	}
+
+	/**
+	 * Rasterize the tiles of a region into a row major pixel array, applying the
+	 * same bridge and tile setting rules as {@link #drawMap(BufferedImage, int, int, int, Region)}.
+	 * Pixels of tiles which are not drawn are left as 0.
+	 */
+	private int[] drawRegionTiles(RegionLoader regions, Region region, int z)
+	{
+		int[][] map = new int[Region.X * MAP_SCALE][Region.Y * MAP_SCALE];
+		drawMap(map, regions, region, z);
+
+		int[][] above = null;
+		if (z < 3)
+		{
+			above = new int[Region.X * MAP_SCALE][Region.Y * MAP_SCALE];
+			drawMap(above, regions, region, z + 1);
+		}
+
+		int width = Region.X * MAP_SCALE;
+		int[] pixels = new int[width * Region.Y * MAP_SCALE];
+
+		for (int x = 0; x < Region.X; ++x)
+		{
+			for (int y = 0; y < Region.Y; ++y)
+			{
+				boolean isBridge = (region.getTileSetting(1, x, Region.Y - y - 1) & 2) != 0;
+
+				int tileSetting = region.getTileSetting(z, x, Region.Y - y - 1);
+				if (!isBridge && ((tileSetting & 24) == 0))
+				{
+					drawTile(pixels, width, map, x, y);
+				}
+
+				if (z < 3 && isBridge)
+				{
+					drawTile(pixels, width, above, x, y);
+				}
+			}
+		}
+
+		return pixels;
+	}
+
+	private void drawTile(int[] to, int width, int[][] pixels, int x, int y)
+	{
+		for (int i = 0; i < MAP_SCALE; ++i)
+		{
+			for (int j = 0; j < MAP_SCALE; ++j)
+			{
+				to[(y * MAP_SCALE + j) * width + x * MAP_SCALE + i] = pixels[x * MAP_SCALE + i][y * MAP_SCALE + j];
+			}
+		}
+	}
+
 	private void drawTile(BufferedImage to, int[][] pixels, int drawBaseX, int drawBaseY, int x, int y)
 	{
 		for (int i = 0; i < MAP_SCALE; ++i)
@@ -221,7 +531,7 @@ public class MapImageDumper
 		}
 	}
 
-	private void drawMap(int[][] pixels, Region region, int z)
+	private void drawMap(int[][] pixels, RegionLoader regions, Region region, int z)
 	{
 		int baseX = region.getBaseX();
 		int baseY = region.getBaseY();
@@ -233,10 +543,10 @@ public class MapImageDumper
 		int[] mul = new int[len];
 		int[] num = new int[len];
 
-		boolean hasLeftRegion = regionLoader.findRegionForWorldCoordinates(baseX - 1, baseY) != null;
-		boolean hasRightRegion = regionLoader.findRegionForWorldCoordinates(baseX + Region.X, baseY) != null;
-		boolean hasUpRegion = regionLoader.findRegionForWorldCoordinates(baseX, baseY + Region.Y) != null;
-		boolean hasDownRegion = regionLoader.findRegionForWorldCoordinates(baseX, baseY - 1) != null;
+		boolean hasLeftRegion = regions.findRegionForWorldCoordinates(baseX - 1, baseY) != null;
+		boolean hasRightRegion = regions.findRegionForWorldCoordinates(baseX + Region.X, baseY) != null;
+		boolean hasUpRegion = regions.findRegionForWorldCoordinates(baseX, baseY + Region.Y) != null;
+		boolean hasDownRegion = regions.findRegionForWorldCoordinates(baseX, baseY - 1) != null;
 
 		for (int xi = (hasLeftRegion ? -BLEND * 2 : -BLEND); xi < Region.X + (hasRightRegion ? BLEND * 2 : BLEND); ++xi)
 		{
@@ -245,7 +555,7 @@ public class MapImageDumper
 				int xr = xi + BLEND;
 				if (xr >= (hasLeftRegion ? -BLEND : 0) && xr < Region.X + (hasRightRegion ? BLEND : 0))
 				{
-					Region r = regionLoader.findRegionForWorldCoordinates(baseX + xr, baseY + yi);
+					Region r = regions.findRegionForWorldCoordinates(baseX + xr, baseY + yi);
 					if (r != null)
 					{
 						int underlayId = r.getUnderlayId(z, convert(xr), convert(yi));
@@ -264,7 +574,7 @@ public class MapImageDumper
 				int xl = xi - BLEND;
 				if (xl >= (hasLeftRegion ? -BLEND : 0) && xl < Region.X + (hasRightRegion ? BLEND : 0))
 				{
-					Region r = regionLoader.findRegionForWorldCoordinates(baseX + xl, baseY + yi);
+					Region r = regions.findRegionForWorldCoordinates(baseX + xl, baseY + yi);
 					if (r != null)
 					{
 						int underlayId = r.getUnderlayId(z, convert(xl), convert(yi));
@@ -313,7 +623,7 @@ public class MapImageDumper
 
 					if (yi >= 0 && yi < Region.Y)
 					{
-						Region r = regionLoader.findRegionForWorldCoordinates(baseX + xi, baseY + yi);
+						Region r = regions.findRegionForWorldCoordinates(baseX + xi, baseY + yi);
 						if (r != null)
 						{
 							int underlayId = r.getUnderlayId(z, convert(xi), convert(yi));
@@ -894,7 +1204,22 @@ public class MapImageDumper
 	private void loadRegions(Store store) throws IOException
 	{
 		regionLoader = new RegionLoader(store);
-		regionLoader.loadRegions();
+		if (threads > 1)
+		{
+			ForkJoinPool pool = new ForkJoinPool(threads);
+			try
+			{
+				regionLoader.loadRegions(pool);
+			}
+			finally
+			{
+				pool.shutdown();
+			}
+		}
+		else
+		{
+			regionLoader.loadRegions();
+		}
 		regionLoader.calculateBounds();
 
 		logger.info("North most region: {}", regionLoader.getLowestY().getBaseY());
@@ -169,7 +169,9 @@ public class Archive
 
 	public void setNameHash(int nameHash)
 	{
+		int oldHash = this.nameHash;
 		this.nameHash = nameHash;
+		index.updateNameHash(this, oldHash);
 	}
 
 	public int getCrc()
@@ -24,6 +24,8 @@
  */
 package net.runelite.cache.fs;
 
+import io.netty.util.collection.IntObjectHashMap;
+import io.netty.util.collection.IntObjectMap;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
@@ -47,6 +49,8 @@ public class Index
 	private int compression; // compression method of this index's data in 255
 
 	private final List<Archive> archives = new ArrayList<>();
+	private final IntObjectMap<Archive> archivesById = new IntObjectHashMap<>();
+	private final IntObjectMap<Archive> archivesByName = new IntObjectHashMap<>();
 
 	public Index(int id)
 	{
@@ -145,6 +149,13 @@ public class Index
 		this.compression = compression;
 	}
 
+	/**
+	 * Get the archives in this index. The returned list may be reordered,
+	 * but archives must be added and removed with {@link #addArchive(int)}
+	 * and {@link #removeArchive(Archive)} so the lookup tables stay in sync.
+	 *
+	 * @return
+	 */
 	public List<Archive> getArchives()
 	{
 		return archives;
@@ -154,32 +165,100 @@ public class Index
 	{
 		Archive archive = new Archive(this, id);
 		this.archives.add(archive);
+		if (!archivesById.containsKey(id))
+		{
+			archivesById.put(id, archive);
+		}
 		return archive;
 	}
 
-	public Archive getArchive(int id)
+	public void removeArchive(Archive archive)
 	{
-		for (Archive a : archives)
+		assert archive.getIndex() == this;
+
+		if (!archives.remove(archive))
+		{
+			return;
+		}
+
+		int id = archive.getArchiveId();
+		if (archivesById.get(id) == archive)
+		{
+			archivesById.remove(id);
+
+			// archive ids should be unique, but keep the first match if not
+			for (Archive a : archives)
+			{
+				if (a.getArchiveId() == id)
+				{
+					archivesById.put(id, a);
+					break;
+				}
+			}
+		}
+
+		int nameHash = archive.getNameHash();
+		if (archivesByName.get(nameHash) == archive)
 		{
-			if (a.getArchiveId() == id)
+			archivesByName.remove(nameHash);
+
+			// another archive may share the name hash
+			for (Archive a : archives)
 			{
-				return a;
+				if (a.getNameHash() == nameHash)
+				{
+					archivesByName.put(nameHash, a);
+					break;
+				}
 			}
 		}
-		return null;
 	}
 
-	public Archive findArchiveByName(String name)
+	/**
+	 * Called by {@link Archive#setNameHash(int)} to keep the name lookup table in sync
+	 *
+	 * @param archive
+	 * @param oldHash
+	 */
+	void updateNameHash(Archive archive, int oldHash)
 	{
-		int hash = Djb2.hash(name);
-		for (Archive a : archives)
+		int nameHash = archive.getNameHash();
+		if (nameHash == oldHash)
 		{
-			if (a.getNameHash() == hash)
+			return;
+		}
+
+		if (archivesByName.get(oldHash) == archive)
+		{
+			archivesByName.remove(oldHash);
+
+			for (Archive a : archives)
 			{
-				return a;
+				if (a != archive && a.getNameHash() == oldHash)
+				{
+					archivesByName.put(oldHash, a);
+					break;
+				}
 			}
 		}
-		return null;
+
+		// on a collision the archive earliest in the index wins
+		Archive existing = archivesByName.get(nameHash);
+		if (existing == null || archives.indexOf(archive) < archives.indexOf(existing))
+		{
+			archivesByName.put(nameHash, archive);
+		}
+	}
+
+	public Archive getArchive(int id)
+	{
+		return archivesById.get(id);
+	}
+
+	public Archive findArchiveByName(String name)
+	{
+		int hash = Djb2.hash(name);
+		return archivesByName.get(hash);
 	}
 
 	public IndexData toIndexData()
@@ -85,7 +85,7 @@ public class DiskStorage implements Storage
 		}
 	}
 
-	private IndexFile getIndex(int i) throws FileNotFoundException
+	private synchronized IndexFile getIndex(int i) throws FileNotFoundException
 	{
 		for (IndexFile indexFile : indexFiles)
 		{
@@ -121,6 +121,18 @@ public class DiskStorage implements Storage
 		logger.trace("Loading index {}", index.getId());
 
 		byte[] indexData = readIndex(index.getId());
+		loadIndex(index, indexData);
+	}
+
+	/**
+	 * Populate an index from its compressed index data, as read from index 255
+	 *
+	 * @param index index to populate
+	 * @param indexData compressed index data
+	 * @throws IOException
+	 */
+	static void loadIndex(Index index, byte[] indexData) throws IOException
+	{
 		Container res = Container.decompress(indexData, null);
 		byte[] data = res.data;
 
@@ -0,0 +1,260 @@
+/*
+ * Copyright (c) 2019, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.cache.fs.jagex;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import net.runelite.cache.fs.Archive;
+import net.runelite.cache.fs.Index;
+import net.runelite.cache.fs.Storage;
+import net.runelite.cache.fs.Store;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A read only {@link Storage} for the Jagex cache format which memory maps
+ * the data and index files. Reads only use absolute offsets into the mapped
+ * buffers, so {@link #loadArchive(Archive)} may be called concurrently from
+ * any number of threads without locking.
+ */
+public class MappedDiskStorage implements Storage
+{
+	private static final Logger logger = LoggerFactory.getLogger(MappedDiskStorage.class);
+
+	private static final String MAIN_FILE_CACHE_DAT = "main_file_cache.dat2";
+	private static final String MAIN_FILE_CACHE_IDX = "main_file_cache.idx";
+
+	private static final int SECTOR_SIZE = 520;
+	private static final int INDEX_ENTRY_LEN = 6;
+	private static final int INDEX_255 = 255;
+
+	// mapped buffers are limited to 2GB, so the data file is mapped in
+	// chunks of whole sectors so that a sector never spans two chunks
+	private static final int SECTORS_PER_CHUNK = Integer.MAX_VALUE / SECTOR_SIZE;
+	private static final long CHUNK_SIZE = (long) SECTORS_PER_CHUNK * SECTOR_SIZE;
+
+	private final MappedByteBuffer[] data;
+	private final long dataLength;
+	private final MappedByteBuffer index255;
+	private final MappedByteBuffer[] indexes;
+
+	public MappedDiskStorage(File folder) throws IOException
+	{
+		File dataFile = new File(folder, MAIN_FILE_CACHE_DAT);
+		try (RandomAccessFile raf = new RandomAccessFile(dataFile, "r");
+			FileChannel channel = raf.getChannel())
+		{
+			dataLength = channel.size();
+
+			int chunks = (int) ((dataLength + CHUNK_SIZE - 1) / CHUNK_SIZE);
+			data = new MappedByteBuffer[chunks];
+			for (int i = 0; i < chunks; ++i)
+			{
+				long offset = i * CHUNK_SIZE;
+				data[i] = channel.map(FileChannel.MapMode.READ_ONLY, offset, Math.min(CHUNK_SIZE, dataLength - offset));
+			}
+		}
+
+		index255 = map(new File(folder, MAIN_FILE_CACHE_IDX + INDEX_255));
+
+		int indexCount = index255.capacity() / INDEX_ENTRY_LEN;
+		indexes = new MappedByteBuffer[indexCount];
+		for (int i = 0; i < indexCount; ++i)
+		{
+			File file = new File(folder, MAIN_FILE_CACHE_IDX + i);
+			if (file.exists())
+			{
+				indexes[i] = map(file);
+			}
+		}
+	}
+
+	private static MappedByteBuffer map(File file) throws IOException
+	{
+		try (RandomAccessFile raf = new RandomAccessFile(file, "r");
+			FileChannel channel = raf.getChannel())
+		{
+			return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+		}
+	}
+
+	@Override
+	public void init(Store store) throws IOException
+	{
+		for (int i = 0; i < indexes.length; ++i)
+		{
+			store.addIndex(i);
+		}
+	}
+
+	@Override
+	public void close() throws IOException
+	{
+		// mapped buffers are unmapped when they are garbage collected
+	}
+
+	@Override
+	public void load(Store store) throws IOException
+	{
+		for (Index index : store.getIndexes())
+		{
+			logger.trace("Loading index {}", index.getId());
+
+			byte[] indexData = readIndex(index.getId());
+			if (indexData == null)
+			{
+				throw new IOException("unable to read index " + index.getId());
+			}
+
+			DiskStorage.loadIndex(index, indexData);
+		}
+	}
+
+	public byte[] readIndex(int indexId)
+	{
+		return read(index255, INDEX_255, indexId);
+	}
+
+	@Override
+	public byte[] loadArchive(Archive archive) throws IOException
+	{
+		int indexId = archive.getIndex().getId();
+		if (indexId < 0 || indexId >= indexes.length || indexes[indexId] == null)
+		{
+			logger.debug("can't read archive {} from missing index {}", archive.getArchiveId(), indexId);
+			return null;
+		}
+
+		return read(indexes[indexId], indexId, archive.getArchiveId());
+	}
+
+	private byte[] read(ByteBuffer idx, int indexId, int archiveId)
+	{
+		int pos = archiveId * INDEX_ENTRY_LEN;
+		if (archiveId < 0 || pos + INDEX_ENTRY_LEN > idx.capacity())
+		{
+			logger.debug("short read for id {} on index {}", archiveId, indexId);
+			return null;
+		}
+
+		int length = ((idx.get(pos) & 0xFF) << 16) | ((idx.get(pos + 1) & 0xFF) << 8) | (idx.get(pos + 2) & 0xFF);
+		int sector = ((idx.get(pos + 3) & 0xFF) << 16) | ((idx.get(pos + 4) & 0xFF) << 8) | (idx.get(pos + 5) & 0xFF);
+
+		if (length <= 0 || sector <= 0)
+		{
+			logger.debug("invalid length or sector {}/{}", length, sector);
+			return null;
+		}
+
+		logger.trace("Loading archive {} for index {} from sector {} length {}",
+			archiveId, indexId, sector, length);
+
+		return readSectors(indexId, archiveId, sector, length);
+	}
+
+	private byte[] readSectors(int indexId, int archiveId, int sector, int size)
+	{
+		final long sectorCount = dataLength / SECTOR_SIZE;
+		final boolean largeArchive = archiveId > 0xFFFF;
+		final int headerSize = largeArchive ? 10 : 8;
+
+		byte[] out = new byte[size];
+
+		for (int part = 0, readBytesCount = 0, nextSector;
+			size > readBytesCount;
+			sector = nextSector)
+		{
+			if (sector <= 0 || sectorCount < sector)
+			{
+				logger.warn("bad read, dat length {}, requested sector {}", dataLength, sector);
+				return null;
+			}
+
+			ByteBuffer chunk = data[sector / SECTORS_PER_CHUNK];
+			int pos = (sector % SECTORS_PER_CHUNK) * SECTOR_SIZE;
+
+			int dataBlockSize = Math.min(size - readBytesCount, SECTOR_SIZE - headerSize);
+			if (pos + headerSize + dataBlockSize > chunk.capacity())
+			{
+				logger.warn("Short read when reading file data for {}/{}", indexId, archiveId);
+				return null;
+			}
+
+			int currentArchive;
+			if (largeArchive)
+			{
+				currentArchive = chunk.getInt(pos);
+				pos += 4;
+			}
+			else
+			{
+				currentArchive = chunk.getShort(pos) & 0xFFFF;
+				pos += 2;
+			}
+
+			int currentPart = chunk.getShort(pos) & 0xFFFF;
+			nextSector = ((chunk.get(pos + 2) & 0xFF) << 16)
+				| ((chunk.get(pos + 3) & 0xFF) << 8)
+				| (chunk.get(pos + 4) & 0xFF);
+			int currentIndex = chunk.get(pos + 5) & 0xFF;
+			pos += 6;
+
+			if (archiveId != currentArchive || currentPart != part || indexId != currentIndex)
+			{
+				logger.warn("data mismatch {} != {}, {} != {}, {} != {}",
+					archiveId, currentArchive,
+					part, currentPart,
+					indexId, currentIndex);
+				return null;
+			}
+
+			// duplicate() gives this thread its own position over the shared mapping
+			ByteBuffer view = chunk.duplicate();
+			view.position(pos);
+			view.get(out, readBytesCount, dataBlockSize);
+			readBytesCount += dataBlockSize;
+
+			++part;
+		}
+
+		return out;
+	}
+
+	@Override
+	public void save(Store store) throws IOException
+	{
+		throw new UnsupportedOperationException("MappedDiskStorage is read only");
+	}
+
+	@Override
+	public void saveArchive(Archive archive, byte[] data) throws IOException
+	{
+		throw new UnsupportedOperationException("MappedDiskStorage is read only");
+	}
+}
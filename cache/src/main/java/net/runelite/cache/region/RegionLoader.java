@@ -25,9 +25,13 @@
 package net.runelite.cache.region;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
 import net.runelite.cache.IndexType;
 import net.runelite.cache.definitions.LocationsDefinition;
 import net.runelite.cache.definitions.MapDefinition;
@@ -75,6 +79,81 @@ public class RegionLoader
 		}
 	}
 
+	/**
+	 * Load all regions, decompressing, decrypting and parsing
+	 * the region archives in parallel on the given pool.
+	 * The loaded regions are identical to {@link #loadRegions()}.
+	 *
+	 * @param pool
+	 * @throws IOException
+	 */
+	public void loadRegions(ForkJoinPool pool) throws IOException
+	{
+		Region[] loaded = new Region[MAX_REGION];
+
+		try
+		{
+			pool.submit(() -> IntStream.range(0, MAX_REGION)
+				.parallel()
+				.forEach(i ->
+				{
+					try
+					{
+						loaded[i] = loadRegionFromArchive(i);
+					}
+					catch (IOException ex)
+					{
+						throw new UncheckedIOException(ex);
+					}
+				}))
+				.get();
+		}
+		catch (InterruptedException ex)
+		{
+			Thread.currentThread().interrupt();
+			throw new IOException("interrupted loading regions", ex);
+		}
+		catch (ExecutionException ex)
+		{
+			if (ex.getCause() instanceof UncheckedIOException)
+			{
+				throw ((UncheckedIOException) ex.getCause()).getCause();
+			}
+			throw new IOException(ex.getCause());
+		}
+
+		// insert in the same order as the serial loader
+		for (int i = 0; i < MAX_REGION; ++i)
+		{
+			if (loaded[i] != null)
+			{
+				regions.put(i, loaded[i]);
+			}
+		}
+	}
+
+	/**
+	 * Load a single region and add it to the loaded regions
+	 *
+	 * @param i region id
+	 * @return the region, or null if it doesn't exist
+	 * @throws IOException
+	 */
+	public Region loadRegion(int i) throws IOException
+	{
+		Region region = loadRegionFromArchive(i);
+		if (region != null)
+		{
+			regions.put(i, region);
+		}
+		return region;
+	}
+
+	public void unloadRegion(int i)
+	{
+		regions.remove(i);
+	}
+
 	public Region loadRegionFromArchive(int i) throws IOException
 	{
 		int x = i >> 8;
@@ -31,6 +31,7 @@ import javax.imageio.ImageIO;
 import net.runelite.cache.fs.Store;
 import net.runelite.cache.region.Region;
 import net.runelite.cache.region.RegionLoader;
+import static org.junit.Assert.assertArrayEquals;
 import org.junit.Ignore;
 import org.junit.Rule;
 import org.junit.Test;
@@ -71,6 +72,62 @@ public class MapImageDumperTest
 		}
 	}
 
+	@Test
+	@Ignore
+	public void dumpTiles() throws IOException
+	{
+		File base = StoreLocation.LOCATION,
+			outDir = folder.newFolder();
+
+		try (Store store = new Store(base))
+		{
+			store.load();
+
+			MapImageDumper dumper = new MapImageDumper(store);
+			dumper.loadDefinitions();
+
+			for (int i = 0; i < Region.Z; ++i)
+			{
+				File planeDir = new File(outDir, Integer.toString(i));
+				dumper.drawTiles(i, planeDir, 0);
+				logger.info("Wrote tiles to {}", planeDir);
+			}
+		}
+	}
+
+	@Test
+	@Ignore
+	public void compareParallel() throws IOException
+	{
+		try (Store store = new Store(StoreLocation.LOCATION))
+		{
+			store.load();
+
+			MapImageDumper dumper = new MapImageDumper(store);
+			dumper.setThreads(Runtime.getRuntime().availableProcessors());
+			dumper.load();
+
+			for (int i = 0; i < Region.Z; ++i)
+			{
+				long start = System.currentTimeMillis();
+				BufferedImage parallel = dumper.drawMap(i);
+				long parallelTime = System.currentTimeMillis() - start;
+
+				dumper.setThreads(1);
+				start = System.currentTimeMillis();
+				BufferedImage serial = dumper.drawMap(i);
+				long serialTime = System.currentTimeMillis() - start;
+				dumper.setThreads(Runtime.getRuntime().availableProcessors());
+
+				logger.info("Plane {}: serial {}ms, parallel {}ms", i, serialTime, parallelTime);
+
+				int width = serial.getWidth(), height = serial.getHeight();
+				assertArrayEquals(serial.getRGB(0, 0, width, height, null, 0, width),
+					parallel.getRGB(0, 0, width, height, null, 0, width));
+			}
+		}
+	}
+
 	@Test
 	@Ignore
 	public void dumpRegions() throws Exception
@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) 2019, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.cache.fs;
+
+import java.io.IOException;
+import net.runelite.cache.IndexType;
+import net.runelite.cache.StoreLocation;
+import net.runelite.cache.region.RegionLoader;
+import net.runelite.cache.util.Djb2;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import org.junit.Ignore;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+public class IndexTest
+{
+	private static final Logger logger = LoggerFactory.getLogger(IndexTest.class);
+
+	private static final int ITERATIONS = 10;
+
+	@Test
+	public void testLookup()
+	{
+		Index index = new Index(0);
+		Archive a = index.addArchive(1);
+		a.setNameHash(Djb2.hash("a"));
+		Archive b = index.addArchive(7);
+		b.setNameHash(Djb2.hash("b"));
+
+		assertSame(a, index.getArchive(1));
+		assertSame(b, index.getArchive(7));
+		assertNull(index.getArchive(2));
+
+		assertSame(a, index.findArchiveByName("a"));
+		assertSame(b, index.findArchiveByName("b"));
+		assertNull(index.findArchiveByName("c"));
+
+		b.setNameHash(Djb2.hash("c"));
+		assertNull(index.findArchiveByName("b"));
+		assertSame(b, index.findArchiveByName("c"));
+
+		index.removeArchive(a);
+		assertNull(index.getArchive(1));
+		assertNull(index.findArchiveByName("a"));
+		assertSame(b, index.getArchive(7));
+	}
+
+	@Test
+	public void testNameCollision()
+	{
+		Index index = new Index(0);
+		Archive a = index.addArchive(0);
+		a.setNameHash(Djb2.hash("x"));
+		Archive b = index.addArchive(1);
+		b.setNameHash(Djb2.hash("x"));
+
+		assertSame(a, index.findArchiveByName("x"));
+
+		index.removeArchive(a);
+		assertSame(b, index.findArchiveByName("x"));
+	}
+
+	@Test
+	@Ignore
+	public void benchmarkRegionLoad() throws IOException
+	{
+		try (Store store = new Store(StoreLocation.LOCATION))
+		{
+			store.load();
+
+			Index maps = store.getIndex(IndexType.MAPS);
+
+			long start = System.nanoTime();
+			for (int i = 0; i < ITERATIONS; ++i)
+			{
+				for (int region = 0; region < 32768; ++region)
+				{
+					int x = region >> 8, y = region & 0xFF;
+					linearFind(maps, "m" + x + "_" + y);
+					linearFind(maps, "l" + x + "_" + y);
+				}
+			}
+			logger.info("Linear archive lookup for all regions: {}ms/iteration", (System.nanoTime() - start) / ITERATIONS / 1_000_000L);
+
+			start = System.nanoTime();
+			for (int i = 0; i < ITERATIONS; ++i)
+			{
+				for (int region = 0; region < 32768; ++region)
+				{
+					int x = region >> 8, y = region & 0xFF;
+					maps.findArchiveByName("m" + x + "_" + y);
+					maps.findArchiveByName("l" + x + "_" + y);
+				}
+			}
+			logger.info("Hashed archive lookup for all regions: {}ms/iteration", (System.nanoTime() - start) / ITERATIONS / 1_000_000L);
+
+			start = System.nanoTime();
+			new RegionLoader(store).loadRegions();
+			logger.info("Loaded all regions in {}ms", (System.nanoTime() - start) / 1_000_000L);
+		}
+	}
+
+	private static Archive linearFind(Index index, String name)
+	{
+		int hash = Djb2.hash(name);
+		for (Archive a : index.getArchives())
+		{
+			if (a.getNameHash() == hash)
+			{
+				return a;
+			}
+		}
+		return null;
+	}
+}
@@ -0,0 +1,243 @@
+/*
+ * Copyright (c) 2019, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.cache.fs.jagex;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import net.runelite.cache.StoreLocation;
+import net.runelite.cache.fs.Archive;
+import net.runelite.cache.fs.Container;
+import net.runelite.cache.fs.Index;
+import net.runelite.cache.fs.Store;
+import net.runelite.cache.index.FileData;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import org.junit.Ignore;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+public class MappedDiskStorageTest
+{
+	private static final Logger logger = LoggerFactory.getLogger(MappedDiskStorageTest.class);
+
+	private static final int ITERATIONS = 5;
+
+	@Rule
+	public TemporaryFolder folder = StoreLocation.getTemporaryFolder();
+
+	@Test
+	public void testReadSaved() throws Exception
+	{
+		File file = folder.newFolder();
+		byte[] small = "test".getBytes();
+		byte[] large = new byte[4096];
+		for (int i = 0; i < large.length; ++i)
+		{
+			large[i] = (byte) i;
+		}
+
+		try (Store store = new Store(new DiskStorage(file)))
+		{
+			Index index = store.addIndex(0);
+			index.setProtocol(7); // for archive ids > 0xFFFF
+			saveArchive(store, index.addArchive(0), small);
+			saveArchive(store, index.addArchive(0x1FFFF), large);
+			store.save();
+		}
+
+		try (Store store = new Store(new MappedDiskStorage(file)))
+		{
+			store.load();
+
+			Index index = store.findIndex(0);
+			Archive archive = index.getArchive(0);
+			Archive archive2 = index.getArchive(0x1FFFF);
+
+			assertArrayEquals(small, archive.decompress(store.getStorage().loadArchive(archive)));
+			assertArrayEquals(large, archive2.decompress(store.getStorage().loadArchive(archive2)));
+		}
+	}
+
+	private static void saveArchive(Store store, Archive archive, byte[] data) throws IOException
+	{
+		FileData[] fileData = new FileData[]{new FileData()};
+		archive.setFileData(fileData);
+
+		Container container = new Container(archive.getCompression(), -1);
+		container.compress(data, null);
+		store.getStorage().saveArchive(archive, container.data);
+	}
+
+	@Test
+	public void testLoad() throws IOException
+	{
+		try (Store store = new Store(StoreLocation.LOCATION);
+			Store mappedStore = new Store(new MappedDiskStorage(StoreLocation.LOCATION)))
+		{
+			store.load();
+			mappedStore.load();
+
+			assertEquals(store, mappedStore);
+
+			for (Index index : store.getIndexes())
+			{
+				Index mappedIndex = mappedStore.findIndex(index.getId());
+				assertEquals(index.getCrc(), mappedIndex.getCrc());
+
+				for (Archive archive : index.getArchives())
+				{
+					Archive mappedArchive = mappedIndex.getArchive(archive.getArchiveId());
+
+					byte[] data = store.getStorage().loadArchive(archive);
+					byte[] mappedData = mappedStore.getStorage().loadArchive(mappedArchive);
+					assertArrayEquals(data, mappedData);
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testConcurrentLoad() throws Exception
+	{
+		try (Store store = new Store(new MappedDiskStorage(StoreLocation.LOCATION)))
+		{
+			store.load();
+
+			ExecutorService executor = Executors.newFixedThreadPool(4);
+			try
+			{
+				List<Future<Long>> futures = new ArrayList<>();
+				for (Index index : store.getIndexes())
+				{
+					futures.add(executor.submit(() -> loadIndex(store, index)));
+				}
+
+				for (Future<Long> future : futures)
+				{
+					future.get();
+				}
+			}
+			finally
+			{
+				executor.shutdown();
+			}
+		}
+	}
+
+	@Test
+	@Ignore
+	public void benchmark() throws Exception
+	{
+		File base = StoreLocation.LOCATION;
+
+		try (Store store = new Store(base))
+		{
+			store.load();
+
+			long bytes = 0;
+			long start = System.nanoTime();
+			for (int i = 0; i < ITERATIONS; ++i)
+			{
+				for (Index index : store.getIndexes())
+				{
+					bytes += loadIndex(store, index);
+				}
+			}
+			report("DiskStorage, 1 thread", bytes, System.nanoTime() - start);
+		}
+
+		try (Store store = new Store(new MappedDiskStorage(base)))
+		{
+			store.load();
+
+			long bytes = 0;
+			long start = System.nanoTime();
+			for (int i = 0; i < ITERATIONS; ++i)
+			{
+				for (Index index : store.getIndexes())
+				{
+					bytes += loadIndex(store, index);
+				}
+			}
+			report("MappedDiskStorage, 1 thread", bytes, System.nanoTime() - start);
+
+			int threads = Runtime.getRuntime().availableProcessors();
+			ExecutorService executor = Executors.newFixedThreadPool(threads);
+			try
+			{
+				List<Future<Long>> futures = new ArrayList<>();
+				start = System.nanoTime();
+				for (int i = 0; i < ITERATIONS; ++i)
+				{
+					for (Index index : store.getIndexes())
+					{
+						futures.add(executor.submit(() -> loadIndex(store, index)));
+					}
+				}
+
+				bytes = 0;
+				for (Future<Long> future : futures)
+				{
+					bytes += future.get();
+				}
+				report("MappedDiskStorage, " + threads + " threads", bytes, System.nanoTime() - start);
+			}
+			finally
+			{
+				executor.shutdown();
+			}
+		}
+	}
+
+	private static long loadIndex(Store store, Index index) throws IOException
+	{
+		long bytes = 0;
+		for (Archive archive : index.getArchives())
+		{
+			byte[] data = store.getStorage().loadArchive(archive);
+			if (data != null)
+			{
+				bytes += data.length;
+			}
+		}
+		return bytes;
+	}
+
+	private static void report(String name, long bytes, long nanos)
+	{
+		double seconds = nanos / (double) TimeUnit.SECONDS.toNanos(1);
+		logger.info("{}: read {} bytes in {}ms ({} MB/s)", name, bytes,
+			TimeUnit.NANOSECONDS.toMillis(nanos), String.format("%.1f", bytes / seconds / (1024 * 1024)));
+	}
+}
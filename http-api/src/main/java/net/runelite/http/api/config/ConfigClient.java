@@ -45,6 +45,7 @@ public class ConfigClient
 	private static final Logger logger = LoggerFactory.getLogger(ConfigClient.class);
 
 	private static final MediaType TEXT_PLAIN = MediaType.parse("text/plain");
+	private static final MediaType JSON = MediaType.parse("application/json");
 
 	private final UUID uuid;
 
@@ -109,6 +110,42 @@ public class ConfigClient
 		});
 	}
 
+	/**
+	 * Set and unset many keys in a single request. Entries with a null value are unset.
+	 *
+	 * @param configuration
+	 */
+	public void patch(Configuration configuration)
+	{
+		HttpUrl url = RuneLiteAPI.getApiBase().newBuilder()
+			.addPathSegment("config")
+			.build();
+
+		logger.debug("Built URI: {}", url);
+
+		Request request = new Request.Builder()
+			.patch(RequestBody.create(JSON, RuneLiteAPI.GSON.toJson(configuration)))
+			.header(RuneLiteAPI.RUNELITE_AUTH, uuid.toString())
+			.url(url)
+			.build();
+
+		RuneLiteAPI.CLIENT.newCall(request).enqueue(new Callback()
+		{
+			@Override
+			public void onFailure(Call call, IOException e)
+			{
+				logger.warn("Unable to synchronize configuration", e);
+			}
+
+			@Override
+			public void onResponse(Call call, Response response)
+			{
+				response.close();
+				logger.debug("Synchronized {} configuration values", configuration.getConfig().size());
+			}
+		});
+	}
+
 	public void unset(String key)
 	{
 		HttpUrl url = RuneLiteAPI.getApiBase().newBuilder()
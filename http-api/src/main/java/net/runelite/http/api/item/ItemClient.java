@@ -174,11 +174,30 @@ public class ItemClient
 	}
 
 	public ItemPrice[] getPrices() throws IOException
+	{
+		ItemPrices prices = getPrices(null);
+		return prices != null ? prices.getPrices() : null;
+	}
+
+	/**
+	 * Look up item prices. If since is the etag of an earlier lookup, the
+	 * response may only have the prices which changed since then.
+	 *
+	 * @param since etag of an earlier lookup, or null
+	 * @return
+	 * @throws IOException
+	 */
+	public ItemPrices getPrices(String since) throws IOException
 	{
 		HttpUrl.Builder urlBuilder = RuneLiteAPI.getApiBase().newBuilder()
 			.addPathSegment("item")
 			.addPathSegment("prices.js");
 
+		if (since != null)
+		{
+			urlBuilder.addQueryParameter("since", since);
+		}
+
 		HttpUrl url = urlBuilder.build();
 
 		logger.debug("Built URI: {}", url);
@@ -196,7 +215,12 @@ public class ItemClient
 			}
 
 			InputStream in = response.body().byteStream();
-			return RuneLiteAPI.GSON.fromJson(new InputStreamReader(in), ItemPrice[].class);
+
+			ItemPrices prices = new ItemPrices();
+			prices.setEtag(response.header("ETag"));
+			prices.setDelta(Boolean.parseBoolean(response.header(ItemPrice.DELTA_HEADER)));
+			prices.setPrices(RuneLiteAPI.GSON.fromJson(new InputStreamReader(in), ItemPrice[].class));
+			return prices;
 		}
 		catch (JsonParseException ex)
 		{
@@ -30,6 +30,12 @@ import lombok.Data;
 @Data
 public class ItemPrice
 {
+	/**
+	 * Response header of /item/prices, true when the response only has the
+	 * prices which changed since the requested snapshot
+	 */
+	public static final String DELTA_HEADER = "RuneLite-Delta";
+
 	private int id;
 	private String name;
 	private int price;
@@ -27,20 +27,33 @@ package net.runelite.http.api.worlds;
 
 import com.google.gson.JsonParseException;
 import net.runelite.http.api.RuneLiteAPI;
+import okhttp3.Call;
+import okhttp3.Callback;
 import okhttp3.HttpUrl;
+import okhttp3.OkHttpClient;
 import okhttp3.Request;
 import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.BufferedSource;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.util.concurrent.TimeUnit;
 
 public class WorldClient
 {
 	private static final Logger logger = LoggerFactory.getLogger(WorldClient.class);
 
+	private static final String LAST_EVENT_ID = "Last-Event-ID";
+
+	// the stream sends at least one event or comment a minute, so a longer silence is a dead connection
+	private static final OkHttpClient STREAM_CLIENT = RuneLiteAPI.CLIENT.newBuilder()
+		.readTimeout(3, TimeUnit.MINUTES)
+		.build();
+
 	public WorldResult lookupWorlds() throws IOException
 	{
 		HttpUrl url = RuneLiteAPI.getApiBase().newBuilder()
@@ -69,4 +82,139 @@ public class WorldClient
 			throw new IOException(ex);
 		}
 	}
+
+	/**
+	 * Subscribe to the world list. The listener is called from an OkHttp thread
+	 * with the full world list, and then with deltas as the world list changes.
+	 *
+	 * @param etag etag of the world list already held, or null
+	 * @param listener
+	 * @return the call, which may be canceled to unsubscribe
+	 */
+	public Call subscribe(String etag, WorldListener listener)
+	{
+		HttpUrl url = RuneLiteAPI.getApiBase().newBuilder()
+			.addPathSegment("worlds")
+			.addPathSegment("stream")
+			.build();
+
+		logger.debug("Built URI: {}", url);
+
+		Request.Builder builder = new Request.Builder()
+			.url(url)
+			.header("Accept", "text/event-stream");
+
+		if (etag != null)
+		{
+			builder.header(LAST_EVENT_ID, etag);
+		}
+
+		Call call = STREAM_CLIENT.newCall(builder.build());
+		call.enqueue(new Callback()
+		{
+			@Override
+			public void onFailure(Call call, IOException e)
+			{
+				listener.onClose(e);
+			}
+
+			@Override
+			public void onResponse(Call call, Response response)
+			{
+				try (ResponseBody body = response.body())
+				{
+					if (!response.isSuccessful())
+					{
+						listener.onClose(new IOException("Unsuccessful response subscribing to worlds: " + response));
+						return;
+					}
+
+					readEvents(body.source(), listener);
+				}
+				catch (IOException ex)
+				{
+					listener.onClose(ex);
+					return;
+				}
+				catch (JsonParseException ex)
+				{
+					listener.onClose(new IOException(ex));
+					return;
+				}
+
+				listener.onClose(null);
+			}
+		});
+		return call;
+	}
+
+	static void readEvents(BufferedSource source, WorldListener listener) throws IOException
+	{
+		String id = null;
+		String event = null;
+		StringBuilder data = new StringBuilder();
+
+		String line;
+		while ((line = source.readUtf8Line()) != null)
+		{
+			if (line.isEmpty())
+			{
+				if (data.length() > 0)
+				{
+					dispatch(id, event, data.toString(), listener);
+				}
+
+				event = null;
+				data.setLength(0);
+				continue;
+			}
+
+			if (line.startsWith(":"))
+			{
+				// comment, sent to keep the connection alive
+				continue;
+			}
+
+			int colon = line.indexOf(':');
+			String field = colon == -1 ? line : line.substring(0, colon);
+			String value = colon == -1 ? "" : line.substring(colon + 1);
+			if (value.startsWith(" "))
+			{
+				value = value.substring(1);
+			}
+
+			switch (field)
+			{
+				case "id":
+					id = value;
+					break;
+				case "event":
+					event = value;
+					break;
+				case "data":
+					if (data.length() > 0)
+					{
+						data.append('\n');
+					}
+					data.append(value);
+					break;
+			}
+		}
+	}
+
+	private static void dispatch(String id, String event, String data, WorldListener listener)
+	{
+		if (WorldDelta.WORLDS_EVENT.equals(event))
+		{
+			listener.onWorlds(id, RuneLiteAPI.GSON.fromJson(data, WorldResult.class));
+		}
+		else if (WorldDelta.DELTA_EVENT.equals(event))
+		{
+			listener.onDelta(id, RuneLiteAPI.GSON.fromJson(data, WorldDelta.class));
+		}
+		else
+		{
+			logger.debug("Unknown world event {}", event);
+		}
+	}
 }
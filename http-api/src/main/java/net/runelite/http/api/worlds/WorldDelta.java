@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2019, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.http.api.worlds;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import lombok.Data;
+
+/**
+ * Changes to the world list between two snapshots, as pushed by the world stream
+ */
+@Data
+public class WorldDelta
+{
+	public static final String WORLDS_EVENT = "worlds";
+	public static final String DELTA_EVENT = "delta";
+
+	/**
+	 * worlds which were added, or which changed other than their player count
+	 */
+	private List<World> worlds = new ArrayList<>();
+	/**
+	 * player counts of worlds whose player count is their only change, keyed by world id
+	 */
+	private Map<Integer, Integer> players = new HashMap<>();
+	/**
+	 * ids of worlds which were removed
+	 */
+	private List<Integer> removed = new ArrayList<>();
+
+	public boolean isEmpty()
+	{
+		return worlds.isEmpty() && players.isEmpty() && removed.isEmpty();
+	}
+
+	/**
+	 * @return true if the only changes are to player counts
+	 */
+	public boolean isPlayersOnly()
+	{
+		return worlds.isEmpty() && removed.isEmpty();
+	}
+
+	/**
+	 * Apply this delta to a world list
+	 *
+	 * @param worldResult the world list the delta was computed from
+	 * @return a new world list, sorted by world id
+	 */
+	public WorldResult applyTo(WorldResult worldResult)
+	{
+		Map<Integer, World> worldMap = new HashMap<>();
+		for (World world : worldResult.getWorlds())
+		{
+			worldMap.put(world.getId(), world);
+		}
+
+		for (Integer id : removed)
+		{
+			worldMap.remove(id);
+		}
+
+		for (World world : worlds)
+		{
+			worldMap.put(world.getId(), world);
+		}
+
+		for (Map.Entry<Integer, Integer> entry : players.entrySet())
+		{
+			World world = worldMap.get(entry.getKey());
+			if (world != null)
+			{
+				worldMap.put(world.getId(), world.toBuilder().players(entry.getValue()).build());
+			}
+		}
+
+		List<World> worldList = new ArrayList<>(worldMap.values());
+		worldList.sort(Comparator.comparingInt(World::getId));
+
+		WorldResult result = new WorldResult();
+		result.setWorlds(worldList);
+		return result;
+	}
+}
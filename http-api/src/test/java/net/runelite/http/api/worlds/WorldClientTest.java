@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2019, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.http.api.worlds;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import okio.Buffer;
+import static org.junit.Assert.assertEquals;
+import org.junit.Test;
+
+public class WorldClientTest
+{
+	@Test
+	public void testReadEvents() throws IOException
+	{
+		Buffer buffer = new Buffer().writeUtf8(
+			"event:worlds\nid:abc\ndata:{\"worlds\":[{\"id\":301,\"players\":100},{\"id\":302,\"players\":200}]}\n\n"
+				+ ":\n\n"
+				+ "event:delta\nid:def\ndata:{\"players\":{\"302\":250}}\n\n");
+
+		List<String> etags = new ArrayList<>();
+		WorldResult[] worldResult = new WorldResult[1];
+
+		WorldClient.readEvents(buffer, new WorldListener()
+		{
+			@Override
+			public void onWorlds(String etag, WorldResult result)
+			{
+				etags.add(etag);
+				worldResult[0] = result;
+			}
+
+			@Override
+			public void onDelta(String etag, WorldDelta delta)
+			{
+				etags.add(etag);
+				worldResult[0] = delta.applyTo(worldResult[0]);
+			}
+
+			@Override
+			public void onClose(IOException ex)
+			{
+			}
+		});
+
+		assertEquals(2, etags.size());
+		assertEquals("def", etags.get(1));
+		assertEquals(100, worldResult[0].findWorld(301).getPlayers());
+		assertEquals(250, worldResult[0].findWorld(302).getPlayers());
+	}
+}
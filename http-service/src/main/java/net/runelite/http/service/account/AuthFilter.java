@@ -24,25 +24,46 @@
  */
 package net.runelite.http.service.account;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import java.io.IOException;
-import net.runelite.http.service.account.beans.SessionEntry;
 import java.sql.Timestamp;
 import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.PreDestroy;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
 import net.runelite.http.api.RuneLiteAPI;
+import net.runelite.http.service.account.beans.SessionEntry;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.sql2o.Connection;
+import org.sql2o.Query;
 import org.sql2o.Sql2o;
+import org.sql2o.Sql2oException;
 
 @Service
+@Slf4j
 public class AuthFilter
 {
 	private final Sql2o sql2o;
 
+	// sessions are cached for a short time, so a logout on another api instance is seen soon
+	private final Cache<UUID, SessionEntry> sessionCache = CacheBuilder.newBuilder()
+		.maximumSize(10_000)
+		.expireAfterWrite(5, TimeUnit.MINUTES)
+		.build();
+	// last use of each session since the last flush
+	private final ConcurrentMap<UUID, Instant> lastUsed = new ConcurrentHashMap<>();
+
 	@Autowired
 	public AuthFilter(@Qualifier("Runelite SQL2O") Sql2o sql2o)
 	{
@@ -60,11 +81,15 @@ public class AuthFilter
 
 		UUID uuid = UUID.fromString(runeliteAuth);
 
-		try (Connection con = sql2o.open())
+		SessionEntry sessionEntry = sessionCache.getIfPresent(uuid);
+		if (sessionEntry == null)
 		{
-			SessionEntry sessionEntry = con.createQuery("select user, uuid, created from sessions where uuid = :uuid")
-				.addParameter("uuid", uuid.toString())
-				.executeAndFetchFirst(SessionEntry.class);
+			try (Connection con = sql2o.open())
+			{
+				sessionEntry = con.createQuery("select user, uuid, created from sessions where uuid = :uuid")
+					.addParameter("uuid", uuid.toString())
+					.executeAndFetchFirst(SessionEntry.class);
+			}
 
 			if (sessionEntry == null)
 			{
@@ -72,17 +97,82 @@ public class AuthFilter
 				return null;
 			}
 
-			Instant now = Instant.now();
+			sessionCache.put(uuid, sessionEntry);
+		}
 
-			con.createQuery("update sessions set last_used = :last_used where uuid = :uuid")
-				.addParameter("last_used", Timestamp.from(now))
-				.addParameter("uuid", uuid.toString())
-				.executeUpdate();
+		Instant now = Instant.now();
+		sessionEntry.setLastUsed(now);
+		lastUsed.put(uuid, now);
 
-			sessionEntry.setLastUsed(now);
+		return sessionEntry;
+	}
 
-			return sessionEntry;
+	/**
+	 * Remove a session from the cache, for when the session is deleted
+	 *
+	 * @param uuid
+	 */
+	public void invalidate(UUID uuid)
+	{
+		sessionCache.invalidate(uuid);
+		lastUsed.remove(uuid);
+	}
+
+	/**
+	 * Write the last use of sessions in a single batch
+	 */
+	@Scheduled(fixedDelay = 60_000)
+	public void flush()
+	{
+		if (lastUsed.isEmpty())
+		{
+			return;
+		}
+
+		Map<UUID, Instant> batch = new HashMap<>();
+		for (Map.Entry<UUID, Instant> entry : lastUsed.entrySet())
+		{
+			UUID uuid = entry.getKey();
+			Instant time = entry.getValue();
+
+			// keep a newer use which raced with this flush for the next one
+			if (lastUsed.remove(uuid, time))
+			{
+				batch.put(uuid, time);
+			}
+		}
+
+		try (Connection con = sql2o.beginTransaction())
+		{
+			Query query = con.createQuery("update sessions set last_used = :last_used where uuid = :uuid");
+
+			for (Map.Entry<UUID, Instant> entry : batch.entrySet())
+			{
+				query.addParameter("last_used", Timestamp.from(entry.getValue()))
+					.addParameter("uuid", entry.getKey().toString())
+					.addToBatch();
+			}
+
+			query.executeBatch();
+			con.commit(false);
+
+			log.debug("Updated last use of {} sessions", batch.size());
+		}
+		catch (Sql2oException ex)
+		{
+			log.warn("unable to update last use of {} sessions", batch.size(), ex);
+
+			// requeue the batch, a newer use in the meantime wins
+			for (Map.Entry<UUID, Instant> entry : batch.entrySet())
+			{
+				lastUsed.putIfAbsent(entry.getKey(), entry.getValue());
+			}
 		}
 	}
 
+	@PreDestroy
+	public void shutdown()
+	{
+		flush();
+	}
 }
@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2019, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.http.service.cache;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import lombok.extern.slf4j.Slf4j;
+import net.runelite.http.service.cache.beans.CacheEntry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Rendered assets, such as item images and sprites, shared by every endpoint
+ * which serves them. Assets rendered from an older cache are dropped once
+ * a new cache has been ingested.
+ */
+@Service
+@Slf4j
+public class AssetCache
+{
+	private static final long MAX_ASSET_CACHE_WEIGHT = 128L * 1024 * 1024;
+
+	private final CacheService cacheService;
+
+	private final Cache<AssetKey, byte[]> assets = CacheBuilder.newBuilder()
+		.maximumWeight(MAX_ASSET_CACHE_WEIGHT)
+		.<AssetKey, byte[]>weigher((key, data) -> data.length)
+		.recordStats()
+		.build();
+
+	private int latestCacheId = -1;
+
+	@Autowired
+	public AssetCache(CacheService cacheService)
+	{
+		this.cacheService = cacheService;
+	}
+
+	public byte[] get(AssetKey key)
+	{
+		return assets.getIfPresent(key);
+	}
+
+	public void put(AssetKey key, byte[] data)
+	{
+		assets.put(key, data);
+	}
+
+	public CacheStats getStats()
+	{
+		return assets.stats();
+	}
+
+	@Scheduled(fixedDelay = 60_000L)
+	public void checkForNewCache()
+	{
+		CacheEntry cache = cacheService.findMostRecent();
+		if (cache == null || cache.getId() == latestCacheId)
+		{
+			return;
+		}
+
+		latestCacheId = cache.getId();
+		invalidateBefore(cache.getId());
+	}
+
+	/**
+	 * Drop the assets rendered from caches older than the given cache
+	 *
+	 * @param cacheId
+	 */
+	void invalidateBefore(int cacheId)
+	{
+		long size = assets.size();
+		assets.asMap().keySet().removeIf(key -> key.getCacheId() != -1 && key.getCacheId() < cacheId);
+		log.debug("Dropped {} assets older than cache {}", size - assets.size(), cacheId);
+	}
+}
@@ -24,35 +24,23 @@
  */
 package net.runelite.http.service.cache;
 
-import java.awt.image.BufferedImage;
-import java.io.ByteArrayOutputStream;
+import com.google.common.cache.CacheStats;
 import java.io.IOException;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
-import javax.imageio.ImageIO;
 import lombok.extern.slf4j.Slf4j;
 import net.runelite.cache.ConfigType;
 import net.runelite.cache.IndexType;
 import net.runelite.cache.definitions.ItemDefinition;
-import net.runelite.cache.definitions.ModelDefinition;
 import net.runelite.cache.definitions.NpcDefinition;
 import net.runelite.cache.definitions.ObjectDefinition;
-import net.runelite.cache.definitions.SpriteDefinition;
-import net.runelite.cache.definitions.TextureDefinition;
 import net.runelite.cache.definitions.loaders.ItemLoader;
-import net.runelite.cache.definitions.loaders.ModelLoader;
 import net.runelite.cache.definitions.loaders.NpcLoader;
 import net.runelite.cache.definitions.loaders.ObjectLoader;
-import net.runelite.cache.definitions.loaders.SpriteLoader;
-import net.runelite.cache.definitions.loaders.TextureLoader;
-import net.runelite.cache.definitions.providers.ItemProvider;
-import net.runelite.cache.definitions.providers.ModelProvider;
-import net.runelite.cache.definitions.providers.SpriteProvider;
-import net.runelite.cache.definitions.providers.TextureProvider;
 import net.runelite.cache.fs.ArchiveFiles;
-import net.runelite.cache.fs.Container;
 import net.runelite.cache.fs.FSFile;
-import net.runelite.cache.item.ItemSpriteFactory;
 import net.runelite.http.api.cache.Cache;
 import net.runelite.http.api.cache.CacheArchive;
 import net.runelite.http.api.cache.CacheIndex;
@@ -67,6 +55,7 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 @RestController
 @RequestMapping("/cache")
@@ -76,6 +65,12 @@ public class CacheController
 	@Autowired
 	private CacheService cacheService;
 
+	@Autowired
+	private ItemImageService itemImageService;
+
+	@Autowired
+	private AssetCache assetCache;
+
 	@GetMapping("/")
 	public List<Cache> listCaches()
 	{
@@ -84,6 +79,14 @@ public class CacheController
 			.collect(Collectors.toList());
 	}
 
+	@GetMapping("stats")
+	public Map<String, CacheStats> getCacheStats()
+	{
+		Map<String, CacheStats> stats = new HashMap<>(cacheService.getCacheStats());
+		stats.put("assets", assetCache.getStats());
+		return stats;
+	}
+
 	@GetMapping("{cacheId}")
 	public List<CacheIndex> listIndexes(@PathVariable int cacheId)
 	{
@@ -134,13 +137,7 @@ public class CacheController
 			throw new NotFoundException();
 		}
 
-		IndexEntry indexEntry = cacheService.findIndexForCache(cache, indexId);
-		if (indexEntry == null)
-		{
-			throw new NotFoundException();
-		}
-
-		ArchiveEntry archiveEntry = cacheService.findArchiveForIndex(indexEntry, archiveId);
+		ArchiveEntry archiveEntry = cacheService.findArchiveForIndex(cache, indexId, archiveId);
 		if (archiveEntry == null)
 		{
 			throw new NotFoundException();
@@ -163,13 +160,7 @@ public class CacheController
 			throw new NotFoundException();
 		}
 
-		IndexEntry indexEntry = cacheService.findIndexForCache(cache, indexId);
-		if (indexEntry == null)
-		{
-			throw new NotFoundException();
-		}
-
-		ArchiveEntry archiveEntry = cacheService.findArchiveForIndex(indexEntry, archiveId);
+		ArchiveEntry archiveEntry = cacheService.findArchiveForIndex(cache, indexId, archiveId);
 		if (archiveEntry == null)
 		{
 			throw new NotFoundException();
@@ -186,13 +177,7 @@ public class CacheController
 			throw new NotFoundException();
 		}
 
-		IndexEntry indexEntry = cacheService.findIndexForCache(cache, IndexType.CONFIGS.getNumber());
-		if (indexEntry == null)
-		{
-			throw new NotFoundException();
-		}
-
-		ArchiveEntry archiveEntry = cacheService.findArchiveForIndex(indexEntry, config.getId());
+		ArchiveEntry archiveEntry = cacheService.findArchiveForIndex(cache, IndexType.CONFIGS.getNumber(), config.getId());
 		if (archiveEntry == null)
 		{
 			throw new NotFoundException();
@@ -227,91 +212,31 @@ public class CacheController
 		@PathVariable int itemId,
 		@RequestParam(defaultValue = "1") int quantity,
 		@RequestParam(defaultValue = "1") int border,
-		@RequestParam(defaultValue = "3153952") int shadowColor
+		@RequestParam(defaultValue = "3153952") int shadowColor,
+		WebRequest request
 	) throws IOException
 	{
 		final CacheEntry cache = cacheService.findMostRecent();
-		ItemProvider itemProvider = new ItemProvider()
-		{
-			@Override
-			public ItemDefinition provide(int itemId)
-			{
-				try
-				{
-					return getItem(itemId);
-				}
-				catch (IOException ex)
-				{
-					log.warn(null, ex);
-					return null;
-				}
-			}
-		};
-		ModelProvider modelProvider = new ModelProvider()
+		if (cache == null)
 		{
-			@Override
-			public ModelDefinition provide(int modelId) throws IOException
-			{
-				IndexEntry indexEntry = cacheService.findIndexForCache(cache, IndexType.MODELS.getNumber());
-				ArchiveEntry archiveEntry = cacheService.findArchiveForIndex(indexEntry, modelId);
-				byte[] archiveData = Container.decompress(cacheService.getArchive(archiveEntry), null).data;
-				return new ModelLoader().load(modelId, archiveData);
-			}
-		};
-		SpriteProvider spriteProvider = new SpriteProvider()
+			throw new NotFoundException();
+		}
+
+		String etag = ItemImageService.getETag(cache, itemId, quantity, border, shadowColor);
+		if (request.checkNotModified(etag))
 		{
-			@Override
-			public SpriteDefinition provide(int spriteId, int frameId)
-			{
-				try
-				{
-					IndexEntry indexEntry = cacheService.findIndexForCache(cache, IndexType.SPRITES.getNumber());
-					ArchiveEntry archiveEntry = cacheService.findArchiveForIndex(indexEntry, spriteId);
-					byte[] archiveData = Container.decompress(cacheService.getArchive(archiveEntry), null).data;
-					SpriteDefinition[] defs = new SpriteLoader().load(spriteId, archiveData);
-					return defs[frameId];
-				}
-				catch (Exception ex)
-				{
-					log.warn(null, ex);
-					return null;
-				}
-			}
-		};
-
-		TextureProvider textureProvider2 = new TextureProvider()
+			return null;
+		}
+
+		byte[] image = itemImageService.getItemImage(cache, itemId, quantity, border, shadowColor);
+		if (image == null)
 		{
-			@Override
-			public TextureDefinition[] provide()
-			{
-				try
-				{
-					IndexEntry indexEntry = cacheService.findIndexForCache(cache, IndexType.TEXTURES.getNumber());
-					ArchiveEntry archiveEntry = cacheService.findArchiveForIndex(indexEntry, 0);
-					ArchiveFiles archiveFiles = cacheService.getArchiveFiles(archiveEntry);
-					TextureLoader loader = new TextureLoader();
-					TextureDefinition[] defs = new TextureDefinition[archiveFiles.getFiles().size()];
-					int i = 0;
-					for (FSFile file : archiveFiles.getFiles())
-					{
-						TextureDefinition def = loader.load(file.getFileId(), file.getContents());
-						defs[i++] = def;
-					}
-					return defs;
-				}
-				catch (Exception ex)
-				{
-					log.warn(null, ex);
-					return null;
-				}
-			}
-		};
-
-		BufferedImage itemImage = ItemSpriteFactory.createSprite(itemProvider, modelProvider, spriteProvider, textureProvider2,
-			itemId, quantity, border, shadowColor, false);
-		ByteArrayOutputStream bao = new ByteArrayOutputStream();
-		ImageIO.write(itemImage, "png", bao);
-		return ResponseEntity.ok(bao.toByteArray());
+			throw new NotFoundException();
+		}
+
+		return ResponseEntity.ok()
+			.eTag(etag)
+			.body(image);
 	}
 
 	@GetMapping("object/{objectId}")
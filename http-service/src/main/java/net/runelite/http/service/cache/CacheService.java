@@ -24,7 +24,14 @@
  */
 package net.runelite.http.service.cache;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.CacheStats;
+import com.google.common.cache.LoadingCache;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Iterables;
+import com.google.common.hash.HashCode;
 import com.google.common.io.BaseEncoding;
 import com.google.common.io.ByteStreams;
 import io.minio.MinioClient;
@@ -42,12 +49,16 @@ import java.security.InvalidKeyException;
 import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import lombok.extern.slf4j.Slf4j;
 import net.runelite.cache.ConfigType;
 import net.runelite.cache.IndexType;
 import net.runelite.cache.definitions.ItemDefinition;
+import net.runelite.cache.definitions.TextureDefinition;
 import net.runelite.cache.definitions.loaders.ItemLoader;
+import net.runelite.cache.definitions.loaders.TextureLoader;
 import net.runelite.cache.fs.ArchiveFiles;
 import net.runelite.cache.fs.Container;
 import net.runelite.cache.fs.FSFile;
@@ -73,11 +84,33 @@ public class CacheService
 	@Qualifier("Runelite Cache SQL2O")
 	private Sql2o sql2o;
 
+	private static final long MAX_ARCHIVE_CACHE_WEIGHT = 64L * 1024 * 1024;
+	private static final long MAX_ARCHIVE_TABLES = 64L;
+
 	@Value("${minio.bucket}")
 	private String minioBucket;
 
 	private final MinioClient minioClient;
 
+	// Archives are keyed by the sha256 of their data, so these never need invalidating
+	private final Cache<HashCode, byte[]> archiveCache = CacheBuilder.newBuilder()
+		.maximumWeight(MAX_ARCHIVE_CACHE_WEIGHT)
+		.<HashCode, byte[]>weigher((hash, data) -> data.length)
+		.recordStats()
+		.build();
+
+	private final Cache<HashCode, ArchiveFiles> archiveFilesCache = CacheBuilder.newBuilder()
+		.maximumWeight(MAX_ARCHIVE_CACHE_WEIGHT)
+		.<HashCode, ArchiveFiles>weigher((hash, files) -> weigh(files))
+		.recordStats()
+		.build();
+
+	// caches are never modified once created, so neither are their indexes
+	private final LoadingCache<IndexTableKey, Map<Integer, ArchiveEntry>> archiveTableCache = CacheBuilder.newBuilder()
+		.maximumSize(MAX_ARCHIVE_TABLES)
+		.recordStats()
+		.build(CacheLoader.from(this::loadArchiveTable));
+
 	@Autowired
 	public CacheService(
 		@Value("${minio.endpoint}") String minioEndpoint,
@@ -122,7 +155,64 @@ public class CacheService
 		}
 	}
 
+	/**
+	 * retrieve and decompress an archive, caching it by its hash
+	 *
+	 * @param archiveEntry
+	 * @return
+	 * @throws IOException
+	 */
+	public byte[] getDecompressedArchive(ArchiveEntry archiveEntry) throws IOException
+	{
+		HashCode hash = HashCode.fromBytes(archiveEntry.getHash());
+		byte[] data = archiveCache.getIfPresent(hash);
+		if (data != null)
+		{
+			return data;
+		}
+
+		byte[] archiveData = getArchive(archiveEntry);
+		if (archiveData == null)
+		{
+			return null;
+		}
+
+		Container result = Container.decompress(archiveData, null);
+		if (result == null)
+		{
+			return null;
+		}
+
+		archiveCache.put(hash, result.data);
+		return result.data;
+	}
+
+	/**
+	 * retrieve the files of an archive, caching them by the archive hash.
+	 * The returned files are shared and must not be modified.
+	 *
+	 * @param archiveEntry
+	 * @return
+	 * @throws IOException
+	 */
 	public ArchiveFiles getArchiveFiles(ArchiveEntry archiveEntry) throws IOException
+	{
+		HashCode hash = HashCode.fromBytes(archiveEntry.getHash());
+		ArchiveFiles cached = archiveFilesCache.getIfPresent(hash);
+		if (cached != null)
+		{
+			return cached;
+		}
+
+		ArchiveFiles archiveFiles = loadArchiveFiles(archiveEntry);
+		if (archiveFiles != null)
+		{
+			archiveFilesCache.put(hash, archiveFiles);
+		}
+		return archiveFiles;
+	}
+
+	private ArchiveFiles loadArchiveFiles(ArchiveEntry archiveEntry) throws IOException
 	{
 		CacheDAO cacheDao = new CacheDAO();
 
@@ -222,6 +312,101 @@ public class CacheService
 		}
 	}
 
+	/**
+	 * find an archive of a cache, using the archive table of its index
+	 *
+	 * @param cache
+	 * @param indexId
+	 * @param archiveId
+	 * @return
+	 */
+	public ArchiveEntry findArchiveForIndex(CacheEntry cache, int indexId, int archiveId)
+	{
+		return archiveTableCache.getUnchecked(new IndexTableKey(cache.getId(), indexId)).get(archiveId);
+	}
+
+	private Map<Integer, ArchiveEntry> loadArchiveTable(IndexTableKey key)
+	{
+		try (Connection con = sql2o.open())
+		{
+			CacheDAO cacheDao = new CacheDAO();
+			CacheEntry cache = cacheDao.findCache(con, key.getCacheId());
+			IndexEntry indexEntry = cache != null ? cacheDao.findIndexForCache(con, cache, key.getIndexId()) : null;
+			if (indexEntry == null)
+			{
+				return Collections.emptyMap();
+			}
+
+			Map<Integer, ArchiveEntry> archives = new HashMap<>();
+			try (ResultSetIterable<ArchiveEntry> archiveEntries = cacheDao.findArchivesForIndex(con, indexEntry))
+			{
+				for (ArchiveEntry archiveEntry : archiveEntries)
+				{
+					archives.put(archiveEntry.getArchiveId(), archiveEntry);
+				}
+			}
+			return archives;
+		}
+	}
+
+	/**
+	 * get the texture definitions of a cache. The archive files are cached,
+	 * but each call decodes its own definitions, as rendering fills in their
+	 * pixels and so they can not be shared between renders.
+	 *
+	 * @param cache
+	 * @return
+	 * @throws IOException
+	 */
+	public TextureDefinition[] getTextures(CacheEntry cache) throws IOException
+	{
+		ArchiveEntry archiveEntry = findArchiveForIndex(cache, IndexType.TEXTURES.getNumber(), 0);
+		if (archiveEntry == null)
+		{
+			return null;
+		}
+
+		ArchiveFiles archiveFiles = getArchiveFiles(archiveEntry);
+		if (archiveFiles == null)
+		{
+			return null;
+		}
+
+		TextureLoader loader = new TextureLoader();
+		TextureDefinition[] textures = new TextureDefinition[archiveFiles.getFiles().size()];
+		int i = 0;
+		for (FSFile file : archiveFiles.getFiles())
+		{
+			textures[i++] = loader.load(file.getFileId(), file.getContents());
+		}
+
+		return textures;
+	}
+
+	/**
+	 * get the hit, miss and eviction counts of the archive caches
+	 *
+	 * @return
+	 */
+	public Map<String, CacheStats> getCacheStats()
+	{
+		return ImmutableMap.of(
+			"archives", archiveCache.stats(),
+			"archiveFiles", archiveFilesCache.stats(),
+			"archiveTables", archiveTableCache.stats()
+		);
+	}
+
+	private static int weigh(ArchiveFiles archiveFiles)
+	{
+		int weight = 0;
+		for (FSFile file : archiveFiles.getFiles())
+		{
+			weight += file.getContents().length;
+		}
+		return weight;
+	}
+
 	public ArchiveEntry findArchiveForTypeAndName(CacheEntry cache, IndexType index, int nameHash)
 	{
 		try (Connection con = sql2o.open())
@@ -239,8 +424,7 @@ public class CacheService
 			return Collections.emptyList();
 		}
 
-		IndexEntry indexEntry = findIndexForCache(cache, IndexType.CONFIGS.getNumber());
-		ArchiveEntry archiveEntry = findArchiveForIndex(indexEntry, ConfigType.ITEM.getId());
+		ArchiveEntry archiveEntry = findArchiveForIndex(cache, IndexType.CONFIGS.getNumber(), ConfigType.ITEM.getId());
 		ArchiveFiles archiveFiles = getArchiveFiles(archiveEntry);
 		final ItemLoader itemLoader = new ItemLoader();
 		final List<ItemDefinition> result = new ArrayList<>(archiveFiles.getFiles().size());
@@ -0,0 +1,292 @@
+/*
+ * Copyright (c) 2019, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.http.service.cache;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.annotation.PreDestroy;
+import javax.imageio.ImageIO;
+import lombok.extern.slf4j.Slf4j;
+import net.runelite.cache.ConfigType;
+import net.runelite.cache.IndexType;
+import net.runelite.cache.definitions.ItemDefinition;
+import net.runelite.cache.definitions.ModelDefinition;
+import net.runelite.cache.definitions.SpriteDefinition;
+import net.runelite.cache.definitions.TextureDefinition;
+import net.runelite.cache.definitions.loaders.ItemLoader;
+import net.runelite.cache.definitions.loaders.ModelLoader;
+import net.runelite.cache.definitions.loaders.SpriteLoader;
+import net.runelite.cache.definitions.providers.ItemProvider;
+import net.runelite.cache.definitions.providers.ModelProvider;
+import net.runelite.cache.definitions.providers.SpriteProvider;
+import net.runelite.cache.definitions.providers.TextureProvider;
+import net.runelite.cache.fs.ArchiveFiles;
+import net.runelite.cache.fs.FSFile;
+import net.runelite.cache.item.ItemSpriteFactory;
+import net.runelite.http.service.cache.beans.ArchiveEntry;
+import net.runelite.http.service.cache.beans.CacheEntry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Renders item images, keeping each rendered image in the {@link AssetCache}.
+ * A rendered image only depends on the cache and the render parameters,
+ * so it never changes once rendered.
+ */
+@Service
+@Slf4j
+public class ItemImageService
+{
+	public static final int DEFAULT_QUANTITY = 1;
+	public static final int DEFAULT_BORDER = 1;
+	public static final int DEFAULT_SHADOW_COLOR = 3153952;
+
+	// bump when the renderer changes, to invalidate images held by clients
+	private static final int RENDER_VERSION = 1;
+
+	private final CacheService cacheService;
+	private final AssetCache assetCache;
+	private final boolean prerender;
+
+	// prerendering takes minutes, so it is kept off the scheduler thread shared by all scheduled jobs
+	private final ExecutorService prerenderExecutor = Executors.newSingleThreadExecutor();
+	private final AtomicBoolean prerendering = new AtomicBoolean();
+	private volatile int prerenderedCacheId = -1;
+
+	@Autowired
+	public ItemImageService(
+		CacheService cacheService,
+		AssetCache assetCache,
+		@Value("${runelite.cache.prerender:false}") boolean prerender
+	)
+	{
+		this.cacheService = cacheService;
+		this.assetCache = assetCache;
+		this.prerender = prerender;
+	}
+
+	@PreDestroy
+	public void shutdown()
+	{
+		prerenderExecutor.shutdownNow();
+	}
+
+	/**
+	 * get a strong entity tag for an item image
+	 */
+	public static String getETag(CacheEntry cache, int itemId, int quantity, int border, int shadowColor)
+	{
+		return "\"" + RENDER_VERSION + "-" + cache.getId() + "-" + itemId + "-" + quantity
+			+ "-" + border + "-" + shadowColor + "\"";
+	}
+
+	/**
+	 * get an item image as png, rendering it if it has not been already
+	 *
+	 * @return the png, or null if the item does not exist
+	 * @throws IOException
+	 */
+	public byte[] getItemImage(CacheEntry cache, int itemId, int quantity, int border, int shadowColor) throws IOException
+	{
+		ItemImageKey key = new ItemImageKey(cache.getId(), itemId, quantity, border, shadowColor);
+		byte[] image = assetCache.get(key);
+		if (image != null)
+		{
+			return image;
+		}
+
+		ArchiveFiles itemFiles = getItemFiles(cache);
+		if (itemFiles == null || itemFiles.findFile(itemId) == null)
+		{
+			return null;
+		}
+
+		image = render(cache, itemFiles, itemId, quantity, border, shadowColor);
+		if (image != null)
+		{
+			assetCache.put(key, image);
+		}
+		return image;
+	}
+
+	/**
+	 * Render the default image of every item of a cache, using all cores
+	 *
+	 * @param cache
+	 * @throws IOException
+	 */
+	public void prerender(CacheEntry cache) throws IOException
+	{
+		ArchiveFiles itemFiles = getItemFiles(cache);
+		if (itemFiles == null)
+		{
+			return;
+		}
+
+		long start = System.nanoTime();
+		AtomicInteger count = new AtomicInteger();
+		ForkJoinPool pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+		try
+		{
+			pool.submit(() -> itemFiles.getFiles().parallelStream().forEach(file ->
+			{
+				try
+				{
+					if (getItemImage(cache, file.getFileId(), DEFAULT_QUANTITY, DEFAULT_BORDER, DEFAULT_SHADOW_COLOR) != null)
+					{
+						count.incrementAndGet();
+					}
+				}
+				catch (Exception ex)
+				{
+					log.debug("unable to render item {}", file.getFileId(), ex);
+				}
+			})).join();
+		}
+		finally
+		{
+			pool.shutdown();
+		}
+
+		log.info("Rendered {} item images for cache {} in {}ms", count.get(), cache.getId(),
+			TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+	}
+
+	@Scheduled(initialDelay = 60_000L, fixedDelay = 5 * 60_000L)
+	public void prerenderNewCache()
+	{
+		if (!prerender)
+		{
+			return;
+		}
+
+		CacheEntry cache = cacheService.findMostRecent();
+		if (cache == null || cache.getId() == prerenderedCacheId || !prerendering.compareAndSet(false, true))
+		{
+			return;
+		}
+
+		prerenderExecutor.execute(() ->
+		{
+			try
+			{
+				prerender(cache);
+				prerenderedCacheId = cache.getId();
+			}
+			catch (IOException ex)
+			{
+				log.warn("unable to prerender item images", ex);
+			}
+			finally
+			{
+				prerendering.set(false);
+			}
+		});
+	}
+
+	private ArchiveFiles getItemFiles(CacheEntry cache) throws IOException
+	{
+		ArchiveEntry itemArchive = cacheService.findArchiveForIndex(cache, IndexType.CONFIGS.getNumber(), ConfigType.ITEM.getId());
+		return itemArchive != null ? cacheService.getArchiveFiles(itemArchive) : null;
+	}
+
+	private byte[] render(CacheEntry cache, ArchiveFiles itemFiles, int itemId, int quantity, int border, int shadowColor) throws IOException
+	{
+		ItemProvider itemProvider = new ItemProvider()
+		{
+			@Override
+			public ItemDefinition provide(int itemId)
+			{
+				FSFile file = itemFiles.findFile(itemId);
+				return file != null ? new ItemLoader().load(itemId, file.getContents()) : null;
+			}
+		};
+		ModelProvider modelProvider = new ModelProvider()
+		{
+			@Override
+			public ModelDefinition provide(int modelId) throws IOException
+			{
+				ArchiveEntry archiveEntry = cacheService.findArchiveForIndex(cache, IndexType.MODELS.getNumber(), modelId);
+				byte[] archiveData = cacheService.getDecompressedArchive(archiveEntry);
+				return new ModelLoader().load(modelId, archiveData);
+			}
+		};
+		SpriteProvider spriteProvider = new SpriteProvider()
+		{
+			@Override
+			public SpriteDefinition provide(int spriteId, int frameId)
+			{
+				try
+				{
+					ArchiveEntry archiveEntry = cacheService.findArchiveForIndex(cache, IndexType.SPRITES.getNumber(), spriteId);
+					byte[] archiveData = cacheService.getDecompressedArchive(archiveEntry);
+					SpriteDefinition[] defs = new SpriteLoader().load(spriteId, archiveData);
+					return defs[frameId];
+				}
+				catch (Exception ex)
+				{
+					log.warn(null, ex);
+					return null;
+				}
+			}
+		};
+		TextureProvider textureProvider = new TextureProvider()
+		{
+			@Override
+			public TextureDefinition[] provide()
+			{
+				try
+				{
+					return cacheService.getTextures(cache);
+				}
+				catch (Exception ex)
+				{
+					log.warn(null, ex);
+					return null;
+				}
+			}
+		};
+
+		BufferedImage itemImage = ItemSpriteFactory.createSprite(itemProvider, modelProvider, spriteProvider, textureProvider,
+			itemId, quantity, border, shadowColor, false);
+		if (itemImage == null)
+		{
+			return null;
+		}
+
+		ByteArrayOutputStream bao = new ByteArrayOutputStream();
+		ImageIO.write(itemImage, "png", bao);
+		return bao.toByteArray();
+	}
+}
@@ -24,12 +24,11 @@
  */
 package net.runelite.http.service.chat;
 
-import com.google.common.cache.Cache;
-import com.google.common.cache.CacheBuilder;
-import java.util.concurrent.TimeUnit;
+import java.util.List;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import net.runelite.http.api.chat.Task;
+import net.runelite.http.service.util.exception.BadRequestException;
 import net.runelite.http.service.util.exception.NotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -45,10 +44,7 @@ public class ChatController
 	private static final Pattern STRING_VALIDATION = Pattern.compile("[^a-zA-Z0-9' -]");
 	private static final int STRING_MAX_LENGTH = 50;
 
-	private final Cache<KillCountKey, Integer> killCountCache = CacheBuilder.newBuilder()
-		.expireAfterWrite(2, TimeUnit.MINUTES)
-		.maximumSize(128L)
-		.build();
+	private static final int MAX_BATCH_SIZE = 100;
 
 	@Autowired
 	private ChatService chatService;
@@ -62,22 +58,12 @@ public class ChatController
 		}
 
 		chatService.setKc(name, boss, kc);
-		killCountCache.put(new KillCountKey(name, boss), kc);
 	}
 
 	@GetMapping("/kc")
 	public int getKc(@RequestParam String name, @RequestParam String boss)
 	{
-		Integer kc = killCountCache.getIfPresent(new KillCountKey(name, boss));
-		if (kc == null)
-		{
-			kc = chatService.getKc(name, boss);
-			if (kc != null)
-			{
-				killCountCache.put(new KillCountKey(name, boss), kc);
-			}
-		}
-
+		Integer kc = chatService.getKc(name, boss);
 		if (kc == null)
 		{
 			throw new NotFoundException();
@@ -85,6 +71,17 @@ public class ChatController
 		return kc;
 	}
 
+	/**
+	 * Look up the kill counts of many players at once. name and boss are given once
+	 * per lookup, and the result has the kill count of each lookup, or null if it is unknown.
+	 */
+	@GetMapping("/kc/batch")
+	public List<Integer> getKcs(@RequestParam("name") List<String> names, @RequestParam("boss") List<String> bosses)
+	{
+		checkBatch(names, bosses);
+		return chatService.getKc(names, bosses);
+	}
+
 	@PostMapping("/qp")
 	public void submitQp(@RequestParam String name, @RequestParam int qp)
 	{
@@ -107,6 +104,13 @@ public class ChatController
 		return kc;
 	}
 
+	@GetMapping("/qp/batch")
+	public List<Integer> getQps(@RequestParam("name") List<String> names)
+	{
+		checkBatch(names);
+		return chatService.getQp(names);
+	}
+
 	@PostMapping("/task")
 	public void submitTask(@RequestParam String name, @RequestParam("task") String taskName, @RequestParam int amount,
 		@RequestParam int initialAmount, @RequestParam String location)
@@ -134,6 +138,13 @@ public class ChatController
 		return chatService.getTask(name);
 	}
 
+	@GetMapping("/task/batch")
+	public List<Task> getTasks(@RequestParam("name") List<String> names)
+	{
+		checkBatch(names);
+		return chatService.getTask(names);
+	}
+
 	@PostMapping("/pb")
 	public void submitPb(@RequestParam String name, @RequestParam String boss, @RequestParam int pb)
 	{
@@ -155,4 +166,34 @@ public class ChatController
 		}
 		return pb;
 	}
+
+	@GetMapping("/pb/batch")
+	public List<Integer> getPbs(@RequestParam("name") List<String> names, @RequestParam("boss") List<String> bosses)
+	{
+		checkBatch(names, bosses);
+		return chatService.getPb(names, bosses);
+	}
+
+	@GetMapping("/stats")
+	public ChatStats stats()
+	{
+		return chatService.getStats();
+	}
+
+	private static void checkBatch(List<String> names)
+	{
+		if (names.size() > MAX_BATCH_SIZE)
+		{
+			throw new BadRequestException();
+		}
+	}
+
+	private static void checkBatch(List<String> names, List<String> bosses)
+	{
+		checkBatch(names);
+		if (names.size() != bosses.size())
+		{
+			throw new BadRequestException();
+		}
+	}
 }
@@ -24,14 +24,25 @@
  */
 package net.runelite.http.service.chat;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
 import com.google.common.collect.ImmutableMap;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 import net.runelite.http.api.chat.Task;
 import net.runelite.http.service.util.redis.RedisPool;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import redis.clients.jedis.Jedis;
+import redis.clients.jedis.Pipeline;
+import redis.clients.jedis.Response;
 
 @Service
 public class ChatService
@@ -39,69 +50,122 @@ public class ChatService
 	private static final Duration EXPIRE = Duration.ofMinutes(2);
 
 	private final RedisPool jedisPool;
+	// values by their redis key, including values which are not set so that repeated
+	// lookups of unknown names do not go to redis
+	private final Cache<String, Optional<Object>> nearCache;
 
 	@Autowired
-	public ChatService(RedisPool jedisPool)
+	public ChatService(RedisPool jedisPool, @Value("${runelite.chat.near-cache-seconds:10}") int nearCacheSeconds)
 	{
 		this.jedisPool = jedisPool;
+		this.nearCache = CacheBuilder.newBuilder()
+			.expireAfterWrite(nearCacheSeconds, TimeUnit.SECONDS)
+			.maximumSize(16384L)
+			.recordStats()
+			.build();
 	}
 
 	public Integer getKc(String name, String boss)
 	{
-		String value;
-		try (Jedis jedis = jedisPool.getResource())
+		return getInt(kcKey(name, boss));
+	}
+
+	/**
+	 * Get the kill counts of many players and bosses at once
+	 *
+	 * @param names   player names
+	 * @param bosses  boss of each player name
+	 * @return the kill count of each name and boss, or null if it is not known
+	 */
+	public List<Integer> getKc(List<String> names, List<String> bosses)
+	{
+		List<String> keys = new ArrayList<>(names.size());
+		for (int i = 0; i < names.size(); ++i)
 		{
-			value = jedis.get("kc." + name + "." + boss);
+			keys.add(kcKey(names.get(i), bosses.get(i)));
 		}
-		return value == null ? null : Integer.parseInt(value);
+		return getInts(keys);
 	}
 
 	public void setKc(String name, String boss, int kc)
 	{
-		try (Jedis jedis = jedisPool.getResource())
-		{
-			jedis.setex("kc." + name + "." + boss, (int) EXPIRE.getSeconds(), Integer.toString(kc));
-		}
+		setInt(kcKey(name, boss), kc);
 	}
 
 	public Integer getQp(String name)
 	{
-		String value;
-		try (Jedis jedis = jedisPool.getResource())
+		return getInt(qpKey(name));
+	}
+
+	public List<Integer> getQp(List<String> names)
+	{
+		List<String> keys = new ArrayList<>(names.size());
+		for (String name : names)
 		{
-			value = jedis.get("qp." + name);
+			keys.add(qpKey(name));
 		}
-		return value == null ? null : Integer.parseInt(value);
+		return getInts(keys);
 	}
 
 	public void setQp(String name, int qp)
 	{
-		try (Jedis jedis = jedisPool.getResource())
-		{
-			jedis.setex("qp." + name, (int) EXPIRE.getSeconds(), Integer.toString(qp));
-		}
+		setInt(qpKey(name), qp);
 	}
 
 	public Task getTask(String name)
 	{
-		Map<String, String> map;
+		return getTask(Collections.singletonList(name)).get(0);
+	}
+
+	/**
+	 * Get the slayer tasks of many players at once, in one pipelined round trip
+	 *
+	 * @param names player names
+	 * @return the task of each player, or null if it is not known
+	 */
+	public List<Task> getTask(List<String> names)
+	{
+		List<Task> tasks = new ArrayList<>(Collections.nCopies(names.size(), null));
+		List<Integer> missing = new ArrayList<>();
+
+		for (int i = 0; i < names.size(); ++i)
+		{
+			Optional<Object> cached = nearCache.getIfPresent(taskKey(names.get(i)));
+			if (cached != null)
+			{
+				tasks.set(i, (Task) cached.orElse(null));
+			}
+			else
+			{
+				missing.add(i);
+			}
+		}
+
+		if (missing.isEmpty())
+		{
+			return tasks;
+		}
 
+		List<Response<Map<String, String>>> responses = new ArrayList<>(missing.size());
 		try (Jedis jedis = jedisPool.getResource())
 		{
-			map = jedis.hgetAll("task." + name);
+			Pipeline pipeline = jedis.pipelined();
+			for (int i : missing)
+			{
+				responses.add(pipeline.hgetAll(taskKey(names.get(i))));
+			}
+			pipeline.sync();
 		}
 
-		if (map.isEmpty())
+		for (int i = 0; i < missing.size(); ++i)
 		{
-			return null;
+			int idx = missing.get(i);
+			Task task = toTask(responses.get(i).get());
+			nearCache.put(taskKey(names.get(idx)), Optional.ofNullable(task));
+			tasks.set(idx, task);
 		}
 
-		Task task = new Task();
-		task.setTask(map.get("task"));
-		task.setAmount(Integer.parseInt(map.get("amount")));
-		task.setInitialAmount(Integer.parseInt(map.get("initialAmount")));
-		task.setLocation(map.get("location"));
-		return task;
+		return tasks;
 	}
 
 	public void setTask(String name, Task task)
@@ -113,30 +177,144 @@ public class ChatService
 			.put("location", task.getLocation())
 			.build();
 
-		String key = "task." + name;
+		String key = taskKey(name);
 
 		try (Jedis jedis = jedisPool.getResource())
 		{
-			jedis.hmset(key, taskMap);
-			jedis.expire(key, (int) EXPIRE.getSeconds());
+			Pipeline pipeline = jedis.pipelined();
+			pipeline.hmset(key, taskMap);
+			pipeline.expire(key, (int) EXPIRE.getSeconds());
+			pipeline.sync();
 		}
+
+		nearCache.put(key, Optional.of(task));
 	}
 
 	public Integer getPb(String name, String boss)
 	{
-		String value;
-		try (Jedis jedis = jedisPool.getResource())
+		return getInt(pbKey(name, boss));
+	}
+
+	public List<Integer> getPb(List<String> names, List<String> bosses)
+	{
+		List<String> keys = new ArrayList<>(names.size());
+		for (int i = 0; i < names.size(); ++i)
 		{
-			value = jedis.get("pb." + boss + "." + name);
+			keys.add(pbKey(names.get(i), bosses.get(i)));
 		}
-		return value == null ? null : Integer.parseInt(value);
+		return getInts(keys);
 	}
 
 	public void setPb(String name, String boss, int pb)
 	{
+		setInt(pbKey(name, boss), pb);
+	}
+
+	public ChatStats getStats()
+	{
+		CacheStats stats = nearCache.stats();
+		return new ChatStats(
+			nearCache.size(),
+			stats.hitRate(),
+			jedisPool.getStats()
+		);
+	}
+
+	private Integer getInt(String key)
+	{
+		return getInts(Collections.singletonList(key)).get(0);
+	}
+
+	/**
+	 * Get integer values from the near cache, and the rest from redis with a single MGET
+	 */
+	private List<Integer> getInts(List<String> keys)
+	{
+		List<Integer> values = new ArrayList<>(Collections.nCopies(keys.size(), null));
+		List<Integer> missing = new ArrayList<>();
+
+		for (int i = 0; i < keys.size(); ++i)
+		{
+			Optional<Object> cached = nearCache.getIfPresent(keys.get(i));
+			if (cached != null)
+			{
+				values.set(i, (Integer) cached.orElse(null));
+			}
+			else
+			{
+				missing.add(i);
+			}
+		}
+
+		if (missing.isEmpty())
+		{
+			return values;
+		}
+
+		String[] missingKeys = new String[missing.size()];
+		for (int i = 0; i < missingKeys.length; ++i)
+		{
+			missingKeys[i] = keys.get(missing.get(i));
+		}
+
+		List<String> fetched;
 		try (Jedis jedis = jedisPool.getResource())
 		{
-			jedis.setex("pb." + boss + "." + name, (int) EXPIRE.getSeconds(), Integer.toString(pb));
+			fetched = jedis.mget(missingKeys);
+		}
+
+		for (int i = 0; i < missingKeys.length; ++i)
+		{
+			String value = fetched.get(i);
+			Integer intValue = value == null ? null : Integer.parseInt(value);
+			nearCache.put(missingKeys[i], Optional.ofNullable(intValue));
+			values.set(missing.get(i), intValue);
+		}
+
+		return values;
+	}
+
+	private void setInt(String key, int value)
+	{
+		try (Jedis jedis = jedisPool.getResource())
+		{
+			jedis.setex(key, (int) EXPIRE.getSeconds(), Integer.toString(value));
+		}
+		nearCache.put(key, Optional.of(value));
+	}
+
+	private static Task toTask(Map<String, String> map)
+	{
+		if (map.isEmpty())
+		{
+			return null;
 		}
+
+		Task task = new Task();
+		task.setTask(map.get("task"));
+		task.setAmount(Integer.parseInt(map.get("amount")));
+		task.setInitialAmount(Integer.parseInt(map.get("initialAmount")));
+		task.setLocation(map.get("location"));
+		return task;
+	}
+
+	private static String kcKey(String name, String boss)
+	{
+		return "kc." + name + "." + boss;
+	}
+
+	private static String qpKey(String name)
+	{
+		return "qp." + name;
+	}
+
+	private static String taskKey(String name)
+	{
+		return "task." + name;
+	}
+
+	private static String pbKey(String name, String boss)
+	{
+		return "pb." + boss + "." + name;
 	}
 }
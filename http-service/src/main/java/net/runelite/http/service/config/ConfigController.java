@@ -36,6 +36,7 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import static org.springframework.web.bind.annotation.RequestMethod.DELETE;
+import static org.springframework.web.bind.annotation.RequestMethod.PATCH;
 import static org.springframework.web.bind.annotation.RequestMethod.PUT;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -66,6 +67,23 @@ public class ConfigController
 		return configService.get(session.getUser());
 	}
 
+	@RequestMapping(method = PATCH)
+	public void patch(
+		HttpServletRequest request,
+		HttpServletResponse response,
+		@RequestBody Configuration configuration
+	) throws IOException
+	{
+		SessionEntry session = authFilter.handle(request, response);
+
+		if (session == null)
+		{
+			return;
+		}
+
+		configService.setKeys(session.getUser(), configuration.getConfig());
+	}
+
 	@RequestMapping(path = "/{key:.+}", method = PUT)
 	public void setKey(
 		HttpServletRequest request,
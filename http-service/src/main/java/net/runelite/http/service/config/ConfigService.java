@@ -32,11 +32,13 @@ import com.mongodb.client.MongoDatabase;
 import static com.mongodb.client.model.Filters.eq;
 import com.mongodb.client.model.IndexOptions;
 import com.mongodb.client.model.Indexes;
+import static com.mongodb.client.model.Updates.combine;
 import static com.mongodb.client.model.Updates.set;
 import static com.mongodb.client.model.Updates.unset;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import javax.annotation.Nullable;
@@ -45,10 +47,12 @@ import net.runelite.http.api.RuneLiteAPI;
 import net.runelite.http.api.config.ConfigEntry;
 import net.runelite.http.api.config.Configuration;
 import org.bson.Document;
+import org.bson.conversions.Bson;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
 import org.sql2o.Connection;
+import org.sql2o.Query;
 import org.sql2o.Sql2o;
 import org.sql2o.Sql2oException;
 
@@ -213,6 +217,100 @@ public class ConfigService
 			unset(split[0] + "." + split[1].replace('.', ':')));
 	}
 
+	/**
+	 * Set and unset many keys at once. Entries with a null value are unset, and
+	 * when a key is given more than once the last entry for it wins.
+	 * The legacy config table is updated in one batch, and the config document
+	 * with a single update.
+	 *
+	 * @param userId
+	 * @param entries
+	 */
+	public void setKeys(
+		int userId,
+		List<ConfigEntry> entries
+	)
+	{
+		if (entries == null || entries.isEmpty())
+		{
+			return;
+		}
+
+		// Mongo rejects an update which touches the same field twice
+		Map<String, String> keys = new LinkedHashMap<>();
+		for (ConfigEntry entry : entries)
+		{
+			keys.put(entry.getKey(), entry.getValue());
+		}
+
+		try (Connection con = sql2o.beginTransaction())
+		{
+			Query setQuery = con.createQuery("insert into config (user, `key`, value) values (:user, :key, :value) on duplicate key update `key` = :key, value = :value");
+			Query unsetQuery = con.createQuery("delete from config where user = :user and `key` = :key");
+			boolean hasSet = false, hasUnset = false;
+
+			for (Map.Entry<String, String> entry : keys.entrySet())
+			{
+				if (entry.getValue() != null)
+				{
+					setQuery.addParameter("user", userId)
+						.addParameter("key", entry.getKey())
+						.addParameter("value", entry.getValue())
+						.addToBatch();
+					hasSet = true;
+				}
+				else
+				{
+					unsetQuery.addParameter("user", userId)
+						.addParameter("key", entry.getKey())
+						.addToBatch();
+					hasUnset = true;
+				}
+			}
+
+			if (hasSet)
+			{
+				setQuery.executeBatch();
+			}
+			if (hasUnset)
+			{
+				unsetQuery.executeBatch();
+			}
+			con.commit(false);
+		}
+
+		Map<String, Bson> updates = new LinkedHashMap<>();
+		for (Map.Entry<String, String> entry : keys.entrySet())
+		{
+			String key = entry.getKey();
+			if (key.startsWith("$") || key.startsWith("_"))
+			{
+				continue;
+			}
+
+			String[] split = key.split("\\.", 2);
+			if (split.length != 2)
+			{
+				continue;
+			}
+
+			String field = split[0] + "." + split[1].replace('.', ':');
+			if (entry.getValue() != null)
+			{
+				updates.put(field, set(field, parseJsonString(entry.getValue())));
+			}
+			else
+			{
+				updates.put(field, unset(field));
+			}
+		}
+
+		if (!updates.isEmpty())
+		{
+			mongoCollection.updateOne(eq("_userId", userId), combine(new ArrayList<>(updates.values())));
+		}
+	}
+
 	private static Object parseJsonString(String value)
 	{
 		Object jsonValue;
@@ -51,19 +51,29 @@ public class HiscoreController
 	@Autowired
 	private XpTrackerService xpTrackerService;
 
+	@GetMapping("/stats")
+	public HiscoreStats stats()
+	{
+		return hiscoreService.getStats();
+	}
+
 	@GetMapping("/{endpoint}")
 	public HiscoreResult lookup(@PathVariable HiscoreEndpoint endpoint, @RequestParam String username) throws ExecutionException
 	{
-		HiscoreResult result = hiscoreService.lookupUsername(username, endpoint);
+		CachedHiscore cachedHiscore = hiscoreService.lookup(username, endpoint);
+		HiscoreResult result = cachedHiscore.getResult();
 
-		// Submit to xp tracker?
-		switch (endpoint)
+		// Submit to xp tracker? Results served while being refreshed are too old to record
+		if (HiscoreService.isFresh(cachedHiscore))
 		{
-			case NORMAL:
-			case IRONMAN:
-			case ULTIMATE_IRONMAN:
-			case HARDCORE_IRONMAN:
-				xpTrackerService.update(username, result);
+			switch (endpoint)
+			{
+				case NORMAL:
+				case IRONMAN:
+				case ULTIMATE_IRONMAN:
+				case HARDCORE_IRONMAN:
+					xpTrackerService.update(username, result);
+			}
 		}
 
 		return result;
@@ -27,34 +27,74 @@ package net.runelite.http.service.hiscore;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
+import com.google.common.cache.CacheStats;
 import com.google.common.cache.LoadingCache;
 import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
+import net.runelite.http.api.RuneLiteAPI;
 import net.runelite.http.api.hiscore.HiscoreClient;
 import net.runelite.http.api.hiscore.HiscoreEndpoint;
 import net.runelite.http.api.hiscore.HiscoreResult;
+import net.runelite.http.service.util.redis.RedisPool;
 import okhttp3.HttpUrl;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import redis.clients.jedis.Jedis;
 
 @Service
 @Slf4j
 public class HiscoreService
 {
+	// results older than this are refreshed in the background, and served until the refresh completes
+	private static final int REFRESH_MINUTES = 1;
+	private static final int EXPIRE_MINUTES = 10;
+
 	private final HiscoreClient hiscoreClient = new HiscoreClient();
-	private final LoadingCache<HiscoreKey, HiscoreResult> hiscoreCache = CacheBuilder.newBuilder()
-		.maximumSize(128)
-		.expireAfterWrite(1, TimeUnit.MINUTES)
-		.build(
-			new CacheLoader<HiscoreKey, HiscoreResult>()
+	private final RedisPool redisPool;
+	private final ExecutorService refreshExecutor = Executors.newFixedThreadPool(4);
+
+	private final AtomicLong upstreamCalls = new AtomicLong();
+	private final AtomicLong redisHits = new AtomicLong();
+	private volatile long lastUpstreamCalls;
+	private volatile long upstreamCallsPerMinute;
+
+	private final LoadingCache<HiscoreKey, CachedHiscore> hiscoreCache = CacheBuilder.newBuilder()
+		.maximumSize(8192)
+		.refreshAfterWrite(REFRESH_MINUTES, TimeUnit.MINUTES)
+		.expireAfterWrite(EXPIRE_MINUTES, TimeUnit.MINUTES)
+		.recordStats()
+		.build(CacheLoader.asyncReloading(
+			new CacheLoader<HiscoreKey, CachedHiscore>()
 			{
 				@Override
-				public HiscoreResult load(HiscoreKey key) throws IOException
+				public CachedHiscore load(HiscoreKey key) throws IOException
 				{
-					return hiscoreClient.lookup(key.getUsername(), key.getEndpoint());
+					return loadHiscore(key);
 				}
-			});
+			}, refreshExecutor));
+
+	@Autowired
+	public HiscoreService(RedisPool redisPool, @Value("${runelite.hiscore.redis-cache:false}") boolean redisCache)
+	{
+		this.redisPool = redisCache ? redisPool : null;
+	}
+
+	@PreDestroy
+	public void shutdown()
+	{
+		refreshExecutor.shutdown();
+	}
 
 	@VisibleForTesting
 	HiscoreResult lookupUsername(String username, HttpUrl httpUrl) throws IOException
@@ -62,8 +102,121 @@ public class HiscoreService
 		return hiscoreClient.lookup(username, httpUrl);
 	}
 
+	/**
+	 * Look up a player on the hiscores. Concurrent lookups of the same player
+	 * share a single request to the hiscores.
+	 *
+	 * @param username
+	 * @param endpoint
+	 * @return
+	 * @throws ExecutionException
+	 */
 	public HiscoreResult lookupUsername(String username, HiscoreEndpoint endpoint) throws ExecutionException
+	{
+		return lookup(username, endpoint).getResult();
+	}
+
+	CachedHiscore lookup(String username, HiscoreEndpoint endpoint) throws ExecutionException
 	{
 		return hiscoreCache.get(new HiscoreKey(username, endpoint));
 	}
+
+	/**
+	 * Look up a player on the hiscores, ignoring a cached result which is
+	 * due for a refresh. Like {@link #lookupUsername(String, HiscoreEndpoint)},
+	 * concurrent lookups of the same player share a single request.
+	 *
+	 * @param username
+	 * @param endpoint
+	 * @return
+	 * @throws ExecutionException
+	 */
+	public HiscoreResult lookupFreshUsername(String username, HiscoreEndpoint endpoint) throws ExecutionException
+	{
+		HiscoreKey key = new HiscoreKey(username, endpoint);
+		CachedHiscore cachedHiscore = hiscoreCache.get(key);
+		if (!isFresh(cachedHiscore))
+		{
+			// drop the stale result, unless a concurrent lookup already has, and
+			// load it again through the cache so that lookup's request is shared
+			hiscoreCache.asMap().remove(key, cachedHiscore);
+			cachedHiscore = hiscoreCache.get(key);
+		}
+
+		return cachedHiscore.getResult();
+	}
+
+	/**
+	 * Check if a cached result was fetched recently enough to not be due for a refresh
+	 *
+	 * @param cachedHiscore
+	 * @return
+	 */
+	static boolean isFresh(CachedHiscore cachedHiscore)
+	{
+		return Duration.between(cachedHiscore.getFetched(), Instant.now()).toMinutes() < REFRESH_MINUTES;
+	}
+
+	private CachedHiscore loadHiscore(HiscoreKey key) throws IOException
+	{
+		String redisKey = "hiscore." + key.getEndpoint().name() + "." + key.getUsername();
+
+		if (redisPool != null)
+		{
+			try (Jedis jedis = redisPool.getResource())
+			{
+				String value = jedis.get(redisKey);
+				if (value != null)
+				{
+					redisHits.incrementAndGet();
+					// the fetch time isn't stored, count the result as being as old as a redis entry can be
+					Instant fetched = Instant.now().minus(REFRESH_MINUTES, ChronoUnit.MINUTES);
+					return new CachedHiscore(RuneLiteAPI.GSON.fromJson(value, HiscoreResult.class), fetched);
+				}
+			}
+			catch (RuntimeException ex)
+			{
+				log.warn("unable to read hiscore for {} from redis", key.getUsername(), ex);
+			}
+		}
+
+		upstreamCalls.incrementAndGet();
+		Instant fetched = Instant.now();
+		HiscoreResult result = lookupUsername(key.getUsername(), key.getEndpoint().getHiscoreURL());
+
+		if (redisPool != null && result != null)
+		{
+			try (Jedis jedis = redisPool.getResource())
+			{
+				jedis.setex(redisKey, REFRESH_MINUTES * 60, RuneLiteAPI.GSON.toJson(result));
+			}
+			catch (RuntimeException ex)
+			{
+				log.warn("unable to write hiscore for {} to redis", key.getUsername(), ex);
+			}
+		}
+
+		return result != null ? new CachedHiscore(result, fetched) : null;
+	}
+
+	@Scheduled(fixedDelay = 60_000)
+	public void updateCallRate()
+	{
+		long calls = upstreamCalls.get();
+		upstreamCallsPerMinute = calls - lastUpstreamCalls;
+		lastUpstreamCalls = calls;
+	}
+
+	public HiscoreStats getStats()
+	{
+		CacheStats stats = hiscoreCache.stats();
+		return new HiscoreStats(
+			hiscoreCache.size(),
+			stats.hitRate(),
+			stats.evictionCount(),
+			redisHits.get(),
+			upstreamCalls.get(),
+			upstreamCallsPerMinute
+		);
+	}
 }
@@ -24,8 +24,6 @@
  */
 package net.runelite.http.service.item;
 
-import com.google.common.base.Supplier;
-import com.google.common.base.Suppliers;
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
 import java.time.Instant;
@@ -39,12 +37,16 @@ import net.runelite.http.api.item.ItemPrice;
 import net.runelite.http.api.item.SearchResult;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 @RestController
 @RequestMapping("/item")
@@ -59,24 +61,10 @@ public class ItemController
 
 	private final ItemService itemService;
 
-	private final Supplier<ItemPrice[]> memorizedPrices;
-
 	@Autowired
 	public ItemController(ItemService itemService)
 	{
 		this.itemService = itemService;
-
-		memorizedPrices = Suppliers.memoizeWithExpiration(() -> itemService.fetchPrices().stream()
-			.map(priceEntry ->
-			{
-				ItemPrice itemPrice = new ItemPrice();
-				itemPrice.setId(priceEntry.getItem());
-				itemPrice.setName(priceEntry.getName());
-				itemPrice.setPrice(priceEntry.getPrice());
-				itemPrice.setTime(priceEntry.getTime());
-				return itemPrice;
-			})
-			.toArray(ItemPrice[]::new), 30, TimeUnit.MINUTES);
 	}
 
 	@GetMapping("/{itemId}")
@@ -218,10 +206,32 @@ public class ItemController
 	}
 
 	@GetMapping("/prices")
-	public ResponseEntity<ItemPrice[]> prices()
+	public ResponseEntity<byte[]> prices(
+		@RequestParam(required = false) String since,
+		@RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+		WebRequest request
+	)
 	{
-		return ResponseEntity.ok()
+		PriceSnapshot snapshot = itemService.getPriceSnapshot(since != null ? since.replace("\"", "") : null);
+		if (since == null && request.checkNotModified(snapshot.getEtag()))
+		{
+			return null;
+		}
+
+		boolean gzip = acceptEncoding != null && acceptEncoding.contains("gzip");
+
+		ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
 			.cacheControl(CacheControl.maxAge(30, TimeUnit.MINUTES).cachePublic())
-			.body(memorizedPrices.get());
+			.eTag(snapshot.getEtag())
+			.contentType(MediaType.APPLICATION_JSON_UTF8)
+			.header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+			.header(ItemPrice.DELTA_HEADER, Boolean.toString(snapshot.isDelta()));
+
+		if (gzip)
+		{
+			builder.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+		}
+
+		return builder.body(gzip ? snapshot.getGzip() : snapshot.getJson());
 	}
 }
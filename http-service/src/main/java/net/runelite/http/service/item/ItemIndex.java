@@ -0,0 +1,207 @@
+/*
+ * Copyright (c) 2019, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.http.service.item;
+
+import com.google.common.base.CharMatcher;
+import com.google.common.base.Splitter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable snapshot of the items table, keyed by item id, with an index
+ * of name tokens for prefix searches
+ */
+class ItemIndex
+{
+	static final ItemIndex EMPTY = of(new ArrayList<>());
+
+	private static final Splitter TOKENIZER = Splitter.on(CharMatcher.inRange('a', 'z').or(CharMatcher.inRange('0', '9')).negate())
+		.omitEmptyStrings();
+
+	private final int[] ids;
+	private final ItemEntry[] items;
+	// every token of every name, sorted, with the index of the item it is from
+	private final String[] tokens;
+	private final int[] tokenItems;
+
+	private ItemIndex(int[] ids, ItemEntry[] items, String[] tokens, int[] tokenItems)
+	{
+		this.ids = ids;
+		this.items = items;
+		this.tokens = tokens;
+		this.tokenItems = tokenItems;
+	}
+
+	static ItemIndex of(Collection<ItemEntry> entries)
+	{
+		ItemEntry[] items = entries.toArray(new ItemEntry[0]);
+		Arrays.sort(items, Comparator.comparingInt(ItemEntry::getId));
+
+		int[] ids = new int[items.length];
+		List<String> tokenList = new ArrayList<>();
+		List<Integer> tokenItemList = new ArrayList<>();
+		for (int i = 0; i < items.length; ++i)
+		{
+			ids[i] = items[i].getId();
+
+			for (String token : tokenize(items[i].getName()))
+			{
+				tokenList.add(token);
+				tokenItemList.add(i);
+			}
+		}
+
+		Integer[] order = new Integer[tokenList.size()];
+		for (int i = 0; i < order.length; ++i)
+		{
+			order[i] = i;
+		}
+		Arrays.sort(order, Comparator.comparing(tokenList::get));
+
+		String[] tokens = new String[order.length];
+		int[] tokenItems = new int[order.length];
+		for (int i = 0; i < order.length; ++i)
+		{
+			tokens[i] = tokenList.get(order[i]);
+			tokenItems[i] = tokenItemList.get(order[i]);
+		}
+
+		return new ItemIndex(ids, items, tokens, tokenItems);
+	}
+
+	ItemEntry get(int itemId)
+	{
+		int idx = Arrays.binarySearch(ids, itemId);
+		return idx >= 0 ? items[idx] : null;
+	}
+
+	/**
+	 * Copy this index with the given items added or replaced
+	 *
+	 * @param entries
+	 * @return
+	 */
+	ItemIndex with(Collection<ItemEntry> entries)
+	{
+		Map<Integer, ItemEntry> merged = new HashMap<>(items.length + entries.size());
+		for (ItemEntry item : items)
+		{
+			merged.put(item.getId(), item);
+		}
+		for (ItemEntry item : entries)
+		{
+			merged.put(item.getId(), item);
+		}
+		return of(merged.values());
+	}
+
+	/**
+	 * Find items with a name that has a token starting with each token of the query.
+	 * Exact matches come first, then names starting with the query, then shorter names.
+	 *
+	 * @param query
+	 * @param limit
+	 * @return
+	 */
+	List<ItemEntry> search(String query, int limit)
+	{
+		List<String> terms = tokenize(query);
+		if (terms.isEmpty())
+		{
+			return new ArrayList<>();
+		}
+
+		BitSet matches = null;
+		for (String term : terms)
+		{
+			BitSet termMatches = new BitSet(items.length);
+			for (int i = lowerBound(term); i < tokens.length && tokens[i].startsWith(term); ++i)
+			{
+				termMatches.set(tokenItems[i]);
+			}
+
+			if (matches == null)
+			{
+				matches = termMatches;
+			}
+			else
+			{
+				matches.and(termMatches);
+			}
+		}
+
+		String search = query.trim().toLowerCase();
+		List<ItemEntry> result = new ArrayList<>(matches.cardinality());
+		for (int i = matches.nextSetBit(0); i >= 0; i = matches.nextSetBit(i + 1))
+		{
+			result.add(items[i]);
+		}
+
+		result.sort(Comparator.<ItemEntry>comparingInt(item -> item.getName().equalsIgnoreCase(search) ? 0 : 1)
+			.thenComparingInt(item -> item.getName().toLowerCase().startsWith(search) ? 0 : 1)
+			.thenComparingInt(item -> item.getName().length())
+			.thenComparingInt(ItemEntry::getId));
+
+		return result.size() > limit ? new ArrayList<>(result.subList(0, limit)) : result;
+	}
+
+	int size()
+	{
+		return ids.length;
+	}
+
+	private int lowerBound(String term)
+	{
+		int lo = 0, hi = tokens.length;
+		while (lo < hi)
+		{
+			int mid = (lo + hi) >>> 1;
+			if (tokens[mid].compareTo(term) < 0)
+			{
+				lo = mid + 1;
+			}
+			else
+			{
+				hi = mid;
+			}
+		}
+		return lo;
+	}
+
+	private static List<String> tokenize(String name)
+	{
+		if (name == null)
+		{
+			return new ArrayList<>();
+		}
+		return TOKENIZER.splitToList(name.toLowerCase());
+	}
+}
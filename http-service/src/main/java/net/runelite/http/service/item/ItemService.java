@@ -24,18 +24,24 @@
  */
 package net.runelite.http.service.item;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.gson.JsonParseException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Random;
 import java.util.Set;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import javax.annotation.Nullable;
 import lombok.extern.slf4j.Slf4j;
 import net.runelite.cache.definitions.ItemDefinition;
 import net.runelite.http.api.RuneLiteAPI;
@@ -91,6 +97,15 @@ public class ItemService
 	private int[] tradeableItems;
 	private final Random random = new Random();
 
+	// snapshots of the items and latest prices, replaced whenever they change
+	private volatile ItemIndex itemIndex = ItemIndex.EMPTY;
+	private volatile PriceTable priceTable = PriceTable.EMPTY;
+	private volatile PriceSnapshot priceSnapshot;
+	// recent price tables by the etag of their snapshot, to build deltas from
+	private final Cache<String, PriceTable> recentPriceTables = CacheBuilder.newBuilder()
+		.maximumSize(64)
+		.build();
+
 	@Autowired
 	public ItemService(@Qualifier("Runelite SQL2O") Sql2o sql2o,
 		CacheService cacheService)
@@ -106,18 +121,14 @@ public class ItemService
 			con.createQuery(CREATE_PRICES)
 				.executeUpdate();
 		}
+
+		reloadTables();
+		refreshPriceSnapshot();
 	}
 
 	public ItemEntry getItem(int itemId)
 	{
-		try (Connection con = sql2o.open())
-		{
-			ItemEntry item = con.createQuery("select id, name, description, type, icon, icon_large from items where id = :id")
-				.addParameter("id", itemId)
-				.executeAndFetchFirst(ItemEntry.class);
-
-			return item;
-		}
+		return itemIndex.get(itemId);
 	}
 
 	private PriceEntry getPrice(Connection con, int itemId, Instant time)
@@ -139,6 +150,13 @@ public class ItemService
 
 	public PriceEntry getPrice(int itemId, Instant time)
 	{
+		PriceEntry latest = priceTable.get(itemId);
+		if (time == null || (latest != null && !latest.getTime().isAfter(time)))
+		{
+			return latest;
+		}
+
+		// only the latest prices are kept in memory
 		try (Connection con = sql2o.open())
 		{
 			return getPrice(con, itemId, time);
@@ -147,43 +165,82 @@ public class ItemService
 
 	public List<PriceEntry> getPrices(int... itemIds)
 	{
-		try (Connection con = sql2o.open())
+		PriceTable priceTable = this.priceTable;
+		Set<Integer> seen = new HashSet<>();
+		List<PriceEntry> priceEntries = new ArrayList<>(itemIds.length);
+
+		for (int itemId : itemIds)
 		{
-			Set<Integer> seen = new HashSet<>();
-			List<PriceEntry> priceEntries = new ArrayList<>(itemIds.length);
+			if (!seen.add(itemId))
+			{
+				continue;
+			}
 
-			for (int itemId : itemIds)
+			PriceEntry priceEntry = priceTable.get(itemId);
+
+			if (priceEntry == null)
 			{
-				if (seen.contains(itemId))
-				{
-					continue;
-				}
-				seen.add(itemId);
+				continue;
+			}
 
-				PriceEntry priceEntry = getPrice(con, itemId, null);
+			priceEntries.add(priceEntry);
+		}
 
-				if (priceEntry == null)
-				{
-					continue;
-				}
+		return priceEntries;
+	}
 
-				priceEntries.add(priceEntry);
-			}
+	/**
+	 * Get the serialized prices of all items, or only the prices which have
+	 * changed since an earlier snapshot if that snapshot is still known.
+	 *
+	 * @param since etag of an earlier snapshot
+	 * @return
+	 */
+	public PriceSnapshot getPriceSnapshot(@Nullable String since)
+	{
+		PriceSnapshot snapshot = priceSnapshot;
+		if (since == null)
+		{
+			return snapshot;
+		}
 
-			return priceEntries;
+		PriceTable from = recentPriceTables.getIfPresent(since);
+		if (from == null)
+		{
+			return snapshot;
 		}
+
+		return snapshot.deltaFrom(since, from);
 	}
 
-	public List<ItemEntry> search(String search)
+	/**
+	 * Serialize the prices again if they have changed since the last snapshot
+	 */
+	@Scheduled(fixedDelay = 60_000)
+	public void refreshPriceSnapshot()
 	{
-		try (Connection con = sql2o.open())
+		PriceTable table = priceTable;
+		PriceSnapshot current = priceSnapshot;
+		if (current != null && current.getTable() == table)
 		{
-			return con.createQuery("select id, name, description, type, match (name) against (:search) as score from items "
-				+ "where match (name) against (:search) order by score desc limit 10")
-				.throwOnMappingFailure(false) // otherwise it tries to map 'score'
-				.addParameter("search", search)
-				.executeAndFetch(ItemEntry.class);
+			return;
+		}
+
+		PriceSnapshot snapshot = PriceSnapshot.of(table);
+		if (current != null && current.getEtag().equals(snapshot.getEtag()))
+		{
+			return;
 		}
+
+		recentPriceTables.put(snapshot.getEtag(), table);
+		priceSnapshot = snapshot;
+
+		log.debug("Built price snapshot {} of {} prices ({} bytes gzipped)", snapshot.getEtag(), table.size(), snapshot.getGzip().length);
+	}
+
+	public List<ItemEntry> search(String search)
+	{
+		return itemIndex.search(search, 10);
 	}
 
 	public ItemEntry fetchItem(int itemId)
@@ -232,6 +289,8 @@ public class ItemService
 			item.setType(ItemType.of(rsItem.getType()));
 			item.setIcon(icon);
 			item.setIcon_large(iconLarge);
+
+			updateItems(Collections.singletonList(item));
 			return item;
 		}
 		catch (IOException ex)
@@ -287,6 +346,10 @@ public class ItemService
 			query.executeBatch();
 			con.commit(false);
 
+			entries.stream()
+				.max(Comparator.comparing(PriceEntry::getTime))
+				.ifPresent(this::updatePrice);
+
 			return entries;
 		}
 	}
@@ -369,6 +432,75 @@ public class ItemService
 			q.executeBatch();
 			con.commit(false);
 		}
+
+		List<ItemEntry> items = new ArrayList<>(search.getItems().size());
+		for (RSItem rsItem : search.getItems())
+		{
+			ItemEntry existing = itemIndex.get(rsItem.getId());
+
+			ItemEntry item = new ItemEntry();
+			item.setId(rsItem.getId());
+			item.setName(rsItem.getName());
+			item.setDescription(rsItem.getDescription());
+			item.setType(ItemType.of(rsItem.getType()));
+			if (existing != null)
+			{
+				item.setIcon(existing.getIcon());
+				item.setIcon_large(existing.getIcon_large());
+			}
+			items.add(item);
+		}
+
+		updateItems(items);
+	}
+
+	private synchronized void updateItems(Collection<ItemEntry> items)
+	{
+		itemIndex = itemIndex.with(items);
+	}
+
+	private synchronized void updatePrice(PriceEntry priceEntry)
+	{
+		PriceEntry existing = priceTable.get(priceEntry.getItem());
+		if (existing != null && existing.getTime().isAfter(priceEntry.getTime()))
+		{
+			return;
+		}
+
+		ItemEntry item = itemIndex.get(priceEntry.getItem());
+		if (item == null)
+		{
+			// prices are only served for known items
+			return;
+		}
+
+		priceEntry.setName(item.getName());
+		priceTable = priceTable.with(priceEntry);
+	}
+
+	/**
+	 * Rebuild the item and price snapshots from the database, to pick up
+	 * changes from other instances
+	 */
+	@Scheduled(initialDelay = 600_000, fixedDelay = 600_000)
+	public void reloadTables()
+	{
+		List<ItemEntry> items;
+		try (Connection con = sql2o.open())
+		{
+			items = con.createQuery("select id, name, description, type, icon, icon_large, timestamp from items")
+				.executeAndFetch(ItemEntry.class);
+		}
+
+		List<PriceEntry> prices = fetchPrices();
+
+		synchronized (this)
+		{
+			itemIndex = ItemIndex.of(items);
+			priceTable = PriceTable.of(prices);
+		}
+
+		log.debug("Loaded {} items and {} prices", items.size(), prices.size());
 	}
 
 	private <T> T fetchJson(Request request, Class<T> clazz) throws IOException
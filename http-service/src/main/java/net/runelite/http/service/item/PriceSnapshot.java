@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) 2019, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.http.service.item;
+
+import com.google.common.hash.Hashing;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.zip.GZIPOutputStream;
+import lombok.AccessLevel;
+import lombok.Getter;
+import net.runelite.http.api.RuneLiteAPI;
+import net.runelite.http.api.item.ItemPrice;
+
+/**
+ * Serialized /item/prices response for one version of the price table.
+ * The response is built once, so serving it is only a copy of the bytes.
+ */
+@Getter
+class PriceSnapshot
+{
+	private final String etag;
+	private final PriceTable table;
+	private final boolean delta;
+	private final byte[] json;
+	private final byte[] gzip;
+
+	// deltas to this snapshot from older snapshots, keyed by the etag of the older snapshot
+	@Getter(AccessLevel.NONE)
+	private final ConcurrentMap<String, PriceSnapshot> deltas = new ConcurrentHashMap<>();
+
+	private PriceSnapshot(String etag, PriceTable table, boolean delta, byte[] json)
+	{
+		this.etag = etag;
+		this.table = table;
+		this.delta = delta;
+		this.json = json;
+		this.gzip = gzip(json);
+	}
+
+	static PriceSnapshot of(PriceTable table)
+	{
+		byte[] json = toJson(table.getPrices());
+		String etag = Hashing.sha256().hashBytes(json).toString().substring(0, 32);
+		return new PriceSnapshot(etag, table, false, json);
+	}
+
+	/**
+	 * Get the prices which have changed since an older snapshot
+	 *
+	 * @param etag etag of the older snapshot
+	 * @param from price table of the older snapshot
+	 * @return
+	 */
+	PriceSnapshot deltaFrom(String etag, PriceTable from)
+	{
+		return deltas.computeIfAbsent(etag, k ->
+		{
+			List<PriceEntry> changed = new ArrayList<>();
+			for (PriceEntry price : table.getPrices())
+			{
+				PriceEntry old = from.get(price.getItem());
+				if (old == null || old.getPrice() != price.getPrice() || !Objects.equals(old.getTime(), price.getTime()))
+				{
+					changed.add(price);
+				}
+			}
+			return new PriceSnapshot(this.etag, table, true, toJson(changed));
+		});
+	}
+
+	private static byte[] toJson(List<PriceEntry> prices)
+	{
+		ItemPrice[] itemPrices = new ItemPrice[prices.size()];
+		for (int i = 0; i < itemPrices.length; ++i)
+		{
+			PriceEntry priceEntry = prices.get(i);
+
+			ItemPrice itemPrice = new ItemPrice();
+			itemPrice.setId(priceEntry.getItem());
+			itemPrice.setName(priceEntry.getName());
+			itemPrice.setPrice(priceEntry.getPrice());
+			itemPrice.setTime(priceEntry.getTime());
+			itemPrices[i] = itemPrice;
+		}
+
+		return RuneLiteAPI.GSON.toJson(itemPrices).getBytes(StandardCharsets.UTF_8);
+	}
+
+	private static byte[] gzip(byte[] data)
+	{
+		ByteArrayOutputStream out = new ByteArrayOutputStream(data.length / 4);
+		try (GZIPOutputStream gzipOut = new GZIPOutputStream(out))
+		{
+			gzipOut.write(data);
+		}
+		catch (IOException ex)
+		{
+			throw new UncheckedIOException(ex);
+		}
+		return out.toByteArray();
+	}
+}
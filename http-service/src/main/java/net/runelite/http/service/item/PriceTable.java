@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2019, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.http.service.item;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Immutable snapshot of the latest price of each item, keyed by item id
+ */
+class PriceTable
+{
+	static final PriceTable EMPTY = new PriceTable(new int[0], new PriceEntry[0]);
+
+	private final int[] ids;
+	private final PriceEntry[] prices;
+
+	private PriceTable(int[] ids, PriceEntry[] prices)
+	{
+		this.ids = ids;
+		this.prices = prices;
+	}
+
+	static PriceTable of(Collection<PriceEntry> entries)
+	{
+		PriceEntry[] prices = entries.toArray(new PriceEntry[0]);
+		Arrays.sort(prices, Comparator.comparingInt(PriceEntry::getItem));
+
+		int[] ids = new int[prices.length];
+		for (int i = 0; i < prices.length; ++i)
+		{
+			ids[i] = prices[i].getItem();
+		}
+
+		return new PriceTable(ids, prices);
+	}
+
+	PriceEntry get(int itemId)
+	{
+		int idx = Arrays.binarySearch(ids, itemId);
+		return idx >= 0 ? prices[idx] : null;
+	}
+
+	/**
+	 * Copy this table with the price of one item added or replaced
+	 *
+	 * @param entry
+	 * @return
+	 */
+	PriceTable with(PriceEntry entry)
+	{
+		int idx = Arrays.binarySearch(ids, entry.getItem());
+		if (idx >= 0)
+		{
+			PriceEntry[] newPrices = prices.clone();
+			newPrices[idx] = entry;
+			return new PriceTable(ids, newPrices);
+		}
+
+		idx = -idx - 1;
+
+		int[] newIds = new int[ids.length + 1];
+		System.arraycopy(ids, 0, newIds, 0, idx);
+		System.arraycopy(ids, idx, newIds, idx + 1, ids.length - idx);
+		newIds[idx] = entry.getItem();
+
+		PriceEntry[] newPrices = new PriceEntry[prices.length + 1];
+		System.arraycopy(prices, 0, newPrices, 0, idx);
+		System.arraycopy(prices, idx, newPrices, idx + 1, prices.length - idx);
+		newPrices[idx] = entry;
+
+		return new PriceTable(newIds, newPrices);
+	}
+
+	List<PriceEntry> getPrices()
+	{
+		return Collections.unmodifiableList(Arrays.asList(prices));
+	}
+
+	int size()
+	{
+		return ids.length;
+	}
+}
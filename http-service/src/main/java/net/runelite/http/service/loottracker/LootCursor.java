@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2019, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.http.service.loottracker;
+
+import java.time.Instant;
+import lombok.Value;
+
+/**
+ * Position of the last kill of a page of loot, as the time and id of the kill
+ */
+@Value
+public class LootCursor
+{
+	private Instant time;
+	private int killId;
+
+	/**
+	 * Parse a cursor from {@link #toString()}
+	 *
+	 * @param cursor
+	 * @return the cursor, or null if it is malformed
+	 */
+	public static LootCursor parse(String cursor)
+	{
+		int idx = cursor.indexOf('-');
+		if (idx == -1)
+		{
+			return null;
+		}
+
+		try
+		{
+			long time = Long.parseLong(cursor.substring(0, idx));
+			int killId = Integer.parseInt(cursor.substring(idx + 1));
+			return new LootCursor(Instant.ofEpochMilli(time), killId);
+		}
+		catch (NumberFormatException ex)
+		{
+			return null;
+		}
+	}
+
+	@Override
+	public String toString()
+	{
+		return time.toEpochMilli() + "-" + killId;
+	}
+}
@@ -27,6 +27,7 @@ package net.runelite.http.service.loottracker;
 
 import com.google.api.client.http.HttpStatusCodes;
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.Collection;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
@@ -36,6 +37,7 @@ import net.runelite.http.service.account.beans.SessionEntry;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
@@ -46,6 +48,9 @@ import org.springframework.web.bind.annotation.RestController;
 @RequestMapping("/loottracker")
 public class LootTrackerController
 {
+	static final String CURSOR_HEADER = "RuneLite-Cursor";
+	private static final int MAX_BATCH_SIZE = 1000;
+
 	@Autowired
 	private LootTrackerService service;
 
@@ -66,8 +71,36 @@ public class LootTrackerController
 		response.setStatus(HttpStatusCodes.STATUS_CODE_OK);
 	}
 
+	@PostMapping("/batch")
+	public void storeLootRecords(HttpServletRequest request, HttpServletResponse response, @RequestBody LootRecord[] records) throws IOException
+	{
+		SessionEntry e = auth.handle(request, response);
+		if (e == null)
+		{
+			response.setStatus(HttpStatusCodes.STATUS_CODE_UNAUTHORIZED);
+			return;
+		}
+
+		if (records.length > MAX_BATCH_SIZE)
+		{
+			response.setStatus(HttpServletResponse.SC_BAD_REQUEST);
+			return;
+		}
+
+		service.store(Arrays.asList(records), e.getUser());
+		response.setStatus(HttpStatusCodes.STATUS_CODE_OK);
+	}
+
+	/**
+	 * Get the loot of the user, newest first. Pages after the first are requested with the
+	 * cursor from the {@link #CURSOR_HEADER} header of the previous page; paging with start
+	 * is still supported, but is slower the further in it is.
+	 */
 	@GetMapping
-	public Collection<LootRecord> getLootRecords(HttpServletRequest request, HttpServletResponse response, @RequestParam(value = "count", defaultValue = "1024") int count, @RequestParam(value = "start", defaultValue = "0") int start) throws IOException
+	public Collection<LootRecord> getLootRecords(HttpServletRequest request, HttpServletResponse response,
+		@RequestParam(value = "count", defaultValue = "1024") int count,
+		@RequestParam(value = "start", defaultValue = "0") int start,
+		@RequestParam(value = "after", required = false) String after) throws IOException
 	{
 		SessionEntry e = auth.handle(request, response);
 		if (e == null)
@@ -76,7 +109,28 @@ public class LootTrackerController
 			return null;
 		}
 
-		return service.get(e.getUser(), count, start);
+		if (start > 0 && after == null)
+		{
+			return service.get(e.getUser(), count, start);
+		}
+
+		LootCursor cursor = null;
+		if (after != null)
+		{
+			cursor = LootCursor.parse(after);
+			if (cursor == null)
+			{
+				response.setStatus(HttpServletResponse.SC_BAD_REQUEST);
+				return null;
+			}
+		}
+
+		LootPage page = service.get(e.getUser(), count, cursor);
+		if (page.getNext() != null)
+		{
+			response.setHeader(CURSOR_HEADER, page.getNext().toString());
+		}
+		return page.getRecords();
 	}
 
 	@DeleteMapping
@@ -25,9 +25,14 @@
  */
 package net.runelite.http.service.loottracker;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import javax.annotation.Nullable;
+import lombok.extern.slf4j.Slf4j;
 import net.runelite.http.api.loottracker.GameItem;
 import net.runelite.http.api.loottracker.LootRecord;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -39,6 +44,7 @@ import org.sql2o.Query;
 import org.sql2o.Sql2o;
 
 @Service
+@Slf4j
 public class LootTrackerService
 {
 	// Table for storing individual LootRecords
@@ -63,13 +69,30 @@ public class LootTrackerService
 		+ ") ENGINE=InnoDB";
 
 	// Queries for inserting kills
-	private static final String INSERT_KILL_QUERY = "INSERT INTO kills (accountId, type, eventId) VALUES (:accountId, :type, :eventId)";
-	private static final String INSERT_DROP_QUERY = "INSERT INTO drops (killId, itemId, itemQuantity) VALUES (LAST_INSERT_ID(), :itemId, :itemQuantity)";
+	private static final String INSERT_KILL_QUERY = "INSERT INTO kills (accountId, time, type, eventId) VALUES (:accountId, :time, :type, :eventId)";
+	private static final String INSERT_DROP_QUERY = "INSERT INTO drops (killId, itemId, itemQuantity) VALUES (:killId, :itemId, :itemQuantity)";
 
-	private static final String SELECT_LOOT_QUERY = "SELECT killId,time,type,eventId,itemId,itemQuantity FROM kills JOIN drops ON drops.killId = kills.id WHERE accountId = :accountId ORDER BY TIME DESC LIMIT :limit OFFSET :offset";
+	// Kills are paged on (time, id) so that deep pages are as cheap as the first one. The
+	// page is selected from kills alone, using idx_acc, and then joined with its drops.
+	// InnoDB appends the primary key to secondary indexes, so idx_acc is ordered by id within a time.
+	private static final String SELECT_LOOT_QUERY = "SELECT killId,time,type,eventId,itemId,itemQuantity FROM "
+		+ "(SELECT id,time,type,eventId FROM kills WHERE accountId = :accountId ORDER BY accountId, time DESC, id DESC LIMIT :limit OFFSET :offset) k "
+		+ "JOIN drops ON drops.killId = k.id ORDER BY time DESC, killId DESC";
+	private static final String SELECT_LOOT_AFTER_QUERY = "SELECT killId,time,type,eventId,itemId,itemQuantity FROM "
+		+ "(SELECT id,time,type,eventId FROM kills WHERE accountId = :accountId AND time <= :time AND (time < :time OR id < :killId) "
+		+ "ORDER BY accountId, time DESC, id DESC LIMIT :limit) k "
+		+ "JOIN drops ON drops.killId = k.id ORDER BY time DESC, killId DESC";
 
 	private static final String DELETE_LOOT_ACCOUNT = "DELETE FROM kills WHERE accountId = :accountId";
 	private static final String DELETE_LOOT_ACCOUNT_EVENTID = "DELETE FROM kills WHERE accountId = :accountId AND eventId = :eventId";
+	private static final String DELETE_EXPIRED = "DELETE FROM kills WHERE time < :time LIMIT :limit";
+
+	// Maximum number of drops sent to the database in one batch
+	private static final int DROP_BATCH_SIZE = 1000;
+	private static final Duration EXPIRE_AFTER = Duration.ofDays(30);
+	// Expired kills are deleted in chunks, so no delete holds its locks for long
+	private static final int EXPIRE_CHUNK_SIZE = 1000;
+	private static final int EXPIRE_MAX_CHUNKS = 500;
 
 	private final Sql2o sql2o;
 
@@ -94,44 +117,141 @@ public class LootTrackerService
 	 */
 	public void store(LootRecord record, int accountId)
 	{
+		store(Collections.singletonList(record), accountId);
+	}
+
+	/**
+	 * Store LootRecords. The kills are inserted in one batch, and their drops
+	 * in batches of up to {@link #DROP_BATCH_SIZE}, all in one transaction.
+	 * Kills keep the time they were recorded at, unless it is missing or in the future.
+	 *
+	 * @param records   LootRecords to store
+	 * @param accountId runelite account id to tie data too
+	 */
+	public void store(Collection<LootRecord> records, int accountId)
+	{
+		if (records.isEmpty())
+		{
+			return;
+		}
+
+		Instant now = Instant.now();
+
 		try (Connection con = sql2o.beginTransaction())
 		{
-			// Kill Entry Query
-			con.createQuery(INSERT_KILL_QUERY, true)
-				.addParameter("accountId", accountId)
-				.addParameter("type", record.getType())
-				.addParameter("eventId", record.getEventId())
-				.executeUpdate();
+			Query insertKill = con.createQuery(INSERT_KILL_QUERY, true);
+
+			for (LootRecord record : records)
+			{
+				Instant time = record.getTime();
+				if (time == null || time.isAfter(now))
+				{
+					time = now;
+				}
+
+				insertKill
+					.addParameter("accountId", accountId)
+					.addParameter("time", time)
+					.addParameter("type", record.getType())
+					.addParameter("eventId", record.getEventId())
+					.addToBatch();
+			}
+
+			List<Integer> killIds = insertKill.executeBatch().getKeys(Integer.class);
+			if (killIds.size() != records.size())
+			{
+				throw new IllegalStateException("expected " + records.size() + " generated kill ids, got " + killIds.size());
+			}
 
 			Query insertDrop = con.createQuery(INSERT_DROP_QUERY);
+			int batched = 0;
+			int i = 0;
 
-			// Append all queries for inserting drops
-			for (GameItem drop : record.getDrops())
+			for (LootRecord record : records)
 			{
-				insertDrop
-					.addParameter("itemId", drop.getId())
-					.addParameter("itemQuantity", drop.getQty())
-					.addToBatch();
+				int killId = killIds.get(i++);
+
+				for (GameItem drop : record.getDrops())
+				{
+					insertDrop
+						.addParameter("killId", killId)
+						.addParameter("itemId", drop.getId())
+						.addParameter("itemQuantity", drop.getQty())
+						.addToBatch();
+
+					if (++batched == DROP_BATCH_SIZE)
+					{
+						insertDrop.executeBatch();
+						batched = 0;
+					}
+				}
+			}
+
+			if (batched > 0)
+			{
+				insertDrop.executeBatch();
 			}
 
-			insertDrop.executeBatch();
 			con.commit(false);
 		}
 	}
 
+	/**
+	 * Get the most recent kills of an account, newest first
+	 *
+	 * @param accountId runelite account id
+	 * @param limit     maximum number of kills
+	 * @param offset    number of kills to skip
+	 * @return
+	 */
 	public Collection<LootRecord> get(int accountId, int limit, int offset)
+	{
+		return get(accountId, limit, offset, null).getRecords();
+	}
+
+	/**
+	 * Get a page of the kills of an account, newest first
+	 *
+	 * @param accountId runelite account id
+	 * @param limit     maximum number of kills
+	 * @param after     cursor of the previous page, or null for the first page
+	 * @return
+	 */
+	public LootPage get(int accountId, int limit, @Nullable LootCursor after)
+	{
+		return get(accountId, limit, 0, after);
+	}
+
+	private LootPage get(int accountId, int limit, int offset, @Nullable LootCursor after)
 	{
 		List<LootResult> lootResults;
 
 		try (Connection con = sql2o.open())
 		{
-			lootResults = con.createQuery(SELECT_LOOT_QUERY)
+			Query query;
+			if (after == null)
+			{
+				query = con.createQuery(SELECT_LOOT_QUERY)
+					.addParameter("offset", offset);
+			}
+			else
+			{
+				query = con.createQuery(SELECT_LOOT_AFTER_QUERY)
+					.addParameter("time", after.getTime())
+					.addParameter("killId", after.getKillId());
+			}
+
+			lootResults = query
 				.addParameter("accountId", accountId)
 				.addParameter("limit", limit)
-				.addParameter("offset", offset)
 				.executeAndFetch(LootResult.class);
 		}
 
+		return toLootPage(lootResults);
+	}
+
+	private static LootPage toLootPage(List<LootResult> lootResults)
+	{
 		LootResult current = null;
 		List<LootRecord> lootRecords = new ArrayList<>();
 		List<GameItem> gameItems = new ArrayList<>();
@@ -161,7 +281,8 @@ public class LootTrackerService
 			lootRecords.add(lootRecord);
 		}
 
-		return lootRecords;
+		LootCursor next = current != null ? new LootCursor(current.getTime(), current.getKillId()) : null;
+		return new LootPage(lootRecords, next);
 	}
 
 	public void delete(int accountId, String eventId)
@@ -187,10 +308,27 @@ public class LootTrackerService
 	@Scheduled(fixedDelay = 15 * 60 * 1000)
 	public void expire()
 	{
+		Instant cutoff = Instant.now().minus(EXPIRE_AFTER);
+		int deleted = 0;
+
 		try (Connection con = sql2o.open())
 		{
-			con.createQuery("delete from kills where time < current_timestamp() - interval 30 day")
-				.executeUpdate();
+			Query query = con.createQuery(DELETE_EXPIRED)
+				.addParameter("time", cutoff)
+				.addParameter("limit", EXPIRE_CHUNK_SIZE);
+
+			for (int i = 0; i < EXPIRE_MAX_CHUNKS; ++i)
+			{
+				int count = query.executeUpdate().getResult();
+				deleted += count;
+
+				if (count < EXPIRE_CHUNK_SIZE)
+				{
+					break;
+				}
+			}
 		}
+
+		log.debug("Expired {} kills", deleted);
 	}
 }
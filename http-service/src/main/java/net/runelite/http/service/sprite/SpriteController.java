@@ -24,50 +24,80 @@
  */
 package net.runelite.http.service.sprite;
 
-import com.google.common.cache.CacheBuilder;
-import com.google.common.cache.CacheLoader;
-import com.google.common.cache.LoadingCache;
 import java.io.IOException;
 import java.util.concurrent.TimeUnit;
+import net.runelite.http.service.cache.CacheService;
+import net.runelite.http.service.cache.beans.ArchiveEntry;
+import net.runelite.http.service.cache.beans.CacheEntry;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 @RestController
 @RequestMapping("/sprite")
 public class SpriteController
 {
+	// a sprite of a given cache never changes
+	private static final String IMMUTABLE = CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().getHeaderValue() + ", immutable";
+	// the sprites of the most recent cache change on update, so are only briefly fresh and then revalidated with the etag
+	private static final CacheControl MOST_RECENT = CacheControl.maxAge(1, TimeUnit.MINUTES).cachePublic();
+
 	@Autowired
 	private SpriteService spriteService;
 
-	private final LoadingCache<Integer, byte[]> spriteCache = CacheBuilder.newBuilder()
-		.maximumSize(1024L)
-		.expireAfterWrite(10, TimeUnit.MINUTES)
-		.build(new CacheLoader<Integer, byte[]>()
-		{
-			@Override
-			public byte[] load(Integer key) throws Exception
-			{
-				byte[] data = spriteService.getImagePng(key >>> 16, key & 0xffff);
-				return data != null ? data : new byte[0];
-			}
-		});
+	@Autowired
+	private CacheService cacheService;
 
 	@GetMapping(produces = "image/png")
 	public ResponseEntity<byte[]> getSprite(
 		@RequestParam int spriteId,
-		@RequestParam(defaultValue = "0") int frameId
+		@RequestParam(defaultValue = "0") int frameId,
+		@RequestParam(required = false) Integer cacheId,
+		WebRequest request
 	) throws IOException
 	{
-		byte[] data = spriteCache.getUnchecked(spriteId << 16 | frameId);
-		if (data == null || data.length == 0)
+		CacheEntry cache = cacheId != null ? cacheService.findCache(cacheId) : cacheService.findMostRecent();
+		if (cache == null)
+		{
+			return ResponseEntity.notFound().build();
+		}
+
+		ArchiveEntry archive = spriteService.findSpriteArchive(cache, spriteId);
+		if (archive == null)
+		{
+			return ResponseEntity.notFound().build();
+		}
+
+		String etag = SpriteService.getETag(archive, frameId);
+		if (request.checkNotModified(etag))
+		{
+			return null;
+		}
+
+		byte[] data = spriteService.getImagePng(archive, frameId);
+		if (data == null)
 		{
 			return ResponseEntity.notFound().build();
 		}
 
-		return ResponseEntity.ok(data);
+		ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+			.eTag(etag);
+
+		if (cacheId != null)
+		{
+			builder.header(HttpHeaders.CACHE_CONTROL, IMMUTABLE);
+		}
+		else
+		{
+			builder.cacheControl(MOST_RECENT);
+		}
+
+		return builder.body(data);
 	}
 }
@@ -24,6 +24,8 @@
  */
 package net.runelite.http.service.sprite;
 
+import com.google.common.hash.HashCode;
+import com.google.common.io.BaseEncoding;
 import java.awt.image.BufferedImage;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
@@ -33,10 +35,10 @@ import net.runelite.cache.definitions.SpriteDefinition;
 import net.runelite.cache.definitions.loaders.SpriteLoader;
 import net.runelite.cache.fs.ArchiveFiles;
 import net.runelite.cache.fs.FSFile;
+import net.runelite.http.service.cache.AssetCache;
 import net.runelite.http.service.cache.CacheService;
 import net.runelite.http.service.cache.beans.ArchiveEntry;
 import net.runelite.http.service.cache.beans.CacheEntry;
-import net.runelite.http.service.cache.beans.IndexEntry;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
@@ -46,6 +48,23 @@ public class SpriteService
 	@Autowired
 	private CacheService cacheService;
 
+	@Autowired
+	private AssetCache assetCache;
+
+	/**
+	 * get a strong entity tag for a sprite frame. It only depends on the contents
+	 * of the sprite archive, so it is the same for every cache the sprite is unchanged in.
+	 */
+	public static String getETag(ArchiveEntry archive, int frameId)
+	{
+		return "\"" + BaseEncoding.base16().lowerCase().encode(archive.getHash(), 0, 16) + "-" + frameId + "\"";
+	}
+
+	public ArchiveEntry findSpriteArchive(CacheEntry cache, int spriteId)
+	{
+		return cacheService.findArchiveForIndex(cache, IndexType.SPRITES.getNumber(), spriteId);
+	}
+
 	public SpriteDefinition getSprite(int spriteId, int frameId) throws IOException
 	{
 		CacheEntry cache = cacheService.findMostRecent();
@@ -54,28 +73,14 @@ public class SpriteService
 			return null;
 		}
 
-		IndexEntry index = cacheService.findIndexForCache(cache, IndexType.SPRITES.getNumber());
-		if (index == null)
-		{
-			return null;
-		}
-
-		ArchiveEntry archive = cacheService.findArchiveForIndex(index, spriteId);
+		ArchiveEntry archive = findSpriteArchive(cache, spriteId);
 		if (archive == null)
 		{
 			return null;
 		}
 
-		ArchiveFiles files = cacheService.getArchiveFiles(archive);
-		if (files == null)
-		{
-			return null;
-		}
-
-		FSFile file = files.getFiles().get(0);
-		byte[] contents = file.getContents();
-		SpriteDefinition[] sprite = new SpriteLoader().load(archive.getArchiveId(), contents);
-		if (frameId < 0 || frameId >= sprite.length)
+		SpriteDefinition[] sprite = loadSprites(archive);
+		if (sprite == null || frameId < 0 || frameId >= sprite.length)
 		{
 			return null;
 		}
@@ -97,12 +102,73 @@ public class SpriteService
 
 	public byte[] getImagePng(int spriteId, int frameId) throws IOException
 	{
-		BufferedImage image = getImage(spriteId, frameId);
-		if (image == null)
+		CacheEntry cache = cacheService.findMostRecent();
+		if (cache == null)
+		{
+			return null;
+		}
+
+		ArchiveEntry archive = findSpriteArchive(cache, spriteId);
+		if (archive == null)
+		{
+			return null;
+		}
+
+		return getImagePng(archive, frameId);
+	}
+
+	/**
+	 * get a sprite frame as png. On a miss the sprite archive is decoded once
+	 * and every frame of it is encoded and cached.
+	 *
+	 * @param archive sprite archive
+	 * @param frameId
+	 * @return the png, or null if the frame does not exist
+	 * @throws IOException
+	 */
+	public byte[] getImagePng(ArchiveEntry archive, int frameId) throws IOException
+	{
+		HashCode hash = HashCode.fromBytes(archive.getHash());
+		byte[] png = assetCache.get(new SpriteKey(hash, frameId));
+		if (png != null)
+		{
+			return png;
+		}
+
+		SpriteDefinition[] sprites = loadSprites(archive);
+		if (sprites == null || frameId < 0 || frameId >= sprites.length)
 		{
 			return null;
 		}
 
+		for (int i = 0; i < sprites.length; ++i)
+		{
+			byte[] framePng = toPng(getSpriteImage(sprites[i]));
+			assetCache.put(new SpriteKey(hash, i), framePng);
+			if (i == frameId)
+			{
+				png = framePng;
+			}
+		}
+
+		return png;
+	}
+
+	private SpriteDefinition[] loadSprites(ArchiveEntry archive) throws IOException
+	{
+		ArchiveFiles files = cacheService.getArchiveFiles(archive);
+		if (files == null)
+		{
+			return null;
+		}
+
+		FSFile file = files.getFiles().get(0);
+		byte[] contents = file.getContents();
+		return new SpriteLoader().load(archive.getArchiveId(), contents);
+	}
+
+	private static byte[] toPng(BufferedImage image) throws IOException
+	{
 		ByteArrayOutputStream bao = new ByteArrayOutputStream();
 		ImageIO.write(image, "png", bao);
 		return bao.toByteArray();
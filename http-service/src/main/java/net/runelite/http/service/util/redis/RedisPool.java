@@ -24,48 +24,129 @@
  */
 package net.runelite.http.service.util.redis;
 
-import java.util.concurrent.ArrayBlockingQueue;
-import java.util.concurrent.BlockingQueue;
+import java.util.Deque;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import redis.clients.jedis.Jedis;
 
+/**
+ * A fixed size pool of redis connections. Connections are created on first use,
+ * and a borrower waits at most {@code redis.pool.wait} milliseconds for one to be returned.
+ */
 @Component
+@Slf4j
 public class RedisPool
 {
-	private final BlockingQueue<Jedis> queue;
+	private final String redisHost;
+	private final long maxWaitNanos;
+	private final int size;
+	// one permit per connection which is not borrowed
+	private final Semaphore available;
+	private final Deque<PooledJedis> idle = new ConcurrentLinkedDeque<>();
+
+	private final AtomicLong borrows = new AtomicLong();
+	private final AtomicLong waits = new AtomicLong();
+	private final AtomicLong waitNanos = new AtomicLong();
+	private final AtomicLong timeouts = new AtomicLong();
+	private final AtomicLong created = new AtomicLong();
+	private final AtomicLong broken = new AtomicLong();
+
+	RedisPool(@Value("${redis.pool.size:10}") int size,
+		@Value("${redis.pool.wait:1000}") long maxWaitMillis,
+		@Value("${redis.host:localhost}") String redisHost)
+	{
+		this.redisHost = redisHost;
+		this.size = size;
+		this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxWaitMillis);
+		this.available = new Semaphore(size);
+	}
 
-	RedisPool(@Value("${redis.pool.size:10}") int queueSize, @Value("${redis.host:localhost}") String redisHost)
+	public Jedis getResource()
 	{
-		queue = new ArrayBlockingQueue<>(queueSize);
-		for (int i = 0; i < queueSize; ++i)
+		if (!available.tryAcquire())
 		{
-			Jedis jedis = new PooledJedis(redisHost);
-			queue.offer(jedis);
+			waitForResource();
 		}
+
+		borrows.incrementAndGet();
+
+		// most recently returned first, as it is the most likely to still be connected
+		PooledJedis jedis = idle.pollFirst();
+		if (jedis == null)
+		{
+			jedis = new PooledJedis(redisHost);
+			created.incrementAndGet();
+		}
+		jedis.borrowed = true;
+		return jedis;
 	}
 
-	public Jedis getResource()
+	private void waitForResource()
 	{
-		Jedis jedis;
+		waits.incrementAndGet();
+		long start = System.nanoTime();
+		boolean acquired;
 		try
 		{
-			jedis = queue.poll(1, TimeUnit.SECONDS);
+			acquired = available.tryAcquire(maxWaitNanos, TimeUnit.NANOSECONDS);
 		}
 		catch (InterruptedException e)
 		{
+			Thread.currentThread().interrupt();
 			throw new RuntimeException(e);
 		}
-		if (jedis == null)
+		finally
+		{
+			waitNanos.addAndGet(System.nanoTime() - start);
+		}
+
+		if (!acquired)
 		{
+			timeouts.incrementAndGet();
 			throw new RuntimeException("Unable to acquire connection from pool, timeout");
 		}
-		return jedis;
+	}
+
+	private void release(PooledJedis jedis)
+	{
+		if (jedis.getClient().isBroken())
+		{
+			// drop it, a new connection is created in its place when needed
+			broken.incrementAndGet();
+			jedis.getClient().disconnect();
+		}
+		else
+		{
+			idle.offerFirst(jedis);
+		}
+		available.release();
+	}
+
+	public RedisPoolStats getStats()
+	{
+		long waits = this.waits.get();
+		return new RedisPoolStats(
+			size,
+			size - available.availablePermits(),
+			idle.size(),
+			borrows.get(),
+			waits,
+			waits == 0 ? 0 : TimeUnit.NANOSECONDS.toMicros(waitNanos.get() / waits),
+			timeouts.get(),
+			created.get(),
+			broken.get()
+		);
 	}
 
 	class PooledJedis extends Jedis
 	{
+		private boolean borrowed;
+
 		PooledJedis(String host)
 		{
 			super(host);
@@ -74,7 +155,14 @@ public class RedisPool
 		@Override
 		public void close()
 		{
-			queue.offer(this);
+			if (!borrowed)
+			{
+				log.warn("Redis connection returned to the pool twice", new IllegalStateException());
+				return;
+			}
+
+			borrowed = false;
+			release(this);
 		}
 	}
 }
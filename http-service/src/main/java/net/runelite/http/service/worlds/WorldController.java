@@ -24,39 +24,221 @@
  */
 package net.runelite.http.service.worlds;
 
+import com.google.common.annotations.VisibleForTesting;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import javax.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
-import net.runelite.http.api.worlds.WorldResult;
+import net.runelite.http.api.RuneLiteAPI;
+import net.runelite.http.api.worlds.WorldDelta;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 @RestController
 @RequestMapping("/worlds")
 @Slf4j
 public class WorldController
 {
+	private static final String LAST_EVENT_ID = "Last-Event-ID";
+	// subscribers reconnect with Last-Event-ID after this, and are only sent the world list if it has changed
+	private static final long STREAM_TIMEOUT = TimeUnit.MINUTES.toMillis(30);
+	// subscribers which take longer than this to be sent an event are dropped
+	private static final long SEND_TIMEOUT = TimeUnit.SECONDS.toMillis(10);
+
 	@Autowired
 	private WorldsService worldsService;
 
-	private WorldResult worldResult;
+	private volatile WorldSnapshot snapshot;
+
+	private final List<SseEmitter> emitters = new CopyOnWriteArrayList<>();
+
+	// events are broadcast in order on their own thread, off the shared scheduler thread,
+	// and each subscriber is sent to separately so a stalled one can't hold up the rest
+	private final ExecutorService broadcastExecutor = Executors.newSingleThreadExecutor();
+	private final ExecutorService sendExecutor = Executors.newCachedThreadPool();
+
+	@PreDestroy
+	public void shutdown()
+	{
+		broadcastExecutor.shutdownNow();
+		sendExecutor.shutdownNow();
+	}
 
 	@GetMapping
-	public ResponseEntity<WorldResult> listWorlds() throws IOException
+	public ResponseEntity<byte[]> listWorlds(WebRequest request)
 	{
+		WorldSnapshot snapshot = this.snapshot;
+		if (snapshot == null)
+		{
+			return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+		}
+
+		if (request.checkNotModified(snapshot.getEtag()))
+		{
+			return null;
+		}
+
 		return ResponseEntity.ok()
 			.cacheControl(CacheControl.maxAge(10, TimeUnit.MINUTES).cachePublic())
-			.body(worldResult);
+			.eTag(snapshot.getEtag())
+			.contentType(MediaType.APPLICATION_JSON_UTF8)
+			.body(snapshot.getJsonBytes());
+	}
+
+	/**
+	 * Stream the world list. The full world list is sent first, unless Last-Event-ID
+	 * is its current etag, followed by a delta each time the world list changes.
+	 */
+	@GetMapping("/stream")
+	public SseEmitter stream(@RequestHeader(value = LAST_EVENT_ID, required = false) String lastEventId)
+	{
+		SseEmitter emitter = new SseEmitter(STREAM_TIMEOUT);
+		emitter.onCompletion(() -> emitters.remove(emitter));
+		emitter.onTimeout(() -> emitters.remove(emitter));
+
+		// hold the lock so a refresh can't send a delta between the world list and adding the emitter
+		synchronized (this)
+		{
+			WorldSnapshot snapshot = this.snapshot;
+			if (snapshot != null && !snapshot.getEtag().equals(lastEventId)
+				&& !send(emitter, WorldDelta.WORLDS_EVENT, snapshot.getEtag(), snapshot.getJson()))
+			{
+				return emitter;
+			}
+
+			emitters.add(emitter);
+		}
+
+		return emitter;
 	}
 
 	@Scheduled(fixedDelay = 60_000L)
 	public void refreshWorlds() throws IOException
 	{
-		worldResult = worldsService.getWorlds();
+		refresh();
+	}
+
+	/**
+	 * Swap in the current world list, and queue the change to be broadcast
+	 *
+	 * @return a future which completes once every subscriber has been sent the change, or dropped
+	 * @throws IOException
+	 */
+	@VisibleForTesting
+	Future<?> refresh() throws IOException
+	{
+		WorldSnapshot next = WorldSnapshot.of(worldsService.getWorlds());
+
+		// subscribers added after the swap are sent the new world list by stream(), so
+		// the change goes to those subscribed at the time. Queueing it under the lock
+		// keeps the broadcasts in the same order as the swaps.
+		synchronized (this)
+		{
+			WorldSnapshot previous = snapshot;
+			snapshot = next;
+
+			List<SseEmitter> subscribers = new ArrayList<>(emitters);
+			return broadcastExecutor.submit(() ->
+			{
+				if (previous == null)
+				{
+					broadcast(subscribers, WorldDelta.WORLDS_EVENT, next.getEtag(), next.getJson());
+					return;
+				}
+
+				WorldDelta delta = next.deltaFrom(previous);
+				if (delta.isEmpty())
+				{
+					broadcast(subscribers, null, null, null);
+					return;
+				}
+
+				broadcast(subscribers, WorldDelta.DELTA_EVENT, next.getEtag(), RuneLiteAPI.GSON.toJson(delta));
+			});
+		}
+	}
+
+	/**
+	 * Send an event to the subscribers, or a comment to keep the connections alive if name is null.
+	 * Subscribers which fail, or are not sent the event within {@link #SEND_TIMEOUT}, are dropped.
+	 */
+	private void broadcast(List<SseEmitter> subscribers, String name, String id, String data)
+	{
+		List<Future<Boolean>> sends = new ArrayList<>(subscribers.size());
+		for (SseEmitter emitter : subscribers)
+		{
+			sends.add(sendExecutor.submit(() -> send(emitter, name, id, data)));
+		}
+
+		long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(SEND_TIMEOUT);
+		for (int i = 0; i < sends.size(); ++i)
+		{
+			SseEmitter emitter = subscribers.get(i);
+			Future<Boolean> send = sends.get(i);
+
+			try
+			{
+				if (send.get(Math.max(0L, deadline - System.nanoTime()), TimeUnit.NANOSECONDS))
+				{
+					continue;
+				}
+			}
+			catch (TimeoutException ex)
+			{
+				log.debug("Dropping slow world subscriber");
+				send.cancel(true);
+				// the emitter is locked by the stalled send, so complete it off this thread
+				sendExecutor.execute(emitter::complete);
+			}
+			catch (ExecutionException ex)
+			{
+				log.debug("Dropping world subscriber", ex);
+			}
+			catch (InterruptedException ex)
+			{
+				Thread.currentThread().interrupt();
+				return;
+			}
+
+			emitters.remove(emitter);
+		}
+	}
+
+	private static boolean send(SseEmitter emitter, String name, String id, String data)
+	{
+		// an event builder can only be built once, so each emitter needs its own
+		SseEmitter.SseEventBuilder event = name == null
+			? SseEmitter.event().comment("")
+			: SseEmitter.event().name(name).id(id).data(data);
+
+		try
+		{
+			emitter.send(event);
+			return true;
+		}
+		catch (IOException | IllegalStateException ex)
+		{
+			log.debug("Dropping world subscriber", ex);
+			emitter.completeWithError(ex);
+			return false;
+		}
 	}
 }
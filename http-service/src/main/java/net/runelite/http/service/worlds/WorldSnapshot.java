@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2019, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.http.service.worlds;
+
+import com.google.common.hash.Hashing;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import lombok.AccessLevel;
+import lombok.Getter;
+import net.runelite.http.api.RuneLiteAPI;
+import net.runelite.http.api.worlds.World;
+import net.runelite.http.api.worlds.WorldDelta;
+import net.runelite.http.api.worlds.WorldResult;
+
+/**
+ * Serialized world list, built once per refresh and shared by every request and subscriber
+ */
+@Getter
+class WorldSnapshot
+{
+	private final WorldResult worldResult;
+	private final String etag;
+	private final String json;
+	private final byte[] jsonBytes;
+
+	@Getter(AccessLevel.NONE)
+	private final Map<Integer, World> worlds = new HashMap<>();
+
+	private WorldSnapshot(WorldResult worldResult, String json)
+	{
+		this.worldResult = worldResult;
+		this.json = json;
+		this.jsonBytes = json.getBytes(StandardCharsets.UTF_8);
+		this.etag = Hashing.sha256().hashBytes(jsonBytes).toString().substring(0, 32);
+
+		for (World world : worldResult.getWorlds())
+		{
+			worlds.put(world.getId(), world);
+		}
+	}
+
+	static WorldSnapshot of(WorldResult worldResult)
+	{
+		return new WorldSnapshot(worldResult, RuneLiteAPI.GSON.toJson(worldResult));
+	}
+
+	/**
+	 * Get the changes to the world list since an older snapshot
+	 *
+	 * @param from older snapshot
+	 * @return
+	 */
+	WorldDelta deltaFrom(WorldSnapshot from)
+	{
+		WorldDelta delta = new WorldDelta();
+
+		for (World world : worldResult.getWorlds())
+		{
+			World old = from.worlds.get(world.getId());
+			if (old == null || !sameExceptPlayers(old, world))
+			{
+				delta.getWorlds().add(world);
+			}
+			else if (old.getPlayers() != world.getPlayers())
+			{
+				delta.getPlayers().put(world.getId(), world.getPlayers());
+			}
+		}
+
+		for (Integer id : from.worlds.keySet())
+		{
+			if (!worlds.containsKey(id))
+			{
+				delta.getRemoved().add(id);
+			}
+		}
+
+		return delta;
+	}
+
+	private static boolean sameExceptPlayers(World w1, World w2)
+	{
+		return Objects.equals(w1.getTypes(), w2.getTypes())
+			&& Objects.equals(w1.getAddress(), w2.getAddress())
+			&& Objects.equals(w1.getActivity(), w2.getActivity())
+			&& w1.getLocation() == w2.getLocation();
+	}
+}
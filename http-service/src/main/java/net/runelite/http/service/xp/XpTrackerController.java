@@ -56,4 +56,10 @@ public class XpTrackerController
 		XpEntity xpEntity = xpTrackerService.findXpAtTime(username, time);
 		return XpMapper.INSTANCE.xpEntityToXpData(xpEntity);
 	}
+
+	@GetMapping("/stats")
+	public XpTrackerStats stats()
+	{
+		return xpTrackerService.getStats();
+	}
 }
@@ -24,14 +24,34 @@
  */
 package net.runelite.http.service.xp;
 
+import com.google.common.base.Stopwatch;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
 import com.google.common.hash.BloomFilter;
 import com.google.common.hash.Funnels;
+import com.google.common.util.concurrent.RateLimiter;
 import java.nio.charset.Charset;
 import java.time.Duration;
 import java.time.Instant;
-import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
 import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
 import net.runelite.http.api.hiscore.HiscoreEndpoint;
 import net.runelite.http.api.hiscore.HiscoreResult;
@@ -41,34 +61,100 @@ import net.runelite.http.service.xp.beans.PlayerEntity;
 import net.runelite.http.service.xp.beans.XpEntity;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.sql2o.Connection;
+import org.sql2o.Query;
 import org.sql2o.Sql2o;
+import org.sql2o.Sql2oException;
 
 @Service
 @Slf4j
 public class XpTrackerService
 {
 	private static final int QUEUE_LIMIT = 32768;
+	private static final int SNAPSHOT_LIMIT = 32768;
+	private static final int FLUSH_BATCH_SIZE = 500;
 	private static final int BLOOMFILTER_EXPECTED_INSERTIONS = 100_000;
 
-	@Autowired
-	@Qualifier("Runelite XP Tracker SQL2O")
-	private Sql2o sql2o;
+	private static final String INSERT_XP_SQL = "insert into xp (player,attack_xp,defence_xp,strength_xp,hitpoints_xp,ranged_xp,prayer_xp,magic_xp,cooking_xp,woodcutting_xp,"
+		+ "fletching_xp,fishing_xp,firemaking_xp,crafting_xp,smithing_xp,mining_xp,herblore_xp,agility_xp,thieving_xp,slayer_xp,farming_xp,"
+		+ "runecraft_xp,hunter_xp,construction_xp,attack_rank,defence_rank,strength_rank,hitpoints_rank,ranged_rank,prayer_rank,magic_rank,"
+		+ "cooking_rank,woodcutting_rank,fletching_rank,fishing_rank,firemaking_rank,crafting_rank,smithing_rank,mining_rank,herblore_rank,"
+		+ "agility_rank,thieving_rank,slayer_rank,farming_rank,runecraft_rank,hunter_rank,construction_rank,overall_rank) values (:player,:attack_xp,:defence_xp,"
+		+ ":strength_xp,:hitpoints_xp,:ranged_xp,:prayer_xp,:magic_xp,:cooking_xp,:woodcutting_xp,:fletching_xp,:fishing_xp,:firemaking_xp,"
+		+ ":crafting_xp,:smithing_xp,:mining_xp,:herblore_xp,:agility_xp,:thieving_xp,:slayer_xp,:farming_xp,:runecraft_xp,:hunter_xp,"
+		+ ":construction_xp,:attack_rank,:defence_rank,:strength_rank,:hitpoints_rank,:ranged_rank,:prayer_rank,:magic_rank,:cooking_rank,"
+		+ ":woodcutting_rank,:fletching_rank,:fishing_rank,:firemaking_rank,:crafting_rank,:smithing_rank,:mining_rank,:herblore_rank,"
+		+ ":agility_rank,:thieving_rank,:slayer_rank,:farming_rank,:runecraft_rank,:hunter_rank,:construction_rank,:overall_rank)";
 
-	@Autowired
-	private HiscoreService hiscoreService;
+	private final Sql2o sql2o;
+	private final HiscoreService hiscoreService;
+	private final RateLimiter hiscoreRateLimiter;
+	private final ThreadPoolExecutor fetchExecutor;
 
-	private final Queue<String> usernameUpdateQueue = new ArrayDeque<>();
+	// usernames waiting for a hiscore lookup, and the set of those queued or in flight
+	private final Queue<String> usernameUpdateQueue = new ConcurrentLinkedQueue<>();
+	private final Set<String> queuedUsernames = ConcurrentHashMap.newKeySet();
+	private final AtomicInteger usernameQueueSize = new AtomicInteger();
 	private BloomFilter<String> usernameFilter = createFilter();
 
+	// hiscore results waiting to be written, latest result per username wins
+	private final ConcurrentMap<String, HiscoreResult> pendingSnapshots = new ConcurrentHashMap<>();
+
+	private final Cache<String, PlayerEntity> playerCache = CacheBuilder.newBuilder()
+		.maximumSize(100_000)
+		.expireAfterAccess(1, TimeUnit.HOURS)
+		.recordStats()
+		.build();
+	// last snapshot written for each player id, to skip unchanged hiscores
+	private final Cache<Integer, XpData> lastXpCache = CacheBuilder.newBuilder()
+		.maximumSize(10_000)
+		.build();
+
+	private final AtomicLong droppedUsernames = new AtomicLong();
+	private final AtomicLong droppedSnapshots = new AtomicLong();
+	private final AtomicLong flushedSnapshots = new AtomicLong();
+	private volatile int lastFlushSize;
+	private volatile long lastFlushMillis;
+
+	@Autowired
+	public XpTrackerService(
+		@Qualifier("Runelite XP Tracker SQL2O") Sql2o sql2o,
+		HiscoreService hiscoreService,
+		@Value("${runelite.xp.fetch-threads:4}") int fetchThreads,
+		@Value("${runelite.xp.fetch-rate:5}") double fetchRate
+	)
+	{
+		this.sql2o = sql2o;
+		this.hiscoreService = hiscoreService;
+		this.hiscoreRateLimiter = RateLimiter.create(fetchRate);
+		this.fetchExecutor = new ThreadPoolExecutor(fetchThreads, fetchThreads,
+			0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(fetchThreads * 2));
+	}
+
+	@PreDestroy
+	public void shutdown() throws InterruptedException
+	{
+		fetchExecutor.shutdown();
+		fetchExecutor.awaitTermination(30, TimeUnit.SECONDS);
+		flush();
+	}
+
 	public void update(String username) throws ExecutionException
 	{
-		HiscoreResult hiscoreResult = hiscoreService.lookupUsername(username, HiscoreEndpoint.NORMAL);
+		HiscoreResult hiscoreResult = hiscoreService.lookupFreshUsername(username, HiscoreEndpoint.NORMAL);
 		update(username, hiscoreResult);
 	}
 
+	/**
+	 * Queue a player for a hiscore lookup. This does not touch the database,
+	 * players are created and checked for how recently they were updated by
+	 * the fetch workers.
+	 *
+	 * @param username
+	 */
 	public void tryUpdate(String username)
 	{
 		if (usernameFilter.mightContain(username))
@@ -76,122 +162,253 @@ public class XpTrackerService
 			return;
 		}
 
-		try (Connection con = sql2o.open())
+		PlayerEntity playerEntity = playerCache.getIfPresent(username);
+		if (playerEntity != null && updatedRecently(playerEntity))
 		{
-			PlayerEntity playerEntity = findOrCreatePlayer(con, username);
-			Duration frequency = updateFrequency(playerEntity);
-			Instant now = Instant.now();
-			Duration timeSinceLastUpdate = Duration.between(playerEntity.getLast_updated(), now);
-			if (timeSinceLastUpdate.toMillis() < frequency.toMillis())
+			log.debug("User {} updated too recently", username);
+			usernameFilter.put(username);
+			return;
+		}
+
+		if (!queuedUsernames.add(username))
+		{
+			return;
+		}
+
+		if (usernameQueueSize.incrementAndGet() > QUEUE_LIMIT)
+		{
+			usernameQueueSize.decrementAndGet();
+			queuedUsernames.remove(username);
+			droppedUsernames.incrementAndGet();
+			log.debug("Username update queue is full ({})", QUEUE_LIMIT);
+			return;
+		}
+
+		usernameUpdateQueue.add(username);
+		usernameFilter.put(username);
+	}
+
+	/**
+	 * Queue a hiscore result to be written on the next flush
+	 *
+	 * @param username
+	 * @param hiscoreResult
+	 */
+	public void update(String username, HiscoreResult hiscoreResult)
+	{
+		if (pendingSnapshots.size() >= SNAPSHOT_LIMIT && !pendingSnapshots.containsKey(username))
+		{
+			droppedSnapshots.incrementAndGet();
+			log.debug("Snapshot queue is full ({})", SNAPSHOT_LIMIT);
+			return;
+		}
+
+		pendingSnapshots.put(username, hiscoreResult);
+	}
+
+	/**
+	 * Write queued hiscore results to the database in batches
+	 */
+	@Scheduled(fixedDelay = 5000)
+	public void flush()
+	{
+		if (pendingSnapshots.isEmpty())
+		{
+			return;
+		}
+
+		Stopwatch stopwatch = Stopwatch.createStarted();
+		int count = 0;
+
+		Map<String, HiscoreResult> batch = new HashMap<>(FLUSH_BATCH_SIZE);
+		for (Iterator<String> it = pendingSnapshots.keySet().iterator(); it.hasNext(); )
+		{
+			String username = it.next();
+			HiscoreResult hiscoreResult = pendingSnapshots.remove(username);
+			if (hiscoreResult == null)
 			{
-				log.debug("User {} updated too recently", username);
-				usernameFilter.put(username);
-				return;
+				continue;
 			}
 
-			synchronized (usernameUpdateQueue)
+			batch.put(username, hiscoreResult);
+			if (batch.size() >= FLUSH_BATCH_SIZE)
 			{
-				if (usernameUpdateQueue.size() >= QUEUE_LIMIT)
-				{
-					log.warn("Username update queue is full ({})", QUEUE_LIMIT);
-					return;
-				}
-
-				usernameUpdateQueue.add(username);
+				count += tryFlush(batch);
+				batch.clear();
 			}
 		}
 
-		usernameFilter.put(username);
+		if (!batch.isEmpty())
+		{
+			count += tryFlush(batch);
+		}
+
+		lastFlushSize = count;
+		lastFlushMillis = stopwatch.elapsed(TimeUnit.MILLISECONDS);
+		flushedSnapshots.addAndGet(count);
+
+		log.debug("Inserted {} xp snapshots in {}ms", count, lastFlushMillis);
 	}
 
-	public void update(String username, HiscoreResult hiscoreResult)
+	private int tryFlush(Map<String, HiscoreResult> batch)
 	{
-		try (Connection con = sql2o.open())
+		try
+		{
+			return flush(batch);
+		}
+		catch (Sql2oException ex)
 		{
-			PlayerEntity playerEntity = findOrCreatePlayer(con, username);
+			log.warn("unable to insert {} xp snapshots", batch.size(), ex);
+
+			// requeue the batch, a newer result queued in the meantime wins
+			for (Map.Entry<String, HiscoreResult> entry : batch.entrySet())
+			{
+				pendingSnapshots.putIfAbsent(entry.getKey(), entry.getValue());
+			}
+			return 0;
+		}
+	}
+
+	private int flush(Map<String, HiscoreResult> batch)
+	{
+		List<PlayerEntity> updated = new ArrayList<>(batch.size());
+		List<XpData> updatedXp = new ArrayList<>(batch.size());
+
+		try (Connection con = sql2o.beginTransaction())
+		{
+			Query insertQuery = con.createQuery(INSERT_XP_SQL);
+			Query playerQuery = con.createQuery("update player set rank = :rank, last_updated = :last_updated where id = :id");
 
 			Instant now = Instant.now();
-			XpEntity currentXp = findXpAtTime(con, username, now);
-			if (currentXp != null)
+			for (Map.Entry<String, HiscoreResult> entry : batch.entrySet())
 			{
+				String username = entry.getKey();
+				HiscoreResult hiscoreResult = entry.getValue();
+
+				// new players are only cached once the transaction has committed
+				PlayerEntity playerEntity = playerCache.getIfPresent(username);
+				if (playerEntity == null)
+				{
+					playerEntity = findOrCreatePlayer(con, username);
+				}
+
 				XpData hiscoreData = XpMapper.INSTANCE.hiscoreResultToXpData(hiscoreResult);
-				XpData existingData = XpMapper.INSTANCE.xpEntityToXpData(currentXp);
+				XpData existingData = lastXpCache.getIfPresent(playerEntity.getId());
+				if (existingData == null)
+				{
+					XpEntity currentXp = findXpAtTime(con, username, now);
+					existingData = currentXp != null ? XpMapper.INSTANCE.xpEntityToXpData(currentXp) : null;
+				}
 
 				if (hiscoreData.equals(existingData))
 				{
 					log.debug("Hiscore for {} already up to date", username);
-					return;
+					continue;
 				}
+
+				addXpParameters(insertQuery, playerEntity.getId(), hiscoreResult)
+					.addToBatch();
+
+				playerQuery.addParameter("id", playerEntity.getId())
+					.addParameter("rank", hiscoreResult.getOverall().getRank())
+					.addParameter("last_updated", now)
+					.addToBatch();
+
+				PlayerEntity updatedPlayer = new PlayerEntity();
+				updatedPlayer.setId(playerEntity.getId());
+				updatedPlayer.setName(username);
+				updatedPlayer.setTracked_since(playerEntity.getTracked_since());
+				updatedPlayer.setLast_updated(now);
+				updatedPlayer.setRank(hiscoreResult.getOverall().getRank());
+				updated.add(updatedPlayer);
+				updatedXp.add(hiscoreData);
 			}
 
-			con.createQuery("insert into xp (player,attack_xp,defence_xp,strength_xp,hitpoints_xp,ranged_xp,prayer_xp,magic_xp,cooking_xp,woodcutting_xp,"
-				+ "fletching_xp,fishing_xp,firemaking_xp,crafting_xp,smithing_xp,mining_xp,herblore_xp,agility_xp,thieving_xp,slayer_xp,farming_xp,"
-				+ "runecraft_xp,hunter_xp,construction_xp,attack_rank,defence_rank,strength_rank,hitpoints_rank,ranged_rank,prayer_rank,magic_rank,"
-				+ "cooking_rank,woodcutting_rank,fletching_rank,fishing_rank,firemaking_rank,crafting_rank,smithing_rank,mining_rank,herblore_rank,"
-				+ "agility_rank,thieving_rank,slayer_rank,farming_rank,runecraft_rank,hunter_rank,construction_rank,overall_rank) values (:player,:attack_xp,:defence_xp,"
-				+ ":strength_xp,:hitpoints_xp,:ranged_xp,:prayer_xp,:magic_xp,:cooking_xp,:woodcutting_xp,:fletching_xp,:fishing_xp,:firemaking_xp,"
-				+ ":crafting_xp,:smithing_xp,:mining_xp,:herblore_xp,:agility_xp,:thieving_xp,:slayer_xp,:farming_xp,:runecraft_xp,:hunter_xp,"
-				+ ":construction_xp,:attack_rank,:defence_rank,:strength_rank,:hitpoints_rank,:ranged_rank,:prayer_rank,:magic_rank,:cooking_rank,"
-				+ ":woodcutting_rank,:fletching_rank,:fishing_rank,:firemaking_rank,:crafting_rank,:smithing_rank,:mining_rank,:herblore_rank,"
-				+ ":agility_rank,:thieving_rank,:slayer_rank,:farming_rank,:runecraft_rank,:hunter_rank,:construction_rank,:overall_rank)")
-				.addParameter("player", playerEntity.getId())
-				.addParameter("attack_xp", hiscoreResult.getAttack().getExperience())
-				.addParameter("defence_xp", hiscoreResult.getDefence().getExperience())
-				.addParameter("strength_xp", hiscoreResult.getStrength().getExperience())
-				.addParameter("hitpoints_xp", hiscoreResult.getHitpoints().getExperience())
-				.addParameter("ranged_xp", hiscoreResult.getRanged().getExperience())
-				.addParameter("prayer_xp", hiscoreResult.getPrayer().getExperience())
-				.addParameter("magic_xp", hiscoreResult.getMagic().getExperience())
-				.addParameter("cooking_xp", hiscoreResult.getCooking().getExperience())
-				.addParameter("woodcutting_xp", hiscoreResult.getWoodcutting().getExperience())
-				.addParameter("fletching_xp", hiscoreResult.getFletching().getExperience())
-				.addParameter("fishing_xp", hiscoreResult.getFishing().getExperience())
-				.addParameter("firemaking_xp", hiscoreResult.getFiremaking().getExperience())
-				.addParameter("crafting_xp", hiscoreResult.getCrafting().getExperience())
-				.addParameter("smithing_xp", hiscoreResult.getSmithing().getExperience())
-				.addParameter("mining_xp", hiscoreResult.getMining().getExperience())
-				.addParameter("herblore_xp", hiscoreResult.getHerblore().getExperience())
-				.addParameter("agility_xp", hiscoreResult.getAgility().getExperience())
-				.addParameter("thieving_xp", hiscoreResult.getThieving().getExperience())
-				.addParameter("slayer_xp", hiscoreResult.getSlayer().getExperience())
-				.addParameter("farming_xp", hiscoreResult.getFarming().getExperience())
-				.addParameter("runecraft_xp", hiscoreResult.getRunecraft().getExperience())
-				.addParameter("hunter_xp", hiscoreResult.getHunter().getExperience())
-				.addParameter("construction_xp", hiscoreResult.getConstruction().getExperience())
-				.addParameter("attack_rank", hiscoreResult.getAttack().getRank())
-				.addParameter("defence_rank", hiscoreResult.getDefence().getRank())
-				.addParameter("strength_rank", hiscoreResult.getStrength().getRank())
-				.addParameter("hitpoints_rank", hiscoreResult.getHitpoints().getRank())
-				.addParameter("ranged_rank", hiscoreResult.getRanged().getRank())
-				.addParameter("prayer_rank", hiscoreResult.getPrayer().getRank())
-				.addParameter("magic_rank", hiscoreResult.getMagic().getRank())
-				.addParameter("cooking_rank", hiscoreResult.getCooking().getRank())
-				.addParameter("woodcutting_rank", hiscoreResult.getWoodcutting().getRank())
-				.addParameter("fletching_rank", hiscoreResult.getFletching().getRank())
-				.addParameter("fishing_rank", hiscoreResult.getFishing().getRank())
-				.addParameter("firemaking_rank", hiscoreResult.getFiremaking().getRank())
-				.addParameter("crafting_rank", hiscoreResult.getCrafting().getRank())
-				.addParameter("smithing_rank", hiscoreResult.getSmithing().getRank())
-				.addParameter("mining_rank", hiscoreResult.getMining().getRank())
-				.addParameter("herblore_rank", hiscoreResult.getHerblore().getRank())
-				.addParameter("agility_rank", hiscoreResult.getAgility().getRank())
-				.addParameter("thieving_rank", hiscoreResult.getThieving().getRank())
-				.addParameter("slayer_rank", hiscoreResult.getSlayer().getRank())
-				.addParameter("farming_rank", hiscoreResult.getFarming().getRank())
-				.addParameter("runecraft_rank", hiscoreResult.getRunecraft().getRank())
-				.addParameter("hunter_rank", hiscoreResult.getHunter().getRank())
-				.addParameter("construction_rank", hiscoreResult.getConstruction().getRank())
-				.addParameter("overall_rank", hiscoreResult.getOverall().getRank())
-				.executeUpdate();
-
-			con.createQuery("update player set rank = :rank, last_updated = CURRENT_TIMESTAMP where id = :id")
-				.addParameter("id", playerEntity.getId())
-				.addParameter("rank", hiscoreResult.getOverall().getRank())
-				.executeUpdate();
+			if (updated.isEmpty())
+			{
+				return 0;
+			}
+
+			insertQuery.executeBatch();
+			playerQuery.executeBatch();
+			con.commit(false);
+		}
+
+		for (int i = 0; i < updated.size(); ++i)
+		{
+			PlayerEntity playerEntity = updated.get(i);
+			playerCache.put(playerEntity.getName(), playerEntity);
+			lastXpCache.put(playerEntity.getId(), updatedXp.get(i));
 		}
+
+		return updated.size();
 	}
 
-	private synchronized PlayerEntity findOrCreatePlayer(Connection con, String username)
+	private static Query addXpParameters(Query query, int player, HiscoreResult hiscoreResult)
+	{
+		return query
+			.addParameter("player", player)
+			.addParameter("attack_xp", hiscoreResult.getAttack().getExperience())
+			.addParameter("defence_xp", hiscoreResult.getDefence().getExperience())
+			.addParameter("strength_xp", hiscoreResult.getStrength().getExperience())
+			.addParameter("hitpoints_xp", hiscoreResult.getHitpoints().getExperience())
+			.addParameter("ranged_xp", hiscoreResult.getRanged().getExperience())
+			.addParameter("prayer_xp", hiscoreResult.getPrayer().getExperience())
+			.addParameter("magic_xp", hiscoreResult.getMagic().getExperience())
+			.addParameter("cooking_xp", hiscoreResult.getCooking().getExperience())
+			.addParameter("woodcutting_xp", hiscoreResult.getWoodcutting().getExperience())
+			.addParameter("fletching_xp", hiscoreResult.getFletching().getExperience())
+			.addParameter("fishing_xp", hiscoreResult.getFishing().getExperience())
+			.addParameter("firemaking_xp", hiscoreResult.getFiremaking().getExperience())
+			.addParameter("crafting_xp", hiscoreResult.getCrafting().getExperience())
+			.addParameter("smithing_xp", hiscoreResult.getSmithing().getExperience())
+			.addParameter("mining_xp", hiscoreResult.getMining().getExperience())
+			.addParameter("herblore_xp", hiscoreResult.getHerblore().getExperience())
+			.addParameter("agility_xp", hiscoreResult.getAgility().getExperience())
+			.addParameter("thieving_xp", hiscoreResult.getThieving().getExperience())
+			.addParameter("slayer_xp", hiscoreResult.getSlayer().getExperience())
+			.addParameter("farming_xp", hiscoreResult.getFarming().getExperience())
+			.addParameter("runecraft_xp", hiscoreResult.getRunecraft().getExperience())
+			.addParameter("hunter_xp", hiscoreResult.getHunter().getExperience())
+			.addParameter("construction_xp", hiscoreResult.getConstruction().getExperience())
+			.addParameter("attack_rank", hiscoreResult.getAttack().getRank())
+			.addParameter("defence_rank", hiscoreResult.getDefence().getRank())
+			.addParameter("strength_rank", hiscoreResult.getStrength().getRank())
+			.addParameter("hitpoints_rank", hiscoreResult.getHitpoints().getRank())
+			.addParameter("ranged_rank", hiscoreResult.getRanged().getRank())
+			.addParameter("prayer_rank", hiscoreResult.getPrayer().getRank())
+			.addParameter("magic_rank", hiscoreResult.getMagic().getRank())
+			.addParameter("cooking_rank", hiscoreResult.getCooking().getRank())
+			.addParameter("woodcutting_rank", hiscoreResult.getWoodcutting().getRank())
+			.addParameter("fletching_rank", hiscoreResult.getFletching().getRank())
+			.addParameter("fishing_rank", hiscoreResult.getFishing().getRank())
+			.addParameter("firemaking_rank", hiscoreResult.getFiremaking().getRank())
+			.addParameter("crafting_rank", hiscoreResult.getCrafting().getRank())
+			.addParameter("smithing_rank", hiscoreResult.getSmithing().getRank())
+			.addParameter("mining_rank", hiscoreResult.getMining().getRank())
+			.addParameter("herblore_rank", hiscoreResult.getHerblore().getRank())
+			.addParameter("agility_rank", hiscoreResult.getAgility().getRank())
+			.addParameter("thieving_rank", hiscoreResult.getThieving().getRank())
+			.addParameter("slayer_rank", hiscoreResult.getSlayer().getRank())
+			.addParameter("farming_rank", hiscoreResult.getFarming().getRank())
+			.addParameter("runecraft_rank", hiscoreResult.getRunecraft().getRank())
+			.addParameter("hunter_rank", hiscoreResult.getHunter().getRank())
+			.addParameter("construction_rank", hiscoreResult.getConstruction().getRank())
+			.addParameter("overall_rank", hiscoreResult.getOverall().getRank());
+	}
+
+	private PlayerEntity findOrCreatePlayer(String username) throws ExecutionException
+	{
+		return playerCache.get(username, () ->
+		{
+			try (Connection con = sql2o.open())
+			{
+				return findOrCreatePlayer(con, username);
+			}
+		});
+	}
+
+	private static PlayerEntity findOrCreatePlayer(Connection con, String username)
 	{
 		PlayerEntity playerEntity = con.createQuery("select * from player where name = :name")
 			.addParameter("name", username)
@@ -234,21 +451,74 @@ public class XpTrackerService
 		}
 	}
 
+	/**
+	 * Hand queued usernames to the fetch workers, as long as they have room
+	 */
 	@Scheduled(fixedDelay = 1000)
-	public void update() throws ExecutionException
+	public void update()
 	{
-		String next;
-		synchronized (usernameUpdateQueue)
+		while (fetchExecutor.getQueue().remainingCapacity() > 0)
 		{
-			next = usernameUpdateQueue.poll();
+			String next = usernameUpdateQueue.poll();
+			if (next == null)
+			{
+				return;
+			}
+
+			usernameQueueSize.decrementAndGet();
+
+			try
+			{
+				fetchExecutor.execute(() -> fetch(next));
+			}
+			catch (RejectedExecutionException ex)
+			{
+				queuedUsernames.remove(next);
+				return;
+			}
 		}
+	}
 
-		if (next == null)
+	private void fetch(String username)
+	{
+		try
 		{
-			return;
+			PlayerEntity playerEntity = findOrCreatePlayer(username);
+			if (updatedRecently(playerEntity))
+			{
+				log.debug("User {} updated too recently", username);
+				return;
+			}
+
+			hiscoreRateLimiter.acquire();
+			update(username);
+		}
+		catch (ExecutionException | RuntimeException ex)
+		{
+			log.warn("unable to update player {}", username, ex);
 		}
+		finally
+		{
+			queuedUsernames.remove(username);
+		}
+	}
+
+	public XpTrackerStats getStats()
+	{
+		return new XpTrackerStats(
+			usernameQueueSize.get(),
+			droppedUsernames.get(),
+			pendingSnapshots.size(),
+			droppedSnapshots.get(),
+			flushedSnapshots.get(),
+			lastFlushSize,
+			lastFlushMillis
+		);
+	}
 
-		update(next);
+	public CacheStats getPlayerCacheStats()
+	{
+		return playerCache.stats();
 	}
 
 	@Scheduled(fixedDelay = 6 * 60 * 60 * 1000) // 6 hours
@@ -264,17 +534,27 @@ public class XpTrackerService
 			BLOOMFILTER_EXPECTED_INSERTIONS
 		);
 
-		synchronized (usernameUpdateQueue)
+		for (String toUpdate : usernameUpdateQueue)
 		{
-			for (String toUpdate : usernameUpdateQueue)
-			{
-				filter.put(toUpdate);
-			}
+			filter.put(toUpdate);
 		}
 
 		return filter;
 	}
 
+	private static boolean updatedRecently(PlayerEntity playerEntity)
+	{
+		if (playerEntity.getRank() == null)
+		{
+			// no snapshot has been written for this player yet
+			return false;
+		}
+
+		Duration frequency = updateFrequency(playerEntity);
+		Duration timeSinceLastUpdate = Duration.between(playerEntity.getLast_updated(), Instant.now());
+		return timeSinceLastUpdate.toMillis() < frequency.toMillis();
+	}
+
 	/**
 	 * scale how often to check hiscore updates for players based on their rank
 	 * @param playerEntity
@@ -24,10 +24,22 @@
  */
 package net.runelite.http.service.xtea;
 
-import com.google.common.cache.Cache;
-import com.google.common.cache.CacheBuilder;
 import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
 import net.runelite.cache.IndexType;
 import net.runelite.cache.fs.Container;
 import net.runelite.cache.util.Djb2;
@@ -39,18 +51,21 @@ import net.runelite.http.service.cache.beans.CacheEntry;
 import net.runelite.http.service.util.exception.InternalServerErrorException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.sql2o.Connection;
 import org.sql2o.Query;
 import org.sql2o.Sql2o;
+import org.sql2o.Sql2oException;
 
 @Service
+@Slf4j
 public class XteaService
 {
 	private static final String CREATE_SQL = "CREATE TABLE IF NOT EXISTS `xtea` (\n"
 		+ "  `id` int(11) NOT NULL AUTO_INCREMENT,\n"
 		+ "  `region` int(11) NOT NULL,\n"
-		+ "  `time` timestamp NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,\n"
+		+ "  `time` timestamp NOT NULL DEFAULT CURRENT_TIMESTAMP,\n"
 		+ "  `rev` int(11) NOT NULL,\n"
 		+ "  `key1` int(11) NOT NULL,\n"
 		+ "  `key2` int(11) NOT NULL,\n"
@@ -60,12 +75,21 @@ public class XteaService
 		+ "  KEY `region` (`region`,`time`)\n"
 		+ ") ENGINE=InnoDB";
 
+	private static final int VALIDATION_THREADS = 4;
+	private static final int VALIDATION_QUEUE_SIZE = 1024;
+
 	private final Sql2o sql2o;
 	private final CacheService cacheService;
 
-	private final Cache<Integer, XteaCache> keyCache = CacheBuilder.newBuilder()
-		.maximumSize(1024)
-		.build();
+	// latest valid key of each region
+	private final ConcurrentMap<Integer, XteaEntry> latestKeys = new ConcurrentHashMap<>();
+	// keys queued or being validated, so each is only checked once
+	private final Set<XteaCache> pendingKeys = ConcurrentHashMap.newKeySet();
+	// validated keys waiting to be inserted
+	private final Queue<XteaEntry> insertQueue = new ConcurrentLinkedQueue<>();
+
+	private final ExecutorService validationExecutor = new ThreadPoolExecutor(VALIDATION_THREADS, VALIDATION_THREADS,
+		0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(VALIDATION_QUEUE_SIZE));
 
 	@Autowired
 	public XteaService(
@@ -81,125 +105,191 @@ public class XteaService
 			con.createQuery(CREATE_SQL)
 				.executeUpdate();
 		}
+
+		try (Connection con = sql2o.open())
+		{
+			List<XteaEntry> entries = con.createQuery(
+				"select t1.region, t1.time, t2.rev, t2.key1, t2.key2, t2.key3, t2.key4 from " +
+					"(select region,max(time) as time from xtea group by region) t1 " +
+					"join xtea t2 on t1.region = t2.region and t1.time = t2.time")
+				.executeAndFetch(XteaEntry.class);
+
+			for (XteaEntry entry : entries)
+			{
+				latestKeys.put(entry.getRegion(), entry);
+			}
+		}
 	}
 
-	private XteaEntry findLatestXtea(Connection con, int region)
+	@PreDestroy
+	public void shutdown() throws InterruptedException
 	{
-		return con.createQuery("select region, time, key1, key2, key3, key4 from xtea "
-			+ "where region = :region "
-			+ "order by time desc "
-			+ "limit 1")
-			.addParameter("region", region)
-			.executeAndFetchFirst(XteaEntry.class);
+		validationExecutor.shutdown();
+		validationExecutor.awaitTermination(30, TimeUnit.SECONDS);
+		flush();
 	}
 
+	/**
+	 * Queue submitted keys for validation. Keys which are already known, or
+	 * which are already queued from another submission, are ignored.
+	 *
+	 * @param xteaRequest
+	 */
 	public void submit(XteaRequest xteaRequest)
 	{
-		boolean cached = true;
+		for (XteaKey key : xteaRequest.getKeys())
+		{
+			if (key.getKeys().length != 4)
+			{
+				throw new IllegalArgumentException("Key length must be 4");
+			}
+		}
+
 		for (XteaKey key : xteaRequest.getKeys())
 		{
 			int region = key.getRegion();
 			int[] keys = key.getKeys();
 
-			XteaCache xteaCache = keyCache.getIfPresent(region);
-			if (xteaCache == null
-				|| xteaCache.getKey1() != keys[0]
-				|| xteaCache.getKey2() != keys[1]
-				|| xteaCache.getKey3() != keys[2]
-				|| xteaCache.getKey4() != keys[3])
+			// already have these?
+			if (isLatest(region, keys))
 			{
-				cached = false;
-				keyCache.put(region, new XteaCache(region, keys[0], keys[1], keys[2], keys[3]));
+				continue;
 			}
-		}
 
-		if (cached)
-		{
-			return;
+			XteaCache pending = new XteaCache(region, keys[0], keys[1], keys[2], keys[3]);
+			if (!pendingKeys.add(pending))
+			{
+				continue;
+			}
+
+			// the same keys may have been validated, and removed from pendingKeys,
+			// since they were looked up above
+			if (isLatest(region, keys))
+			{
+				pendingKeys.remove(pending);
+				continue;
+			}
+
+			try
+			{
+				validationExecutor.execute(() -> validate(pending, xteaRequest.getRevision()));
+			}
+			catch (RejectedExecutionException ex)
+			{
+				// the keys will be submitted again by another client
+				pendingKeys.remove(pending);
+				log.debug("Validation queue is full, dropping keys for region {}", region);
+			}
 		}
+	}
 
-		try (Connection con = sql2o.beginTransaction())
+	private boolean isLatest(int region, int[] keys)
+	{
+		XteaEntry xteaEntry = latestKeys.get(region);
+		return xteaEntry != null
+			&& xteaEntry.getKey1() == keys[0]
+			&& xteaEntry.getKey2() == keys[1]
+			&& xteaEntry.getKey3() == keys[2]
+			&& xteaEntry.getKey4() == keys[3];
+	}
+
+	private void validate(XteaCache pending, int revision)
+	{
+		try
 		{
 			CacheEntry cache = cacheService.findMostRecent();
-
 			if (cache == null)
 			{
-				throw new InternalServerErrorException("No most recent cache");
+				log.warn("No most recent cache");
+				return;
 			}
 
-			Query query = null;
-
-			for (XteaKey key : xteaRequest.getKeys())
+			int[] keys = {pending.getKey1(), pending.getKey2(), pending.getKey3(), pending.getKey4()};
+			if (!checkKeys(cache, pending.getRegion(), keys))
 			{
-				int region = key.getRegion();
-				int[] keys = key.getKeys();
-
-				XteaEntry xteaEntry = findLatestXtea(con, region);
-
-				if (keys.length != 4)
-				{
-					throw new IllegalArgumentException("Key length must be 4");
-				}
-
-				// already have these?
-				if (xteaEntry != null
-					&& xteaEntry.getKey1() == keys[0]
-					&& xteaEntry.getKey2() == keys[1]
-					&& xteaEntry.getKey3() == keys[2]
-					&& xteaEntry.getKey4() == keys[3])
-				{
-					continue;
-				}
-
-				if (!checkKeys(cache, region, keys))
-				{
-					continue;
-				}
-
-				if (query == null)
-				{
-					query = con.createQuery("insert into xtea (region, rev, key1, key2, key3, key4) "
-						+ "values (:region, :rev, :key1, :key2, :key3, :key4)");
-				}
-
-				query.addParameter("region", region)
-					.addParameter("rev", xteaRequest.getRevision())
-					.addParameter("key1", keys[0])
-					.addParameter("key2", keys[1])
-					.addParameter("key3", keys[2])
-					.addParameter("key4", keys[3])
-					.addToBatch();
+				return;
 			}
 
-			if (query != null)
+			XteaEntry entry = new XteaEntry();
+			entry.setRegion(pending.getRegion());
+			entry.setTime(Instant.now());
+			entry.setRev(revision);
+			entry.setKey1(keys[0]);
+			entry.setKey2(keys[1]);
+			entry.setKey3(keys[2]);
+			entry.setKey4(keys[3]);
+
+			latestKeys.put(entry.getRegion(), entry);
+			insertQueue.add(entry);
+		}
+		catch (RuntimeException ex)
+		{
+			log.warn("unable to validate keys for region {}", pending.getRegion(), ex);
+		}
+		finally
+		{
+			// only after latestKeys is updated, see submit
+			pendingKeys.remove(pending);
+		}
+	}
+
+	/**
+	 * Insert validated keys in a single batch
+	 */
+	@Scheduled(fixedDelay = 5000)
+	public void flush()
+	{
+		if (insertQueue.isEmpty())
+		{
+			return;
+		}
+
+		List<XteaEntry> batch = new ArrayList<>();
+		XteaEntry entry;
+		while ((entry = insertQueue.poll()) != null)
+		{
+			batch.add(entry);
+		}
+
+		try (Connection con = sql2o.beginTransaction())
+		{
+			Query query = con.createQuery("insert into xtea (region, time, rev, key1, key2, key3, key4) "
+				+ "values (:region, :time, :rev, :key1, :key2, :key3, :key4)");
+
+			for (XteaEntry xteaEntry : batch)
 			{
-				query.executeBatch();
-				con.commit(false);
+				query.addParameter("region", xteaEntry.getRegion())
+					.addParameter("time", xteaEntry.getTime())
+					.addParameter("rev", xteaEntry.getRev())
+					.addParameter("key1", xteaEntry.getKey1())
+					.addParameter("key2", xteaEntry.getKey2())
+					.addParameter("key3", xteaEntry.getKey3())
+					.addParameter("key4", xteaEntry.getKey4())
+					.addToBatch();
 			}
+
+			query.executeBatch();
+			con.commit(false);
+
+			log.debug("Inserted {} xtea keys", batch.size());
+		}
+		catch (Sql2oException ex)
+		{
+			// the keys are already in latestKeys, so resubmissions are ignored
+			// and they must be retried from here
+			insertQueue.addAll(batch);
+			log.warn("unable to insert {} xtea keys", batch.size(), ex);
 		}
 	}
 
 	public List<XteaEntry> get()
 	{
-		try (Connection con = sql2o.open())
-		{
-			return con.createQuery(
-				"select t1.region, t1.time, t2.rev, t2.key1, t2.key2, t2.key3, t2.key4 from " +
-					"(select region,max(time) as time from xtea group by region) t1 " +
-					"join xtea t2 on t1.region = t2.region and t1.time = t2.time")
-				.executeAndFetch(XteaEntry.class);
-		}
+		return new ArrayList<>(latestKeys.values());
 	}
 
 	public XteaEntry getRegion(int region)
 	{
-		try (Connection con = sql2o.open())
-		{
-			return con.createQuery("select region, time, rev, key1, key2, key3, key4 from xtea "
-				+ "where region = :region order by time desc limit 1")
-				.addParameter("region", region)
-				.executeAndFetchFirst(XteaEntry.class);
-		}
+		return latestKeys.get(region);
 	}
 
 	private boolean checkKeys(CacheEntry cache, int regionId, int[] keys)
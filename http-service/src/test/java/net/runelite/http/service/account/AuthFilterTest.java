@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) 2019, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.http.service.account;
+
+import java.util.UUID;
+import net.runelite.http.api.RuneLiteAPI;
+import net.runelite.http.service.account.beans.SessionEntry;
+import net.runelite.http.service.util.H2Database;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.sql2o.Connection;
+
+public class AuthFilterTest
+{
+	private static final UUID SESSION = UUID.fromString("8e8f8b7c-3e53-4a5c-9a5b-6f4c2b0d1e2f");
+
+	@Rule
+	public final H2Database database = new H2Database("auth");
+
+	private AuthFilter authFilter;
+
+	@Before
+	public void before()
+	{
+		try (Connection con = database.getSql2o().open())
+		{
+			con.createQuery("CREATE TABLE `sessions` (\n"
+				+ "  `user` int(11) NOT NULL PRIMARY KEY,\n"
+				+ "  `uuid` varchar(36) NOT NULL,\n"
+				+ "  `created` timestamp NOT NULL DEFAULT CURRENT_TIMESTAMP,\n"
+				+ "  `last_used` timestamp NOT NULL DEFAULT '2000-01-01 00:00:00'\n"
+				+ ")")
+				.executeUpdate();
+
+			con.createQuery("insert into sessions (user, uuid) values (1, :uuid)")
+				.addParameter("uuid", SESSION.toString())
+				.executeUpdate();
+		}
+
+		authFilter = new AuthFilter(database.getSql2o());
+	}
+
+	@Test
+	public void testHandle() throws Exception
+	{
+		SessionEntry session = handle(SESSION);
+		assertNotNull(session);
+		assertEquals(1, session.getUser());
+
+		deleteSession();
+
+		// served from the cache until the session is invalidated
+		assertNotNull(handle(SESSION));
+		authFilter.invalidate(SESSION);
+		assertNull(handle(SESSION));
+		assertNull(handle(UUID.randomUUID()));
+	}
+
+	@Test
+	public void testFlush() throws Exception
+	{
+		handle(SESSION);
+		handle(SESSION);
+		assertEquals(2000, lastUsedYear());
+
+		authFilter.flush();
+		assertTrue(lastUsedYear() > 2000);
+	}
+
+	@Test
+	public void testFlushFailure() throws Exception
+	{
+		handle(SESSION);
+
+		database.execute("alter table sessions rename to sessions_tmp");
+		authFilter.flush();
+		database.execute("alter table sessions_tmp rename to sessions");
+		assertEquals(2000, lastUsedYear());
+
+		// the failed update is kept for the next flush
+		authFilter.flush();
+		assertTrue(lastUsedYear() > 2000);
+	}
+
+	private SessionEntry handle(UUID uuid) throws Exception
+	{
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		request.addHeader(RuneLiteAPI.RUNELITE_AUTH, uuid.toString());
+		return authFilter.handle(request, new MockHttpServletResponse());
+	}
+
+	private void deleteSession()
+	{
+		database.execute("delete from sessions");
+	}
+
+	private int lastUsedYear()
+	{
+		try (Connection con = database.getSql2o().open())
+		{
+			return con.createQuery("select year(last_used) from sessions").executeScalar(Integer.class);
+		}
+	}
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright (c) 2019, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.http.service.cache;
+
+import net.runelite.http.service.cache.beans.CacheEntry;
+import org.junit.Test;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class AssetCacheTest
+{
+	@Test
+	public void testInvalidate()
+	{
+		CacheService cacheService = mock(CacheService.class);
+		AssetCache assetCache = new AssetCache(cacheService);
+
+		ItemImageKey oldImage = new ItemImageKey(1, 4151, 1, 1, 0);
+		ItemImageKey newImage = new ItemImageKey(2, 4151, 1, 1, 0);
+		AssetKey contentKey = () -> -1;
+		assetCache.put(oldImage, new byte[1]);
+		assetCache.put(newImage, new byte[1]);
+		assetCache.put(contentKey, new byte[1]);
+
+		CacheEntry cache = new CacheEntry();
+		cache.setId(2);
+		when(cacheService.findMostRecent()).thenReturn(cache);
+		assetCache.checkForNewCache();
+
+		assertNull(assetCache.get(oldImage));
+		assertNotNull(assetCache.get(newImage));
+		assertNotNull(assetCache.get(contentKey));
+	}
+}
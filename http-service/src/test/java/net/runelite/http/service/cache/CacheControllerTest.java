@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2019, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.http.service.cache;
+
+import net.runelite.http.service.cache.beans.CacheEntry;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@RunWith(SpringRunner.class)
+@WebMvcTest(CacheController.class)
+@ActiveProfiles("test")
+public class CacheControllerTest
+{
+	private static final byte[] IMAGE = {1, 2, 3};
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@MockBean
+	private CacheService cacheService;
+
+	@MockBean
+	private ItemImageService itemImageService;
+
+	@MockBean
+	private AssetCache assetCache;
+
+	private final CacheEntry cache = new CacheEntry();
+
+	@Before
+	public void before() throws Exception
+	{
+		cache.setId(42);
+		when(cacheService.findMostRecent()).thenReturn(cache);
+		when(itemImageService.getItemImage(eq(cache), eq(4151), anyInt(), anyInt(), anyInt())).thenReturn(IMAGE);
+	}
+
+	@Test
+	public void testItemImage() throws Exception
+	{
+		String etag = ItemImageService.getETag(cache, 4151, 1, 1, 3153952);
+
+		mockMvc.perform(get("/cache/item/4151/image"))
+			.andExpect(status().isOk())
+			.andExpect(header().string(HttpHeaders.ETAG, etag))
+			.andExpect(content().bytes(IMAGE));
+	}
+
+	@Test
+	public void testItemImageNotModified() throws Exception
+	{
+		String etag = ItemImageService.getETag(cache, 4151, 1, 1, 3153952);
+
+		mockMvc.perform(get("/cache/item/4151/image")
+			.header(HttpHeaders.IF_NONE_MATCH, etag))
+			.andExpect(status().isNotModified());
+
+		verify(itemImageService, never()).getItemImage(eq(cache), eq(4151), anyInt(), anyInt(), anyInt());
+	}
+
+	@Test
+	public void testItemImageNotFound() throws Exception
+	{
+		mockMvc.perform(get("/cache/item/1/image"))
+			.andExpect(status().isNotFound());
+	}
+}
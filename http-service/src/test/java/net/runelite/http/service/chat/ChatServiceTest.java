@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2019, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.http.service.chat;
+
+import java.util.Arrays;
+import java.util.List;
+import net.runelite.http.service.util.redis.RedisPool;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.anyVararg;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import redis.clients.jedis.Jedis;
+
+public class ChatServiceTest
+{
+	private Jedis jedis;
+	private ChatService chatService;
+
+	@Before
+	public void before()
+	{
+		jedis = mock(Jedis.class);
+		RedisPool redisPool = mock(RedisPool.class);
+		when(redisPool.getResource()).thenReturn(jedis);
+
+		chatService = new ChatService(redisPool, 60);
+	}
+
+	@Test
+	public void testGetKcBatch()
+	{
+		when(jedis.mget("kc.Zezima.Zulrah", "kc.Lynx Titan.Zulrah", "kc.Woox.Zulrah"))
+			.thenReturn(Arrays.asList("100", null, "2000"));
+
+		List<Integer> kcs = chatService.getKc(Arrays.asList("Zezima", "Lynx Titan", "Woox"), Arrays.asList("Zulrah", "Zulrah", "Zulrah"));
+		assertEquals(Integer.valueOf(100), kcs.get(0));
+		assertNull(kcs.get(1));
+		assertEquals(Integer.valueOf(2000), kcs.get(2));
+
+		// served from the near cache, including the unknown kill count
+		assertEquals(Integer.valueOf(100), chatService.getKc("Zezima", "Zulrah"));
+		assertNull(chatService.getKc("Lynx Titan", "Zulrah"));
+		verify(jedis, times(1)).mget((String[]) anyVararg());
+	}
+
+	@Test
+	public void testSetKc()
+	{
+		chatService.setKc("Zezima", "Zulrah", 101);
+		verify(jedis).setex(eq("kc.Zezima.Zulrah"), anyInt(), eq("101"));
+
+		assertEquals(Integer.valueOf(101), chatService.getKc("Zezima", "Zulrah"));
+		verify(jedis, never()).mget((String[]) anyVararg());
+	}
+}
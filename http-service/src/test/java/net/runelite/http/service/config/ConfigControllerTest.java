@@ -28,6 +28,7 @@ import java.io.IOException;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import lombok.extern.slf4j.Slf4j;
+import net.runelite.http.api.config.ConfigEntry;
 import net.runelite.http.service.account.AuthFilter;
 import net.runelite.http.service.account.beans.SessionEntry;
 import org.junit.Before;
@@ -35,6 +36,7 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.anyListOf;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
@@ -46,6 +48,7 @@ import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit4.SpringRunner;
 import org.springframework.test.web.servlet.MockMvc;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -81,4 +84,15 @@ public class ConfigControllerTest
 
 		verify(configService).setKey(anyInt(), eq("key"), eq("value"));
 	}
+
+	@Test
+	public void testPatch() throws Exception
+	{
+		mockMvc.perform(patch("/config")
+			.content("{\"config\":[{\"key\":\"a.b\",\"value\":\"1\"},{\"key\":\"a.c\"}]}")
+			.contentType(MediaType.APPLICATION_JSON))
+			.andExpect(status().isOk());
+
+		verify(configService).setKeys(anyInt(), anyListOf(ConfigEntry.class));
+	}
 }
\ No newline at end of file
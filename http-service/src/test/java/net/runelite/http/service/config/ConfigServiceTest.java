@@ -0,0 +1,148 @@
+/*
+ * Copyright (c) 2019, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.http.service.config;
+
+import com.mongodb.MongoClientSettings;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoDatabase;
+import java.util.ArrayList;
+import java.util.List;
+import net.runelite.http.api.config.ConfigEntry;
+import net.runelite.http.service.util.H2Database;
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import org.mockito.ArgumentCaptor;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.sql2o.Connection;
+
+public class ConfigServiceTest
+{
+	@Rule
+	public final H2Database database = new H2Database("config");
+
+	private MongoCollection<Document> mongoCollection;
+	private ConfigService configService;
+
+	@Before
+	public void before()
+	{
+		// H2 can not parse the prefix index in the service's schema, so the table is created here
+		database.execute("CREATE TABLE `config` (\n"
+			+ "  `user` int(11) NOT NULL,\n"
+			+ "  `key` varchar(255) NOT NULL,\n"
+			+ "  `value` text NOT NULL,\n"
+			+ "  UNIQUE KEY `user_key` (`user`,`key`)\n"
+			+ ")");
+
+		mongoCollection = mock(MongoCollection.class);
+		MongoDatabase mongoDatabase = mock(MongoDatabase.class);
+		when(mongoDatabase.getCollection(anyString())).thenReturn(mongoCollection);
+		MongoClient mongoClient = mock(MongoClient.class);
+		when(mongoClient.getDatabase(anyString())).thenReturn(mongoDatabase);
+
+		configService = new ConfigService(database.getSql2oSkippingSchema(), mongoClient);
+	}
+
+	@Test
+	public void testSetKeys()
+	{
+		configService.setKey(1, "group.removed", "true");
+
+		List<ConfigEntry> entries = new ArrayList<>();
+		entries.add(entry("group.key", "42"));
+		entries.add(entry("group.nested.key", "{\"a\":1}"));
+		entries.add(entry("group.removed", null));
+		configService.setKeys(1, entries);
+
+		try (Connection con = database.getSql2o().open())
+		{
+			List<String> keys = con.createQuery("select `key` from config where user = 1 order by `key`")
+				.executeScalarList(String.class);
+			assertEquals(2, keys.size());
+			assertEquals("group.key", keys.get(0));
+			assertEquals("group.nested.key", keys.get(1));
+		}
+
+		// one update for setKey, and one for the whole batch
+		ArgumentCaptor<Bson> captor = ArgumentCaptor.forClass(Bson.class);
+		verify(mongoCollection, times(2)).updateOne(any(Bson.class), captor.capture());
+
+		BsonDocument update = captor.getValue().toBsonDocument(Document.class, MongoClientSettings.getDefaultCodecRegistry());
+		BsonDocument set = update.getDocument("$set");
+		assertEquals(42, set.getInt32("group.key").getValue());
+		assertTrue(set.containsKey("group.nested:key"));
+		assertTrue(update.getDocument("$unset").containsKey("group.removed"));
+	}
+
+	@Test
+	public void testSetKeysRepeated()
+	{
+		List<ConfigEntry> entries = new ArrayList<>();
+		entries.add(entry("group.set", "1"));
+		entries.add(entry("group.set", null));
+		entries.add(entry("group.unset", null));
+		entries.add(entry("group.unset", "2"));
+		entries.add(entry("group.unset", "3"));
+		configService.setKeys(1, entries);
+
+		// the last entry for each key wins
+		try (Connection con = database.getSql2o().open())
+		{
+			List<String> values = con.createQuery("select value from config where user = 1")
+				.executeScalarList(String.class);
+			assertEquals(1, values.size());
+			assertEquals("3", values.get(0));
+		}
+
+		ArgumentCaptor<Bson> captor = ArgumentCaptor.forClass(Bson.class);
+		verify(mongoCollection).updateOne(any(Bson.class), captor.capture());
+
+		BsonDocument update = captor.getValue().toBsonDocument(Document.class, MongoClientSettings.getDefaultCodecRegistry());
+		assertEquals(1, update.getDocument("$set").size());
+		assertEquals(3, update.getDocument("$set").getInt32("group.unset").getValue());
+		assertEquals(1, update.getDocument("$unset").size());
+		assertTrue(update.getDocument("$unset").containsKey("group.set"));
+	}
+
+	private static ConfigEntry entry(String key, String value)
+	{
+		ConfigEntry entry = new ConfigEntry();
+		entry.setKey(key);
+		entry.setValue(value);
+		return entry;
+	}
+}
@@ -25,6 +25,14 @@
 package net.runelite.http.service.hiscore;
 
 import java.io.IOException;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import net.runelite.http.api.hiscore.HiscoreEndpoint;
 import net.runelite.http.api.hiscore.HiscoreResult;
 import okhttp3.mockwebserver.MockResponse;
@@ -75,7 +83,7 @@ public class HiscoreServiceTest
 	@Before
 	public void before() throws IOException
 	{
-		server.enqueue(new MockResponse().setBody(RESPONSE));
+		server.enqueue(new MockResponse().setBody(RESPONSE).setBodyDelay(100, TimeUnit.MILLISECONDS));
 
 		server.start();
 	}
@@ -105,4 +113,69 @@ public class HiscoreServiceTest
 		Assert.assertEquals(-1, result.getLastManStanding().getLevel());
 	}
 
+	@Test
+	public void testConcurrentLookup() throws Exception
+	{
+		HiscoreTestService hiscores = new HiscoreTestService(server.url("/"));
+
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		List<Future<HiscoreResult>> futures = new ArrayList<>();
+		for (int i = 0; i < 8; ++i)
+		{
+			futures.add(executor.submit(() -> hiscores.lookupUsername("zezima", HiscoreEndpoint.NORMAL)));
+		}
+
+		for (Future<HiscoreResult> future : futures)
+		{
+			Assert.assertEquals(50, future.get().getAttack().getLevel());
+		}
+		executor.shutdown();
+
+		// all lookups are served by one request to the hiscores
+		Assert.assertEquals(1, server.getRequestCount());
+
+		HiscoreStats stats = hiscores.getStats();
+		Assert.assertEquals(1, stats.getUpstreamCalls());
+		Assert.assertEquals(1, stats.getCacheSize());
+	}
+
+	@Test
+	public void testFreshLookup() throws Exception
+	{
+		HiscoreTestService hiscores = new HiscoreTestService(server.url("/"));
+
+		CachedHiscore cachedHiscore = hiscores.lookup("zezima", HiscoreEndpoint.NORMAL);
+		Assert.assertTrue(HiscoreService.isFresh(cachedHiscore));
+
+		// a recently fetched result is served from the cache
+		HiscoreResult result = hiscores.lookupFreshUsername("zezima", HiscoreEndpoint.NORMAL);
+		Assert.assertSame(cachedHiscore.getResult(), result);
+		Assert.assertEquals(1, server.getRequestCount());
+
+		CachedHiscore staleHiscore = new CachedHiscore(result, Instant.now().minus(2, ChronoUnit.MINUTES));
+		Assert.assertFalse(HiscoreService.isFresh(staleHiscore));
+	}
+
+	@Test
+	public void testConcurrentFreshLookup() throws Exception
+	{
+		HiscoreTestService hiscores = new HiscoreTestService(server.url("/"));
+
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		List<Future<HiscoreResult>> futures = new ArrayList<>();
+		for (int i = 0; i < 8; ++i)
+		{
+			futures.add(executor.submit(() -> hiscores.lookupFreshUsername("zezima", HiscoreEndpoint.NORMAL)));
+		}
+
+		for (Future<HiscoreResult> future : futures)
+		{
+			Assert.assertEquals(50, future.get().getAttack().getLevel());
+		}
+		executor.shutdown();
+
+		// fresh lookups are also served by one request to the hiscores
+		Assert.assertEquals(1, server.getRequestCount());
+	}
+
 }
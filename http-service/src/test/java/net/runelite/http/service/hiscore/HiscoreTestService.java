@@ -35,6 +35,7 @@ class HiscoreTestService extends HiscoreService
 
 	HiscoreTestService(HttpUrl testUrl)
 	{
+		super(null, false);
 		this.testUrl = testUrl;
 	}
 
@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2019, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.http.service.item;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class ItemIndexTest
+{
+	private final ItemIndex index = ItemIndex.of(Arrays.asList(
+		item(1333, "Rune scimitar"),
+		item(4587, "Dragon scimitar"),
+		item(1319, "Rune 2h sword"),
+		item(1289, "Rune sword"),
+		item(11802, "Armadyl godsword")
+	));
+
+	@Test
+	public void testGet()
+	{
+		assertEquals("Rune sword", index.get(1289).getName());
+		assertNull(index.get(1));
+	}
+
+	@Test
+	public void testSearch()
+	{
+		assertEquals(Arrays.asList("Rune sword", "Rune scimitar", "Rune 2h sword"), names(index.search("rune s", 10)));
+		assertEquals(Arrays.asList("Rune scimitar", "Dragon scimitar"), names(index.search("SCIM", 10)));
+		assertEquals(Collections.singletonList("Rune sword"), names(index.search("rune sword", 1)));
+		assertEquals(Collections.singletonList("Armadyl godsword"), names(index.search("god", 10)));
+		assertTrue(index.search("whip", 10).isEmpty());
+		assertTrue(index.search(" ", 10).isEmpty());
+	}
+
+	@Test
+	public void testWith()
+	{
+		ItemIndex updated = index.with(Collections.singletonList(item(4151, "Abyssal whip")));
+		assertEquals(6, updated.size());
+		assertEquals(5, index.size());
+		assertEquals(Collections.singletonList("Abyssal whip"), names(updated.search("whip", 10)));
+	}
+
+	private static List<String> names(List<ItemEntry> items)
+	{
+		return items.stream()
+			.map(ItemEntry::getName)
+			.collect(Collectors.toList());
+	}
+
+	private static ItemEntry item(int id, String name)
+	{
+		ItemEntry item = new ItemEntry();
+		item.setId(id);
+		item.setName(name);
+		return item;
+	}
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2019, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.http.service.item;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.zip.GZIPInputStream;
+import net.runelite.http.api.RuneLiteAPI;
+import net.runelite.http.api.item.ItemPrice;
+import org.junit.Test;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class PriceSnapshotTest
+{
+	private static final Instant TIME = Instant.ofEpochSecond(1546300800L);
+
+	@Test
+	public void testGzip() throws IOException
+	{
+		PriceSnapshot snapshot = PriceSnapshot.of(PriceTable.of(Arrays.asList(price(4151, 1_500_000), price(995, 1))));
+		assertFalse(snapshot.isDelta());
+
+		try (InputStreamReader in = new InputStreamReader(new GZIPInputStream(new ByteArrayInputStream(snapshot.getGzip())), StandardCharsets.UTF_8))
+		{
+			ItemPrice[] prices = RuneLiteAPI.GSON.fromJson(in, ItemPrice[].class);
+			assertEquals(2, prices.length);
+		}
+
+		assertArrayEquals(snapshot.getJson(), PriceSnapshot.of(snapshot.getTable()).getJson());
+		assertEquals(snapshot.getEtag(), PriceSnapshot.of(snapshot.getTable()).getEtag());
+	}
+
+	@Test
+	public void testDelta()
+	{
+		PriceTable oldTable = PriceTable.of(Arrays.asList(price(4151, 1_500_000), price(995, 1)));
+		PriceSnapshot old = PriceSnapshot.of(oldTable);
+
+		PriceSnapshot current = PriceSnapshot.of(oldTable.with(price(4151, 1_600_000)).with(price(1333, 15_000)));
+		assertNotEquals(old.getEtag(), current.getEtag());
+
+		PriceSnapshot delta = current.deltaFrom(old.getEtag(), oldTable);
+		assertTrue(delta.isDelta());
+		assertEquals(current.getEtag(), delta.getEtag());
+		assertSame(delta, current.deltaFrom(old.getEtag(), oldTable));
+
+		ItemPrice[] prices = RuneLiteAPI.GSON.fromJson(new String(delta.getJson(), StandardCharsets.UTF_8), ItemPrice[].class);
+		assertEquals(2, prices.length);
+		assertEquals(1333, prices[0].getId());
+		assertEquals(4151, prices[1].getId());
+		assertEquals(1_600_000, prices[1].getPrice());
+	}
+
+	private static PriceEntry price(int itemId, int price)
+	{
+		PriceEntry entry = new PriceEntry();
+		entry.setItem(itemId);
+		entry.setPrice(price);
+		entry.setTime(TIME);
+		return entry;
+	}
+}
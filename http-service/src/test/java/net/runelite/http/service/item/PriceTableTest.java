@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) 2019, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.http.service.item;
+
+import java.time.Instant;
+import java.util.Arrays;
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class PriceTableTest
+{
+	@Test
+	public void testWith()
+	{
+		PriceTable table = PriceTable.of(Arrays.asList(price(4151, 1_500_000), price(995, 1)));
+		assertEquals(1_500_000, table.get(4151).getPrice());
+		assertNull(table.get(1333));
+
+		PriceTable updated = table.with(price(1333, 15_000))
+			.with(price(4151, 1_600_000));
+		assertEquals(3, updated.size());
+		assertEquals(15_000, updated.get(1333).getPrice());
+		assertEquals(1_600_000, updated.get(4151).getPrice());
+		assertEquals(1, updated.get(995).getPrice());
+
+		// the original table is unchanged
+		assertEquals(2, table.size());
+		assertEquals(1_500_000, table.get(4151).getPrice());
+	}
+
+	private static PriceEntry price(int itemId, int price)
+	{
+		PriceEntry entry = new PriceEntry();
+		entry.setItem(itemId);
+		entry.setPrice(price);
+		entry.setTime(Instant.now());
+		return entry;
+	}
+}
@@ -26,6 +26,7 @@ package net.runelite.http.service.loottracker;
 
 import java.io.IOException;
 import java.time.Instant;
+import java.util.Arrays;
 import java.util.Collections;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
@@ -91,4 +92,19 @@ public class LootTrackerControllerTest
 
 		verify(lootTrackerService).store(eq(lootRecord), anyInt());
 	}
-}
\ No newline at end of file
+
+	@Test
+	public void storeLootRecords() throws Exception
+	{
+		LootRecord lootRecord = new LootRecord();
+		lootRecord.setType(LootRecordType.NPC);
+		lootRecord.setTime(Instant.now());
+		lootRecord.setDrops(Collections.singletonList(new GameItem(4151, 1)));
+
+		String data = RuneLiteAPI.GSON.toJson(Arrays.asList(lootRecord, lootRecord));
+		mockMvc.perform(post("/loottracker/batch").content(data).contentType(MediaType.APPLICATION_JSON))
+			.andExpect(status().isOk());
+
+		verify(lootTrackerService).store(eq(Arrays.asList(lootRecord, lootRecord)), anyInt());
+	}
+}
@@ -0,0 +1,188 @@
+/*
+ * Copyright (c) 2019, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.http.service.loottracker;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import net.runelite.http.api.loottracker.GameItem;
+import net.runelite.http.api.loottracker.LootRecord;
+import net.runelite.http.api.loottracker.LootRecordType;
+import net.runelite.http.service.util.H2Database;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import org.sql2o.Connection;
+
+public class LootTrackerServiceTest
+{
+	@Rule
+	public final H2Database database = new H2Database("loottracker");
+
+	private LootTrackerService lootTrackerService;
+
+	@Before
+	public void before()
+	{
+		// H2 can not parse the service's schema, so the tables are created here
+		try (Connection con = database.getSql2o().open())
+		{
+			con.createQuery("CREATE TABLE `kills` (\n"
+				+ "  `id` INT AUTO_INCREMENT UNIQUE,\n"
+				+ "  `time` timestamp NOT NULL DEFAULT current_timestamp(),\n"
+				+ "  `accountId` INT NOT NULL,\n"
+				+ "  `type` VARCHAR(16) NOT NULL,\n"
+				+ "  `eventId` VARCHAR(255) NOT NULL,\n"
+				+ "  PRIMARY KEY (id)\n"
+				+ ")")
+				.executeUpdate();
+			// InnoDB appends the primary key to secondary indexes and can scan them backwards, H2 does neither
+			con.createQuery("CREATE INDEX idx_acc ON kills (accountId, time DESC, id DESC)").executeUpdate();
+			con.createQuery("CREATE INDEX idx_time ON kills (time)").executeUpdate();
+			con.createQuery("CREATE TABLE `drops` (\n"
+				+ "  `killId` INT NOT NULL,\n"
+				+ "  `itemId` INT NOT NULL,\n"
+				+ "  `itemQuantity` INT NOT NULL,\n"
+				+ "  FOREIGN KEY (killId) REFERENCES kills(id) ON DELETE CASCADE\n"
+				+ ")")
+				.executeUpdate();
+		}
+
+		lootTrackerService = new LootTrackerService(database.getSql2oSkippingSchema());
+	}
+
+	@Test
+	public void testStore()
+	{
+		lootTrackerService.store(Arrays.asList(
+			record("Goblin", new GameItem(526, 1), new GameItem(995, 5)),
+			record("Cow", new GameItem(1739, 1)),
+			record("Chicken", new GameItem(314, 7), new GameItem(2138, 1), new GameItem(526, 1))
+		), 1);
+
+		Collection<LootRecord> records = lootTrackerService.get(1, 10, 0);
+		assertEquals(3, records.size());
+
+		// kills recorded in the same millisecond share a time, so are ordered by id
+		List<String> events = new ArrayList<>();
+		for (LootRecord record : records)
+		{
+			events.add(record.getEventId());
+		}
+		assertEquals(Arrays.asList("Chicken", "Cow", "Goblin"), events);
+		assertEquals(3, records.iterator().next().getDrops().size());
+
+		assertTrue(lootTrackerService.get(2, 10, 0).isEmpty());
+	}
+
+	@Test
+	public void testStoreTime()
+	{
+		Instant time = Instant.now().minus(1, ChronoUnit.HOURS).truncatedTo(ChronoUnit.SECONDS);
+		LootRecord past = record("Goblin", new GameItem(995, 1));
+		past.setTime(time);
+		LootRecord future = record("Cow", new GameItem(1739, 1));
+		future.setTime(Instant.now().plus(1, ChronoUnit.DAYS));
+		lootTrackerService.store(Arrays.asList(past, future), 1);
+
+		// kills keep the time they were recorded at, but never one in the future
+		List<LootRecord> records = new ArrayList<>(lootTrackerService.get(1, 10, 0));
+		assertEquals("Cow", records.get(0).getEventId());
+		assertFalse(records.get(0).getTime().isAfter(Instant.now()));
+		assertEquals("Goblin", records.get(1).getEventId());
+		assertEquals(time, records.get(1).getTime());
+	}
+
+	@Test
+	public void testPaging()
+	{
+		List<LootRecord> stored = new ArrayList<>();
+		for (int i = 0; i < 25; ++i)
+		{
+			stored.add(record("Goblin " + i, new GameItem(995, i + 1), new GameItem(526, 1)));
+		}
+		lootTrackerService.store(stored, 1);
+
+		Set<String> seen = new HashSet<>();
+		int pages = 0;
+		LootCursor cursor = null;
+		while (true)
+		{
+			LootPage page = lootTrackerService.get(1, 10, cursor);
+			if (page.getRecords().isEmpty())
+			{
+				assertNull(page.getNext());
+				break;
+			}
+
+			for (LootRecord record : page.getRecords())
+			{
+				assertTrue(seen.add(record.getEventId()));
+			}
+
+			++pages;
+			cursor = LootCursor.parse(page.getNext().toString());
+		}
+
+		assertEquals(3, pages);
+		assertEquals(25, seen.size());
+	}
+
+	@Test
+	public void testExpire()
+	{
+		lootTrackerService.store(Arrays.asList(record("Goblin", new GameItem(995, 1)), record("Cow", new GameItem(1739, 1))), 1);
+
+		try (Connection con = database.getSql2o().open())
+		{
+			con.createQuery("UPDATE kills SET time = :time WHERE eventId = 'Goblin'")
+				.addParameter("time", Timestamp.from(Instant.now().minus(31, ChronoUnit.DAYS)))
+				.executeUpdate();
+		}
+
+		lootTrackerService.expire();
+
+		Collection<LootRecord> records = lootTrackerService.get(1, 10, 0);
+		assertEquals(1, records.size());
+		assertEquals("Cow", records.iterator().next().getEventId());
+
+		assertEquals(1, database.count("drops"));
+	}
+
+	private static LootRecord record(String eventId, GameItem... drops)
+	{
+		return new LootRecord(eventId, LootRecordType.NPC, Arrays.asList(drops), Instant.now());
+	}
+}
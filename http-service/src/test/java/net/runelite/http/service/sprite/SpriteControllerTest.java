@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2019, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.http.service.sprite;
+
+import net.runelite.http.service.cache.CacheService;
+import net.runelite.http.service.cache.beans.ArchiveEntry;
+import net.runelite.http.service.cache.beans.CacheEntry;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@RunWith(SpringRunner.class)
+@WebMvcTest(SpriteController.class)
+@ActiveProfiles("test")
+public class SpriteControllerTest
+{
+	private static final byte[] IMAGE = {1, 2, 3};
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@MockBean
+	private SpriteService spriteService;
+
+	@MockBean
+	private CacheService cacheService;
+
+	private final CacheEntry cache = new CacheEntry();
+	private final ArchiveEntry archive = new ArchiveEntry();
+
+	@Before
+	public void before() throws Exception
+	{
+		cache.setId(42);
+		archive.setArchiveId(100);
+		archive.setHash(new byte[32]);
+		when(cacheService.findMostRecent()).thenReturn(cache);
+		when(cacheService.findCache(42)).thenReturn(cache);
+		when(spriteService.findSpriteArchive(cache, 100)).thenReturn(archive);
+		when(spriteService.getImagePng(archive, 0)).thenReturn(IMAGE);
+	}
+
+	@Test
+	public void testSprite() throws Exception
+	{
+		mockMvc.perform(get("/sprite").param("spriteId", "100"))
+			.andExpect(status().isOk())
+			.andExpect(header().string(HttpHeaders.ETAG, SpriteService.getETag(archive, 0)))
+			.andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=60, public"))
+			.andExpect(content().bytes(IMAGE));
+
+		mockMvc.perform(get("/sprite").param("spriteId", "100").param("cacheId", "42"))
+			.andExpect(status().isOk())
+			.andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=31536000, public, immutable"));
+	}
+
+	@Test
+	public void testSpriteNotModified() throws Exception
+	{
+		mockMvc.perform(get("/sprite").param("spriteId", "100")
+			.header(HttpHeaders.IF_NONE_MATCH, SpriteService.getETag(archive, 0)))
+			.andExpect(status().isNotModified());
+
+		verify(spriteService, never()).getImagePng(any(ArchiveEntry.class), anyInt());
+	}
+
+	@Test
+	public void testSpriteNotFound() throws Exception
+	{
+		mockMvc.perform(get("/sprite").param("spriteId", "100").param("frameId", "1"))
+			.andExpect(status().isNotFound());
+
+		mockMvc.perform(get("/sprite").param("spriteId", "1"))
+			.andExpect(status().isNotFound());
+	}
+}
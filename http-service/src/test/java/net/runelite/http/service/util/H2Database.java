@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) 2019, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.http.service.util;
+
+import com.google.common.io.Resources;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.rules.ExternalResource;
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import org.sql2o.Connection;
+import org.sql2o.Sql2o;
+import org.sql2o.converters.Converter;
+import org.sql2o.quirks.NoQuirks;
+
+/**
+ * An in-memory H2 database in MySQL mode, with the converters the service
+ * uses. Everything in it is dropped after each test.
+ */
+public class H2Database extends ExternalResource
+{
+	private final String name;
+	private Sql2o sql2o;
+
+	public H2Database(String name)
+	{
+		this.name = name;
+	}
+
+	@Override
+	protected void before()
+	{
+		Map<Class, Converter> converters = new HashMap<>();
+		converters.put(Instant.class, new InstantConverter());
+		sql2o = new Sql2o("jdbc:h2:mem:" + name + ";MODE=MySQL;DB_CLOSE_DELAY=-1", "", "", new NoQuirks(converters));
+	}
+
+	@Override
+	protected void after()
+	{
+		execute("drop all objects");
+	}
+
+	public Sql2o getSql2o()
+	{
+		return sql2o;
+	}
+
+	/**
+	 * get a Sql2o whose first connection is a stand-in, for services which create
+	 * their schema in their constructor with statements H2 can not parse. The test
+	 * creates the tables itself.
+	 *
+	 * @return
+	 */
+	public Sql2o getSql2oSkippingSchema()
+	{
+		Sql2o spy = spy(sql2o);
+		doReturn(mock(Connection.class, RETURNS_DEEP_STUBS))
+			.doCallRealMethod()
+			.when(spy).open();
+		return spy;
+	}
+
+	/**
+	 * Execute each statement in its own query
+	 *
+	 * @param statements
+	 */
+	public void execute(String... statements)
+	{
+		try (Connection con = sql2o.open())
+		{
+			for (String statement : statements)
+			{
+				con.createQuery(statement).executeUpdate();
+			}
+		}
+	}
+
+	/**
+	 * Execute the statements of a script resource, which are separated by ;
+	 *
+	 * @param clazz class the resource is relative to
+	 * @param resource
+	 * @throws IOException
+	 */
+	public void executeScript(Class<?> clazz, String resource) throws IOException
+	{
+		String script = Resources.toString(clazz.getResource(resource), StandardCharsets.UTF_8);
+		try (Connection con = sql2o.open())
+		{
+			for (String statement : script.split(";"))
+			{
+				if (!statement.trim().isEmpty())
+				{
+					con.createQuery(statement).executeUpdate();
+				}
+			}
+		}
+	}
+
+	public int count(String table)
+	{
+		try (Connection con = sql2o.open())
+		{
+			return con.createQuery("select count(*) from " + table).executeScalar(Integer.class);
+		}
+	}
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) 2019, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.http.service.util.redis;
+
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+import redis.clients.jedis.Jedis;
+
+public class RedisPoolTest
+{
+	@Test
+	public void testBorrow()
+	{
+		// connections are not opened until they are used, so no redis server is needed
+		RedisPool pool = new RedisPool(2, 10, "localhost");
+
+		Jedis first = pool.getResource();
+		Jedis second = pool.getResource();
+		assertEquals(2, pool.getStats().getActive());
+
+		try
+		{
+			pool.getResource();
+			fail();
+		}
+		catch (RuntimeException ex)
+		{
+			assertEquals(1, pool.getStats().getTimeouts());
+		}
+
+		second.close();
+		assertSame(second, pool.getResource());
+
+		first.close();
+		first.close();
+
+		RedisPoolStats stats = pool.getStats();
+		assertEquals(1, stats.getActive());
+		assertEquals(1, stats.getIdle());
+		assertEquals(3, stats.getBorrows());
+		assertEquals(2, stats.getConnectionsCreated());
+	}
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2019, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.http.service.worlds;
+
+import static net.runelite.http.service.worlds.WorldSnapshotTest.world;
+import static net.runelite.http.service.worlds.WorldSnapshotTest.worlds;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.not;
+import static org.junit.Assert.assertEquals;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import static org.mockito.Mockito.when;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@RunWith(SpringRunner.class)
+@WebMvcTest(WorldController.class)
+@ActiveProfiles("test")
+public class WorldControllerTest
+{
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private WorldController worldController;
+
+	@MockBean
+	private WorldsService worldsService;
+
+	@Before
+	public void before() throws Exception
+	{
+		when(worldsService.getWorlds()).thenReturn(worlds(world(301, 100), world(302, 200)));
+		worldController.refresh().get();
+	}
+
+	@Test
+	public void testListWorlds() throws Exception
+	{
+		MvcResult result = mockMvc.perform(get("/worlds"))
+			.andExpect(status().isOk())
+			.andExpect(content().string(containsString("\"id\":301")))
+			.andReturn();
+
+		String etag = result.getResponse().getHeader(HttpHeaders.ETAG);
+		mockMvc.perform(get("/worlds").header(HttpHeaders.IF_NONE_MATCH, etag))
+			.andExpect(status().isNotModified());
+	}
+
+	@Test
+	public void testStream() throws Exception
+	{
+		MvcResult result = mockMvc.perform(get("/worlds/stream"))
+			.andExpect(request().asyncStarted())
+			.andExpect(content().string(containsString("event:worlds\n")))
+			.andReturn();
+
+		when(worldsService.getWorlds()).thenReturn(worlds(world(301, 150), world(302, 200)));
+		worldController.refresh().get();
+
+		String content = result.getResponse().getContentAsString();
+		assertEquals(true, content.contains("event:delta\n"));
+		assertEquals(true, content.contains("\"players\":{\"301\":150}"));
+	}
+
+	@Test
+	public void testStreamUnchanged() throws Exception
+	{
+		String etag = mockMvc.perform(get("/worlds"))
+			.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+		mockMvc.perform(get("/worlds/stream").header("Last-Event-ID", etag.replace("\"", "")))
+			.andExpect(request().asyncStarted())
+			.andExpect(content().string(not(containsString("event:worlds"))));
+	}
+}
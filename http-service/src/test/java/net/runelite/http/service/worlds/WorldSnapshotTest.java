@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2019, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.http.service.worlds;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import net.runelite.http.api.worlds.World;
+import net.runelite.http.api.worlds.WorldDelta;
+import net.runelite.http.api.worlds.WorldResult;
+import net.runelite.http.api.worlds.WorldType;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+public class WorldSnapshotTest
+{
+	static WorldResult worlds(World... worlds)
+	{
+		WorldResult worldResult = new WorldResult();
+		worldResult.setWorlds(Arrays.asList(worlds));
+		return worldResult;
+	}
+
+	static World world(int id, int players)
+	{
+		return World.builder()
+			.id(id)
+			.types(EnumSet.of(WorldType.MEMBERS))
+			.address("oldschool" + (id - 300) + ".runescape.com")
+			.activity("-")
+			.location(0)
+			.players(players)
+			.build();
+	}
+
+	@Test
+	public void testDelta()
+	{
+		WorldSnapshot from = WorldSnapshot.of(worlds(world(301, 100), world(302, 200), world(303, 300)));
+		WorldSnapshot to = WorldSnapshot.of(worlds(
+			world(301, 100),
+			world(302, 250),
+			world(304, 400).toBuilder().types(EnumSet.of(WorldType.MEMBERS, WorldType.PVP)).build()
+		));
+
+		assertNotEquals(from.getEtag(), to.getEtag());
+
+		WorldDelta delta = to.deltaFrom(from);
+		assertEquals(Collections.singletonList(to.getWorldResult().findWorld(304)), delta.getWorlds());
+		assertEquals(Collections.singletonMap(302, 250), delta.getPlayers());
+		assertEquals(Collections.singletonList(303), delta.getRemoved());
+
+		assertEquals(to.getWorldResult().getWorlds(), delta.applyTo(from.getWorldResult()).getWorlds());
+	}
+
+	@Test
+	public void testUnchanged()
+	{
+		WorldSnapshot from = WorldSnapshot.of(worlds(world(301, 100), world(302, 200)));
+		WorldSnapshot to = WorldSnapshot.of(worlds(world(301, 100), world(302, 200)));
+
+		assertEquals(from.getEtag(), to.getEtag());
+		assertTrue(to.deltaFrom(from).isEmpty());
+	}
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) 2019, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.http.service.xp;
+
+import java.time.Instant;
+import net.runelite.http.api.hiscore.HiscoreEndpoint;
+import net.runelite.http.api.hiscore.HiscoreResult;
+import net.runelite.http.api.hiscore.HiscoreResultBuilder;
+import net.runelite.http.api.hiscore.Skill;
+import net.runelite.http.service.hiscore.HiscoreService;
+import net.runelite.http.service.util.H2Database;
+import net.runelite.http.service.xp.beans.XpEntity;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class XpTrackerServiceTest
+{
+	@Rule
+	public final H2Database database = new H2Database("xptracker");
+
+	private HiscoreService hiscoreService;
+	private XpTrackerService xpTrackerService;
+
+	@Before
+	public void before() throws Exception
+	{
+		database.executeScript(XpTrackerServiceTest.class, "schema-h2.sql");
+
+		hiscoreService = mock(HiscoreService.class);
+		when(hiscoreService.lookupFreshUsername(anyString(), eq(HiscoreEndpoint.NORMAL))).thenReturn(hiscoreResult(1000));
+
+		xpTrackerService = new XpTrackerService(database.getSql2o(), hiscoreService, 2, 1000);
+	}
+
+	@Test
+	public void testTryUpdate() throws Exception
+	{
+		// repeated requests for the same player are only looked up once
+		for (int i = 0; i < 10; ++i)
+		{
+			xpTrackerService.tryUpdate("zezima");
+		}
+		xpTrackerService.tryUpdate("lynx titan");
+		assertEquals(2, xpTrackerService.getStats().getUsernameQueueSize());
+
+		xpTrackerService.update();
+		xpTrackerService.shutdown();
+
+		verify(hiscoreService, times(1)).lookupFreshUsername("zezima", HiscoreEndpoint.NORMAL);
+		verify(hiscoreService, times(1)).lookupFreshUsername("lynx titan", HiscoreEndpoint.NORMAL);
+
+		XpTrackerStats stats = xpTrackerService.getStats();
+		assertEquals(0, stats.getUsernameQueueSize());
+		assertEquals(0, stats.getPendingSnapshots());
+		assertEquals(2, stats.getFlushedSnapshots());
+		assertEquals(2, database.count("player"));
+		assertEquals(2, database.count("xp"));
+	}
+
+	@Test
+	public void testFlush()
+	{
+		xpTrackerService.update("zezima", hiscoreResult(1000));
+		xpTrackerService.update("zezima", hiscoreResult(2000));
+		assertEquals(1, xpTrackerService.getStats().getPendingSnapshots());
+		xpTrackerService.flush();
+
+		XpEntity xp = xpTrackerService.findXpAtTime("zezima", Instant.now());
+		assertNotNull(xp);
+		assertEquals(2000, xp.getAttack_xp());
+		assertEquals(1, xpTrackerService.getStats().getLastFlushSize());
+
+		// unchanged hiscores are not written again
+		xpTrackerService.update("zezima", hiscoreResult(2000));
+		xpTrackerService.flush();
+		assertEquals(0, xpTrackerService.getStats().getLastFlushSize());
+		assertEquals(1, database.count("xp"));
+	}
+
+	@Test
+	public void testFlushFailure()
+	{
+		database.execute("alter table xp rename to xp_tmp");
+		xpTrackerService.update("zezima", hiscoreResult(1000));
+		xpTrackerService.flush();
+
+		// the failed batch is queued again, and the new player rolled back
+		assertEquals(1, xpTrackerService.getStats().getPendingSnapshots());
+		database.execute("alter table xp_tmp rename to xp");
+		assertEquals(0, database.count("player"));
+
+		xpTrackerService.flush();
+		assertEquals(0, xpTrackerService.getStats().getPendingSnapshots());
+		assertEquals(1, database.count("player"));
+		assertEquals(1, database.count("xp"));
+	}
+
+	private static HiscoreResult hiscoreResult(int xp)
+	{
+		HiscoreResultBuilder builder = new HiscoreResultBuilder();
+		for (int i = 0; i < 33; ++i)
+		{
+			builder.setNextSkill(new Skill(i + 1, 1, xp));
+		}
+		return builder.build();
+	}
+}
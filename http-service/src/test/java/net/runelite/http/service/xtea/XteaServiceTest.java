@@ -0,0 +1,173 @@
+/*
+ * Copyright (c) 2019, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.http.service.xtea;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import net.runelite.cache.IndexType;
+import net.runelite.cache.fs.Container;
+import net.runelite.cache.fs.jagex.CompressionType;
+import net.runelite.http.api.xtea.XteaKey;
+import net.runelite.http.api.xtea.XteaRequest;
+import net.runelite.http.service.cache.CacheService;
+import net.runelite.http.service.cache.beans.ArchiveEntry;
+import net.runelite.http.service.cache.beans.CacheEntry;
+import net.runelite.http.service.util.H2Database;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class XteaServiceTest
+{
+	private static final int REGION = 12850;
+	private static final int[] KEYS = {1, 2, 3, 4};
+
+	@Rule
+	public final H2Database database = new H2Database("xtea");
+
+	private CacheService cacheService;
+	private XteaService xteaService;
+
+	@Before
+	public void before() throws Exception
+	{
+		Container container = new Container(CompressionType.GZ, -1);
+		container.compress(new byte[64], KEYS);
+
+		CacheEntry cache = new CacheEntry();
+		ArchiveEntry archive = new ArchiveEntry();
+		cacheService = mock(CacheService.class);
+		when(cacheService.findMostRecent()).thenReturn(cache);
+		when(cacheService.findArchiveForTypeAndName(eq(cache), eq(IndexType.MAPS), anyInt())).thenReturn(archive);
+		when(cacheService.getArchive(archive)).thenReturn(container.data);
+
+		xteaService = new XteaService(database.getSql2o(), cacheService);
+	}
+
+	@Test
+	public void testSubmit() throws Exception
+	{
+		// the same keys from many clients are only checked and stored once
+		for (int i = 0; i < 10; ++i)
+		{
+			xteaService.submit(request(REGION, KEYS));
+		}
+		xteaService.shutdown();
+
+		verify(cacheService, times(1)).getArchive(any(ArchiveEntry.class));
+
+		XteaEntry entry = xteaService.getRegion(REGION);
+		assertNotNull(entry);
+		assertEquals(KEYS[0], entry.getKey1());
+		assertEquals(KEYS[3], entry.getKey4());
+		assertEquals(1, xteaService.get().size());
+		assertEquals(1, database.count("xtea"));
+
+		// keys are loaded back from the database
+		XteaService reloaded = new XteaService(database.getSql2o(), cacheService);
+		assertNotNull(reloaded.getRegion(REGION));
+	}
+
+	@Test
+	public void testConcurrentSubmit() throws Exception
+	{
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		List<Future<?>> futures = new ArrayList<>();
+		for (int i = 0; i < 8; ++i)
+		{
+			futures.add(executor.submit(() ->
+			{
+				for (int j = 0; j < 100; ++j)
+				{
+					xteaService.submit(request(REGION, KEYS));
+				}
+			}));
+		}
+
+		for (Future<?> future : futures)
+		{
+			future.get();
+		}
+		executor.shutdown();
+		xteaService.shutdown();
+
+		// keys submitted while they are being validated are not validated again
+		verify(cacheService, times(1)).getArchive(any(ArchiveEntry.class));
+		assertEquals(1, database.count("xtea"));
+	}
+
+	@Test
+	public void testInvalidKeys() throws Exception
+	{
+		xteaService.submit(request(REGION, new int[]{5, 6, 7, 8}));
+		xteaService.shutdown();
+
+		assertNull(xteaService.getRegion(REGION));
+		assertEquals(0, database.count("xtea"));
+	}
+
+	@Test
+	public void testFlushFailure() throws Exception
+	{
+		database.execute("alter table xtea rename to xtea_tmp");
+
+		xteaService.submit(request(REGION, KEYS));
+		xteaService.shutdown();
+
+		database.execute("alter table xtea_tmp rename to xtea");
+		assertEquals(0, database.count("xtea"));
+
+		// resubmitting is a no-op, so the failed batch must be kept for the next flush
+		xteaService.submit(request(REGION, KEYS));
+		xteaService.flush();
+
+		assertEquals(1, database.count("xtea"));
+	}
+
+	private static XteaRequest request(int region, int[] keys)
+	{
+		XteaKey key = new XteaKey();
+		key.setRegion(region);
+		key.setKeys(keys);
+
+		XteaRequest request = new XteaRequest();
+		request.setRevision(180);
+		request.addKey(key);
+		return request;
+	}
+}
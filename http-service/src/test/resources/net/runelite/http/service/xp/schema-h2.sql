@@ -0,0 +1,67 @@
+-- Tracker schema without the generated level columns, which H2 can not create
+CREATE TABLE `player` (
+  `id` int(11) NOT NULL AUTO_INCREMENT,
+  `name` varchar(32) NOT NULL,
+  `tracked_since` timestamp NOT NULL DEFAULT current_timestamp(),
+  `last_updated` timestamp NOT NULL DEFAULT current_timestamp(),
+  `rank` int(11) DEFAULT NULL,
+  PRIMARY KEY (`id`),
+  UNIQUE KEY `name` (`name`)
+) ENGINE=InnoDB;
+CREATE TABLE `xp` (
+  `id` int(11) NOT NULL AUTO_INCREMENT,
+  `time` timestamp NOT NULL DEFAULT current_timestamp(),
+  `player` int(11) NOT NULL,
+  `overall_xp` int(11) NOT NULL DEFAULT 0,
+  `attack_xp` int(11) NOT NULL,
+  `defence_xp` int(11) NOT NULL,
+  `strength_xp` int(11) NOT NULL,
+  `hitpoints_xp` int(11) NOT NULL,
+  `ranged_xp` int(11) NOT NULL,
+  `prayer_xp` int(11) NOT NULL,
+  `magic_xp` int(11) NOT NULL,
+  `cooking_xp` int(11) NOT NULL,
+  `woodcutting_xp` int(11) NOT NULL,
+  `fletching_xp` int(11) NOT NULL,
+  `fishing_xp` int(11) NOT NULL,
+  `firemaking_xp` int(11) NOT NULL,
+  `crafting_xp` int(11) NOT NULL,
+  `smithing_xp` int(11) NOT NULL,
+  `mining_xp` int(11) NOT NULL,
+  `herblore_xp` int(11) NOT NULL,
+  `agility_xp` int(11) NOT NULL,
+  `thieving_xp` int(11) NOT NULL,
+  `slayer_xp` int(11) NOT NULL,
+  `farming_xp` int(11) NOT NULL,
+  `runecraft_xp` int(11) NOT NULL,
+  `hunter_xp` int(11) NOT NULL,
+  `construction_xp` int(11) NOT NULL,
+  `attack_rank` int(11) NOT NULL,
+  `defence_rank` int(11) NOT NULL,
+  `strength_rank` int(11) NOT NULL,
+  `hitpoints_rank` int(11) NOT NULL,
+  `ranged_rank` int(11) NOT NULL,
+  `prayer_rank` int(11) NOT NULL,
+  `magic_rank` int(11) NOT NULL,
+  `cooking_rank` int(11) NOT NULL,
+  `woodcutting_rank` int(11) NOT NULL,
+  `fletching_rank` int(11) NOT NULL,
+  `fishing_rank` int(11) NOT NULL,
+  `firemaking_rank` int(11) NOT NULL,
+  `crafting_rank` int(11) NOT NULL,
+  `smithing_rank` int(11) NOT NULL,
+  `mining_rank` int(11) NOT NULL,
+  `herblore_rank` int(11) NOT NULL,
+  `agility_rank` int(11) NOT NULL,
+  `thieving_rank` int(11) NOT NULL,
+  `slayer_rank` int(11) NOT NULL,
+  `farming_rank` int(11) NOT NULL,
+  `runecraft_rank` int(11) NOT NULL,
+  `hunter_rank` int(11) NOT NULL,
+  `construction_rank` int(11) NOT NULL,
+  `overall_rank` int(11) NOT NULL,
+  PRIMARY KEY (`id`),
+  UNIQUE KEY `player_time` (`player`,`time`),
+  KEY `idx_time` (`time`),
+  CONSTRAINT `fk_player` FOREIGN KEY (`player`) REFERENCES `player` (`id`)
+) ENGINE=InnoDB;
@@ -554,6 +554,27 @@ public interface Client extends GameEngine
 	 */
 	void setMenuEntries(MenuEntry[] entries);
 
+	/**
+	 * Gets a mutable view over the open menu entries.
+	 * <p>
+	 * This is cheaper than {@link #getMenuEntries()} and {@link #setMenuEntries(MenuEntry[])}
+	 * because it edits the client's menu in place. Changes to the number of
+	 * entries are applied by {@link #commitMenu()}, which happens automatically
+	 * after {@link net.runelite.api.events.MenuEntryAdded} and
+	 * {@link net.runelite.api.events.MenuOpened} have been posted.
+	 * <p>
+	 * This method must be called on the client thread.
+	 *
+	 * @return the menu
+	 */
+	Menu getMenu();
+
+	/**
+	 * Writes any entries added to or removed from {@link #getMenu()} back
+	 * to the client.
+	 */
+	void commitMenu();
+
 	/**
 	 * Checks whether a right-click menu is currently open.
 	 *
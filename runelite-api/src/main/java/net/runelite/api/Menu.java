@@ -0,0 +1,323 @@
+/*
+ * Copyright (c) 2019, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.api;
+
+/**
+ * A mutable view over the client's right-click menu.
+ * <p>
+ * Entries are indexed from the bottom of the menu, so index {@code 0} is
+ * normally "Cancel" and {@code size() - 1} is the entry that a left click
+ * will activate.
+ * <p>
+ * Reads and writes go straight to the client's menu arrays, so unlike
+ * {@link Client#getMenuEntries()} no {@link MenuEntry} objects are created.
+ * Adding, inserting or removing entries only changes the size of this view;
+ * the new size is written back to the client by {@link Client#commitMenu()},
+ * which the client does automatically after dispatching
+ * {@link net.runelite.api.events.MenuEntryAdded} and
+ * {@link net.runelite.api.events.MenuOpened}.
+ */
+public final class Menu
+{
+	private final String[] options;
+	private final String[] targets;
+	private final int[] identifiers;
+	private final int[] types;
+	private final int[] params0;
+	private final int[] params1;
+	private final boolean[] forceLeftClick;
+
+	private int size;
+	private boolean dirty;
+
+	public Menu(String[] options, String[] targets, int[] identifiers, int[] types,
+		int[] params0, int[] params1, boolean[] forceLeftClick)
+	{
+		this.options = options;
+		this.targets = targets;
+		this.identifiers = identifiers;
+		this.types = types;
+		this.params0 = params0;
+		this.params1 = params1;
+		this.forceLeftClick = forceLeftClick;
+	}
+
+	/**
+	 * Resets the view to the given number of entries and marks it clean.
+	 * This is called by the client when the menu is read or committed.
+	 *
+	 * @param size the client's current menu entry count
+	 */
+	public void reset(int size)
+	{
+		this.size = size;
+		this.dirty = false;
+	}
+
+	/**
+	 * Checks whether entries have been added or removed since the view
+	 * was last committed.
+	 *
+	 * @return true if the size of the menu has changed
+	 */
+	public boolean isDirty()
+	{
+		return dirty;
+	}
+
+	/**
+	 * Gets the number of entries in the menu.
+	 *
+	 * @return the entry count
+	 */
+	public int size()
+	{
+		return size;
+	}
+
+	/**
+	 * Gets the maximum number of entries the menu can hold.
+	 *
+	 * @return the menu capacity
+	 */
+	public int capacity()
+	{
+		return options.length;
+	}
+
+	public String getOption(int index)
+	{
+		return options[checkIndex(index)];
+	}
+
+	public void setOption(int index, String option)
+	{
+		options[checkIndex(index)] = option;
+	}
+
+	public String getTarget(int index)
+	{
+		return targets[checkIndex(index)];
+	}
+
+	public void setTarget(int index, String target)
+	{
+		targets[checkIndex(index)] = target;
+	}
+
+	public int getIdentifier(int index)
+	{
+		return identifiers[checkIndex(index)];
+	}
+
+	public void setIdentifier(int index, int identifier)
+	{
+		identifiers[checkIndex(index)] = identifier;
+	}
+
+	public int getType(int index)
+	{
+		return types[checkIndex(index)];
+	}
+
+	public void setType(int index, int type)
+	{
+		types[checkIndex(index)] = type;
+	}
+
+	public int getParam0(int index)
+	{
+		return params0[checkIndex(index)];
+	}
+
+	public void setParam0(int index, int param0)
+	{
+		params0[checkIndex(index)] = param0;
+	}
+
+	public int getParam1(int index)
+	{
+		return params1[checkIndex(index)];
+	}
+
+	public void setParam1(int index, int param1)
+	{
+		params1[checkIndex(index)] = param1;
+	}
+
+	public boolean isForceLeftClick(int index)
+	{
+		return forceLeftClick[checkIndex(index)];
+	}
+
+	public void setForceLeftClick(int index, boolean force)
+	{
+		forceLeftClick[checkIndex(index)] = force;
+	}
+
+	/**
+	 * Finds the topmost entry with the given option and target.
+	 *
+	 * @param option the option text to match
+	 * @param target the target text to match
+	 * @return the index of the entry, or -1 if there is none
+	 */
+	public int indexOf(String option, String target)
+	{
+		for (int i = size - 1; i >= 0; --i)
+		{
+			if (option.equals(options[i]) && target.equals(targets[i]))
+			{
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Adds an entry to the top of the menu.
+	 *
+	 * @return the index of the new entry, or -1 if the menu is full
+	 */
+	public int add(String option, String target, int type, int identifier, int param0, int param1)
+	{
+		return insert(size, option, target, type, identifier, param0, param1);
+	}
+
+	/**
+	 * Inserts an entry at the given index, moving the entry currently at
+	 * that index and every entry above it up by one.
+	 *
+	 * @return the index of the new entry, or -1 if the menu is full
+	 */
+	public int insert(int index, String option, String target, int type, int identifier, int param0, int param1)
+	{
+		if (index < 0 || index > size)
+		{
+			throw new IndexOutOfBoundsException("index: " + index + ", size: " + size);
+		}
+
+		if (size == options.length)
+		{
+			return -1;
+		}
+
+		int moved = size - index;
+		if (moved > 0)
+		{
+			System.arraycopy(options, index, options, index + 1, moved);
+			System.arraycopy(targets, index, targets, index + 1, moved);
+			System.arraycopy(identifiers, index, identifiers, index + 1, moved);
+			System.arraycopy(types, index, types, index + 1, moved);
+			System.arraycopy(params0, index, params0, index + 1, moved);
+			System.arraycopy(params1, index, params1, index + 1, moved);
+			System.arraycopy(forceLeftClick, index, forceLeftClick, index + 1, moved);
+		}
+
+		options[index] = option;
+		targets[index] = target;
+		types[index] = type;
+		identifiers[index] = identifier;
+		params0[index] = param0;
+		params1[index] = param1;
+		forceLeftClick[index] = false;
+
+		++size;
+		dirty = true;
+		return index;
+	}
+
+	/**
+	 * Removes the entry at the given index, moving every entry above it
+	 * down by one.
+	 */
+	public void remove(int index)
+	{
+		checkIndex(index);
+
+		int moved = size - index - 1;
+		if (moved > 0)
+		{
+			System.arraycopy(options, index + 1, options, index, moved);
+			System.arraycopy(targets, index + 1, targets, index, moved);
+			System.arraycopy(identifiers, index + 1, identifiers, index, moved);
+			System.arraycopy(types, index + 1, types, index, moved);
+			System.arraycopy(params0, index + 1, params0, index, moved);
+			System.arraycopy(params1, index + 1, params1, index, moved);
+			System.arraycopy(forceLeftClick, index + 1, forceLeftClick, index, moved);
+		}
+
+		--size;
+		options[size] = null;
+		targets[size] = null;
+		dirty = true;
+	}
+
+	/**
+	 * Swaps two entries.
+	 */
+	public void swap(int a, int b)
+	{
+		checkIndex(a);
+		checkIndex(b);
+
+		String s = options[a];
+		options[a] = options[b];
+		options[b] = s;
+
+		s = targets[a];
+		targets[a] = targets[b];
+		targets[b] = s;
+
+		int i = identifiers[a];
+		identifiers[a] = identifiers[b];
+		identifiers[b] = i;
+
+		i = types[a];
+		types[a] = types[b];
+		types[b] = i;
+
+		i = params0[a];
+		params0[a] = params0[b];
+		params0[b] = i;
+
+		i = params1[a];
+		params1[a] = params1[b];
+		params1[b] = i;
+
+		boolean f = forceLeftClick[a];
+		forceLeftClick[a] = forceLeftClick[b];
+		forceLeftClick[b] = f;
+	}
+
+	private int checkIndex(int index)
+	{
+		if (index < 0 || index >= size)
+		{
+			throw new IndexOutOfBoundsException("index: " + index + ", size: " + size);
+		}
+		return index;
+	}
+}
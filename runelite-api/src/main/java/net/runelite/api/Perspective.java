@@ -60,6 +60,9 @@ public class Perspective
 	public static final int[] SINE = new int[2048]; // sine angles for each of the 2048 units, * 65536 and stored as an int
 	public static final int[] COSINE = new int[2048]; // cosine
 
+	// scratch buffers for projected model vertices, reused between calls to getClickboxHull
+	private static final ThreadLocal<int[][]> PROJECTION_BUFFER = ThreadLocal.withInitial(() -> new int[2][0]);
+
 	static
 	{
 		for (int i = 0; i < 2048; ++i)
@@ -528,6 +531,134 @@ public class Perspective
 		return clickBox;
 	}
 
+	/**
+	 * Get an approximation of the on-screen clickable area of {@code model},
+	 * as the convex hull of its projected vertices.
+	 * <p>
+	 * This is much cheaper to compute than {@link #getClickbox(Client, Model, int, LocalPoint)},
+	 * which unions a rectangle per triangle, at the cost of filling in any
+	 * concave parts of the model.
+	 *
+	 * @param client the game client
+	 * @param model the model to calculate a clickbox for
+	 * @param orientation the orientation of the model (0-2048, where 0 is north)
+	 * @param point the coordinate of the tile
+	 * @return the convex hull of the model, or null if it is not visible
+	 */
+	public static @Nullable Polygon getClickboxHull(@Nonnull Client client, Model model, int orientation, @Nonnull LocalPoint point)
+	{
+		if (model == null)
+		{
+			return null;
+		}
+
+		final int count = model.getVerticesCount();
+
+		int[][] buffer = PROJECTION_BUFFER.get();
+		if (buffer[0].length < count)
+		{
+			buffer[0] = new int[count];
+			buffer[1] = new int[count];
+		}
+
+		final int tileHeight = getTileHeight(client, point, client.getPlane());
+		final int visible = modelToCanvas(client, count, point.getX(), point.getY(), tileHeight, orientation,
+			model.getVerticesX(), model.getVerticesY(), model.getVerticesZ(), buffer[0], buffer[1]);
+
+		return Jarvis.convexHull(buffer[0], buffer[1], visible);
+	}
+
+	/**
+	 * Translates model vertices to their corresponding coordinates on the
+	 * game screen, as though the model is on the tile at ({@code localX},
+	 * {@code localY}) and rotated to angle {@code orientation}.
+	 * <p>
+	 * Only vertices which are in front of the camera are written, packed
+	 * from the start of {@code x2d} and {@code y2d}.
+	 *
+	 * @param client the game client
+	 * @param count the number of vertices to translate
+	 * @param localX the local x coordinate of the model
+	 * @param localY the local y coordinate of the model
+	 * @param tileHeight the height of the tile the model is on
+	 * @param orientation the orientation of the model (0-2048, where 0 is north)
+	 * @param x3d vertex x coordinates
+	 * @param y3d vertex y coordinates
+	 * @param z3d vertex z coordinates
+	 * @param x2d receives the canvas x coordinates
+	 * @param y2d receives the canvas y coordinates
+	 * @return the number of vertices written to {@code x2d} and {@code y2d}
+	 */
+	public static int modelToCanvas(@Nonnull Client client, int count, int localX, int localY, int tileHeight, int orientation,
+		int[] x3d, int[] y3d, int[] z3d, int[] x2d, int[] y2d)
+	{
+		final int cameraX = client.getCameraX();
+		final int cameraY = client.getCameraY();
+		final int cameraZ = client.getCameraZ();
+
+		final int cameraPitch = client.getCameraPitch();
+		final int cameraYaw = client.getCameraYaw();
+
+		final int pitchSin = SINE[cameraPitch];
+		final int pitchCos = COSINE[cameraPitch];
+		final int yawSin = SINE[cameraYaw];
+		final int yawCos = COSINE[cameraYaw];
+
+		final int scale = client.getScale();
+		final int viewportX = client.getViewportXOffset() + client.getViewportWidth() / 2;
+		final int viewportY = client.getViewportYOffset() + client.getViewportHeight() / 2;
+
+		// models are orientated north (1024) and there are 2048 angles total
+		orientation = (orientation + 1024) % 2048;
+		final int orientationSin = SINE[orientation];
+		final int orientationCos = COSINE[orientation];
+
+		int visible = 0;
+
+		for (int i = 0; i < count; ++i)
+		{
+			int vx = x3d[i];
+			int vz = z3d[i];
+
+			if (orientation != 0)
+			{
+				int rx = vx * orientationCos + vz * orientationSin >> 16;
+				vz = vz * orientationCos - vx * orientationSin >> 16;
+				vx = rx;
+			}
+
+			int x = localX - vx;
+			int y = localY - vz;
+			int z = tileHeight + y3d[i];
+
+			if (x < 128 || y < 128 || x > 13056 || y > 13056)
+			{
+				continue;
+			}
+
+			x -= cameraX;
+			y -= cameraY;
+			z -= cameraZ;
+
+			int var8 = yawCos * x + y * yawSin >> 16;
+			y = yawCos * y - yawSin * x >> 16;
+			x = var8;
+			var8 = pitchCos * z - y * pitchSin >> 16;
+			y = z * pitchSin + y * pitchCos >> 16;
+
+			if (y < 50)
+			{
+				continue;
+			}
+
+			x2d[visible] = viewportX + x * scale / y;
+			y2d[visible] = viewportY + var8 * scale / y;
+			++visible;
+		}
+
+		return visible;
+	}
+
 	/**
 	 * Determine if a given point is off-screen.
 	 *
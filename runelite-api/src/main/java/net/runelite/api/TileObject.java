@@ -133,4 +133,15 @@ public interface TileObject
 	 */
 	@Nullable
 	Area getClickbox();
+
+	/**
+	 * Get a convex approximation of the on-screen clickable area of the
+	 * object. This is much cheaper to compute than {@link #getClickbox()}.
+	 * Item layers do not support this.
+	 *
+	 * @return the convex hull of the object
+	 * @throws UnsupportedOperationException if the object is an {@link ItemLayer}
+	 */
+	@Nullable
+	Polygon getClickboxHull();
 }
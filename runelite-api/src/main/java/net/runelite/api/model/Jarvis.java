@@ -24,6 +24,7 @@
  */
 package net.runelite.api.model;
 
+import java.awt.Polygon;
 import java.util.ArrayList;
 import java.util.List;
 import net.runelite.api.Point;
@@ -104,6 +105,69 @@ public class Jarvis
 		return ch;
 	}
 
+	/**
+	 * Computes the convex hull of the first {@code count} points in the
+	 * passed coordinate arrays.
+	 * <p>
+	 * Unlike {@link #convexHull(List)} this does not require a {@link Point}
+	 * per input point, which makes it suitable for projected model vertices.
+	 *
+	 * @param xs x coordinates of the points
+	 * @param ys y coordinates of the points
+	 * @param count number of points to use from the arrays
+	 * @return polygon of the points on the convex hull, or null if there are
+	 * fewer than 3 points
+	 */
+	public static Polygon convexHull(int[] xs, int[] ys, int count)
+	{
+		if (count < 3)
+		{
+			return null;
+		}
+
+		// find the left most point
+		int left = 0;
+		for (int i = 1; i < count; ++i)
+		{
+			if (xs[i] < xs[left] || (xs[i] == xs[left] && ys[i] < ys[left]))
+			{
+				left = i;
+			}
+		}
+
+		Polygon hull = new Polygon();
+		int current = left;
+
+		do
+		{
+			hull.addPoint(xs[current], ys[current]);
+			if (hull.npoints > count)
+			{
+				// Just to make sure we never somehow get stuck in this loop
+				return null;
+			}
+
+			int cx = xs[current];
+			int cy = ys[current];
+			int next = 0;
+
+			for (int i = 1; i < count; ++i)
+			{
+				long cp = crossProduct(cx, cy, xs[i], ys[i], xs[next], ys[next]);
+				if (cp > 0 || (cp == 0 && distanceSquared(cx, cy, xs[i], ys[i]) > distanceSquared(cx, cy, xs[next], ys[next])))
+				{
+					next = i;
+				}
+			}
+
+			current = next;
+		}
+		// compare coordinates rather than indexes, as models often have duplicate vertices
+		while (xs[current] != xs[left] || ys[current] != ys[left]);
+
+		return hull;
+	}
+
 	private static Point findLeftMost(List<Point> points)
 	{
 		Point left = null;
@@ -129,4 +193,16 @@ public class Jarvis
 			- (long)(q.getX() - p.getX()) * (r.getY() - q.getY());
 		return val;
 	}
+
+	private static long crossProduct(int px, int py, int qx, int qy, int rx, int ry)
+	{
+		return (long) (qy - py) * (rx - qx) - (long) (qx - px) * (ry - qy);
+	}
+
+	private static long distanceSquared(int px, int py, int qx, int qy)
+	{
+		long dx = qx - px;
+		long dy = qy - py;
+		return dx * dx + dy * dy;
+	}
 }
@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) 2019, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.api;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import org.junit.Before;
+import org.junit.Test;
+
+public class MenuTest
+{
+	private static final int CAPACITY = 500;
+
+	private final String[] options = new String[CAPACITY];
+	private final String[] targets = new String[CAPACITY];
+	private final int[] identifiers = new int[CAPACITY];
+	private final int[] types = new int[CAPACITY];
+	private final int[] params0 = new int[CAPACITY];
+	private final int[] params1 = new int[CAPACITY];
+	private final boolean[] forceLeftClick = new boolean[CAPACITY];
+
+	private Menu menu;
+
+	@Before
+	public void before()
+	{
+		menu = new Menu(options, targets, identifiers, types, params0, params1, forceLeftClick);
+		menu.reset(0);
+	}
+
+	@Test
+	public void testAdd()
+	{
+		assertEquals(0, menu.add("Cancel", "", 1006, 0, 0, 0));
+		assertEquals(1, menu.add("Walk here", "", 23, 0, 1, 2));
+		assertEquals(2, menu.size());
+		assertTrue(menu.isDirty());
+
+		assertEquals("Walk here", options[1]);
+		assertEquals(23, types[1]);
+		assertEquals(1, params0[1]);
+		assertEquals(2, params1[1]);
+	}
+
+	@Test
+	public void testInsert()
+	{
+		menu.add("Cancel", "", 1006, 0, 0, 0);
+		menu.add("Talk-to", "Banker", 9, 1, 0, 0);
+		menu.insert(1, "Bank", "Banker", 10, 1, 0, 0);
+
+		assertEquals(3, menu.size());
+		assertEquals("Cancel", menu.getOption(0));
+		assertEquals("Bank", menu.getOption(1));
+		assertEquals("Talk-to", menu.getOption(2));
+		assertEquals(9, menu.getType(2));
+	}
+
+	@Test
+	public void testRemove()
+	{
+		menu.add("Cancel", "", 1006, 0, 0, 0);
+		menu.add("Examine", "Banker", 1003, 1, 0, 0);
+		menu.add("Talk-to", "Banker", 9, 1, 0, 0);
+		menu.remove(1);
+
+		assertEquals(2, menu.size());
+		assertEquals("Talk-to", menu.getOption(1));
+		assertEquals(9, menu.getType(1));
+		assertNull(options[2]);
+	}
+
+	@Test
+	public void testSwap()
+	{
+		menu.add("Cancel", "", 1006, 0, 0, 0);
+		menu.add("Bank", "Banker", 10, 1, 0, 0);
+		menu.add("Talk-to", "Banker", 9, 1, 0, 0);
+		menu.reset(3);
+
+		menu.swap(menu.indexOf("Bank", "Banker"), menu.indexOf("Talk-to", "Banker"));
+
+		assertEquals("Bank", menu.getOption(2));
+		assertEquals(10, menu.getType(2));
+		assertEquals("Talk-to", menu.getOption(1));
+		assertEquals(9, menu.getType(1));
+		// swapping does not change the size of the menu
+		assertFalse(menu.isDirty());
+	}
+
+	@Test
+	public void testFull()
+	{
+		for (int i = 0; i < CAPACITY; ++i)
+		{
+			menu.add("Walk here", "", 23, 0, 0, 0);
+		}
+
+		assertEquals(-1, menu.add("Walk here", "", 23, 0, 0, 0));
+		assertEquals(CAPACITY, menu.size());
+	}
+
+	@Test(expected = IndexOutOfBoundsException.class)
+	public void testOutOfBounds()
+	{
+		menu.add("Cancel", "", 1006, 0, 0, 0);
+		menu.getOption(1);
+	}
+}
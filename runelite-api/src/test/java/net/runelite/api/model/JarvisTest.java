@@ -24,6 +24,7 @@
  */
 package net.runelite.api.model;
 
+import java.awt.Polygon;
 import java.util.Arrays;
 import java.util.List;
 import net.runelite.api.Point;
@@ -107,4 +108,28 @@ public class JarvisTest
 		};
 		Jarvis.convexHull(Arrays.asList(points));
 	}
+
+	@Test
+	public void testArrays()
+	{
+		int[] xs = {0, 1, 2, 4, 0, 1, 3, 3, 0};
+		int[] ys = {3, 1, 2, 4, 0, 2, 1, 3, 0};
+
+		Polygon result = Jarvis.convexHull(xs, ys, xs.length);
+		Assert.assertEquals(4, result.npoints);
+		Assert.assertArrayEquals(new int[]{0, 0, 4, 3}, Arrays.copyOf(result.xpoints, result.npoints));
+		Assert.assertArrayEquals(new int[]{0, 3, 4, 1}, Arrays.copyOf(result.ypoints, result.npoints));
+	}
+
+	@Test
+	public void testArraysCount()
+	{
+		int[] xs = {0, 5, 0, 100};
+		int[] ys = {0, 0, 5, 100};
+
+		// the trailing point is outside of count
+		Polygon result = Jarvis.convexHull(xs, ys, 3);
+		Assert.assertEquals(3, result.npoints);
+		Assert.assertNull(Jarvis.convexHull(xs, ys, 2));
+	}
 }
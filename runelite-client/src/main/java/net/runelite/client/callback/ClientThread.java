@@ -25,8 +25,15 @@
 package net.runelite.client.callback;
 
 import com.google.inject.Inject;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.Iterator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Queue;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
 import java.util.function.BooleanSupplier;
 import javax.inject.Singleton;
 import lombok.extern.slf4j.Slf4j;
@@ -36,18 +43,48 @@ import net.runelite.api.Client;
 @Slf4j
 public class ClientThread
 {
-	private ConcurrentLinkedQueue<BooleanSupplier> invokes = new ConcurrentLinkedQueue<>();
+	public enum Priority
+	{
+		/**
+		 * Runs every frame before other tasks, and is not limited by the frame budget
+		 */
+		HIGH,
+		NORMAL,
+		/**
+		 * Runs only if there is frame budget left after the other tasks
+		 */
+		LOW
+	}
+
+	private static final long DEFAULT_FRAME_BUDGET = TimeUnit.MILLISECONDS.toNanos(4);
+	private static final int SPIN_WARNING_RUNS = 5_000;
+
+	/**
+	 * Tasks submitted from any thread, which have not been sorted into the queues below yet
+	 */
+	private final Queue<ClientThreadTask> submitted = new ConcurrentLinkedQueue<>();
+
+	// the queues below are only accessed from the client thread
+	private final ArrayDeque<ClientThreadTask>[] ready = newQueues();
+	private final PriorityQueue<ClientThreadTask> delayed = new PriorityQueue<>(Comparator.comparingLong(ClientThreadTask::getRunAt));
+	private final List<ClientThreadTask> waitingForTick = new ArrayList<>();
+
+	private volatile long frameBudget = DEFAULT_FRAME_BUDGET;
+	// time the previous frame went over its budget by, which is taken from the next frame's budget
+	private long overrun;
 
 	@Inject
 	private Client client;
 
 	public void invoke(Runnable r)
 	{
-		invoke(() ->
+		if (client.isClientThread())
 		{
 			r.run();
-			return true;
-		});
+			return;
+		}
+
+		invokeLater(r);
 	}
 
 	/**
@@ -58,9 +95,9 @@ public class ClientThread
 	{
 		if (client.isClientThread())
 		{
-			if (r.getAsBoolean())
+			if (!r.getAsBoolean())
 			{
-				invokes.add(r);
+				invokeLater(r);
 			}
 			return;
 		}
@@ -74,42 +111,205 @@ public class ClientThread
 	 */
 	public void invokeLater(Runnable r)
 	{
-		invokeLater(() ->
+		submit(new ClientThreadTask(r, () ->
 		{
 			r.run();
 			return true;
-		});
+		}, Priority.NORMAL, false, 0, 0));
 	}
 
 	public void invokeLater(BooleanSupplier r)
 	{
-		invokes.add(r);
+		invokeLater(r, Priority.NORMAL);
+	}
+
+	/**
+	 * Will run r on the game thread after this method returns, in the order of its priority.
+	 * If r returns false, r will be ran again on the next frame
+	 *
+	 * @param r
+	 * @param priority
+	 * @return a handle to cancel the task
+	 */
+	public ClientThreadTask invokeLater(BooleanSupplier r, Priority priority)
+	{
+		return submit(new ClientThreadTask(r, r, priority, false, 0, 0));
+	}
+
+	/**
+	 * Will run r on the game thread once the delay has passed
+	 * If r returns false, r will be ran again on the next frame
+	 *
+	 * @param r
+	 * @param priority
+	 * @param delay
+	 * @param unit
+	 * @return a handle to cancel the task
+	 */
+	public ClientThreadTask invokeDelayed(BooleanSupplier r, Priority priority, long delay, TimeUnit unit)
+	{
+		return submit(new ClientThreadTask(r, r, priority, true, System.nanoTime() + unit.toNanos(delay), 0));
+	}
+
+	/**
+	 * Will run r on the game thread after the given number of game ticks, in the same frame
+	 * as the tick's {@link net.runelite.api.events.GameTick} is posted.
+	 * If r returns false, r will be ran again on the next frame
+	 *
+	 * @param r
+	 * @param priority
+	 * @param ticks number of game ticks to wait, 1 to run after the next game tick
+	 * @return a handle to cancel the task
+	 */
+	public ClientThreadTask invokeOnTick(BooleanSupplier r, Priority priority, int ticks)
+	{
+		if (ticks < 1)
+		{
+			throw new IllegalArgumentException("ticks must be at least 1");
+		}
+
+		return submit(new ClientThreadTask(r, r, priority, false, 0, ticks));
+	}
+
+	/**
+	 * Set the time tasks may run for each frame. Tasks which don't fit in
+	 * the budget are carried over to the next frame.
+	 *
+	 * @param budget
+	 * @param unit
+	 */
+	public void setFrameBudget(long budget, TimeUnit unit)
+	{
+		frameBudget = unit.toNanos(budget);
+	}
+
+	private ClientThreadTask submit(ClientThreadTask task)
+	{
+		submitted.add(task);
+		return task;
+	}
+
+	/**
+	 * Called on the client thread for each game tick, before {@link net.runelite.api.events.GameTick} is posted.
+	 * Tasks submitted while the GameTick is posted wait for the next tick.
+	 */
+	void tick()
+	{
+		assert client.isClientThread();
+		sortSubmitted();
+
+		for (Iterator<ClientThreadTask> it = waitingForTick.iterator(); it.hasNext(); )
+		{
+			ClientThreadTask task = it.next();
+			if (task.isCancelled())
+			{
+				it.remove();
+			}
+			else if (task.tick() <= 0)
+			{
+				it.remove();
+				ready[task.getPriority().ordinal()].add(task);
+			}
+		}
 	}
 
 	void invoke()
 	{
 		assert client.isClientThread();
-		Iterator<BooleanSupplier> ir = invokes.iterator();
-		for (; ir.hasNext(); )
+		sortSubmitted();
+
+		final long start = System.nanoTime();
+		while (!delayed.isEmpty() && delayed.peek().getRunAt() - start <= 0)
 		{
-			BooleanSupplier r = ir.next();
-			boolean remove = true;
-			try
+			ClientThreadTask task = delayed.poll();
+			ready[task.getPriority().ordinal()].add(task);
+		}
+
+		final long deadline = start + frameBudget - overrun;
+		boolean ranBudgeted = false;
+
+		for (Priority priority : Priority.values())
+		{
+			final ArrayDeque<ClientThreadTask> queue = ready[priority.ordinal()];
+			// tasks which are re-queued below are not run again until the next frame
+			for (int n = queue.size(); n > 0; --n)
 			{
-				remove = r.getAsBoolean();
+				// always run at least one budgeted task so a frame which is over budget still makes progress
+				if (priority != Priority.HIGH && ranBudgeted && System.nanoTime() - deadline >= 0)
+				{
+					overrun = Math.min(System.nanoTime() - deadline, frameBudget);
+					return;
+				}
+
+				ClientThreadTask task = queue.poll();
+				if (task.isCancelled())
+				{
+					continue;
+				}
+
+				ranBudgeted |= priority != Priority.HIGH;
+				if (!run(task))
+				{
+					queue.add(task);
+				}
 			}
-			catch (ThreadDeath d)
+		}
+
+		overrun = Math.max(0, Math.min(System.nanoTime() - deadline, frameBudget));
+	}
+
+	private void sortSubmitted()
+	{
+		for (ClientThreadTask task; (task = submitted.poll()) != null; )
+		{
+			if (task.getTicks() > 0)
 			{
-				throw d;
+				waitingForTick.add(task);
 			}
-			catch (Throwable e)
+			else if (task.isDelayed())
 			{
-				log.warn("Exception in invoke", e);
+				delayed.add(task);
 			}
-			if (remove)
+			else
 			{
-				ir.remove();
+				ready[task.getPriority().ordinal()].add(task);
 			}
 		}
 	}
+
+	private static boolean run(ClientThreadTask task)
+	{
+		boolean done;
+		try
+		{
+			done = task.run();
+		}
+		catch (ThreadDeath d)
+		{
+			throw d;
+		}
+		catch (Throwable e)
+		{
+			log.warn("Exception in invoke", e);
+			return true;
+		}
+
+		if (!done && task.getRuns() == SPIN_WARNING_RUNS)
+		{
+			log.warn("Task from {} has been re-run {} times without finishing", task.getName(), SPIN_WARNING_RUNS);
+		}
+
+		return done;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static ArrayDeque<ClientThreadTask>[] newQueues()
+	{
+		final ArrayDeque<ClientThreadTask>[] queues = new ArrayDeque[Priority.values().length];
+		for (int i = 0; i < queues.length; ++i)
+		{
+			queues[i] = new ArrayDeque<>();
+		}
+		return queues;
+	}
 }
@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) 2019, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.callback;
+
+import java.util.function.BooleanSupplier;
+import lombok.AccessLevel;
+import lombok.Getter;
+
+/**
+ * A task scheduled on the {@link ClientThread}. It can be used to cancel the task,
+ * and to see how often it has run and for how long.
+ */
+@Getter
+public class ClientThreadTask
+{
+	// what the task was created from, to name it
+	@Getter(AccessLevel.NONE)
+	private final Object source;
+	@Getter(AccessLevel.NONE)
+	private final BooleanSupplier task;
+	private final ClientThread.Priority priority;
+
+	private volatile boolean cancelled;
+	private volatile boolean done;
+
+	// the fields below are only written by the client thread
+	/**
+	 * number of times the task has run. The task is re-run each frame until it returns true.
+	 */
+	private volatile int runs;
+	private volatile long totalNanos;
+	private volatile long maxNanos;
+
+	@Getter(AccessLevel.PACKAGE)
+	private final boolean delayed;
+
+	/**
+	 * {@link System#nanoTime()} at which a delayed task becomes ready
+	 */
+	@Getter(AccessLevel.PACKAGE)
+	private final long runAt;
+
+	/**
+	 * number of game ticks to wait before the task becomes ready
+	 */
+	@Getter(AccessLevel.PACKAGE)
+	private int ticks;
+
+	ClientThreadTask(Object source, BooleanSupplier task, ClientThread.Priority priority, boolean delayed, long runAt, int ticks)
+	{
+		this.source = source;
+		this.task = task;
+		this.priority = priority;
+		this.delayed = delayed;
+		this.runAt = runAt;
+		this.ticks = ticks;
+	}
+
+	/**
+	 * Cancel the task. It is not run again, though it may be running right now on the client thread.
+	 */
+	public void cancel()
+	{
+		cancelled = true;
+	}
+
+	/**
+	 * @return the name of the class the task was created in
+	 */
+	public String getName()
+	{
+		String name = source.getClass().getName();
+		int lambda = name.indexOf("$$Lambda$");
+		return lambda == -1 ? name : name.substring(0, lambda);
+	}
+
+	int tick()
+	{
+		return --ticks;
+	}
+
+	/**
+	 * Run the task once
+	 *
+	 * @return true if the task is finished
+	 */
+	boolean run()
+	{
+		final long start = System.nanoTime();
+		// a task which throws is not run again
+		boolean finished = true;
+		try
+		{
+			finished = task.getAsBoolean();
+		}
+		finally
+		{
+			final long nanos = System.nanoTime() - start;
+			done = finished;
+			runs++;
+			totalNanos += nanos;
+			maxNanos = Math.max(maxNanos, nanos);
+		}
+		return done;
+	}
+}
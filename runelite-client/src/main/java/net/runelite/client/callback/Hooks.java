@@ -145,6 +145,8 @@ public class Hooks implements Callbacks
 
 			deferredEventBus.replay();
 
+			clientThread.tick();
+
 			eventBus.post(GAME_TICK);
 
 			int tick = client.getTickCount();
@@ -24,11 +24,19 @@
  */
 package net.runelite.client.config;
 
+import java.awt.Dimension;
+import java.awt.Point;
+import java.awt.Rectangle;
+import java.lang.invoke.MethodHandle;
 import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 import lombok.extern.slf4j.Slf4j;
 
 @Slf4j
@@ -36,62 +44,61 @@ class ConfigInvocationHandler implements InvocationHandler
 {
 	private final ConfigManager manager;
 
+	/**
+	 * Config item of each config method, resolved on its first call
+	 */
+	private final Map<Method, ConfigItemAccessor> accessors = new ConcurrentHashMap<>();
+
+	/**
+	 * Incremented on every configuration change, which invalidates all cached values
+	 */
+	private final AtomicLong version = new AtomicLong();
+
 	public ConfigInvocationHandler(ConfigManager manager)
 	{
 		this.manager = manager;
 	}
 
+	/**
+	 * Invalidate the cached values of all config getters. Must be called when
+	 * the configuration changes, before {@link net.runelite.api.events.ConfigChanged} is posted.
+	 */
+	void invalidate()
+	{
+		version.incrementAndGet();
+	}
+
 	@Override
 	public Object invoke(Object proxy, Method method, Object[] args) throws Throwable
 	{
-		Class<?> iface = proxy.getClass().getInterfaces()[0];
-
-		ConfigGroup group = iface.getAnnotation(ConfigGroup.class);
-		ConfigItem item = method.getAnnotation(ConfigItem.class);
-
-		if (group == null)
+		ConfigItemAccessor accessor = accessors.get(method);
+		if (accessor == null)
 		{
-			log.warn("Configuration proxy class {} has no @ConfigGroup!", proxy.getClass());
-			return null;
-		}
+			accessor = resolve(proxy, method);
+			if (accessor == null)
+			{
+				return null;
+			}
 
-		if (item == null)
-		{
-			log.warn("Configuration method {} has no @ConfigItem!", method);
-			return null;
+			accessors.put(method, accessor);
 		}
 
 		if (args == null)
 		{
 			// Getting configuration item
-			String value = manager.getConfiguration(group.value(), item.keyName());
-
-			if (value == null)
+			final long version = this.version.get();
+			final CachedValue cached = accessor.cached;
+			if (cached != null && cached.version == version)
 			{
-				if (method.isDefault())
-				{
-					return callDefaultMethod(proxy, method, null);
-				}
-
-				return null;
+				return cached.value;
 			}
 
-			// Convert value to return type
-			Class<?> returnType = method.getReturnType();
-			
-			try
-			{
-				return ConfigManager.stringToObject(value, returnType);
-			}
-			catch (Exception e)
+			final Object value = getValue(proxy, accessor);
+			if (accessor.cacheable)
 			{
-				log.warn("Unable to unmarshal {}.{} ", group.value(), item.keyName(), e);
-				if (method.isDefault())
-				{
-					return callDefaultMethod(proxy, method, null);
-				}
-				return null;
+				accessor.cached = new CachedValue(version, value);
 			}
+			return value;
 		}
 		else
 		{
@@ -105,7 +112,7 @@ class ConfigInvocationHandler implements InvocationHandler
 			Object newValue = args[0];
 
 			Class<?> type = method.getParameterTypes()[0];
-			Object oldValue = manager.getConfiguration(group.value(), item.keyName(), type);
+			Object oldValue = manager.getConfiguration(accessor.group, accessor.key, type);
 
 			if (Objects.equals(oldValue, newValue))
 			{
@@ -120,25 +127,100 @@ class ConfigInvocationHandler implements InvocationHandler
 				if (Objects.equals(newValue, defaultValue))
 				{
 					// Just unset if it goes back to the default
-					manager.unsetConfiguration(group.value(), item.keyName());
+					manager.unsetConfiguration(accessor.group, accessor.key);
 					return null;
 				}
 			}
 
 			if (newValue == null)
 			{
-				manager.unsetConfiguration(group.value(), item.keyName());
+				manager.unsetConfiguration(accessor.group, accessor.key);
 			}
 			else
 			{
 				String newValueStr = ConfigManager.objectToString(newValue);
-				manager.setConfiguration(group.value(), item.keyName(), newValueStr);
+				manager.setConfiguration(accessor.group, accessor.key, newValueStr);
 			}
 			return null;
 		}
 	}
 
+	private Object getValue(Object proxy, ConfigItemAccessor accessor) throws Throwable
+	{
+		String value = manager.getConfiguration(accessor.group, accessor.key);
+
+		if (value == null)
+		{
+			if (accessor.defaultMethod != null)
+			{
+				return accessor.defaultMethod.invokeExact(proxy);
+			}
+
+			return null;
+		}
+
+		// Convert value to return type
+		try
+		{
+			return ConfigManager.stringToObject(value, accessor.type);
+		}
+		catch (Exception e)
+		{
+			log.warn("Unable to unmarshal {}.{} ", accessor.group, accessor.key, e);
+			if (accessor.defaultMethod != null)
+			{
+				return accessor.defaultMethod.invokeExact(proxy);
+			}
+			return null;
+		}
+	}
+
+	private static ConfigItemAccessor resolve(Object proxy, Method method) throws ReflectiveOperationException
+	{
+		Class<?> iface = proxy.getClass().getInterfaces()[0];
+
+		ConfigGroup group = iface.getAnnotation(ConfigGroup.class);
+		ConfigItem item = method.getAnnotation(ConfigItem.class);
+
+		if (group == null)
+		{
+			log.warn("Configuration proxy class {} has no @ConfigGroup!", proxy.getClass());
+			return null;
+		}
+
+		if (item == null)
+		{
+			log.warn("Configuration method {} has no @ConfigItem!", method);
+			return null;
+		}
+
+		Class<?> type = method.getReturnType();
+		MethodHandle defaultMethod = null;
+		if (method.isDefault() && method.getParameterCount() == 0)
+		{
+			defaultMethod = unreflectDefaultMethod(method)
+				.asType(MethodType.methodType(Object.class, Object.class));
+		}
+
+		return new ConfigItemAccessor(group.value(), item.keyName(), type, defaultMethod, isImmutable(type));
+	}
+
+	/**
+	 * Values of these types are shared between callers once cached, so mutable types are not cached
+	 */
+	private static boolean isImmutable(Class<?> type)
+	{
+		return type != Dimension.class && type != Point.class && type != Rectangle.class;
+	}
+
 	static Object callDefaultMethod(Object proxy, Method method, Object[] args) throws Throwable
+	{
+		return unreflectDefaultMethod(method)
+			.bindTo(proxy)
+			.invokeWithArguments(args);
+	}
+
+	private static MethodHandle unreflectDefaultMethod(Method method) throws ReflectiveOperationException
 	{
 		// Call the default method implementation - https://rmannibucau.wordpress.com/2014/03/27/java-8-default-interface-methods-and-jdk-dynamic-proxies/
 		Constructor<MethodHandles.Lookup> constructor = MethodHandles.Lookup.class.getDeclaredConstructor(Class.class, int.class);
@@ -146,8 +228,38 @@ class ConfigInvocationHandler implements InvocationHandler
 
 		Class<?> declaringClass = method.getDeclaringClass();
 		return constructor.newInstance(declaringClass, MethodHandles.Lookup.PUBLIC | MethodHandles.Lookup.PRIVATE)
-			.unreflectSpecial(method, declaringClass)
-			.bindTo(proxy)
-			.invokeWithArguments(args);
+			.unreflectSpecial(method, declaringClass);
+	}
+
+	private static class ConfigItemAccessor
+	{
+		private final String group;
+		private final String key;
+		private final Class<?> type;
+		private final MethodHandle defaultMethod;
+		private final boolean cacheable;
+
+		private volatile CachedValue cached;
+
+		ConfigItemAccessor(String group, String key, Class<?> type, MethodHandle defaultMethod, boolean cacheable)
+		{
+			this.group = group;
+			this.key = key;
+			this.type = type;
+			this.defaultMethod = defaultMethod;
+			this.cacheable = cacheable;
+		}
+	}
+
+	private static class CachedValue
+	{
+		private final long version;
+		private final Object value;
+
+		CachedValue(long version, Object value)
+		{
+			this.version = version;
+			this.value = value;
+		}
 	}
 }
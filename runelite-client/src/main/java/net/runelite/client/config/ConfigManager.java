@@ -47,6 +47,7 @@ import java.text.DateFormat;
 import java.text.SimpleDateFormat;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Date;
 import java.util.HashMap;
@@ -168,6 +169,7 @@ public class ConfigManager
 		}
 
 		properties.clear();
+		handler.invalidate();
 
 		for (ConfigEntry entry : configuration.getConfig())
 		{
@@ -183,6 +185,7 @@ public class ConfigManager
 			final String key = split[1];
 			final String value = entry.getValue();
 			final String oldValue = (String) properties.setProperty(entry.getKey(), value);
+			handler.invalidate();
 
 			ConfigChanged configChanged = new ConfigChanged();
 			configChanged.setGroup(groupName);
@@ -276,10 +279,12 @@ public class ConfigManager
 	private synchronized void loadFromFile()
 	{
 		properties.clear();
+		handler.invalidate();
 
 		try (FileInputStream in = new FileInputStream(propertiesFile))
 		{
 			properties.load(new InputStreamReader(in, Charset.forName("UTF-8")));
+			handler.invalidate();
 		}
 		catch (FileNotFoundException ex)
 		{
@@ -392,6 +397,8 @@ public class ConfigManager
 
 		log.debug("Setting configuration value for {}.{} to {}", groupName, key, value);
 
+		handler.invalidate();
+
 		synchronized (pendingChanges)
 		{
 			pendingChanges.put(groupName + "." + key, value);
@@ -422,6 +429,8 @@ public class ConfigManager
 
 		log.debug("Unsetting configuration value for {}.{}", groupName, key);
 
+		handler.invalidate();
+
 		synchronized (pendingChanges)
 		{
 			pendingChanges.put(groupName + "." + key, null);
@@ -656,22 +665,21 @@ public class ConfigManager
 		boolean changed;
 		synchronized (pendingChanges)
 		{
-			if (client != null)
+			if (client != null && !pendingChanges.isEmpty())
 			{
+				List<ConfigEntry> entries = new ArrayList<>(pendingChanges.size());
 				for (Map.Entry<String, String> entry : pendingChanges.entrySet())
 				{
-					String key = entry.getKey();
 					String value = entry.getValue();
 
-					if (Strings.isNullOrEmpty(value))
-					{
-						client.unset(key);
-					}
-					else
-					{
-						client.set(key, value);
-					}
+					ConfigEntry configEntry = new ConfigEntry();
+					configEntry.setKey(entry.getKey());
+					// a null value unsets the key
+					configEntry.setValue(Strings.isNullOrEmpty(value) ? null : value);
+					entries.add(configEntry);
 				}
+
+				client.patch(new Configuration(entries));
 			}
 			changed = !pendingChanges.isEmpty();
 			pendingChanges.clear();
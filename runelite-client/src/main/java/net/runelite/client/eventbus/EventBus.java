@@ -26,9 +26,8 @@
 package net.runelite.client.eventbus;
 
 import com.google.common.base.Preconditions;
-import com.google.common.collect.HashMultimap;
-import com.google.common.collect.ImmutableMultimap;
-import com.google.common.collect.Multimap;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ObjectArrays;
 import java.lang.invoke.CallSite;
 import java.lang.invoke.LambdaMetafactory;
 import java.lang.invoke.MethodHandle;
@@ -38,12 +37,17 @@ import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.function.Consumer;
 import javax.annotation.Nonnull;
 import javax.annotation.concurrent.ThreadSafe;
-import lombok.EqualsAndHashCode;
+import lombok.Getter;
 import lombok.RequiredArgsConstructor;
-import lombok.Value;
+import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 
 @Slf4j
@@ -57,14 +61,20 @@ public class EventBus
 		void invoke(Object event);
 	}
 
-	@Value
+	@RequiredArgsConstructor
+	@Getter
 	private static class Subscriber
 	{
 		private final Object object;
 		private final Method method;
-		@EqualsAndHashCode.Exclude
 		private final SubscriberMethod lamda;
 
+		// only updated while profiling. Events posted from several threads at once may lose counts,
+		// which is fine for profiling
+		private long invocations;
+		private long totalNanos;
+		private long maxNanos;
+
 		void invoke(final Object arg) throws Exception
 		{
 			if (lamda != null)
@@ -76,10 +86,41 @@ public class EventBus
 				method.invoke(object, arg);
 			}
 		}
+
+		void record(long nanos)
+		{
+			invocations++;
+			totalNanos += nanos;
+			maxNanos = Math.max(maxNanos, nanos);
+		}
+
+		void reset()
+		{
+			invocations = totalNanos = maxNanos = 0;
+		}
+
+		SubscriberStats toStats(Class<?> eventType)
+		{
+			return new SubscriberStats(eventType, object.getClass().getSimpleName() + "." + method.getName(),
+				invocations, totalNanos, maxNanos);
+		}
 	}
 
 	private final Consumer<Throwable> exceptionHandler;
-	private ImmutableMultimap<Class, Subscriber> subscribers = ImmutableMultimap.of();
+
+	/**
+	 * Subscribers of each event class, in the order they were registered. The map and the arrays
+	 * are never modified, register and unregister swap in a new map instead, so post only
+	 * needs a single lookup and no locking.
+	 */
+	private volatile Map<Class<?>, Subscriber[]> subscribers = ImmutableMap.of();
+
+	/**
+	 * Whether to record the invocation count and time of each subscriber
+	 */
+	@Getter
+	@Setter
+	private volatile boolean profiling;
 
 	/**
 	 * Instantiates EventBus with default exception handler
@@ -98,12 +139,7 @@ public class EventBus
 	 */
 	public synchronized void register(@Nonnull final Object object)
 	{
-		final ImmutableMultimap.Builder<Class, Subscriber> builder = ImmutableMultimap.builder();
-
-		if (subscribers != null)
-		{
-			builder.putAll(subscribers);
-		}
+		final Map<Class<?>, List<Subscriber>> added = new LinkedHashMap<>();
 
 		for (Class<?> clazz = object.getClass(); clazz != null; clazz = clazz.getSuperclass())
 		{
@@ -161,12 +197,23 @@ public class EventBus
 				}
 
 				final Subscriber subscriber = new Subscriber(object, method, lambda);
-				builder.put(parameterClazz, subscriber);
-				log.debug("Registering {} - {}", parameterClazz, subscriber);
+				added.computeIfAbsent(parameterClazz, k -> new ArrayList<>()).add(subscriber);
+				log.debug("Registering {} - {}", parameterClazz, method);
 			}
 		}
 
-		subscribers = builder.build();
+		if (added.isEmpty())
+		{
+			return;
+		}
+
+		final Map<Class<?>, Subscriber[]> map = new HashMap<>(subscribers);
+		added.forEach((clazz, subs) ->
+		{
+			final Subscriber[] array = subs.toArray(new Subscriber[0]);
+			map.merge(clazz, array, (existing, a) -> ObjectArrays.concat(existing, a, Subscriber.class));
+		});
+		subscribers = ImmutableMap.copyOf(map);
 	}
 
 	/**
@@ -176,31 +223,44 @@ public class EventBus
 	 */
 	public synchronized void unregister(@Nonnull final Object object)
 	{
-		if (subscribers == null)
-		{
-			return;
-		}
-
-		final Multimap<Class, Subscriber> map = HashMultimap.create();
-		map.putAll(subscribers);
+		final Map<Class<?>, Subscriber[]> map = new HashMap<>();
+		boolean changed = false;
 
-		for (Class<?> clazz = object.getClass(); clazz != null; clazz = clazz.getSuperclass())
+		for (Map.Entry<Class<?>, Subscriber[]> entry : subscribers.entrySet())
 		{
-			for (final Method method : clazz.getDeclaredMethods())
-			{
-				final Subscribe sub = method.getAnnotation(Subscribe.class);
+			final Subscriber[] subs = entry.getValue();
+			final List<Subscriber> remaining = new ArrayList<>(subs.length);
 
-				if (sub == null)
+			for (Subscriber subscriber : subs)
+			{
+				if (subscriber.getObject().equals(object))
 				{
-					continue;
+					log.debug("Unregistering {} - {}", entry.getKey(), subscriber.getMethod());
+				}
+				else
+				{
+					remaining.add(subscriber);
 				}
+			}
 
-				final Class<?> parameterClazz = method.getParameterTypes()[0];
-				map.remove(parameterClazz, new Subscriber(object, method, null));
+			if (remaining.size() == subs.length)
+			{
+				map.put(entry.getKey(), subs);
+			}
+			else
+			{
+				changed = true;
+				if (!remaining.isEmpty())
+				{
+					map.put(entry.getKey(), remaining.toArray(new Subscriber[0]));
+				}
 			}
 		}
 
-		subscribers = ImmutableMultimap.copyOf(map);
+		if (changed)
+		{
+			subscribers = ImmutableMap.copyOf(map);
+		}
 	}
 
 	/**
@@ -211,7 +271,19 @@ public class EventBus
 	 */
 	public void post(@Nonnull final Object event)
 	{
-		for (final Subscriber subscriber : subscribers.get(event.getClass()))
+		final Subscriber[] subscribers = this.subscribers.get(event.getClass());
+		if (subscribers == null)
+		{
+			return;
+		}
+
+		if (profiling)
+		{
+			postProfiled(subscribers, event);
+			return;
+		}
+
+		for (final Subscriber subscriber : subscribers)
 		{
 			try
 			{
@@ -224,6 +296,58 @@ public class EventBus
 		}
 	}
 
+	private void postProfiled(final Subscriber[] subscribers, final Object event)
+	{
+		for (final Subscriber subscriber : subscribers)
+		{
+			final long start = System.nanoTime();
+			try
+			{
+				subscriber.invoke(event);
+			}
+			catch (Exception e)
+			{
+				exceptionHandler.accept(e);
+			}
+			subscriber.record(System.nanoTime() - start);
+		}
+	}
+
+	/**
+	 * Get the invocation count and time of each subscriber recorded while profiling
+	 *
+	 * @return stats of every subscriber which has been invoked
+	 */
+	public List<SubscriberStats> getSubscriberStats()
+	{
+		final List<SubscriberStats> stats = new ArrayList<>();
+		for (Map.Entry<Class<?>, Subscriber[]> entry : subscribers.entrySet())
+		{
+			for (Subscriber subscriber : entry.getValue())
+			{
+				if (subscriber.getInvocations() > 0)
+				{
+					stats.add(subscriber.toStats(entry.getKey()));
+				}
+			}
+		}
+		return stats;
+	}
+
+	/**
+	 * Reset the recorded invocation counts and times of all subscribers
+	 */
+	public void resetSubscriberStats()
+	{
+		for (Subscriber[] subs : subscribers.values())
+		{
+			for (Subscriber subscriber : subs)
+			{
+				subscriber.reset();
+			}
+		}
+	}
+
 	private static MethodHandles.Lookup privateLookupIn(Class clazz) throws IllegalAccessException, NoSuchFieldException, InvocationTargetException
 	{
 		try
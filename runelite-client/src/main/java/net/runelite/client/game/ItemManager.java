@@ -33,6 +33,7 @@ import java.awt.image.BufferedImage;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ExecutionException;
@@ -56,6 +57,7 @@ import net.runelite.client.callback.ClientThread;
 import net.runelite.client.eventbus.Subscribe;
 import net.runelite.http.api.item.ItemClient;
 import net.runelite.http.api.item.ItemPrice;
+import net.runelite.http.api.item.ItemPrices;
 import net.runelite.http.api.item.ItemStats;
 
 @Singleton
@@ -84,6 +86,7 @@ public class ItemManager
 
 	private final ItemClient itemClient = new ItemClient();
 	private Map<Integer, ItemPrice> itemPrices = Collections.emptyMap();
+	private String pricesEtag;
 	private Map<Integer, ItemStats> itemStats = Collections.emptyMap();
 	private final LoadingCache<ImageKey, AsyncBufferedImage> itemImages;
 	private final LoadingCache<Integer, ItemComposition> itemCompositions;
@@ -203,15 +206,20 @@ public class ItemManager
 	{
 		try
 		{
-			ItemPrice[] prices = itemClient.getPrices();
-			if (prices != null)
+			ItemPrices prices = itemClient.getPrices(pricesEtag);
+			if (prices != null && prices.getPrices() != null)
 			{
-				ImmutableMap.Builder<Integer, ItemPrice> map = ImmutableMap.builderWithExpectedSize(prices.length);
-				for (ItemPrice price : prices)
+				Map<Integer, ItemPrice> map = new HashMap<>();
+				if (prices.isDelta())
+				{
+					map.putAll(itemPrices);
+				}
+				for (ItemPrice price : prices.getPrices())
 				{
 					map.put(price.getId(), price);
 				}
-				itemPrices = map.build();
+				itemPrices = ImmutableMap.copyOf(map);
+				pricesEtag = prices.getEtag();
 			}
 
 			log.debug("Loaded {} prices", itemPrices.size());
@@ -27,7 +27,6 @@ package net.runelite.client.menus;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.HashMultimap;
 import com.google.common.collect.Multimap;
-import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -38,7 +37,7 @@ import javax.inject.Singleton;
 import lombok.extern.slf4j.Slf4j;
 import net.runelite.api.Client;
 import net.runelite.api.MenuAction;
-import net.runelite.api.MenuEntry;
+import net.runelite.api.Menu;
 import net.runelite.api.NPCComposition;
 import net.runelite.api.events.MenuEntryAdded;
 import net.runelite.api.events.MenuOptionClicked;
@@ -99,41 +98,24 @@ public class MenuManager
 		managedMenuOptions.remove(widget.getId(), customMenuOption);
 	}
 
-	private boolean menuContainsCustomMenu(WidgetMenuOption customMenuOption)
-	{
-		for (MenuEntry menuEntry : client.getMenuEntries())
-		{
-			String option = menuEntry.getOption();
-			String target = menuEntry.getTarget();
-
-			if (option.equals(customMenuOption.getMenuOption()) && target.equals(customMenuOption.getMenuTarget()))
-			{
-				return true;
-			}
-		}
-		return false;
-	}
-
 	@Subscribe
 	public void onMenuEntryAdded(MenuEntryAdded event)
 	{
 		int widgetId = event.getActionParam1();
 		Collection<WidgetMenuOption> options = managedMenuOptions.get(widgetId);
 
+		if (options.isEmpty())
+		{
+			return;
+		}
+
+		Menu menu = client.getMenu();
 		for (WidgetMenuOption currentMenu : options)
 		{
-			if (!menuContainsCustomMenu(currentMenu))//Don't add if we have already added it to this widget
+			//Don't add if we have already added it to this widget
+			if (menu.indexOf(currentMenu.getMenuOption(), currentMenu.getMenuTarget()) == -1)
 			{
-				MenuEntry[] menuEntries = client.getMenuEntries();
-				menuEntries = Arrays.copyOf(menuEntries, menuEntries.length + 1);
-
-				MenuEntry menuEntry = menuEntries[menuEntries.length - 1] = new MenuEntry();
-				menuEntry.setOption(currentMenu.getMenuOption());
-				menuEntry.setParam1(widgetId);
-				menuEntry.setTarget(currentMenu.getMenuTarget());
-				menuEntry.setType(MenuAction.RUNELITE.getId());
-
-				client.setMenuEntries(menuEntries);
+				menu.add(currentMenu.getMenuOption(), currentMenu.getMenuTarget(), MenuAction.RUNELITE.getId(), 0, 0, widgetId);
 			}
 		}
 	}
@@ -30,7 +30,6 @@ import com.google.inject.Provides;
 import java.awt.event.KeyEvent;
 import java.awt.event.MouseWheelEvent;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Collection;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
@@ -41,7 +40,6 @@ import net.runelite.api.Item;
 import net.runelite.api.ItemComposition;
 import net.runelite.api.ItemContainer;
 import net.runelite.api.MenuAction;
-import net.runelite.api.MenuEntry;
 import net.runelite.api.VarClientInt;
 import net.runelite.api.VarClientStr;
 import net.runelite.api.events.ConfigChanged;
@@ -212,8 +210,6 @@ public class BankTagsPlugin extends Plugin implements MouseWheelListener, KeyLis
 	@Subscribe
 	public void onMenuEntryAdded(MenuEntryAdded event)
 	{
-		MenuEntry[] entries = client.getMenuEntries();
-
 		if (event.getActionParam1() == WidgetInfo.BANK_ITEM_CONTAINER.getId()
 			&& event.getOption().equals("Examine"))
 		{
@@ -228,16 +224,8 @@ public class BankTagsPlugin extends Plugin implements MouseWheelListener, KeyLis
 				text += " (" + tagCount + ")";
 			}
 
-			MenuEntry editTags = new MenuEntry();
-			editTags.setParam0(event.getActionParam0());
-			editTags.setParam1(event.getActionParam1());
-			editTags.setTarget(event.getTarget());
-			editTags.setOption(text);
-			editTags.setType(MenuAction.RUNELITE.getId());
-			editTags.setIdentifier(event.getIdentifier());
-			entries = Arrays.copyOf(entries, entries.length + 1);
-			entries[entries.length - 1] = editTags;
-			client.setMenuEntries(entries);
+			client.getMenu().add(text, event.getTarget(), MenuAction.RUNELITE.getId(),
+				event.getIdentifier(), event.getActionParam0(), event.getActionParam1());
 		}
 
 		tabInterface.handleAdd(event);
@@ -35,9 +35,9 @@ import net.runelite.api.Actor;
 import net.runelite.api.ChatMessageType;
 import net.runelite.api.Client;
 import net.runelite.api.GameState;
+import net.runelite.api.Menu;
 import net.runelite.api.MenuAction;
 import static net.runelite.api.MenuAction.MENU_ACTION_DEPRIORITIZE_OFFSET;
-import net.runelite.api.MenuEntry;
 import net.runelite.api.NPC;
 import net.runelite.api.NpcID;
 import net.runelite.api.Varbits;
@@ -242,10 +242,7 @@ public class CorpPlugin extends Plugin
 		}
 
 		// since this is the menu entry add event, this is the last menu entry
-		MenuEntry[] menuEntries = client.getMenuEntries();
-		MenuEntry menuEntry = menuEntries[menuEntries.length - 1];
-
-		menuEntry.setType(NPC_SECTION_ACTION + MENU_ACTION_DEPRIORITIZE_OFFSET);
-		client.setMenuEntries(menuEntries);
+		Menu menu = client.getMenu();
+		menu.setType(menu.size() - 1, NPC_SECTION_ACTION + MENU_ACTION_DEPRIORITIZE_OFFSET);
 	}
 }
@@ -39,15 +39,17 @@ class DevToolsPanel extends PluginPanel
 
 	private final WidgetInspector widgetInspector;
 	private final VarInspector varInspector;
+	private final EventProfiler eventProfiler;
 
 	@Inject
-	private DevToolsPanel(Client client, DevToolsPlugin plugin, WidgetInspector widgetInspector, VarInspector varInspector)
+	private DevToolsPanel(Client client, DevToolsPlugin plugin, WidgetInspector widgetInspector, VarInspector varInspector, EventProfiler eventProfiler)
 	{
 		super();
 		this.client = client;
 		this.plugin = plugin;
 		this.widgetInspector = widgetInspector;
 		this.varInspector = varInspector;
+		this.eventProfiler = eventProfiler;
 
 		setBackground(ColorScheme.DARK_GRAY_COLOR);
 
@@ -119,6 +121,19 @@ class DevToolsPanel extends PluginPanel
 			}
 		});
 
+		container.add(plugin.getEventProfiler());
+		plugin.getEventProfiler().addActionListener((ev) ->
+		{
+			if (plugin.getEventProfiler().isActive())
+			{
+				eventProfiler.close();
+			}
+			else
+			{
+				eventProfiler.open();
+			}
+		});
+
 		return container;
 	}
 }
@@ -36,8 +36,8 @@ import lombok.Getter;
 import net.runelite.api.ChatMessageType;
 import net.runelite.api.Client;
 import net.runelite.api.Experience;
+import net.runelite.api.Menu;
 import net.runelite.api.MenuAction;
-import net.runelite.api.MenuEntry;
 import net.runelite.api.NPC;
 import net.runelite.api.Player;
 import net.runelite.api.Skill;
@@ -124,6 +124,7 @@ public class DevToolsPlugin extends Plugin
 	private DevToolsButton detachedCamera;
 	private DevToolsButton widgetInspector;
 	private DevToolsButton varInspector;
+	private DevToolsButton eventProfiler;
 	private NavigationButton navButton;
 
 	@Provides
@@ -164,6 +165,7 @@ public class DevToolsPlugin extends Plugin
 		detachedCamera = new DevToolsButton("Detached Camera");
 		widgetInspector = new DevToolsButton("Widget Inspector");
 		varInspector = new DevToolsButton("Var Inspector");
+		eventProfiler = new DevToolsButton("Event Profiler");
 
 		overlayManager.add(overlay);
 		overlayManager.add(locationOverlay);
@@ -326,8 +328,8 @@ public class DevToolsPlugin extends Plugin
 
 		if (EXAMINE_MENU_ACTIONS.contains(action))
 		{
-			MenuEntry[] entries = client.getMenuEntries();
-			MenuEntry entry = entries[entries.length - 1];
+			Menu menu = client.getMenu();
+			int last = menu.size() - 1;
 
 			final int identifier = event.getIdentifier();
 			String info = "ID: ";
@@ -343,13 +345,12 @@ public class DevToolsPlugin extends Plugin
 
 				if (action == MenuAction.EXAMINE_OBJECT)
 				{
-					WorldPoint point = WorldPoint.fromScene(client, entry.getParam0(), entry.getParam1(), client.getPlane());
+					WorldPoint point = WorldPoint.fromScene(client, menu.getParam0(last), menu.getParam1(last), client.getPlane());
 					info += " X: " + point.getX() + " Y: " + point.getY();
 				}
 			}
 
-			entry.setTarget(entry.getTarget() + " " + ColorUtil.prependColorTag("(" + info + ")", JagexColors.MENU_TARGET));
-			client.setMenuEntries(entries);
+			menu.setTarget(last, menu.getTarget(last) + " " + ColorUtil.prependColorTag("(" + info + ")", JagexColors.MENU_TARGET));
 		}
 	}
 }
@@ -0,0 +1,202 @@
+/*
+ * Copyright (c) 2019, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.plugins.devtools;
+
+import com.google.inject.Inject;
+import java.awt.BorderLayout;
+import java.awt.Dimension;
+import java.awt.FlowLayout;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.util.ArrayList;
+import java.util.List;
+import javax.swing.JButton;
+import javax.swing.JFrame;
+import javax.swing.JPanel;
+import javax.swing.JScrollPane;
+import javax.swing.JTable;
+import javax.swing.RowSorter;
+import javax.swing.SortOrder;
+import javax.swing.Timer;
+import javax.swing.table.AbstractTableModel;
+import javax.swing.table.TableRowSorter;
+import net.runelite.client.eventbus.EventBus;
+import net.runelite.client.eventbus.SubscriberStats;
+import net.runelite.client.ui.ClientUI;
+
+/**
+ * Shows the invocation count and time of every event subscriber, to find which subscribers
+ * use the most of each frame
+ */
+class EventProfiler extends JFrame
+{
+	private static final int REFRESH_INTERVAL = 1000; // ms
+
+	private static final String[] COLUMNS = {"Subscriber", "Event", "Calls", "Total (ms)", "Avg (us)", "Max (us)"};
+	private static final int COL_TOTAL = 3;
+
+	private final EventBus eventBus;
+	private final StatsTableModel tableModel = new StatsTableModel();
+	private final Timer refreshTimer;
+
+	@Inject
+	EventProfiler(EventBus eventBus, DevToolsPlugin plugin)
+	{
+		this.eventBus = eventBus;
+
+		setTitle("RuneLite Event Profiler");
+		setIconImage(ClientUI.ICON);
+
+		setLayout(new BorderLayout());
+
+		setDefaultCloseOperation(JFrame.DO_NOTHING_ON_CLOSE);
+		addWindowListener(new WindowAdapter()
+		{
+			@Override
+			public void windowClosing(WindowEvent e)
+			{
+				close();
+				plugin.getEventProfiler().setActive(false);
+			}
+		});
+
+		final JTable table = new JTable(tableModel);
+		final TableRowSorter<StatsTableModel> sorter = new TableRowSorter<>(tableModel);
+		final List<RowSorter.SortKey> sortKeys = new ArrayList<>();
+		sortKeys.add(new RowSorter.SortKey(COL_TOTAL, SortOrder.DESCENDING));
+		sorter.setSortKeys(sortKeys);
+		table.setRowSorter(sorter);
+
+		final JScrollPane scrollPane = new JScrollPane(table);
+		scrollPane.setPreferredSize(new Dimension(700, 400));
+		add(scrollPane, BorderLayout.CENTER);
+
+		final JPanel options = new JPanel();
+		options.setLayout(new FlowLayout());
+
+		final JButton resetBtn = new JButton("Reset");
+		resetBtn.addActionListener(e ->
+		{
+			eventBus.resetSubscriberStats();
+			refresh();
+		});
+		options.add(resetBtn);
+
+		add(options, BorderLayout.SOUTH);
+
+		refreshTimer = new Timer(REFRESH_INTERVAL, e -> refresh());
+
+		pack();
+	}
+
+	private void refresh()
+	{
+		tableModel.setStats(eventBus.getSubscriberStats());
+	}
+
+	public void open()
+	{
+		eventBus.resetSubscriberStats();
+		eventBus.setProfiling(true);
+		refreshTimer.start();
+		setVisible(true);
+		toFront();
+		repaint();
+	}
+
+	public void close()
+	{
+		refreshTimer.stop();
+		eventBus.setProfiling(false);
+		setVisible(false);
+	}
+
+	private static class StatsTableModel extends AbstractTableModel
+	{
+		private List<SubscriberStats> stats = new ArrayList<>();
+
+		void setStats(List<SubscriberStats> stats)
+		{
+			this.stats = stats;
+			fireTableDataChanged();
+		}
+
+		@Override
+		public String getColumnName(int col)
+		{
+			return COLUMNS[col];
+		}
+
+		@Override
+		public Class<?> getColumnClass(int col)
+		{
+			switch (col)
+			{
+				case 0:
+				case 1:
+					return String.class;
+				case 2:
+					return Long.class;
+				default:
+					return Double.class;
+			}
+		}
+
+		@Override
+		public int getColumnCount()
+		{
+			return COLUMNS.length;
+		}
+
+		@Override
+		public int getRowCount()
+		{
+			return stats.size();
+		}
+
+		@Override
+		public Object getValueAt(int rowIndex, int columnIndex)
+		{
+			SubscriberStats s = stats.get(rowIndex);
+			switch (columnIndex)
+			{
+				case 0:
+					return s.getSubscriber();
+				case 1:
+					return s.getEventType().getSimpleName();
+				case 2:
+					return s.getInvocations();
+				case 3:
+					return s.getTotalNanos() / 1_000_000.0;
+				case 4:
+					return s.getAverageNanos() / 1_000.0;
+				case 5:
+					return s.getMaxNanos() / 1_000.0;
+				default:
+					return null;
+			}
+		}
+	}
+}
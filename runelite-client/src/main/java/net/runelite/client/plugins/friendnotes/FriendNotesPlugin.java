@@ -28,7 +28,6 @@
 package net.runelite.client.plugins.friendnotes;
 
 import com.google.common.base.Strings;
-import com.google.common.collect.ObjectArrays;
 import java.awt.Color;
 import javax.annotation.Nullable;
 import javax.inject.Inject;
@@ -37,7 +36,6 @@ import lombok.extern.slf4j.Slf4j;
 import net.runelite.api.Client;
 import net.runelite.api.Friend;
 import net.runelite.api.MenuAction;
-import net.runelite.api.MenuEntry;
 import net.runelite.api.Nameable;
 import net.runelite.api.events.MenuEntryAdded;
 import net.runelite.api.events.MenuOptionClicked;
@@ -169,17 +167,10 @@ public class FriendNotesPlugin extends Plugin
 			// Friends have color tags
 			setHoveredFriend(Text.toJagexName(Text.removeTags(event.getTarget())));
 
-			// Build "Add Note" or "Edit Note" menu entry
-			final MenuEntry addNote = new MenuEntry();
-			addNote.setOption(hoveredFriend == null || hoveredFriend.getNote() == null ? ADD_NOTE : EDIT_NOTE);
-			addNote.setType(MenuAction.RUNELITE.getId());
-			addNote.setTarget(event.getTarget()); //Preserve color codes here
-			addNote.setParam0(event.getActionParam0());
-			addNote.setParam1(event.getActionParam1());
-
-			// Add menu entry
-			final MenuEntry[] menuEntries = ObjectArrays.concat(client.getMenuEntries(), addNote);
-			client.setMenuEntries(menuEntries);
+			// Add "Add Note" or "Edit Note" menu entry
+			final String option = hoveredFriend == null || hoveredFriend.getNote() == null ? ADD_NOTE : EDIT_NOTE;
+			client.getMenu().add(option, event.getTarget(), //Preserve color codes here
+				MenuAction.RUNELITE.getId(), 0, event.getActionParam0(), event.getActionParam1());
 		}
 		else if (hoveredFriend != null)
 		{
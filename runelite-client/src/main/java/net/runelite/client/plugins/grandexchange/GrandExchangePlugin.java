@@ -48,8 +48,8 @@ import net.runelite.api.GameState;
 import net.runelite.api.GrandExchangeOffer;
 import net.runelite.api.GrandExchangeOfferState;
 import net.runelite.api.ItemComposition;
+import net.runelite.api.Menu;
 import net.runelite.api.MenuAction;
-import net.runelite.api.MenuEntry;
 import net.runelite.api.events.ChatMessage;
 import net.runelite.api.events.ConfigChanged;
 import net.runelite.api.events.FocusChanged;
@@ -377,9 +377,9 @@ public class GrandExchangePlugin extends Plugin
 			return;
 		}
 
-		final MenuEntry[] entries = client.getMenuEntries();
-		final MenuEntry menuEntry = entries[entries.length - 1];
-		final int widgetId = menuEntry.getParam1();
+		final Menu menu = client.getMenu();
+		final int last = menu.size() - 1;
+		final int widgetId = menu.getParam1(last);
 		final int groupId = WidgetInfo.TO_GROUP(widgetId);
 
 		switch (groupId)
@@ -394,9 +394,8 @@ public class GrandExchangePlugin extends Plugin
 			case WidgetID.BANK_INVENTORY_GROUP_ID:
 			case WidgetID.GRAND_EXCHANGE_INVENTORY_GROUP_ID:
 			case WidgetID.SHOP_INVENTORY_GROUP_ID:
-				menuEntry.setOption(SEARCH_GRAND_EXCHANGE);
-				menuEntry.setType(MenuAction.RUNELITE.getId());
-				client.setMenuEntries(entries);
+				menu.setOption(last, SEARCH_GRAND_EXCHANGE);
+				menu.setType(last, MenuAction.RUNELITE.getId());
 		}
 	}
 
@@ -51,6 +51,7 @@ import net.runelite.api.Item;
 import net.runelite.api.ItemComposition;
 import net.runelite.api.ItemID;
 import net.runelite.api.ItemLayer;
+import net.runelite.api.Menu;
 import net.runelite.api.MenuAction;
 import net.runelite.api.MenuEntry;
 import net.runelite.api.Node;
@@ -460,8 +461,8 @@ public class GroundItemsPlugin extends Plugin
 				return;
 			}
 
-			MenuEntry[] menuEntries = client.getMenuEntries();
-			MenuEntry lastEntry = menuEntries[menuEntries.length - 1];
+			Menu menu = client.getMenu();
+			int last = menu.size() - 1;
 
 			int quantity = 1;
 			Node current = itemLayer.getBottom();
@@ -493,22 +494,20 @@ public class GroundItemsPlugin extends Plugin
 
 				if (mode == BOTH || mode == OPTION)
 				{
-					lastEntry.setOption(ColorUtil.prependColorTag("Take", color));
+					menu.setOption(last, ColorUtil.prependColorTag("Take", color));
 				}
 
 				if (mode == BOTH || mode == NAME)
 				{
-					String target = lastEntry.getTarget().substring(lastEntry.getTarget().indexOf(">") + 1);
-					lastEntry.setTarget(ColorUtil.prependColorTag(target, color));
+					String target = menu.getTarget(last).substring(menu.getTarget(last).indexOf(">") + 1);
+					menu.setTarget(last, ColorUtil.prependColorTag(target, color));
 				}
 			}
 
 			if (config.showMenuItemQuantities() && itemComposition.isStackable() && quantity > 1)
 			{
-				lastEntry.setTarget(lastEntry.getTarget() + " (" + quantity + ")");
+				menu.setTarget(last, menu.getTarget(last) + " (" + quantity + ")");
 			}
-
-			client.setMenuEntries(menuEntries);
 		}
 	}
 
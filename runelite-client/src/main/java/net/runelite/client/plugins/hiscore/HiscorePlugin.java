@@ -25,7 +25,6 @@
 package net.runelite.client.plugins.hiscore;
 
 import com.google.common.collect.ImmutableList;
-import com.google.common.collect.ObjectArrays;
 import com.google.inject.Provides;
 import java.awt.image.BufferedImage;
 import java.lang.reflect.InvocationTargetException;
@@ -38,8 +37,8 @@ import javax.inject.Provider;
 import javax.swing.SwingUtilities;
 import net.runelite.api.ChatMessageType;
 import net.runelite.api.Client;
+import net.runelite.api.Menu;
 import net.runelite.api.MenuAction;
-import net.runelite.api.MenuEntry;
 import net.runelite.api.events.ChatMessage;
 import net.runelite.api.events.ConfigChanged;
 import net.runelite.api.events.MenuEntryAdded;
@@ -54,7 +53,6 @@ import net.runelite.client.ui.ClientToolbar;
 import net.runelite.client.ui.NavigationButton;
 import net.runelite.client.util.ImageUtil;
 import net.runelite.client.util.Text;
-import org.apache.commons.lang3.ArrayUtils;
 
 @PluginDescriptor(
 	name = "HiScore",
@@ -186,15 +184,9 @@ public class HiscorePlugin extends Plugin
 				return;
 			}
 
-			final MenuEntry lookup = new MenuEntry();
-			lookup.setOption(LOOKUP);
-			lookup.setTarget(event.getTarget());
-			lookup.setType(MenuAction.RUNELITE.getId());
-			lookup.setParam0(event.getActionParam0());
-			lookup.setParam1(event.getActionParam1());
-			lookup.setIdentifier(event.getIdentifier());
-
-			insertMenuEntry(lookup, client.getMenuEntries());
+			final Menu menu = client.getMenu();
+			menu.insert(menu.size() - 1, LOOKUP, event.getTarget(), MenuAction.RUNELITE.getId(),
+				event.getIdentifier(), event.getActionParam0(), event.getActionParam1());
 		}
 	}
 
@@ -223,14 +215,6 @@ public class HiscorePlugin extends Plugin
 		}
 	}
 
-	private void insertMenuEntry(MenuEntry newEntry, MenuEntry[] entries)
-	{
-		MenuEntry[] newMenu = ObjectArrays.concat(entries, newEntry);
-		int menuEntryCount = newMenu.length;
-		ArrayUtils.swap(newMenu, menuEntryCount - 1, menuEntryCount - 2);
-		client.setMenuEntries(newMenu);
-	}
-
 	private void lookupPlayer(String playerName)
 	{
 		executor.execute(() ->
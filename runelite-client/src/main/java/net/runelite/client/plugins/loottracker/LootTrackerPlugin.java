@@ -32,6 +32,7 @@ import com.google.inject.Provides;
 import java.awt.image.BufferedImage;
 import java.io.IOException;
 import java.time.Instant;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
@@ -75,6 +76,7 @@ import net.runelite.client.game.ItemStack;
 import net.runelite.client.game.SpriteManager;
 import net.runelite.client.plugins.Plugin;
 import net.runelite.client.plugins.PluginDescriptor;
+import net.runelite.client.task.Schedule;
 import net.runelite.client.ui.ClientToolbar;
 import net.runelite.client.ui.NavigationButton;
 import net.runelite.client.util.ImageUtil;
@@ -101,6 +103,9 @@ public class LootTrackerPlugin extends Plugin
 	private static final String BRIMSTONE_CHEST_MESSAGE = "You find some treasure in the chest!";
 	private static final String BRIMSTONE_CHEST_EVENT_TYPE = "Brimstone Chest";
 
+	// Loot is submitted in batches, at most this often
+	private static final long SUBMIT_PERIOD_SECONDS = 60;
+
 	@Inject
 	private ClientToolbar clientToolbar;
 
@@ -136,6 +141,9 @@ public class LootTrackerPlugin extends Plugin
 	@Getter(AccessLevel.PACKAGE)
 	private LootTrackerClient lootTrackerClient;
 
+	// loot waiting to be submitted in the next batch
+	private final List<LootRecord> queuedLoot = new ArrayList<>();
+
 	private static Collection<ItemStack> stack(Collection<ItemStack> items)
 	{
 		final List<ItemStack> list = new ArrayList<>();
@@ -188,6 +196,7 @@ public class LootTrackerPlugin extends Plugin
 	@Subscribe
 	public void onSessionClose(SessionClose sessionClose)
 	{
+		submitLoot();
 		lootTrackerClient = null;
 	}
 
@@ -268,10 +277,45 @@ public class LootTrackerPlugin extends Plugin
 	@Override
 	protected void shutDown()
 	{
+		submitLoot();
 		clientToolbar.removeNavigation(navButton);
 		lootTrackerClient = null;
 	}
 
+	@Schedule(
+		period = SUBMIT_PERIOD_SECONDS,
+		unit = ChronoUnit.SECONDS,
+		asynchronous = true
+	)
+	public void submitLoot()
+	{
+		List<LootRecord> lootRecords;
+		synchronized (queuedLoot)
+		{
+			if (queuedLoot.isEmpty())
+			{
+				return;
+			}
+
+			lootRecords = new ArrayList<>(queuedLoot);
+			queuedLoot.clear();
+		}
+
+		LootTrackerClient lootClient = lootTrackerClient;
+		if (lootClient != null)
+		{
+			lootClient.submit(lootRecords);
+		}
+	}
+
+	private void queueLoot(LootRecord lootRecord)
+	{
+		synchronized (queuedLoot)
+		{
+			queuedLoot.add(lootRecord);
+		}
+	}
+
 	@Subscribe
 	public void onNpcLootReceived(final NpcLootReceived npcLootReceived)
 	{
@@ -285,7 +329,7 @@ public class LootTrackerPlugin extends Plugin
 		if (lootTrackerClient != null && config.saveLoot())
 		{
 			LootRecord lootRecord = new LootRecord(name, LootRecordType.NPC, toGameItems(items), Instant.now());
-			lootTrackerClient.submit(lootRecord);
+			queueLoot(lootRecord);
 		}
 	}
 
@@ -302,7 +346,7 @@ public class LootTrackerPlugin extends Plugin
 		if (lootTrackerClient != null && config.saveLoot())
 		{
 			LootRecord lootRecord = new LootRecord(name, LootRecordType.PLAYER, toGameItems(items), Instant.now());
-			lootTrackerClient.submit(lootRecord);
+			queueLoot(lootRecord);
 		}
 	}
 
@@ -361,7 +405,7 @@ public class LootTrackerPlugin extends Plugin
 		if (lootTrackerClient != null && config.saveLoot())
 		{
 			LootRecord lootRecord = new LootRecord(eventType, LootRecordType.EVENT, toGameItems(items), Instant.now());
-			lootTrackerClient.submit(lootRecord);
+			queueLoot(lootRecord);
 		}
 	}
 
@@ -453,7 +497,7 @@ public class LootTrackerPlugin extends Plugin
 			if (lootTrackerClient != null && config.saveLoot())
 			{
 				LootRecord lootRecord = new LootRecord(BRIMSTONE_CHEST_EVENT_TYPE, LootRecordType.EVENT, toGameItems(items), Instant.now());
-				lootTrackerClient.submit(lootRecord);
+				queueLoot(lootRecord);
 			}
 
 			inventorySnapshot = null;
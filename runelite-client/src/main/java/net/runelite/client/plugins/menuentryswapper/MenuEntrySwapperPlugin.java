@@ -34,6 +34,7 @@ import lombok.Setter;
 import net.runelite.api.Client;
 import net.runelite.api.GameState;
 import net.runelite.api.ItemComposition;
+import net.runelite.api.Menu;
 import net.runelite.api.MenuAction;
 import net.runelite.api.MenuEntry;
 import net.runelite.api.NPC;
@@ -593,13 +594,12 @@ public class MenuEntrySwapperPlugin extends Plugin
 		}
 	}
 
-	private int searchIndex(MenuEntry[] entries, String option, String target, boolean strict)
+	private int searchIndex(Menu menu, String option, String target, boolean strict)
 	{
-		for (int i = entries.length - 1; i >= 0; i--)
+		for (int i = menu.size() - 1; i >= 0; i--)
 		{
-			MenuEntry entry = entries[i];
-			String entryOption = Text.removeTags(entry.getOption()).toLowerCase();
-			String entryTarget = Text.removeTags(entry.getTarget()).toLowerCase();
+			String entryOption = Text.removeTags(menu.getOption(i)).toLowerCase();
+			String entryTarget = Text.removeTags(menu.getTarget(i)).toLowerCase();
 
 			if (strict)
 			{
@@ -622,18 +622,14 @@ public class MenuEntrySwapperPlugin extends Plugin
 
 	private void swap(String optionA, String optionB, String target, boolean strict)
 	{
-		MenuEntry[] entries = client.getMenuEntries();
+		Menu menu = client.getMenu();
 
-		int idxA = searchIndex(entries, optionA, target, strict);
-		int idxB = searchIndex(entries, optionB, target, strict);
+		int idxA = searchIndex(menu, optionA, target, strict);
+		int idxB = searchIndex(menu, optionB, target, strict);
 
 		if (idxA >= 0 && idxB >= 0)
 		{
-			MenuEntry entry = entries[idxA];
-			entries[idxA] = entries[idxB];
-			entries[idxB] = entry;
-
-			client.setMenuEntries(entries);
+			menu.swap(idxA, idxB);
 		}
 	}
 
@@ -31,7 +31,7 @@ import net.runelite.api.ClanMemberRank;
 import static net.runelite.api.ClanMemberRank.UNRANKED;
 import net.runelite.api.Client;
 import static net.runelite.api.MenuAction.*;
-import net.runelite.api.MenuEntry;
+import net.runelite.api.Menu;
 import net.runelite.api.Player;
 import net.runelite.api.events.MenuEntryAdded;
 import net.runelite.client.config.ConfigManager;
@@ -157,28 +157,26 @@ public class PlayerIndicatorsPlugin extends Plugin
 
 			if (image != -1 || color != null)
 			{
-				MenuEntry[] menuEntries = client.getMenuEntries();
-				MenuEntry lastEntry = menuEntries[menuEntries.length - 1];
+				Menu menu = client.getMenu();
+				int last = menu.size() - 1;
 
 				if (color != null && config.colorPlayerMenu())
 				{
 					// strip out existing <col...
-					String target = lastEntry.getTarget();
+					String target = menu.getTarget(last);
 					int idx = target.indexOf('>');
 					if (idx != -1)
 					{
 						target = target.substring(idx + 1);
 					}
 
-					lastEntry.setTarget(ColorUtil.prependColorTag(target, color));
+					menu.setTarget(last, ColorUtil.prependColorTag(target, color));
 				}
 
 				if (image != -1 && config.showClanRanks())
 				{
-					lastEntry.setTarget("<img=" + image + ">" + lastEntry.getTarget());
+					menu.setTarget(last, "<img=" + image + ">" + menu.getTarget(last));
 				}
-
-				client.setMenuEntries(menuEntries);
 			}
 		}
 	}
@@ -27,7 +27,6 @@ package net.runelite.client.plugins.worldhopper;
 
 import com.google.common.base.Stopwatch;
 import com.google.common.collect.ImmutableList;
-import com.google.common.collect.ObjectArrays;
 import com.google.inject.Provides;
 import java.awt.image.BufferedImage;
 import java.io.IOException;
@@ -53,8 +52,8 @@ import net.runelite.api.ClanMember;
 import net.runelite.api.Client;
 import net.runelite.api.Friend;
 import net.runelite.api.GameState;
+import net.runelite.api.Menu;
 import net.runelite.api.MenuAction;
-import net.runelite.api.MenuEntry;
 import net.runelite.api.Varbits;
 import net.runelite.api.events.ChatMessage;
 import net.runelite.api.events.ConfigChanged;
@@ -84,9 +83,11 @@ import net.runelite.client.util.Text;
 import net.runelite.client.util.WorldUtil;
 import net.runelite.http.api.worlds.World;
 import net.runelite.http.api.worlds.WorldClient;
+import net.runelite.http.api.worlds.WorldDelta;
+import net.runelite.http.api.worlds.WorldListener;
 import net.runelite.http.api.worlds.WorldResult;
 import net.runelite.http.api.worlds.WorldType;
-import org.apache.commons.lang3.ArrayUtils;
+import okhttp3.Call;
 
 @PluginDescriptor(
 	name = "World Hopper",
@@ -99,6 +100,7 @@ public class WorldHopperPlugin extends Plugin
 	private static final int WORLD_PING_TIMER = 10;
 	private static final int REFRESH_THROTTLE = 60_000;  // ms
 	private static final int TICK_THROTTLE = (int) Duration.ofMinutes(10).toMillis();
+	private static final int RESUBSCRIBE_DELAY = 30; // seconds
 
 	private static final int DISPLAY_SWITCHER_MAX_ATTEMPTS = 3;
 
@@ -149,6 +151,12 @@ public class WorldHopperPlugin extends Plugin
 	private Instant lastFetch;
 	private boolean firstRun;
 
+	private final WorldClient worldClient = new WorldClient();
+	private volatile boolean streamWorlds;
+	private Call worldSubscription;
+	// etag of the world list received from the world stream, if worldResult is from the stream
+	private String worldEtag;
+
 	private final HotkeyListener previousKeyListener = new HotkeyListener(() -> config.previousKey())
 	{
 		@Override
@@ -202,6 +210,9 @@ public class WorldHopperPlugin extends Plugin
 
 		worldResultFuture = executorService.scheduleAtFixedRate(this::tick, 0, WORLD_FETCH_TIMER, TimeUnit.MINUTES);
 
+		streamWorlds = true;
+		subscribeWorlds();
+
 		hopperExecutorService = new ExecutorServiceExceptionLogger(Executors.newSingleThreadScheduledExecutor());
 		pingFuture = hopperExecutorService.scheduleAtFixedRate(this::pingWorlds, WORLD_PING_TIMER, WORLD_PING_TIMER, TimeUnit.MINUTES);
 	}
@@ -217,7 +228,16 @@ public class WorldHopperPlugin extends Plugin
 
 		worldResultFuture.cancel(true);
 		worldResultFuture = null;
+
+		streamWorlds = false;
+		if (worldSubscription != null)
+		{
+			worldSubscription.cancel();
+			worldSubscription = null;
+		}
+
 		worldResult = null;
+		worldEtag = null;
 		lastFetch = null;
 
 		clientToolbar.removeNavigation(navButton);
@@ -350,30 +370,12 @@ public class WorldHopperPlugin extends Plugin
 				return;
 			}
 
-			final MenuEntry hopTo = new MenuEntry();
-			hopTo.setOption(HOP_TO);
-			hopTo.setTarget(event.getTarget());
-			hopTo.setType(MenuAction.RUNELITE.getId());
-			hopTo.setParam0(event.getActionParam0());
-			hopTo.setParam1(event.getActionParam1());
-
-			insertMenuEntry(hopTo, client.getMenuEntries(), after);
+			final Menu menu = client.getMenu();
+			menu.insert(after ? menu.size() - 1 : menu.size(), HOP_TO, event.getTarget(),
+				MenuAction.RUNELITE.getId(), 0, event.getActionParam0(), event.getActionParam1());
 		}
 	}
 
-	private void insertMenuEntry(MenuEntry newEntry, MenuEntry[] entries, boolean after)
-	{
-		MenuEntry[] newMenu = ObjectArrays.concat(entries, newEntry);
-
-		if (after)
-		{
-			int menuEntryCount = newMenu.length;
-			ArrayUtils.swap(newMenu, menuEntryCount - 1, menuEntryCount - 2);
-		}
-
-		client.setMenuEntries(newMenu);
-	}
-
 	@Subscribe
 	public void onPlayerMenuOptionClicked(PlayerMenuOptionClicked event)
 	{
@@ -467,6 +469,7 @@ public class WorldHopperPlugin extends Plugin
 			{
 				worldResult.getWorlds().sort(Comparator.comparingInt(World::getId));
 				this.worldResult = worldResult;
+				this.worldEtag = null;
 				this.lastFetch = Instant.now();
 				updateList();
 			}
@@ -477,6 +480,75 @@ public class WorldHopperPlugin extends Plugin
 		}
 	}
 
+	/**
+	 * Subscribe to the world stream, which sends the world list and then only the worlds
+	 * which change. While it is connected the polling in {@link #tick()} is throttled, and
+	 * it falls back to polling if the stream is unavailable.
+	 */
+	private void subscribeWorlds()
+	{
+		if (!streamWorlds)
+		{
+			return;
+		}
+
+		log.debug("Subscribing to worlds");
+
+		worldSubscription = worldClient.subscribe(worldEtag, new WorldListener()
+		{
+			@Override
+			public void onWorlds(String etag, WorldResult worldResult)
+			{
+				worldResult.getWorlds().sort(Comparator.comparingInt(World::getId));
+				WorldHopperPlugin.this.worldResult = worldResult;
+				worldEtag = etag;
+				lastFetch = Instant.now();
+				updateList();
+			}
+
+			@Override
+			public void onDelta(String etag, WorldDelta delta)
+			{
+				WorldResult current = worldResult;
+				if (current == null)
+				{
+					return;
+				}
+
+				worldResult = delta.applyTo(current);
+				worldEtag = etag;
+				lastFetch = Instant.now();
+
+				if (delta.isPlayersOnly())
+				{
+					// only update the player counts of the existing rows instead of rebuilding the table
+					final Map<Integer, Integer> players = delta.getPlayers();
+					SwingUtilities.invokeLater(() -> panel.updateListData(players));
+				}
+				else
+				{
+					updateList();
+				}
+			}
+
+			@Override
+			public void onClose(IOException ex)
+			{
+				if (!streamWorlds)
+				{
+					return;
+				}
+
+				if (ex != null)
+				{
+					log.debug("World stream closed", ex);
+				}
+
+				executorService.schedule(WorldHopperPlugin.this::subscribeWorlds, ex != null ? RESUBSCRIBE_DELAY : 1, TimeUnit.SECONDS);
+			}
+		});
+	}
+
 	/**
 	 * This method ONLY updates the list's UI, not the actual world list and data it displays.
 	 */
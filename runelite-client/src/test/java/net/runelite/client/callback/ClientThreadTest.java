@@ -0,0 +1,184 @@
+/*
+ * Copyright (c) 2019, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.callback;
+
+import com.google.inject.Guice;
+import com.google.inject.testing.fieldbinder.Bind;
+import com.google.inject.testing.fieldbinder.BoundFieldModule;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import javax.inject.Inject;
+import net.runelite.api.Client;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import static org.mockito.Mockito.when;
+import org.mockito.runners.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ClientThreadTest
+{
+	@Mock
+	@Bind
+	Client client;
+
+	@Inject
+	ClientThread clientThread;
+
+	private final List<String> runs = new ArrayList<>();
+
+	@Before
+	public void before()
+	{
+		Guice.createInjector(BoundFieldModule.of(this)).injectMembers(this);
+		when(client.isClientThread()).thenReturn(true);
+	}
+
+	private Runnable task(String name)
+	{
+		return () -> runs.add(name);
+	}
+
+	@Test
+	public void testInvoke()
+	{
+		clientThread.invoke(task("a"));
+		clientThread.invoke();
+		assertEquals(Arrays.asList("a"), runs);
+	}
+
+	@Test
+	public void testRerun()
+	{
+		int[] count = new int[1];
+		ClientThreadTask task = clientThread.invokeLater(() -> ++count[0] == 3, ClientThread.Priority.NORMAL);
+
+		clientThread.invoke();
+		clientThread.invoke();
+		assertEquals(2, count[0]);
+		assertEquals(false, task.isDone());
+
+		clientThread.invoke();
+		clientThread.invoke();
+		assertEquals(3, count[0]);
+		assertEquals(3, task.getRuns());
+		assertTrue(task.isDone());
+	}
+
+	@Test
+	public void testPriority()
+	{
+		clientThread.invokeLater(() ->
+		{
+			runs.add("low");
+			return true;
+		}, ClientThread.Priority.LOW);
+		clientThread.invokeLater(task("normal"));
+		clientThread.invokeLater(() ->
+		{
+			runs.add("high");
+			return true;
+		}, ClientThread.Priority.HIGH);
+
+		clientThread.invoke();
+		assertEquals(Arrays.asList("high", "normal", "low"), runs);
+	}
+
+	@Test
+	public void testBudget()
+	{
+		clientThread.setFrameBudget(0, TimeUnit.MILLISECONDS);
+		clientThread.invokeLater(task("a"));
+		clientThread.invokeLater(task("b"));
+		clientThread.invokeLater(() ->
+		{
+			runs.add("high");
+			return true;
+		}, ClientThread.Priority.HIGH);
+
+		// high priority tasks ignore the budget, then one more task runs per frame
+		clientThread.invoke();
+		assertEquals(Arrays.asList("high", "a"), runs);
+
+		clientThread.invoke();
+		assertEquals(Arrays.asList("high", "a", "b"), runs);
+	}
+
+	@Test
+	public void testCancel()
+	{
+		ClientThreadTask task = clientThread.invokeLater(() ->
+		{
+			runs.add("a");
+			return false;
+		}, ClientThread.Priority.NORMAL);
+
+		clientThread.invoke();
+		task.cancel();
+		clientThread.invoke();
+		assertEquals(Arrays.asList("a"), runs);
+	}
+
+	@Test
+	public void testTick()
+	{
+		clientThread.invokeOnTick(() ->
+		{
+			runs.add("a");
+			return true;
+		}, ClientThread.Priority.NORMAL, 2);
+
+		clientThread.invoke();
+		clientThread.tick();
+		clientThread.invoke();
+		assertTrue(runs.isEmpty());
+
+		clientThread.tick();
+		clientThread.invoke();
+		assertEquals(Arrays.asList("a"), runs);
+	}
+
+	@Test
+	public void testDelayed() throws InterruptedException
+	{
+		clientThread.invokeDelayed(() ->
+		{
+			runs.add("a");
+			return true;
+		}, ClientThread.Priority.NORMAL, 20, TimeUnit.MILLISECONDS);
+
+		clientThread.invoke();
+		assertTrue(runs.isEmpty());
+
+		Thread.sleep(30);
+		clientThread.invoke();
+		assertEquals(Arrays.asList("a"), runs);
+	}
+}
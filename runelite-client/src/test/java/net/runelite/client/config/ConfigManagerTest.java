@@ -109,4 +109,17 @@ public class ConfigManagerTest
 		ConfigDescriptor descriptor = manager.getConfigDescriptor(conf);
 		Assert.assertEquals(1, descriptor.getItems().size());
 	}
+
+	@Test
+	public void testGetConfigAfterChange()
+	{
+		TestConfig conf = manager.getConfig(TestConfig.class);
+		Assert.assertEquals("default", conf.key());
+
+		manager.setConfiguration("test", "key", "moo");
+		Assert.assertEquals("moo", conf.key());
+
+		manager.unsetConfiguration("test", "key");
+		Assert.assertEquals("default", conf.key());
+	}
 }
@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2019, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.eventbus;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+public class EventBusTest
+{
+	private static class TestEvent
+	{
+	}
+
+	private static class OtherEvent
+	{
+	}
+
+	private static class TestSubscriber
+	{
+		private final List<String> calls;
+		private final String name;
+
+		TestSubscriber(List<String> calls, String name)
+		{
+			this.calls = calls;
+			this.name = name;
+		}
+
+		@Subscribe
+		public void onTestEvent(TestEvent event)
+		{
+			calls.add(name);
+		}
+	}
+
+	@Test
+	public void testPostInOrder()
+	{
+		List<String> calls = new ArrayList<>();
+		EventBus eventBus = new EventBus();
+
+		TestSubscriber a = new TestSubscriber(calls, "a");
+		TestSubscriber b = new TestSubscriber(calls, "b");
+		TestSubscriber c = new TestSubscriber(calls, "c");
+		eventBus.register(a);
+		eventBus.register(b);
+		eventBus.register(c);
+
+		eventBus.post(new TestEvent());
+		eventBus.post(new OtherEvent());
+		assertEquals(Arrays.asList("a", "b", "c"), calls);
+
+		calls.clear();
+		eventBus.unregister(b);
+		eventBus.post(new TestEvent());
+		assertEquals(Arrays.asList("a", "c"), calls);
+
+		calls.clear();
+		eventBus.unregister(a);
+		eventBus.unregister(c);
+		eventBus.post(new TestEvent());
+		assertTrue(calls.isEmpty());
+	}
+
+	@Test
+	public void testProfiling()
+	{
+		List<String> calls = new ArrayList<>();
+		EventBus eventBus = new EventBus();
+		eventBus.register(new TestSubscriber(calls, "a"));
+
+		eventBus.post(new TestEvent());
+		assertTrue(eventBus.getSubscriberStats().isEmpty());
+
+		eventBus.setProfiling(true);
+		eventBus.post(new TestEvent());
+		eventBus.post(new TestEvent());
+
+		List<SubscriberStats> stats = eventBus.getSubscriberStats();
+		assertEquals(1, stats.size());
+		assertEquals(TestEvent.class, stats.get(0).getEventType());
+		assertEquals("TestSubscriber.onTestEvent", stats.get(0).getSubscriber());
+		assertEquals(2, stats.get(0).getInvocations());
+
+		eventBus.resetSubscriberStats();
+		assertTrue(eventBus.getSubscriberStats().isEmpty());
+	}
+}
@@ -45,6 +45,7 @@ import net.runelite.api.Ignore;
 import net.runelite.api.IndexDataBase;
 import net.runelite.api.IndexedSprite;
 import net.runelite.api.InventoryID;
+import net.runelite.api.Menu;
 import net.runelite.api.MenuAction;
 import static net.runelite.api.MenuAction.PLAYER_EIGTH_OPTION;
 import static net.runelite.api.MenuAction.PLAYER_FIFTH_OPTION;
@@ -167,6 +168,9 @@ public abstract class RSClientMixin implements RSClient
 	@Inject
 	private static int oldMenuEntryCount;
 
+	@Inject
+	private static Menu menu;
+
 	@Inject
 	private static RSItem lastItemDespawn;
 
@@ -565,6 +569,8 @@ public abstract class RSClientMixin implements RSClient
 	@Override
 	public MenuEntry[] getMenuEntries()
 	{
+		commitMenu();
+
 		int count = getMenuOptionCount();
 		String[] menuOptions = getMenuOptions();
 		String[] menuTargets = getMenuTargets();
@@ -616,6 +622,47 @@ public abstract class RSClientMixin implements RSClient
 
 		setMenuOptionCount(count);
 		oldMenuEntryCount = count;
+
+		if (menu != null)
+		{
+			menu.reset(count);
+		}
+	}
+
+	@Inject
+	@Override
+	public Menu getMenu()
+	{
+		assert isClientThread() : "getMenu must be called on client thread";
+
+		if (menu == null)
+		{
+			menu = new Menu(getMenuOptions(), getMenuTargets(), getMenuIdentifiers(), getMenuTypes(),
+				getMenuActionParams0(), getMenuActionParams1(), getMenuForceLeftClick());
+		}
+
+		if (!menu.isDirty())
+		{
+			menu.reset(getMenuOptionCount());
+		}
+
+		return menu;
+	}
+
+	@Inject
+	@Override
+	public void commitMenu()
+	{
+		if (menu == null || !menu.isDirty())
+		{
+			return;
+		}
+
+		int count = menu.size();
+		menu.reset(count);
+		// update the old count first so the field hook does not see the new entries as added by the client
+		oldMenuEntryCount = count;
+		setMenuOptionCount(count);
 	}
 
 	@FieldHook("menuOptionCount")
@@ -627,6 +674,12 @@ public abstract class RSClientMixin implements RSClient
 
 		oldMenuEntryCount = newCount;
 
+		if (menu != null)
+		{
+			// the client has changed the menu itself, so any uncommitted edits are stale
+			menu.reset(newCount);
+		}
+
 		if (newCount == oldCount + 1)
 		{
 			MenuEntryAdded event = new MenuEntryAdded(
@@ -639,6 +692,7 @@ public abstract class RSClientMixin implements RSClient
 			);
 
 			client.getCallbacks().post(event);
+			client.commitMenu();
 		}
 	}
 
@@ -1265,6 +1319,7 @@ public abstract class RSClientMixin implements RSClient
 		final MenuOpened event = new MenuOpened();
 		event.setMenuEntries(getMenuEntries());
 		callbacks.post(event);
+		commitMenu();
 	}
 
 	@Inject
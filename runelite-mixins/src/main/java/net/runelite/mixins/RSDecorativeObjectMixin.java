@@ -112,6 +112,13 @@ public abstract class RSDecorativeObjectMixin implements RSDecorativeObject
 		return Perspective.getClickbox(client, getModel(), getOrientation(), getLocalLocation());
 	}
 
+	@Inject
+	@Override
+	public Polygon getClickboxHull()
+	{
+		return Perspective.getClickboxHull(client, getModel(), getOrientation(), getLocalLocation());
+	}
+
 	@Inject
 	@Override
 	public Polygon getConvexHull()
@@ -83,6 +83,13 @@ public abstract class RSGameObjectMixin implements RSGameObject
 		return Perspective.getClickbox(client, getModel(), getRsOrientation(), getLocalLocation());
 	}
 
+	@Inject
+	@Override
+	public Polygon getClickboxHull()
+	{
+		return Perspective.getClickboxHull(client, getModel(), getRsOrientation(), getLocalLocation());
+	}
+
 	@Inject
 	@Override
 	public Polygon getConvexHull()
@@ -24,6 +24,7 @@
  */
 package net.runelite.mixins;
 
+import java.awt.Polygon;
 import java.awt.geom.Area;
 import net.runelite.api.Model;
 import net.runelite.api.Perspective;
@@ -82,4 +83,11 @@ public abstract class RSGroundObjectMixin implements RSGroundObject
 	{
 		return Perspective.getClickbox(client, getModel(), 0, getLocalLocation());
 	}
+
+	@Inject
+	@Override
+	public Polygon getClickboxHull()
+	{
+		return Perspective.getClickboxHull(client, getModel(), 0, getLocalLocation());
+	}
 }
@@ -24,6 +24,7 @@
  */
 package net.runelite.mixins;
 
+import java.awt.Polygon;
 import java.awt.geom.Area;
 import net.runelite.api.mixins.Inject;
 import net.runelite.api.mixins.Mixin;
@@ -55,4 +56,11 @@ public abstract class RSItemLayerMixin implements RSItemLayer
 	{
 		throw new UnsupportedOperationException();
 	}
+
+	@Inject
+	@Override
+	public Polygon getClickboxHull()
+	{
+		throw new UnsupportedOperationException();
+	}
 }
@@ -24,6 +24,7 @@
  */
 package net.runelite.mixins;
 
+import java.awt.Polygon;
 import java.awt.geom.Area;
 import net.runelite.api.Model;
 import net.runelite.api.Perspective;
@@ -31,6 +32,7 @@ import net.runelite.api.Renderable;
 import net.runelite.api.mixins.Inject;
 import net.runelite.api.mixins.Mixin;
 import net.runelite.api.mixins.Shadow;
+import net.runelite.api.model.Jarvis;
 import net.runelite.rs.api.RSClient;
 import net.runelite.rs.api.RSWallObject;
 
@@ -121,4 +123,32 @@ public abstract class RSWallObjectMixin implements RSWallObject
 
 		return clickbox;
 	}
+
+	@Inject
+	@Override
+	public Polygon getClickboxHull()
+	{
+		Polygon hullA = Perspective.getClickboxHull(client, getModelA(), getOrientationA(), getLocalLocation());
+		Polygon hullB = Perspective.getClickboxHull(client, getModelB(), getOrientationB(), getLocalLocation());
+
+		if (hullA == null)
+		{
+			return hullB;
+		}
+
+		if (hullB == null)
+		{
+			return hullA;
+		}
+
+		int count = hullA.npoints + hullB.npoints;
+		int[] xs = new int[count];
+		int[] ys = new int[count];
+		System.arraycopy(hullA.xpoints, 0, xs, 0, hullA.npoints);
+		System.arraycopy(hullA.ypoints, 0, ys, 0, hullA.npoints);
+		System.arraycopy(hullB.xpoints, 0, xs, hullA.npoints, hullB.npoints);
+		System.arraycopy(hullB.ypoints, 0, ys, hullA.npoints, hullB.npoints);
+
+		return Jarvis.convexHull(xs, ys, count);
+	}
 }